@@ -10,6 +10,7 @@ package org.csstudio.alarm.beast.msghist.rdb;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -51,6 +52,8 @@ public class MessageRDB
             final String password, final String schema ) throws Exception
     {
         rdb_util = RDBUtil.connect(url, user, password, true);
+        // SQL errors are reported, so connection only needs to be tested every once in a while
+        rdb_util.setValidation(RDBUtil.Validation.INTERVAL, RDBUtil.DEFAULT_VALIDATION_MILLIS);
         sql = new SQL(rdb_util, schema);
     }
 
@@ -82,10 +85,18 @@ public class MessageRDB
         final ArrayList<Message> messages = new ArrayList<Message>();
         // Create new select statement
         final String sql_txt = sql.createSelect(rdb_util, filters);
-        final Connection connection = rdb_util.getConnection();
-        connection.setReadOnly(true);
-        final PreparedStatement statement =
-                connection.prepareStatement(sql_txt);
+        final PreparedStatement statement;
+        try
+        {
+            final Connection connection = rdb_util.getConnection();
+            connection.setReadOnly(true);
+            statement = connection.prepareStatement(sql_txt);
+        }
+        catch (SQLException ex)
+        {
+            rdb_util.reportError(ex);
+            throw ex;
+        }
         try
         {
             int parm = 1;
@@ -181,6 +192,12 @@ public class MessageRDB
                 messages.add(createMessage(++sequence, -1, props));
             }
         }
+        catch (SQLException ex)
+        {
+            // Have next getConnection() check the connection
+            rdb_util.reportError(ex);
+            throw ex;
+        }
         finally
         {
             statement.close();
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.server;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.csstudio.alarm.beast.SeverityLevel;
+import org.csstudio.alarm.beast.WorkQueue;
+import org.junit.Test;
+
+/** Alarm storm on the {@link WorkQueue}
+ *
+ *  <p>Several threads post updates for many chattering
+ *  {@link AlarmPV}s to the work queue,
+ *  which the 'main' thread executes.
+ *  With updates keyed by PV name, the queue depth is limited
+ *  to the number of PVs, while without coalescing
+ *  the queue keeps growing when the main thread can't keep up.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class WorkQueueStormDemo
+{
+    private static final int PVS = 1000;
+    private static final int THREADS = 4;
+    private static final int SECONDS = 5;
+
+    /** Delay between updates posted by each thread */
+    private static final long UPDATE_NANOS = 20000;
+
+    private static final SeverityLevel[] severities =
+    {
+        SeverityLevel.OK, SeverityLevel.MINOR, SeverityLevel.MAJOR, SeverityLevel.OK
+    };
+
+    private void runStorm(final boolean coalesce) throws Exception
+    {
+        final ServerTreeItem root = new ServerTreeItem(null, "Storm", 0, null);
+        final AlarmPV[] pvs = new AlarmPV[PVS];
+        final Instant now = Instant.now();
+        for (int i=0; i<PVS; ++i)
+            pvs[i] = new AlarmPV(null, root, i+1, "storm" + i, "Storm PV " + i,
+                                 true, true, false, 0, 0, 0, null,
+                                 SeverityLevel.OK, "", SeverityLevel.OK, "", "0", now);
+
+        final WorkQueue queue = new WorkQueue();
+        final AtomicBoolean run = new AtomicBoolean(true);
+        final AtomicLong posted = new AtomicLong();
+        final AtomicLong executed = new AtomicLong();
+        final Thread[] producers = new Thread[THREADS];
+        for (int t=0; t<THREADS; ++t)
+        {
+            final int offset = t;
+            producers[t] = new Thread(() ->
+            {
+                int i = offset;
+                while (run.get())
+                {
+                    final AlarmPV pv = pvs[i % PVS];
+                    final AlarmState state = new AlarmState(severities[i % severities.length],
+                                                            "Storm", Integer.toString(i), Instant.now());
+                    final Runnable update = () ->
+                    {
+                        pv.getAlarmLogic().computeNewState(state);
+                        executed.incrementAndGet();
+                    };
+                    if (coalesce)
+                        queue.executeReplacable(pv.getName(), update);
+                    else
+                        queue.execute(update);
+                    posted.incrementAndGet();
+                    i += THREADS;
+                    LockSupport.parkNanos(UPDATE_NANOS);
+                }
+            }, "Storm " + t);
+            producers[t].start();
+        }
+
+        int max_size = 0;
+        long max_age = 0;
+        final long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(SECONDS);
+        while (System.currentTimeMillis() < end)
+        {
+            max_size = Math.max(max_size, queue.size());
+            max_age = Math.max(max_age, queue.getOldestAge());
+            queue.performQueuedCommands(100);
+        }
+        run.set(false);
+        for (Thread producer : producers)
+            producer.join();
+        queue.performQueuedCommands();
+
+        System.out.println(coalesce ? "Coalesced by PV name:" : "Plain queue:");
+        System.out.format("Posted   : %10d (%.1f per sec)\n", posted.get(), posted.get() / (double)SECONDS);
+        System.out.format("Executed : %10d (%.1f per sec)\n", executed.get(), executed.get() / (double)SECONDS);
+        System.out.format("Coalesced: %10d\n", queue.getCoalescedCount());
+        System.out.format("Max. queue size %d, oldest command %d ms\n", max_size, max_age);
+    }
+
+    @Test
+    public void testStorm() throws Exception
+    {
+        runStorm(false);
+        runStorm(true);
+    }
+}
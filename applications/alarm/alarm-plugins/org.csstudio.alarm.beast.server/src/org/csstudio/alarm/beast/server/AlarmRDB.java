@@ -12,16 +12,17 @@ import static org.csstudio.alarm.beast.server.Activator.logger;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 import java.util.logging.Level;
 
 import org.csstudio.alarm.beast.SQL;
 import org.csstudio.alarm.beast.SeverityLevel;
 import org.csstudio.alarm.beast.TimestampHelper;
+import org.csstudio.alarm.beast.client.AADataStructure;
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot;
 import org.csstudio.alarm.beast.server.AlarmServer.Update;
 import org.csstudio.platform.utility.rdb.RDBUtil;
 
@@ -68,6 +69,8 @@ public class AlarmRDB
     {
         this.server = server;
         rdb = RDBUtil.connect(url, user, password, true);
+        // SQL errors are reported, so connection only needs to be tested every once in a while
+        rdb.setValidation(RDBUtil.Validation.INTERVAL, RDBUtil.DEFAULT_VALIDATION_MILLIS);
         sql = new SQL(rdb, schema);
         connection = rdb.getConnection();
         this.root_name = root_name;
@@ -89,190 +92,159 @@ public class AlarmRDB
      *  @throws Exception on error
      */
     public ServerTreeItem readConfiguration() throws Exception
+    {
+        return createAlarmTree(readConfigurationSnapshot());
+    }
+
+    /** Read alarm configuration as plain data
+     *  @return {@link AlarmConfigurationSnapshot}
+     *  @throws Exception on error
+     */
+    public AlarmConfigurationSnapshot readConfigurationSnapshot() throws Exception
     {
         final Connection conn = rdb.getConnection();
         // Disabling the auto-reconnect is about 15% faster, and we don't
         // expect a timeout while we read the configuration.
         rdb.setAutoReconnect(false);
-
-        final PreparedStatement statement =
-            conn.prepareStatement(sql.sel_configuration_by_name);
-
-        // Get root element
-        final ServerTreeItem root;
         try
         {
-            statement.setString(1, root_name);
-            final ResultSet result = statement.executeQuery();
-            if (!result.next())
-                throw new Exception("Unknown alarm tree root " + root_name);
-            final int id = result.getInt(1);
-            result.close();
-            root = new ServerTreeItem(null, root_name, id, null);
-        }
-        finally
-        {
-            statement.close();
-        }
+            // Get root element
+            final int id;
+            final PreparedStatement statement =
+                conn.prepareStatement(sql.sel_configuration_by_name);
+            try
+            {
+                statement.setString(1, root_name);
+                final ResultSet result = statement.executeQuery();
+                if (!result.next())
+                    throw new Exception("Unknown alarm tree root " + root_name);
+                id = result.getInt(1);
+                result.close();
+            }
+            finally
+            {
+                statement.close();
+            }
 
-        // Fetch children
-        final PreparedStatement sel_items_by_parent =
-            conn.prepareStatement(sql.sel_items_by_parent);
-        try
+            // Fetch all items with a few queries
+            final AlarmConfigurationSnapshot snapshot =
+                AlarmConfigurationSnapshot.read(rdb, sql, id, root_name);
+
+            // In transactional mode (Connection.setAutoCommit(false)),
+            // even SELECTs needed a commit() to end the transaction.
+            // Otherwise the next 'SELECT' would get the same information.
+            // Usually, there will be some alarm state updates, each committed,
+            // to assert that a later readConfiguration() call will get the latest
+            // config, but in the rare case that there were no alarm state changes
+            // after reading the original configuration,
+            // a newly added PV will not be found in the next readConfiguration() call
+            // because we would still be in the previous transaction.
+            if (! conn.getAutoCommit())
+                conn.commit();
+            return snapshot;
+        }
+        catch (SQLException ex)
         {
-            readChildren(root, sel_items_by_parent);
+            rdb.reportError(ex);
+            throw ex;
         }
         finally
         {
-            sel_items_by_parent.close();
+            // Re-enable auto-reconnect
+            rdb.setAutoReconnect(true);
         }
+    }
 
-        // In transactional mode (Connection.setAutoCommit(false)),
-        // even SELECTs needed a commit() to end the transaction.
-        // Otherwise the next 'SELECT' would get the same information.
-        // Usually, there will be some alarm state updates, each committed,
-        // to assert that a later readConfiguration() call will get the latest
-        // config, but in the rare case that there were no alarm state changes
-        // after reading the original configuration,
-        // a newly added PV will not be found in the next readConfiguration() call
-        // because we would still be in the previous transaction.
-        if (! conn.getAutoCommit())
-            conn.commit();
-
-        // Re-enable auto-reconnect
-        rdb.setAutoReconnect(true);
-
+    /** Create alarm tree hierarchy
+     *  @param snapshot Alarm configuration, read from RDB or snapshot file
+     *  @return Root element of the alarm tree hierarchy
+     *  @throws Exception on error
+     */
+    public ServerTreeItem createAlarmTree(final AlarmConfigurationSnapshot snapshot) throws Exception
+    {
+        final AlarmConfigurationSnapshot.Item root_item = snapshot.getRoot();
+        final ServerTreeItem root = new ServerTreeItem(null, root_item.name, root_item.id, null);
+        createChildren(snapshot, root, root_item);
         root.check();
-
         return root;
     }
 
-    /** Read alarm tree hierarchy
+    /** Create alarm tree hierarchy
+     *  @param snapshot Alarm configuration
      *  @param parent Parent entry
-     *  @param sel_items_by_parent Prepared statement for fetching child elements
+     *  @param parent_item Configuration of parent entry
      *  @throws Exception on error
      */
-    private void readChildren(final ServerTreeItem parent, final PreparedStatement sel_items_by_parent) throws Exception
+    private void createChildren(final AlarmConfigurationSnapshot snapshot,
+            final ServerTreeItem parent, final AlarmConfigurationSnapshot.Item parent_item) throws Exception
     {
-        final PreparedStatement sel_actions = connection.prepareStatement(sql.sel_auto_actions_by_id);
-        final List<ServerTreeItem> recurse_items = new ArrayList<>();
-
-        sel_items_by_parent.setInt(1, parent.getID());
-        final ResultSet result = sel_items_by_parent.executeQuery();
-        try
+        for (AlarmConfigurationSnapshot.Item item : snapshot.getChildren(parent_item))
         {
-            while (result.next())
+            final String name = item.name;
+            if (! item.is_pv)
             {
-                final int id = result.getInt(1);
-                if (result.wasNull())
-                    throw new Exception("NULL component ID");
-                final String name = result.getString(17);
-                if (result.wasNull())
-                    throw new Exception("NULL component Name");
-                // Ignoring config. time from result.getTimestamp(2)
-
-                // Check PV's ID. If null, this is a component, not PV
-                final int pv_id = result.getInt(3);
-                if (result.wasNull())
+                // Check automated action 'sevrpv:' ...
+                String severity_pv = null;
+                for (AADataStructure action : item.automated_actions)
                 {
-                    // Check automated action 'sevrpv:' ...
-                    String severity_pv = null;
-                    sel_actions.setInt(1, id);
-                    try
-                    (
-                        final ResultSet act_res = sel_actions.executeQuery();
-                    )
+                    final String details = action.getDetails();
+                    if (details != null  &&  details.startsWith(SEVRPV))
                     {
-                        while (act_res.next())
-                        {
-                            final String action = act_res.getString(2);
-                            if (action.startsWith(SEVRPV))
-                            {
-                                final String pv_name = action.substring(SEVRPV.length());
-                                if (severity_pv != null)
-                                    logger.log(Level.WARNING, "Multiple severity PVs for '" + name + "', '" +
-                                               severity_pv + "' as well as '" + pv_name + "'");
-                                severity_pv = pv_name;
-                            }
-                        }
+                        final String pv_name = details.substring(SEVRPV.length());
+                        if (severity_pv != null)
+                            logger.log(Level.WARNING, "Multiple severity PVs for '" + name + "', '" +
+                                       severity_pv + "' as well as '" + pv_name + "'");
+                        severity_pv = pv_name;
                     }
-
-                    final ServerTreeItem child = new ServerTreeItem(parent, name, id, severity_pv);
-                    recurse_items.add(child);
-                }
-                else
-                {   // Handle PV
-                    if (id != pv_id)
-                        throw new Exception("Internal RDB error: Item '" + name + "' as ID " + id + " but also PV ID " + pv_id);
-                    // Easy results
-                    String description = result.getString(4);
-                    // Description should not be empty
-                    if (result.wasNull() || description == null || description.length() <= 0)
-                        description = name;
-                    // Default to most features turned 'on'
-                    boolean enabled = result.getBoolean(5);
-                    if (result.wasNull())
-                        enabled = true;
-                    boolean annunciate = result.getBoolean(6);
-                    if (result.wasNull())
-                        annunciate = true;
-                    boolean latch = result.getBoolean(7);
-                    if (result.wasNull())
-                        latch = true;
-                    // 0/null/empty disables these features
-                    final int min_alarm_delay = result.getInt(8);
-                    final int count = result.getInt(9);
-                    final String filter = result.getString(10);
-
-                    // Decode current severity/status IDs, handling NULL as "Ok"
-                    int severity_id = result.getInt(11);
-                    final SeverityLevel current_severity = result.wasNull()
-                        ? SeverityLevel.OK
-                        : severity_mapping.getSeverityLevel(severity_id);
-
-                    int status_id = result.getInt(12);
-                    final String current_status = result.wasNull()
-                        ? ""
-                        : message_mapping.findMessageById(status_id);
-
-                    // Alarm severity/status
-                    severity_id = result.getInt(13);
-                    final SeverityLevel severity = result.wasNull()
-                        ? SeverityLevel.OK
-                        : severity_mapping.getSeverityLevel(severity_id);
-
-                    status_id = result.getInt(14);
-                    final String status = result.wasNull()
-                        ? ""
-                        : message_mapping.findMessageById(status_id);
-
-                    // Alarm value, time
-                    final String value = result.getString(15);
-
-                    final Timestamp time = result.getTimestamp(16);
-                    final Instant timestamp = result.wasNull()
-                        ? Instant.now()
-                        : TimestampHelper.toEPICSTime(time);
-
-                    final int global_delay = AlarmServerPreferences.getGlobalAlarmDelay();
-
-                    new AlarmPV(server, parent, id, name, description,
-                            enabled, latch, annunciate, min_alarm_delay, count, global_delay, filter,
-                            current_severity, current_status, severity, status, value, timestamp);
                 }
+
+                final ServerTreeItem child = new ServerTreeItem(parent, name, item.id, severity_pv);
+                createChildren(snapshot, child, item);
+            }
+            else
+            {   // Handle PV
+                // Description should not be empty
+                String description = item.description;
+                if (description == null || description.length() <= 0)
+                    description = name;
+                // Default to most features turned 'on'
+                final boolean enabled = item.enabled == null ? true : item.enabled;
+                final boolean annunciate = item.annunciate == null ? true : item.annunciate;
+                final boolean latch = item.latch == null ? true : item.latch;
+                // 0/null/empty disables these features
+                final int min_alarm_delay = item.delay;
+                final int count = item.count;
+                final String filter = item.filter;
+
+                // Handle NULL severity/status as "Ok"
+                final SeverityLevel current_severity = item.current_severity == null
+                    ? SeverityLevel.OK
+                    : item.current_severity;
+                final String current_status = item.current_status == null
+                    ? ""
+                    : item.current_status;
+
+                // Alarm severity/status
+                final SeverityLevel severity = item.severity == null
+                    ? SeverityLevel.OK
+                    : item.severity;
+                final String status = item.status == null
+                    ? ""
+                    : item.status;
+
+                // Alarm value, time
+                final String value = item.value;
+                final Instant timestamp = item.alarm_time == null
+                    ? Instant.now()
+                    : item.alarm_time;
+
+                final int global_delay = AlarmServerPreferences.getGlobalAlarmDelay();
+
+                new AlarmPV(server, parent, item.id, name, description,
+                        enabled, latch, annunciate, min_alarm_delay, count, global_delay, filter,
+                        current_severity, current_status, severity, status, value, timestamp);
             }
         }
-        finally
-        {
-            result.close();
-            sel_actions.close();
-        }
-
-        // Recurse to children
-        // Cannot do that inside the above while() because that would reuse
-        // the statement of the current ResultSet
-        for (ServerTreeItem child : recurse_items)
-            readChildren(child, sel_items_by_parent);
     }
 
     /** Read configuration for PV, update it from RDB
@@ -281,9 +253,11 @@ public class AlarmRDB
      */
     public void readConfigurationUpdate(final AlarmPV pv) throws Exception
     {
-        final PreparedStatement statement =
-            rdb.getConnection().prepareStatement(sql.sel_pv_by_id);
         try
+        (
+            final PreparedStatement statement =
+                rdb.getConnection().prepareStatement(sql.sel_pv_by_id);
+        )
         {
             statement.setInt(1, pv.getID());
             final ResultSet result = statement.executeQuery();
@@ -298,9 +272,10 @@ public class AlarmRDB
             pv.getAlarmLogic().setCount(result.getInt(6));
             pv.setEnablement(enabled, filter);
         }
-        finally
+        catch (SQLException ex)
         {
-            statement.close();
+            rdb.reportError(ex);
+            throw ex;
         }
     }
 
@@ -443,6 +418,7 @@ public class AlarmRDB
         }
         catch (Exception e)
         {
+            rdb.reportError(e);
             rollbackBatchUpdate(actual_connection,updateStateStatement);
             throw e;
         }
@@ -508,6 +484,7 @@ public class AlarmRDB
         }
         catch (Exception e)
         {
+            rdb.reportError(e);
             rollbackBatchUpdate(actual_connection, updateGlobalStatement);
             throw e;
         }
@@ -539,6 +516,7 @@ public class AlarmRDB
         }
         catch(Exception e)
         {
+            rdb.reportError(e);
             actual_connection.rollback();
             throw e;
         }
@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast.server;
 
+import java.io.File;
 import java.io.PrintStream;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -25,6 +26,7 @@ import org.csstudio.alarm.beast.Preferences;
 import org.csstudio.alarm.beast.SeverityLevel;
 import org.csstudio.alarm.beast.TreeItem;
 import org.csstudio.alarm.beast.WorkQueue;
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot;
 import org.csstudio.apputil.time.BenchmarkTimer;
 import org.csstudio.logging.JMSLogMessage;
 import org.eclipse.osgi.util.NLS;
@@ -155,6 +157,11 @@ public class AlarmServer implements Runnable
      */
     private Map<String, AlarmPV> pv_map = new HashMap<String, AlarmPV>();
 
+    /** Configuration read from snapshot file that has not been compared with the RDB,
+     *  or <code>null</code>
+     */
+    private volatile AlarmConfigurationSnapshot unconfirmed_snapshot = null;
+
     /** Indicator for communication errors */
     private volatile boolean had_RDB_error = false;
 
@@ -183,7 +190,7 @@ public class AlarmServer implements Runnable
                 Preferences.getRDB_Schema(),
                 root_name);
         messenger = new ServerCommunicator(this, work_queue, root_name);
-        readConfiguration();
+        readConfiguration(true);
     }
 
     /** @return Name of configuration root element */
@@ -192,6 +199,12 @@ public class AlarmServer implements Runnable
         return root_name;
     }
 
+    /** @return Work queue of the 'main' thread */
+    public WorkQueue getWorkQueue()
+    {
+        return work_queue;
+    }
+
     /** Set maintenance mode.
      *  @param maintenance_mode
      *  @see AlarmLogic#getMaintenanceMode()
@@ -229,7 +242,9 @@ public class AlarmServer implements Runnable
             alarm_tree.dump(out);
         }
 
-        out.println("Work queue size: " + work_queue.size());
+        out.println("Work queue size: " + work_queue.size() +
+                    ", coalesced: " + work_queue.getCoalescedCount() +
+                    ", oldest: " + work_queue.getOldestAge() + " ms");
 
         // Log memory usage in MB
         final double free = Runtime.getRuntime().freeMemory() / (1024.0*1024.0);
@@ -279,6 +294,11 @@ public class AlarmServer implements Runnable
         messenger.start();
         messenger.sendAnnunciation(Messages.StartupMessage);
         startPVs();
+        reconcileSnapshot();
+        // Snapshot written by an earlier stop() is outdated once the server runs
+        final File snapshot_file = getSnapshotFile();
+        if (snapshot_file != null)
+            snapshot_file.delete();
 
         // Conditionally enable nagging
         double nag_period;
@@ -403,6 +423,7 @@ public class AlarmServer implements Runnable
             Activator.getLogger().log(Level.SEVERE, "Error committing state update batches.",e);
             had_RDB_error = true;
         }
+        writeSnapshot();
     }
 
     /** Stop PVs */
@@ -419,17 +440,126 @@ public class AlarmServer implements Runnable
         SeverityPVHandler.stop();
     }
 
-    /** Read the initial alarm configuration
+    /** @return Snapshot file for the configuration or <code>null</code> */
+    private File getSnapshotFile()
+    {
+        final File directory = Preferences.getConfigSnapshotDirectory();
+        if (directory == null)
+            return null;
+        return AlarmConfigurationSnapshot.getSnapshotFile(directory, root_name, AlarmConfigurationSnapshot.SERVER);
+    }
+
+    /** Read configuration from snapshot file or RDB
+     *
+     *  <p>A snapshot file is written when the server stops,
+     *  after all alarm state updates have been written to the RDB,
+     *  so it also has the latest alarm state.
+     *  It is deleted once used, because after a crash
+     *  the alarm state in a snapshot might be outdated.
+     *
+     *  @param use_snapshot Use snapshot file if available?
+     *  @return Alarm configuration
+     *  @throws Exception on error
+     */
+    private AlarmConfigurationSnapshot readConfigurationSnapshot(final boolean use_snapshot) throws Exception
+    {
+        final File file = getSnapshotFile();
+        if (use_snapshot  &&  file != null  &&  file.canRead())
+        {
+            try
+            {
+                final AlarmConfigurationSnapshot snapshot = AlarmConfigurationSnapshot.read(file);
+                file.delete();
+                if (! root_name.equals(snapshot.getRoot().name))
+                    throw new Exception("Snapshot is for '" + snapshot.getRoot().name + "'");
+                Activator.getLogger().log(Level.INFO, "Using configuration snapshot {0} of {1}",
+                                          new Object[] { file, snapshot.getCreated() });
+                unconfirmed_snapshot = snapshot;
+                return snapshot;
+            }
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.WARNING,
+                    "Cannot use configuration snapshot " + file + ", reading RDB", ex);
+            }
+        }
+        unconfirmed_snapshot = null;
+        return rdb.readConfigurationSnapshot();
+    }
+
+    /** Compare configuration from snapshot file with RDB in background,
+     *  re-loading the configuration if it changed
+     */
+    private void reconcileSnapshot()
+    {
+        final AlarmConfigurationSnapshot snapshot = unconfirmed_snapshot;
+        if (snapshot == null)
+            return;
+        final Thread thread = new Thread(() ->
+        {
+            try
+            {
+                final AlarmConfigurationSnapshot current = rdb.readConfigurationSnapshot();
+                if (snapshot != unconfirmed_snapshot)
+                    return;
+                unconfirmed_snapshot = null;
+                if (current.isSameConfiguration(snapshot))
+                {
+                    Activator.getLogger().info("Configuration snapshot matches RDB");
+                    return;
+                }
+                Activator.getLogger().info("Configuration changed since snapshot, re-loading configuration");
+                work_queue.execute(() ->
+                {
+                    try
+                    {
+                        updateConfig(null);
+                    }
+                    catch (Exception ex)
+                    {
+                        Activator.getLogger().log(Level.SEVERE, "Cannot re-load configuration", ex);
+                    }
+                });
+            }
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.WARNING, "Cannot compare configuration snapshot with RDB", ex);
+            }
+        }, "AlarmConfigSnapshotCheck");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Write configuration with latest alarm state to snapshot file */
+    private void writeSnapshot()
+    {
+        final File file = getSnapshotFile();
+        if (file == null  ||  had_RDB_error)
+            return;
+        try
+        {
+            file.getParentFile().mkdirs();
+            rdb.readConfigurationSnapshot().write(file);
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Cannot write configuration snapshot " + file, ex);
+        }
+    }
+
+    /** Read the alarm configuration
+     *  @param use_snapshot Use snapshot file if available?
      *  @throws Exception on error
      */
-    private void readConfiguration() throws Exception
+    private void readConfiguration(final boolean use_snapshot) throws Exception
     {
         // Read alarm hierarchy
         final BenchmarkTimer timer = new BenchmarkTimer();
+        final AlarmConfigurationSnapshot config = readConfigurationSnapshot(use_snapshot);
         final int pv_count;
         synchronized (this)
         {
-            alarm_tree = rdb.readConfiguration();
+            alarm_tree = rdb.createAlarmTree(config);
 
             // Determine PVs
             final ArrayList<AlarmPV> tmp_pv_array = new ArrayList<AlarmPV>();
@@ -506,7 +636,7 @@ public class AlarmServer implements Runnable
         if (pv == null)
         {   // Unknown PV, so this must be a new PV, or an area/system/subsys. Read whole config again
             stopPVs();
-            readConfiguration();
+            readConfiguration(false);
             startPVs();
             return;
         }
@@ -602,8 +732,9 @@ public class AlarmServer implements Runnable
     public void sendEnablementUpdate(final AlarmPV pv, final boolean enabled)
     {
         messenger.sendEnablementUpdate(pv, enabled);
-        // Handle in separate queue & thread
-        work_queue.execute(new Runnable()
+        // Handle in separate queue & thread.
+        // Only the latest pending update of a PV needs to be written.
+        work_queue.executeReplacable(pv.getName(), new Runnable()
         {
             @Override
             public void run()
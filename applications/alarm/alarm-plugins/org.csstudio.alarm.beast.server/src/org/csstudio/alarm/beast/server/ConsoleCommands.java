@@ -20,6 +20,7 @@ import java.io.PrintStream;
 
 import org.csstudio.alarm.beast.AlarmTreePath;
 import org.csstudio.alarm.beast.TreeItem;
+import org.csstudio.alarm.beast.WorkQueue;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.IPreferencesService;
 import org.eclipse.osgi.framework.console.CommandInterpreter;
@@ -66,6 +67,7 @@ public class ConsoleCommands implements CommandProvider
         buf.append("\tpwd                 - Print working 'directory'\n");
         buf.append("\tcd '/path'          - Change working 'directory'\n");
         buf.append("\tprefs               - List all preferences\n");
+        buf.append("\tqueue               - Show work queue info\n");
         return buf.toString();
     }
 
@@ -169,6 +171,16 @@ public class ConsoleCommands implements CommandProvider
         return null;
     }
 
+    /** 'queue' command */
+    public Object _queue(final CommandInterpreter intp)
+    {
+        final WorkQueue queue = server.getWorkQueue();
+        intp.println("Work queue size   : " + queue.size());
+        intp.println("Coalesced commands: " + queue.getCoalescedCount());
+        intp.println("Oldest command    : " + queue.getOldestAge() + " ms");
+        return null;
+    }
+
     /** 'prefs' command */
     public Object _prefs(final CommandInterpreter intp)
     {
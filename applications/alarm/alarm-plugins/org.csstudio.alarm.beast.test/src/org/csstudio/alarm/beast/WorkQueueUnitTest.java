@@ -100,6 +100,70 @@ public class WorkQueueUnitTest
         assertEquals(0.0, seconds, 0.01);
     }
 
+    @Test
+    public void testReplacable() throws Exception
+    {
+        final WorkQueue queue = new WorkQueue();
+        queue.executeReplacable("a", () -> result += "a1");
+        queue.execute(() -> result += "x");
+        queue.executeReplacable("b", () -> result += "b1");
+        // Replaces "a1", but keeps its position ahead of "x"
+        queue.executeReplacable("a", () -> result += "a2");
+        queue.executeReplacable("b", () -> result += "b2");
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.getCoalescedCount());
+
+        queue.performQueuedCommands();
+        assertEquals("a2xb2", result);
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.getOldestAge());
+
+        // Once executed, the key can be queued again
+        queue.executeReplacable("a", () -> result += "a3");
+        queue.performQueuedCommands();
+        assertEquals("a2xb2a3", result);
+    }
+
+    @Test
+    public void testIfNotPending() throws Exception
+    {
+        final WorkQueue queue = new WorkQueue();
+        final Runnable command = () -> result += "c";
+        for (int i=0; i<5; ++i)
+            queue.executeIfNotPending(command);
+        assertEquals(1, queue.size());
+        queue.performQueuedCommands();
+        assertEquals("c", result);
+    }
+
+    @Test(timeout=5000)
+    public void testWakeup() throws Exception
+    {
+        final WorkQueue queue = new WorkQueue();
+        // Queue a command while the work queue thread waits
+        final Thread thread = new Thread(() ->
+        {
+            try
+            {
+                Thread.sleep(200);
+            }
+            catch (InterruptedException ex)
+            {
+                // Ignore
+            }
+            queue.execute(() -> result += "late");
+        });
+        queue.assertOnThread();
+        thread.start();
+        final long start = System.currentTimeMillis();
+        while (result.isEmpty())
+            queue.performQueuedCommands(10000);
+        final long millis = System.currentTimeMillis() - start;
+        assertEquals("late", result);
+        assertTrue("Woke up after " + millis + " ms", millis < 2000);
+        thread.join();
+    }
+
     // Meant to run in JProfiler, used to
     // determine queue performance
     @Ignore
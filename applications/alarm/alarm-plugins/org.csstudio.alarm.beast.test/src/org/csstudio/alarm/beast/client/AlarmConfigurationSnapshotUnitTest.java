@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.csstudio.alarm.beast.SeverityLevel;
+import org.junit.Test;
+
+/** JUnit test of the {@link AlarmConfigurationSnapshot}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmConfigurationSnapshotUnitTest
+{
+    final private static GDCDataStructure[] NONE = new GDCDataStructure[0];
+    final private static AADataStructure[] NO_ACTIONS = new AADataStructure[0];
+
+    /** @param areas Number of areas
+     *  @param pvs Number of PVs per area
+     *  @param severity Alarm severity of the PVs
+     *  @return Test configuration
+     */
+    private AlarmConfigurationSnapshot createSnapshot(final int areas, final int pvs, final SeverityLevel severity)
+    {
+        return createSnapshot(areas, pvs, severity, 0);
+    }
+
+    /** @param areas Number of areas
+     *  @param pvs Number of PVs per area
+     *  @param severity Alarm severity of the PVs
+     *  @param action_delay Delay of the automated action of each area
+     *  @return Test configuration
+     */
+    private AlarmConfigurationSnapshot createSnapshot(final int areas, final int pvs, final SeverityLevel severity,
+                                                      final int action_delay)
+    {
+        final Instant time = Instant.ofEpochSecond(1500000000, 123456789);
+        final AlarmConfigurationSnapshot.Item root = new AlarmConfigurationSnapshot.Item(1, -1, "Test", null,
+                new GDCDataStructure[] { new GDCDataStructure("Root guidance", "Call 123") }, NONE, NONE, NO_ACTIONS);
+        final Map<Integer, List<AlarmConfigurationSnapshot.Item>> children = new HashMap<>();
+        final List<AlarmConfigurationSnapshot.Item> area_items = new ArrayList<>();
+        int id = 2;
+        for (int a=0; a<areas; ++a)
+        {
+            final AlarmConfigurationSnapshot.Item area = new AlarmConfigurationSnapshot.Item(id++, root.id, "Area " + a, time,
+                    NONE, new GDCDataStructure[] { new GDCDataStructure("Overview", "area.opi") }, NONE,
+                    new AADataStructure[] { new AADataStructure("Summary", "sevrpv:Area" + a, action_delay) });
+            area_items.add(area);
+            final List<AlarmConfigurationSnapshot.Item> pv_items = new ArrayList<>();
+            for (int p=0; p<pvs; ++p)
+                pv_items.add(new AlarmConfigurationSnapshot.Item(id++, area.id, "pv" + a + "_" + p, time, true,
+                        (p % 2 == 0) ? "Description " + p : null, true, p % 3 == 0 ? null : Boolean.FALSE, true,
+                        p, 2, null,
+                        severity, "State \u00B0C", severity, "State", "3.14", time,
+                        new GDCDataStructure[] { new GDCDataStructure("Guidance", "Long guidance text\n".repeat(5000)) },
+                        NONE, new GDCDataStructure[] { new GDCDataStructure("Restart", "restart.sh") }, NO_ACTIONS));
+            children.put(area.id, pv_items);
+        }
+        children.put(root.id, area_items);
+        return new AlarmConfigurationSnapshot(root, children, time);
+    }
+
+    @Test
+    public void testSnapshotFile() throws Exception
+    {
+        final AlarmConfigurationSnapshot snapshot = createSnapshot(5, 100, SeverityLevel.MAJOR, 30);
+        assertEquals(500, snapshot.getPVCount());
+
+        final File file = File.createTempFile("alarm_config", ".snapshot");
+        file.deleteOnExit();
+        snapshot.write(file);
+        final AlarmConfigurationSnapshot copy = AlarmConfigurationSnapshot.read(file);
+        file.delete();
+
+        assertEquals(snapshot, copy);
+        assertEquals(snapshot.getCreated(), copy.getCreated());
+        assertEquals(500, copy.getPVCount());
+        assertEquals("Test", copy.getRoot().name);
+        assertEquals("Call 123", copy.getRoot().guidance[0].getDetails());
+        assertEquals(30, copy.getChildren(copy.getRoot()).get(0).automated_actions[0].getDelay());
+
+        // Child order is preserved
+        final List<AlarmConfigurationSnapshot.Item> areas = copy.getChildren(copy.getRoot());
+        assertEquals(5, areas.size());
+        for (int a=0; a<areas.size(); ++a)
+            assertEquals("Area " + a, areas.get(a).name);
+        final AlarmConfigurationSnapshot.Item pv = copy.getChildren(areas.get(1)).get(3);
+        assertEquals("pv1_3", pv.name);
+        assertTrue(pv.is_pv);
+        assertNull(pv.description);
+        assertNull(pv.annunciate);
+        assertEquals(SeverityLevel.MAJOR, pv.severity);
+        assertEquals("State \u00B0C", pv.current_status);
+        assertEquals(0, copy.getChildren(pv).size());
+    }
+
+    @Test
+    public void testSameConfiguration() throws Exception
+    {
+        final AlarmConfigurationSnapshot snapshot = createSnapshot(3, 10, SeverityLevel.MAJOR);
+
+        // Different alarm state, but same configuration
+        final AlarmConfigurationSnapshot other_state = createSnapshot(3, 10, SeverityLevel.MINOR);
+        assertFalse(snapshot.equals(other_state));
+        assertTrue(snapshot.isSameConfiguration(other_state));
+
+        // Different configuration
+        assertFalse(snapshot.isSameConfiguration(createSnapshot(3, 11, SeverityLevel.MAJOR)));
+        assertFalse(snapshot.isSameConfiguration(createSnapshot(4, 10, SeverityLevel.MAJOR)));
+        // Automated actions only differ in their delay
+        assertFalse(snapshot.isSameConfiguration(createSnapshot(3, 10, SeverityLevel.MAJOR, 30)));
+    }
+
+    @Test
+    public void testInvalidFile() throws Exception
+    {
+        final File file = File.createTempFile("alarm_config", ".snapshot");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file))
+        {
+            out.write("Not a snapshot".getBytes());
+        }
+        try
+        {
+            AlarmConfigurationSnapshot.read(file);
+            fail("Read invalid snapshot");
+        }
+        catch (Exception ex)
+        {
+            assertTrue(ex.getMessage().contains("Invalid"));
+        }
+        file.delete();
+    }
+
+    @Test
+    public void testSnapshotFileNames() throws Exception
+    {
+        final File directory = new File("/tmp");
+        final File server = AlarmConfigurationSnapshot.getSnapshotFile(directory, "Demo Config", AlarmConfigurationSnapshot.SERVER);
+        final File client = AlarmConfigurationSnapshot.getSnapshotFile(directory, "Demo Config", AlarmConfigurationSnapshot.CLIENT);
+        assertEquals("alarm_config_Demo_Config.server.snapshot", server.getName());
+        assertEquals("alarm_config_Demo_Config.client.snapshot", client.getName());
+    }
+}
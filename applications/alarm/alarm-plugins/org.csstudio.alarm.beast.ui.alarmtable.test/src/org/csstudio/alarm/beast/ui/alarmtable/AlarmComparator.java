@@ -15,6 +15,10 @@ import org.csstudio.alarm.beast.client.AlarmTreePV;
 import org.csstudio.alarm.beast.client.GDCDataStructure;
 
 /** Comparator (= table sorter) that compares one column of an alarm.
+ *  <p>
+ *  The table sorts by {@link AlarmSortKey}.
+ *  This comparator is the reference order of the tests,
+ *  comparing the live state of the PVs.
  *  @author Kay Kasemir
  */
 public class AlarmComparator implements Comparator<AlarmTreePV>
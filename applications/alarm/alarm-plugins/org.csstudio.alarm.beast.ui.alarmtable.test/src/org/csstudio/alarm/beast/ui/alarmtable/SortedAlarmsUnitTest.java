@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.alarmtable;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.csstudio.alarm.beast.SeverityLevel;
+import org.csstudio.alarm.beast.client.AlarmTreeItem;
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+import org.csstudio.alarm.beast.client.AlarmTreeRoot;
+import org.junit.Test;
+
+/** JUnit test of the {@link SortedAlarms}
+ *
+ *  <p>Replays an alarm storm, applying the changes incrementally
+ *  and comparing with sorting all alarms by the {@link AlarmComparator}.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SortedAlarmsUnitTest
+{
+    final private static SeverityLevel[] SEVERITIES =
+    {
+        SeverityLevel.OK, SeverityLevel.MINOR, SeverityLevel.MAJOR, SeverityLevel.INVALID,
+        SeverityLevel.MINOR_ACK, SeverityLevel.MAJOR_ACK
+    };
+
+    /** Recorded change of a PV's alarm state */
+    private static class Event
+    {
+        final int pv;
+        final SeverityLevel severity;
+        final Instant time;
+
+        Event(final int pv, final SeverityLevel severity, final Instant time)
+        {
+            this.pv = pv;
+            this.severity = severity;
+            this.time = time;
+        }
+    }
+
+    /** @param count Number of PVs
+     *  @return PVs in an alarm tree
+     */
+    private static AlarmTreePV[] createPVs(final int count)
+    {
+        final AlarmTreeRoot root = new AlarmTreeRoot("Test", 0);
+        final AlarmTreeItem area = new AlarmTreeItem(root, "Area", 1);
+        final AlarmTreePV[] pvs = new AlarmTreePV[count];
+        for (int i=0; i<count; ++i)
+        {
+            pvs[i] = new AlarmTreePV(area, String.format("PV%05d", i), 2 + i);
+            pvs[i].setDescription("Alarm " + (i % 17));
+        }
+        return pvs;
+    }
+
+    /** Create alarm storm: Many PVs enter alarm within a short time,
+     *  changing severity a few times until they return to OK
+     *  @param pv_count Number of PVs
+     *  @param count Number of events
+     *  @return Events
+     */
+    private static List<Event> createStorm(final int pv_count, final int count)
+    {
+        final Random random = new Random(42);
+        final List<Event> events = new ArrayList<>(count);
+        final Instant start = Instant.ofEpochSecond(1500000000);
+        for (int i=0; i<count; ++i)
+        {
+            final SeverityLevel severity = i > count * 9 / 10
+                ? SeverityLevel.OK
+                : SEVERITIES[random.nextInt(SEVERITIES.length)];
+            // Milliseconds between events, so some have the same time stamp
+            events.add(new Event(random.nextInt(pv_count), severity, start.plusMillis(i / 3)));
+        }
+        return events;
+    }
+
+    /** @param pv PV to update
+     *  @param event Event to apply
+     *  @return <code>true</code> if PV is now in alarm
+     */
+    private static boolean apply(final AlarmTreePV pv, final Event event)
+    {
+        final String message = event.severity == SeverityLevel.OK ? "OK" : "Storm";
+        final SeverityLevel current = event.severity.isActive() || event.severity == SeverityLevel.OK
+            ? event.severity
+            : SeverityLevel.OK;
+        // Some PVs have no value
+        final String value = event.pv % 5 == 0 ? null : Integer.toString(event.pv);
+        pv.setAlarmState(current, message, event.severity, message, value, event.time);
+        return event.severity.ordinal() > 0;
+    }
+
+    /** @param sorted Sorted alarms
+     *  @return PVs in sorted alarms
+     */
+    private static AlarmTreePV[] toArray(final SortedAlarms sorted)
+    {
+        final AlarmTreePV[] result = new AlarmTreePV[sorted.size()];
+        for (int i=0; i<result.length; ++i)
+            result[i] = sorted.get(i);
+        return result;
+    }
+
+    /** Check incremental updates against sorting all alarms, for all columns.
+     *  Also checks that the {@link AlarmSortKey} sorts like the {@link AlarmComparator}.
+     */
+    @Test
+    public void testOrder()
+    {
+        final List<Event> events = createStorm(200, 3000);
+        for (ColumnInfo column : ColumnInfo.values())
+            for (boolean up : new boolean[] { true, false })
+            {
+                final Comparator<AlarmTreePV> comparator = AlarmComparator.getComparator(column, up);
+                final AlarmTreePV[] pvs = createPVs(200);
+                final Set<AlarmTreePV> alarms = new LinkedHashSet<>();
+                final SortedAlarms sorted = new SortedAlarms(column, up);
+                AlarmTreePV[] previous = new AlarmTreePV[0];
+                for (int i=0; i<events.size(); ++i)
+                {
+                    final Event event = events.get(i);
+                    final AlarmTreePV pv = pvs[event.pv];
+                    if (apply(pv, event))
+                    {
+                        alarms.add(pv);
+                        sorted.add(pv);
+                    }
+                    else
+                    {
+                        alarms.remove(pv);
+                        sorted.remove(pv);
+                    }
+                    if (i % 10 != 0)
+                        continue;
+
+                    // Compare with all alarms sorted from scratch
+                    final AlarmTreePV[] expected = alarms.toArray(new AlarmTreePV[alarms.size()]);
+                    Arrays.sort(expected, comparator);
+                    final AlarmTreePV[] current = toArray(sorted);
+                    assertArrayEquals(column + (up ? " up" : " down"), expected, current);
+
+                    // Rows outside of the changed range must be unchanged
+                    final int start = sorted.getChangedStart();
+                    final int end = sorted.getChangedEnd();
+                    for (int row=0; row<Math.max(current.length, previous.length); ++row)
+                        if (start < 0  ||  row < start  ||  row > end)
+                            assertSame(row < previous.length ? previous[row] : null,
+                                       row < current.length ? current[row] : null);
+                    sorted.clearChanges();
+                    previous = current;
+                }
+            }
+    }
+
+    @Test
+    public void testUpdate()
+    {
+        final AlarmTreePV[] pvs = createPVs(3);
+        final SortedAlarms sorted = new SortedAlarms(ColumnInfo.PV, true);
+        for (AlarmTreePV pv : pvs)
+            sorted.add(pv);
+        assertEquals(3, sorted.size());
+        assertEquals(0, sorted.getChangedStart());
+        assertEquals(2, sorted.getChangedEnd());
+        sorted.clearChanges();
+
+        // Updating the last PV in place only changes that row
+        sorted.add(pvs[2]);
+        assertEquals(3, sorted.size());
+        assertEquals(2, sorted.getChangedStart());
+        assertEquals(2, sorted.getChangedEnd());
+        sorted.clearChanges();
+
+        // Removing the first PV moves all others
+        sorted.remove(pvs[0]);
+        assertEquals(2, sorted.size());
+        assertSame(pvs[1], sorted.get(0));
+        assertEquals(0, sorted.getChangedStart());
+        assertEquals(2, sorted.getChangedEnd());
+        sorted.clearChanges();
+
+        // Unknown PV is ignored
+        sorted.remove(pvs[0]);
+        assertEquals(-1, sorted.getChangedStart());
+
+        // Different sort order
+        sorted.setSortOrder(ColumnInfo.PV, false);
+        assertSame(pvs[2], sorted.get(0));
+        assertSame(pvs[1], sorted.get(1));
+    }
+
+    /** Replay an alarm storm with 10000 PVs in alarm,
+     *  as the alarm table would during throttled updates.
+     */
+    @Test
+    public void testStorm()
+    {
+        final int pv_count = 10000;
+        final int batch = 500;
+        final List<Event> events = createStorm(pv_count, 200000);
+        final Comparator<AlarmTreePV> comparator = AlarmComparator.getComparator(ColumnInfo.SEVERITY, false);
+
+        // Sort all alarms after each batch of events
+        AlarmTreePV[] pvs = createPVs(pv_count);
+        final Set<AlarmTreePV> alarms = new LinkedHashSet<>();
+        AlarmTreePV[] expected = null;
+        for (int i=0; i<events.size(); ++i)
+        {
+            final Event event = events.get(i);
+            final AlarmTreePV pv = pvs[event.pv];
+            if (apply(pv, event))
+                alarms.add(pv);
+            else
+                alarms.remove(pv);
+            if (i % batch == batch - 1)
+            {
+                expected = alarms.toArray(new AlarmTreePV[alarms.size()]);
+                Arrays.sort(expected, comparator);
+            }
+        }
+
+        // Apply changes of each batch to sorted alarms
+        pvs = createPVs(pv_count);
+        final SortedAlarms sorted = new SortedAlarms(ColumnInfo.SEVERITY, false);
+        final List<AlarmTreePV> changes = new ArrayList<>(batch);
+        int max_alarms = 0;
+        for (int i=0; i<events.size(); ++i)
+        {
+            final Event event = events.get(i);
+            final AlarmTreePV pv = pvs[event.pv];
+            apply(pv, event);
+            changes.add(pv);
+            if (i % batch == batch - 1)
+            {
+                for (AlarmTreePV change : changes)
+                    if (change.getSeverity().ordinal() > 0)
+                        sorted.add(change);
+                    else
+                        sorted.remove(change);
+                changes.clear();
+                sorted.clearChanges();
+                max_alarms = Math.max(max_alarms, sorted.size());
+            }
+        }
+
+        assertEquals(expected.length, sorted.size());
+        for (int i=0; i<expected.length; ++i)
+            assertEquals(expected[i].getName(), sorted.get(i).getName());
+        assertTrue(max_alarms > pv_count / 2);
+    }
+}
@@ -68,7 +68,7 @@ public class AlarmColumnSortingSelector extends SelectionAdapter
         table.setSortDirection(up ? SWT.UP : SWT.DOWN);
         table.setSortColumn(column);
         ((AlarmTableContentProvider)table_viewer.getContentProvider())
-            .setComparator(AlarmComparator.getComparator(col_info, up));
+            .setSortOrder(col_info, up);
 
         if (second_table != null)
         {
@@ -76,7 +76,7 @@ public class AlarmColumnSortingSelector extends SelectionAdapter
             stable.setSortDirection(up ? SWT.UP : SWT.DOWN);
             stable.setSortColumn(secondary_column);
             ((AlarmTableContentProvider)second_table.getContentProvider())
-                .setComparator(AlarmComparator.getComparator(col_info, up));
+                .setSortOrder(col_info, up);
         }
     }
 }
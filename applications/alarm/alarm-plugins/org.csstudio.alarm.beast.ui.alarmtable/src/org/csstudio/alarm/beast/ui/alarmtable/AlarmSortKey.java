@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.alarmtable;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+import org.csstudio.alarm.beast.AnnunciationFormatter;
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+import org.csstudio.alarm.beast.client.GDCDataStructure;
+
+/** Immutable copy of the alarm state of an {@link AlarmTreePV} used to sort it.
+ *  <p>
+ *  The alarm state of a PV changes while it is listed in the table.
+ *  To locate it in the sorted alarms, the state is frozen
+ *  at the time the PV was added to the sorted alarms.
+ *  <p>
+ *  The comparators sort keys by one column, then by time and name.
+ *
+ *  @author agent
+ */
+final class AlarmSortKey
+{
+    final private AlarmTreePV pv;
+    final private String name;
+    final private int current_severity, severity;
+    final private boolean active;
+    final private String current_message, message, description, value;
+    final private Instant timestamp;
+    /** Lower-case title and details of the first guidance entry, <code>null</code> without guidance */
+    final private String guidance_title, guidance_details;
+
+    /** @param pv PV for which to freeze the current alarm state */
+    AlarmSortKey(final AlarmTreePV pv)
+    {
+        this.pv = pv;
+        name = pv.getName();
+        current_severity = pv.getCurrentSeverity().ordinal();
+        current_message = pv.getCurrentMessage();
+        severity = pv.getSeverity().ordinal();
+        active = pv.getSeverity().isActive();
+        message = pv.getMessage();
+        value = pv.getValue();
+        description = AnnunciationFormatter.format(pv.getDescription(),
+                pv.getSeverity().getDisplayName(), value, true);
+        final Instant time = pv.getTimestamp();
+        timestamp = time == null ? Instant.ofEpochSecond(0) : time;
+        final GDCDataStructure[] guidance = pv.getGuidance();
+        if (guidance.length > 0)
+        {
+            guidance_title = guidance[0].getTitle().toLowerCase();
+            guidance_details = guidance[0].getDetails().toLowerCase();
+        }
+        else
+            guidance_title = guidance_details = null;
+    }
+
+    /** @return PV for which this holds the alarm state */
+    AlarmTreePV getPV()
+    {
+        return pv;
+    }
+
+    /** Create comparator for sort keys
+     *
+     *  @param col_info What to use for the comparison
+     *  @param up Up or downward sort?
+     *  @return Comparator of sort keys
+     */
+    static Comparator<AlarmSortKey> getComparator(final ColumnInfo col_info, final boolean up)
+    {
+        // Default compares by time, then name
+        final Comparator<AlarmSortKey> by_time =
+            Comparator.comparing((AlarmSortKey key) -> key.timestamp).thenComparing(key -> key.name);
+        final Comparator<AlarmSortKey> comparator;
+        switch (col_info)
+        {
+        case PV:
+            comparator = Comparator.comparing((AlarmSortKey key) -> key.name).thenComparing(by_time);
+            break;
+        case CURRENT_SEVERITY:
+            comparator = Comparator.comparingInt((AlarmSortKey key) -> key.current_severity).thenComparing(by_time);
+            break;
+        case ICON:
+        case SEVERITY:
+            comparator = Comparator.comparingInt((AlarmSortKey key) -> key.severity).thenComparing(by_time);
+            break;
+        case STATUS:
+            comparator = Comparator.comparing((AlarmSortKey key) -> key.message).thenComparing(by_time);
+            break;
+        case CURRENT_STATUS:
+            comparator = Comparator.comparing((AlarmSortKey key) -> key.current_message).thenComparing(by_time);
+            break;
+        case DESCRIPTION:
+            comparator = Comparator.comparing((AlarmSortKey key) -> key.description).thenComparing(by_time);
+            break;
+        case ACK:
+            // Active alarms first
+            comparator = Comparator.comparing((AlarmSortKey key) -> ! key.active).thenComparing(by_time);
+            break;
+        case VALUE:
+            comparator = Comparator.comparing((AlarmSortKey key) -> key.value,
+                                              Comparator.nullsLast(Comparator.naturalOrder()))
+                                   .thenComparing(by_time);
+            break;
+        case ACTION:
+            comparator = Comparator.comparing((AlarmSortKey key) -> key.guidance_details,
+                                              Comparator.nullsLast(Comparator.naturalOrder()))
+                                   .thenComparing(by_time);
+            break;
+        case ID:
+            comparator = Comparator.comparing((AlarmSortKey key) -> key.guidance_title,
+                                              Comparator.nullsLast(Comparator.naturalOrder()))
+                                   .thenComparing(by_time);
+            break;
+        case TIME:
+        default:
+            comparator = by_time;
+        }
+        return up ? comparator : comparator.reversed();
+    }
+}
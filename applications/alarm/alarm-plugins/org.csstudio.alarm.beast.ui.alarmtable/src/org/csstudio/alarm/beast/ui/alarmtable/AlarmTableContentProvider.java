@@ -7,9 +7,6 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast.ui.alarmtable;
 
-import java.util.Arrays;
-import java.util.Comparator;
-
 import org.csstudio.alarm.beast.client.AlarmTreePV;
 import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.TableViewer;
@@ -23,6 +20,10 @@ import org.eclipse.osgi.util.NLS;
  *  But that resulted in flicker on Linux.
  *  Now the 'input' to the table is actually null, and <code>setAlarms()</code>
  *  is used to keep track of the alarms to display.
+ *  <p>
+ *  Alarms are kept in {@link SortedAlarms}.
+ *  Changes via <code>addAlarm()</code>, <code>removeAlarm()</code>
+ *  only refresh the affected rows instead of sorting and refreshing all alarms.
  *
  *  @author Kay Kasemir
  */
@@ -30,40 +31,86 @@ public class AlarmTableContentProvider implements ILazyContentProvider
 {
     private int alarm_table_row_limit = Preferences.getAlarmTableRowLimit();
     private TableViewer table_viewer;
-    private AlarmTreePV[] alarms;
-    private AlarmTreePV[] orgAlarms;
-    private Comparator<AlarmTreePV> comparator = AlarmComparator.getComparator(ColumnInfo.SEVERITY, false);
+    final private SortedAlarms alarms = new SortedAlarms(ColumnInfo.SEVERITY, false);
+    /** Number of rows in the table, including the info row when over the limit */
+    private int item_count = 0;
+    /** Explanatory entry shown as the last row when over the limit */
+    private AlarmTreePV info;
 
     /** Update the list of alarms to display.
      *  @param alarms
      */
     public void setAlarms(final AlarmTreePV alarms[])
     {
-        this.orgAlarms = alarms;
-        if (alarms == null)
-        {
-            this.alarms = null;
-            table_viewer.setItemCount(0);
-        }
-        else if (alarms.length > alarm_table_row_limit)
-        { // Use only a subset of actual alarms
-            Arrays.sort(alarms, comparator);
-            this.alarms = new AlarmTreePV[alarm_table_row_limit + 1];
-            System.arraycopy(alarms, 0, this.alarms, 0, alarm_table_row_limit);
-            // Add explanatory entry to end
-            final AlarmTreePV info = new AlarmTreePV(null, Messages.AlarmTableRowLimitMessage, -1);
-            info.setDescription(NLS.bind(Messages.AlarmTableRowLimitInfoFmt, alarm_table_row_limit));
-            this.alarms[alarm_table_row_limit] = info;
-            // Sort all but that explanatory entry
-            table_viewer.setItemCount(alarm_table_row_limit + 1);
+        this.alarms.setAlarms(alarms == null ? new AlarmTreePV[0] : alarms);
+        this.alarms.clearChanges();
+        updateItemCount();
+        table_viewer.refresh();
+    }
+
+    /** Add alarm to the list of alarms to display, or update its position.
+     *  Table is updated in {@link #refreshChangedAlarms()}.
+     *  @param pv Alarm to add or update
+     */
+    public void addAlarm(final AlarmTreePV pv)
+    {
+        alarms.add(pv);
+    }
+
+    /** Remove alarm from the list of alarms to display.
+     *  Table is updated in {@link #refreshChangedAlarms()}.
+     *  @param pv Alarm to remove
+     */
+    public void removeAlarm(final AlarmTreePV pv)
+    {
+        alarms.remove(pv);
+    }
+
+    /** Refresh the table rows that changed
+     *  in {@link #addAlarm(AlarmTreePV)}, {@link #removeAlarm(AlarmTreePV)}
+     */
+    public void refreshChangedAlarms()
+    {
+        final int start = alarms.getChangedStart();
+        final int end = alarms.getChangedEnd();
+        alarms.clearChanges();
+        if (start < 0)
+            return;
+        final int old_count = item_count;
+        updateItemCount();
+        // Only the changed rows that remain in the table need to be cleared.
+        // The virtual table then requests those that are visible.
+        final int last = Math.min(end, Math.min(old_count, item_count) - 1);
+        if (start <= last)
+            table_viewer.getTable().clear(start, last);
+    }
+
+    /** @return Number of alarms listed */
+    public int getAlarmCount()
+    {
+        return alarms.size();
+    }
+
+    /** Set the table's item count based on the alarm count and row limit */
+    private void updateItemCount()
+    {
+        final int count;
+        if (alarms.size() > alarm_table_row_limit)
+        {   // Use only a subset of actual alarms, add explanatory entry to end
+            if (info == null)
+            {
+                info = new AlarmTreePV(null, Messages.AlarmTableRowLimitMessage, -1);
+                info.setDescription(NLS.bind(Messages.AlarmTableRowLimitInfoFmt, alarm_table_row_limit));
+            }
+            count = alarm_table_row_limit + 1;
         }
         else
-        {    // Use alarms as received
-            this.alarms = alarms;
-            Arrays.sort(this.alarms, comparator);
-            table_viewer.setItemCount(alarms.length);
+            count = alarms.size();
+        if (count != item_count)
+        {
+            item_count = count;
+            table_viewer.setItemCount(count);
         }
-        table_viewer.refresh();
     }
 
     /**
@@ -74,23 +121,43 @@ public class AlarmTableContentProvider implements ILazyContentProvider
      */
     public void setNumberOfAlarmsLimit(int limit) {
         this.alarm_table_row_limit = limit;
+        info = null;
         if (table_viewer != null)
-            setAlarms(orgAlarms);
+        {
+            updateItemCount();
+            table_viewer.refresh();
+        }
     }
 
     /** @return Alarms to be shown in table */
     public AlarmTreePV[] getAlarms()
     {
-        return alarms;
+        final AlarmTreePV[] result = new AlarmTreePV[item_count];
+        for (int row=0; row<item_count; ++row)
+            result[row] = getAlarm(row);
+        return result;
+    }
+
+    /** @param row Table row
+     *  @return Alarm shown in that row
+     */
+    private AlarmTreePV getAlarm(final int row)
+    {
+        if (row == alarm_table_row_limit)
+            return info;
+        return alarms.get(row);
     }
 
-    /** @param comparator Comparator that's used to sort alarms */
-    public void setComparator(final Comparator<AlarmTreePV> comparator)
+    /** @param col_info Column used to sort alarms
+     *  @param up Up or downward sort?
+     */
+    public void setSortOrder(final ColumnInfo col_info, final boolean up)
     {
-        this.comparator = comparator;
+        alarms.setSortOrder(col_info, up);
+        alarms.clearChanges();
         // trigger refresh
         if (table_viewer != null)
-            setAlarms(orgAlarms);
+            table_viewer.refresh();
     }
 
     /** {@inheritDoc} */
@@ -104,8 +171,8 @@ public class AlarmTableContentProvider implements ILazyContentProvider
     @Override
     public void updateElement(final int row)
     {
-        if (row < alarms.length && !table_viewer.isBusy())
-            table_viewer.replace(alarms[row], row);
+        if (row < item_count && !table_viewer.isBusy())
+            table_viewer.replace(getAlarm(row), row);
     }
 
     /** {@inheritDoc} */
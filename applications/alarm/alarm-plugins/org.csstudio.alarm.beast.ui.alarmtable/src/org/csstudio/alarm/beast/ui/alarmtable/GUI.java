@@ -13,6 +13,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import org.csstudio.alarm.beast.client.AlarmTreeItem;
@@ -28,6 +29,8 @@ import org.csstudio.alarm.beast.ui.actions.ConfigureItemAction;
 import org.csstudio.alarm.beast.ui.actions.DisableComponentAction;
 import org.csstudio.alarm.beast.ui.clientmodel.AlarmClientModel;
 import org.csstudio.alarm.beast.ui.clientmodel.AlarmClientModelListener;
+import org.csstudio.alarm.beast.ui.clientmodel.AlarmDelta;
+import org.csstudio.alarm.beast.ui.clientmodel.AlarmDeltas;
 import org.csstudio.apputil.text.RegExHelper;
 import org.csstudio.security.SecuritySupport;
 import org.csstudio.ui.util.MinSizeTableColumnLayout;
@@ -211,6 +214,25 @@ public class GUI extends Composite implements AlarmClientModelListener
     /** Should the labels with the number of alarms be displayed or not */
     private final boolean show_header;
 
+    /** Sequence number for {@link AlarmClientModel#getAlarmDeltas(long)},
+     *  -1 to request all alarms.
+     *  Only accessed by <code>gui_update</code>
+     */
+    private long alarm_sequence = -1;
+
+    /** Incremented to request an update with all alarms instead of changes */
+    final private AtomicInteger full_update_requests = new AtomicInteger();
+
+    /** Value of <code>full_update_requests</code> at the last full update.
+     *  Only accessed by <code>gui_update</code>
+     */
+    private int full_update_handled = 0;
+
+    /** Number of active, acknowledged alarms that pass the filter.
+     *  Only accessed on UI thread.
+     */
+    private int filtered_active = 0, filtered_acknowledged = 0;
+
     /** GUI updates are throttled to reduce flicker */
     final private GUIUpdateThrottle gui_update = new GUIUpdateThrottle()
     {
@@ -220,12 +242,31 @@ public class GUI extends Composite implements AlarmClientModelListener
             if (display.isDisposed() || model == null)
                 return;
 
-            AlarmTreePV[] rawAlarms = model.getActiveAlarms();
-            final AlarmTreePV[] filteredAlarms = filter(rawAlarms);
-            final int rawAlarmsLength = rawAlarms.length;
-            rawAlarms = model.getAcknowledgedAlarms();
-            final AlarmTreePV[] filteredAcknowledged = filter(rawAlarms);
-            final int rawAcknowledgedAlarmsLength = rawAlarms.length;
+            final int requests = full_update_requests.get();
+            if (requests != full_update_handled)
+            {
+                full_update_handled = requests;
+                alarm_sequence = -1;
+            }
+            final AlarmDeltas deltas = model.getAlarmDeltas(alarm_sequence);
+            alarm_sequence = deltas.getSequence();
+            if (! deltas.isReset())
+            {   // Apply changes to alarms that pass the filter
+                if (deltas.getDeltas().length <= 0)
+                    return;
+                final List<AlarmDelta> changes = new ArrayList<>();
+                for (AlarmDelta delta : deltas.getDeltas())
+                    if (isShown(delta.getPV()))
+                        changes.add(delta);
+                display.syncExec(() ->
+                    updateGUI(deltas.getActiveCount(), deltas.getAcknowledgedCount(), changes));
+                return;
+            }
+
+            final AlarmTreePV[] filteredAlarms = filter(deltas.getActiveAlarms());
+            final int rawAlarmsLength = deltas.getActiveCount();
+            final AlarmTreePV[] filteredAcknowledged = filter(deltas.getAcknowledgedAlarms());
+            final int rawAcknowledgedAlarmsLength = deltas.getAcknowledgedCount();
             final AlarmTreePV[] combinedAlarms;
             if (separate_tables)
                 combinedAlarms = null;
@@ -247,6 +288,7 @@ public class GUI extends Composite implements AlarmClientModelListener
                 // Instead, tell ModelInstanceProvider about the data,
                 // which then updates the table with setItemCount(), refresh(),
                 // as that happens to not flicker.
+                // Later changes are applied incrementally.
                 updateGUI(rawAlarmsLength,filteredAlarms,rawAcknowledgedAlarmsLength,
                         filteredAcknowledged,combinedAlarms);
             });
@@ -904,12 +946,12 @@ public class GUI extends Composite implements AlarmClientModelListener
         display.asyncExec(() -> setErrorMessage(org.csstudio.alarm.beast.ui.Messages.ServerTimeout));
     }
 
-    // For now, the table responds to any changes with a full update
+    // Configuration changes result in a full update
     // @see AlarmClientModelListener
     @Override
     public void newAlarmConfiguration(final AlarmClientModel model)
     {
-        gui_update.trigger();
+        requestFullUpdate();
         display.asyncExec(() ->
         {
             if (model.isServerAlive())
@@ -939,50 +981,131 @@ public class GUI extends Composite implements AlarmClientModelListener
         else
         {
             List<AlarmTreePV> items = new ArrayList<>(alarms.length);
-            AlarmTreeItem item;
             for (AlarmTreePV pv : alarms)
-            {
-                item = pv;
-                do
-                {
-                    if (item == filter_item_parent)
-                    {
-                        items.add(pv);
-                        break;
-                    }
-                    item = item.getParent();
-                } while (item != null && !(item instanceof AlarmTreeRoot));
-
-            }
+                if (isShown(pv))
+                    items.add(pv);
             return items.toArray(new AlarmTreePV[items.size()]);
         }
     }
 
+    /** Request an update with all alarms instead of changes */
+    private void requestFullUpdate()
+    {
+        full_update_requests.incrementAndGet();
+        gui_update.trigger();
+    }
+
+    /** @param pv Alarm
+     *  @return <code>true</code> if alarm is below the filter item
+     */
+    private boolean isShown(final AlarmTreePV pv)
+    {
+        if (filter_item_parent == null || filter_item_parent instanceof AlarmTreeRoot)
+            return true;
+        AlarmTreeItem item = pv;
+        do
+        {
+            if (item == filter_item_parent)
+                return true;
+            item = item.getParent();
+        } while (item != null && !(item instanceof AlarmTreeRoot));
+        return false;
+    }
+
     private void updateGUI(int numberOfRawAlarms, AlarmTreePV[] filteredAlarms,
             int numberOfRawAcknowledgedAlarms, AlarmTreePV[] filteredAcknowledgedAlarms,
             AlarmTreePV[] combinedAlarms)
     {
         if (model == null || active_table_viewer.getTable().isDisposed()) return;
-        //if GUI is currently busy, do not update anything, just trigger another update
+        //if GUI is currently busy, do not update anything, just trigger another full update
         if (active_table_viewer.isBusy()) {
-            gui_update.trigger();
+            requestFullUpdate();
             return;
         }
 
+        filtered_active = filteredAlarms.length;
+        filtered_acknowledged = filteredAcknowledgedAlarms.length;
+        updateHeader(numberOfRawAlarms, numberOfRawAcknowledgedAlarms);
+        if (separate_tables)
+        {
+            ((AlarmTableContentProvider) active_table_viewer.getContentProvider()).setAlarms(filteredAlarms);
+            ((AlarmTableContentProvider) acknowledged_table_viewer.getContentProvider()).setAlarms(
+                    filteredAcknowledgedAlarms);
+        }
+        else
+        {
+            ((AlarmTableContentProvider) active_table_viewer.getContentProvider()).setAlarms(combinedAlarms);
+        }
+    }
+
+    /** Apply changes to the alarms
+     *  @param numberOfRawAlarms Number of active alarms, including those that don't pass the filter
+     *  @param numberOfRawAcknowledgedAlarms Number of acknowledged alarms, including those that don't pass the filter
+     *  @param changes Changes to alarms that pass the filter
+     */
+    private void updateGUI(int numberOfRawAlarms, int numberOfRawAcknowledgedAlarms, List<AlarmDelta> changes)
+    {
+        if (model == null || active_table_viewer.getTable().isDisposed()) return;
+        //if GUI is currently busy, the changes are lost, so trigger a full update
+        if (active_table_viewer.isBusy()) {
+            requestFullUpdate();
+            return;
+        }
+
+        final AlarmTableContentProvider active = (AlarmTableContentProvider) active_table_viewer.getContentProvider();
+        final AlarmTableContentProvider acknowledged = separate_tables
+            ? (AlarmTableContentProvider) acknowledged_table_viewer.getContentProvider()
+            : active;
+        for (AlarmDelta delta : changes)
+        {
+            final AlarmTableContentProvider provider = delta.isAcknowledged() ? acknowledged : active;
+            switch (delta.getType())
+            {
+            case ADDED:
+                if (delta.isAcknowledged())
+                    ++filtered_acknowledged;
+                else
+                    ++filtered_active;
+                provider.addAlarm(delta.getPV());
+                break;
+            case UPDATED:
+                provider.addAlarm(delta.getPV());
+                break;
+            case REMOVED:
+                if (delta.isAcknowledged())
+                    --filtered_acknowledged;
+                else
+                    --filtered_active;
+                provider.removeAlarm(delta.getPV());
+                break;
+            }
+        }
+        updateHeader(numberOfRawAlarms, numberOfRawAcknowledgedAlarms);
+        active.refreshChangedAlarms();
+        if (separate_tables)
+            acknowledged.refreshChangedAlarms();
+    }
+
+    /** Display alarm counts
+     *  @param numberOfRawAlarms Number of active alarms, including those that don't pass the filter
+     *  @param numberOfRawAcknowledgedAlarms Number of acknowledged alarms, including those that don't pass the filter
+     */
+    private void updateHeader(int numberOfRawAlarms, int numberOfRawAcknowledgedAlarms)
+    {
         if (show_header) {
             if (current_alarms.isDisposed())
                 return;
 
             String text = null;
             if (filter_item_parent == null || filter_item_parent instanceof AlarmTreeRoot)
-                text = NLS.bind(Messages.CurrentAlarmsFmtAll, filteredAlarms.length);
+                text = NLS.bind(Messages.CurrentAlarmsFmtAll, filtered_active);
             else
                 text = NLS.bind(Messages.CurrentAlarmsFmt, new Object[]
-                            { filteredAlarms.length, numberOfRawAlarms, filter_item_parent.getPathName() });
+                            { filtered_active, numberOfRawAlarms, filter_item_parent.getPathName() });
             current_alarms.setText(text);
             current_alarms.setToolTipText(text);
 
-            if (filteredAlarms.length != numberOfRawAlarms)
+            if (filtered_active != numberOfRawAlarms)
                 current_alarms.setForeground(current_alarms.getDisplay().getSystemColor(SWT.COLOR_RED));
             else
                 current_alarms.setForeground(null);
@@ -990,30 +1113,20 @@ public class GUI extends Composite implements AlarmClientModelListener
 
 
             if (filter_item_parent == null || filter_item_parent instanceof AlarmTreeRoot)
-                text = NLS.bind(Messages.AcknowledgedAlarmsFmtAll, filteredAcknowledgedAlarms.length);
+                text = NLS.bind(Messages.AcknowledgedAlarmsFmtAll, filtered_acknowledged);
             else
                 text = NLS.bind(Messages.AcknowledgedAlarmsFmt, new Object[]
-                        { filteredAcknowledgedAlarms.length, numberOfRawAcknowledgedAlarms,
+                        { filtered_acknowledged, numberOfRawAcknowledgedAlarms,
                           filter_item_parent.getPathName() });
             acknowledged_alarms.setText(text);
             acknowledged_alarms.setToolTipText(text);
 
-            if (filteredAcknowledgedAlarms.length != numberOfRawAcknowledgedAlarms)
+            if (filtered_acknowledged != numberOfRawAcknowledgedAlarms)
                 acknowledged_alarms.setForeground(acknowledged_alarms.getDisplay().getSystemColor(SWT.COLOR_RED));
             else
                 acknowledged_alarms.setForeground(null);
             acknowledged_alarms.pack();
         }
-        if (separate_tables)
-        {
-            ((AlarmTableContentProvider) active_table_viewer.getContentProvider()).setAlarms(filteredAlarms);
-            ((AlarmTableContentProvider) acknowledged_table_viewer.getContentProvider()).setAlarms(
-                    filteredAcknowledgedAlarms);
-        }
-        else
-        {
-            ((AlarmTableContentProvider) active_table_viewer.getContentProvider()).setAlarms(combinedAlarms);
-        }
     }
 
     /**
@@ -1031,7 +1144,7 @@ public class GUI extends Composite implements AlarmClientModelListener
             this.model.removeListener(this);
         this.model = model;
         setUpModel();
-        gui_update.trigger();
+        requestFullUpdate();
     }
 
     /**
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.alarmtable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+
+/** Sorted list of alarms for the alarm table.
+ *  <p>
+ *  Alarms are added, updated and removed one by one,
+ *  locating their position by binary search
+ *  instead of sorting all alarms again.
+ *  Since the alarm state of a PV changes while it is listed,
+ *  each PV is sorted based on an {@link AlarmSortKey}
+ *  that holds its alarm state at the time it was added or updated.
+ *  <p>
+ *  Locating a position is O(log n), but adding or removing a row
+ *  still shifts all rows below it, which is O(n).
+ *  That shift is a fast array copy of references,
+ *  much cheaper than comparing all alarms when sorting from scratch.
+ *  <p>
+ *  Keeps track of the range of rows that changed,
+ *  so that only those need to be refreshed in the table.
+ *  <p>
+ *  Not thread-safe, to be used on the UI thread.
+ *
+ *  @author agent
+ */
+public class SortedAlarms
+{
+    /** Alarms in sort order */
+    final private List<AlarmSortKey> rows = new ArrayList<>();
+
+    /** Sort key of each PV in <code>rows</code> */
+    final private Map<AlarmTreePV, AlarmSortKey> keys = new HashMap<>();
+
+    private Comparator<AlarmSortKey> comparator;
+
+    /** First and last row that changed, or -1 when nothing changed */
+    private int changed_start = -1, changed_end = -1;
+
+    /** @param col_info Column used to sort alarms
+     *  @param up Up or downward sort?
+     */
+    public SortedAlarms(final ColumnInfo col_info, final boolean up)
+    {
+        comparator = AlarmSortKey.getComparator(col_info, up);
+    }
+
+    /** @param col_info Column used to sort alarms
+     *  @param up Up or downward sort?
+     */
+    public void setSortOrder(final ColumnInfo col_info, final boolean up)
+    {
+        comparator = AlarmSortKey.getComparator(col_info, up);
+        Collections.sort(rows, comparator);
+        markChanged(0, rows.size() - 1);
+    }
+
+    /** Replace all alarms
+     *  @param alarms Alarms to list
+     */
+    public void setAlarms(final AlarmTreePV[] alarms)
+    {
+        final int old_size = rows.size();
+        rows.clear();
+        keys.clear();
+        for (AlarmTreePV pv : alarms)
+        {
+            final AlarmSortKey key = new AlarmSortKey(pv);
+            if (keys.put(pv, key) == null)
+                rows.add(key);
+        }
+        Collections.sort(rows, comparator);
+        markChanged(0, Math.max(old_size, rows.size()) - 1);
+    }
+
+    /** Add alarm, or update its position when already listed
+     *  @param pv PV to add
+     */
+    public void add(final AlarmTreePV pv)
+    {
+        final AlarmSortKey old_key = keys.get(pv);
+        final int old_row = old_key == null ? -1 : indexOf(old_key);
+        if (old_row >= 0)
+            rows.remove(old_row);
+
+        final AlarmSortKey key = new AlarmSortKey(pv);
+        keys.put(pv, key);
+        int row = Collections.binarySearch(rows, key, comparator);
+        if (row < 0)
+            row = -row - 1;
+        rows.add(row, key);
+
+        if (old_row < 0) // Rows below the added one shifted down
+            markChanged(row, rows.size() - 1);
+        else             // Rows between old and new position shifted
+            markChanged(Math.min(old_row, row), Math.max(old_row, row));
+    }
+
+    /** @param pv PV to remove. Ignored when not listed */
+    public void remove(final AlarmTreePV pv)
+    {
+        final AlarmSortKey key = keys.remove(pv);
+        if (key == null)
+            return;
+        final int row = indexOf(key);
+        if (row < 0)
+            return;
+        // Rows below the removed one shifted up, the last row is gone
+        markChanged(row, rows.size() - 1);
+        rows.remove(row);
+    }
+
+    /** @param key Sort key that's in <code>rows</code>
+     *  @return Row index of that key or -1
+     */
+    private int indexOf(final AlarmSortKey key)
+    {
+        final int row = Collections.binarySearch(rows, key, comparator);
+        if (row < 0)
+            return -1;
+        if (rows.get(row) == key)
+            return row;
+        // Comparator does not distinguish PVs with same name and time stamp.
+        // Check neighbors that compare equal.
+        for (int i=row-1;  i>=0  &&  comparator.compare(rows.get(i), key) == 0;  --i)
+            if (rows.get(i) == key)
+                return i;
+        for (int i=row+1;  i<rows.size()  &&  comparator.compare(rows.get(i), key) == 0;  ++i)
+            if (rows.get(i) == key)
+                return i;
+        return -1;
+    }
+
+    /** @param start First changed row
+     *  @param end Last changed row
+     */
+    private void markChanged(final int start, final int end)
+    {
+        if (end < start)
+            return;
+        if (changed_start < 0)
+        {
+            changed_start = start;
+            changed_end = end;
+        }
+        else
+        {
+            changed_start = Math.min(changed_start, start);
+            changed_end = Math.max(changed_end, end);
+        }
+    }
+
+    /** @return Number of alarms */
+    public int size()
+    {
+        return rows.size();
+    }
+
+    /** @param row Row index
+     *  @return PV in that row
+     */
+    public AlarmTreePV get(final int row)
+    {
+        return rows.get(row).getPV();
+    }
+
+    /** @return First row that changed since <code>clearChanges</code>, or -1 */
+    public int getChangedStart()
+    {
+        return changed_start;
+    }
+
+    /** @return Last row that changed since <code>clearChanges</code>, or -1.
+     *          May be beyond the current size when alarms were removed.
+     */
+    public int getChangedEnd()
+    {
+        return changed_end;
+    }
+
+    /** Reset the range of changed rows */
+    public void clearChanges()
+    {
+        changed_start = changed_end = -1;
+    }
+}
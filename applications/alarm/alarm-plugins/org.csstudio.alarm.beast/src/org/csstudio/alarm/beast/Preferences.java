@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast;
 
+import java.io.File;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -58,6 +59,7 @@ public class Preferences
     final public static String GUI_UPDATE_INITIAL_MILLIS = "gui_update_initial_millis";
     final public static String BATCH_UPDATE_PERIOD = "batch_update_period";
     final public static String BATCH_SIZE = "batch_size";
+    final public static String CONFIG_SNAPSHOT_DIRECTORY = "config_snapshot_directory";
 
     final private static String SERVER_SUFFIX = "_SERVER";
     final private static String CLIENT_SUFFIX = "_CLIENT";
@@ -233,6 +235,24 @@ public class Preferences
         }
     }
 
+    /** @return Directory for alarm configuration snapshots, <code>null</code> if not used */
+    public static File getConfigSnapshotDirectory()
+    {
+        try
+        {
+            final String directory = replaceProperties(getString(CONFIG_SNAPSHOT_DIRECTORY, ""));
+            if (directory == null  ||  directory.trim().isEmpty())
+                return null;
+            return new File(directory.trim());
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING,
+                    "Error in " + CONFIG_SNAPSHOT_DIRECTORY + " preference setting", ex);
+            return null;
+        }
+    }
+
     /** @return Time in seconds to wait for OK or error from command */
     public static int getCommandCheckTime()
     {
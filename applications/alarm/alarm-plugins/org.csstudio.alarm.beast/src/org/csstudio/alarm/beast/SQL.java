@@ -30,6 +30,11 @@ public class SQL
     final public String sel_auto_actions_by_id;
     final public String sel_items_by_parent;
     final public String sel_item_by_parent_and_name;
+    final public String sel_all_items;
+    final public String sel_all_guidance;
+    final public String sel_all_displays;
+    final public String sel_all_commands;
+    final public String sel_all_auto_actions;
     final public String sel_last_item_id;
     final public String insert_item;
 
@@ -134,6 +139,39 @@ public class SQL
             " LEFT JOIN " + schema_prefix + "PV p ON p.COMPONENT_ID = t.COMPONENT_ID" +
             " WHERE t.PARENT_CMPNT_ID=? AND t.NAME=?";
 
+        // Selects all components and PVs for reading a complete configuration
+        // in one query instead of one sel_items_by_parent per component.
+        // Columns 1-17 match sel_items_by_parent,
+        // plus the parent ID and the names of the severity and status IDs.
+        sel_all_items =
+            //        1               2
+            "SELECT t.COMPONENT_ID, t.CONFIG_TIME," +
+            //  3               4        5              6
+            " p.COMPONENT_ID, p.DESCR, p.ENABLED_IND, p.ANNUNCIATE_IND," +
+            //  7            8        9              10        11
+            " p.LATCH_IND, p.DELAY, p.DELAY_COUNT, p.FILTER, p.CUR_SEVERITY_ID," +
+            //  12               13             14           15          16
+            " p.CUR_STATUS_ID, p.SEVERITY_ID, p.STATUS_ID, p.PV_VALUE, p.ALARM_TIME," +
+            //  17      18
+            " t.NAME, t.PARENT_CMPNT_ID," +
+            //  19      20      21      22
+            " cs.NAME, cm.NAME, s.NAME, m.NAME" +
+            " FROM " + schema_prefix + "ALARM_TREE t" +
+            " LEFT JOIN " + schema_prefix + "PV p ON p.COMPONENT_ID = t.COMPONENT_ID" +
+            " LEFT JOIN " + schema_prefix + "SEVERITY cs ON cs.SEVERITY_ID = p.CUR_SEVERITY_ID" +
+            " LEFT JOIN " + schema_prefix + "STATUS cm ON cm.STATUS_ID = p.CUR_STATUS_ID" +
+            " LEFT JOIN " + schema_prefix + "SEVERITY s ON s.SEVERITY_ID = p.SEVERITY_ID" +
+            " LEFT JOIN " + schema_prefix + "STATUS m ON m.STATUS_ID = p.STATUS_ID" +
+            " WHERE t.PARENT_CMPNT_ID IS NOT NULL ORDER BY t.COMPONENT_ID";
+        sel_all_guidance =
+            "SELECT COMPONENT_ID, TITLE, DETAIL FROM " + schema_prefix + "GUIDANCE ORDER BY COMPONENT_ID, GUIDANCE_ORDER";
+        sel_all_displays =
+            "SELECT COMPONENT_ID, TITLE, DETAIL FROM " + schema_prefix + "DISPLAY ORDER BY COMPONENT_ID, DISPLAY_ORDER";
+        sel_all_commands =
+            "SELECT COMPONENT_ID, TITLE, DETAIL FROM " + schema_prefix + "COMMAND ORDER BY COMPONENT_ID, COMMAND_ORDER";
+        sel_all_auto_actions =
+            "SELECT COMPONENT_ID, TITLE, DETAIL, DELAY FROM " + schema_prefix + "AUTOMATED_ACTION ORDER BY COMPONENT_ID, AUTO_ACTION_ORDER";
+
         sel_last_item_id =
             "SELECT MAX(COMPONENT_ID) FROM " + schema_prefix + "ALARM_TREE";
 
@@ -7,9 +7,15 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast;
 
-import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 
 /** Queue that receives {@link Runnable}s and executes them.
@@ -21,6 +27,10 @@ import java.util.logging.Level;
  *  For example used to re-direct execution of commands to a 'main'
  *  thread, to assert that all interactions with a certain resource
  *  happen on the same thread.
+ *  <p>
+ *  Commands can be queued with a key, for example a PV name.
+ *  While a command for that key is pending, newer commands
+ *  for the same key replace it, but keep its position in the queue.
  *
  *  @author Kay Kasemir
  *  @author Jaka Bobnar - RDB batching
@@ -28,47 +38,70 @@ import java.util.logging.Level;
 @SuppressWarnings("nls")
 public class WorkQueue implements Executor
 {
-    /** Task queue */
-    final Queue<Runnable> tasks = new LinkedList<Runnable>();
-
-    // Compared these data structures for 'tasks':
-    //
-    // final Queue<Runnable> tasks = new LinkedList<Runnable>();
-    // final LinkedHashMap<Object, Runnable> tasks = new LinkedHashMap<Object, Runnable>();
-    //
-    // Considered LinkedHashSet, but didn't work:
-    // Inserting a 'new' ReplacableRunnable would simply keep
-    // an older entry, not update it.
-
-    // JProfile results for 100 tasks, replaced 4 times:
-    //
-    //                     LinkedList  LinkedHashMap
-    // execute                 4us         10us
-    // executeReplacable      44us         10us
-    // getOldestRunnable       1us         12us
-    //
-    // Linked list is obviously slower when asked to replaced an existing
-    // runnable for the same object because of the linear lookup.
-    // But how long is the list going to be?
-    // Usually only a few noisy PVs, so maybe just 2 or 3 entries
-    // that keep getting replaced.
-    // If the test is run with only 10 tasks in the queue,
-    // executeReplacable for the LinkedList takes only 11us,
-    // i.e. similar to LinkedHashMap
-    //
-    // -> Simple linked list is probably good enough for the
-    // common use case, plus uses less memory.
+    /** Queued command */
+    private static class Task
+    {
+        /** Key or <code>null</code> */
+        final Object key;
+
+        /** Time when first queued, System.nanoTime() */
+        final long queued = System.nanoTime();
+
+        /** Command, may be replaced while queued */
+        volatile Runnable command;
+
+        Task(final Object key, final Runnable command)
+        {
+            this.key = key;
+            this.command = command;
+        }
+    }
+
+    /** Task queue, executed in order */
+    final private Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+
+    /** Queued tasks by key
+     *
+     *  <p>A task is removed from here before its command is read for execution.
+     *  Updates of a pending task's command and that removal are atomic
+     *  per key, so a replaced command is either executed
+     *  or queued as a new task.
+     */
+    final private Map<Object, Task> pending = new ConcurrentHashMap<>();
+
+    // Earlier versions used a LinkedList with linear lookup
+    // to replace commands, assuming only a few noisy PVs.
+    // With hundreds of chattering PVs, the lookup by key
+    // is needed to keep replacing a command O(1).
+
+    /** Number of queued tasks */
+    final private AtomicInteger size = new AtomicInteger();
+
+    /** Number of commands that replaced or were merged into a pending command */
+    final private AtomicLong coalesced = new AtomicLong();
 
     /** Thread that executes the queue. Set on first access */
-    private Thread thread;
+    private volatile Thread thread;
 
     /** @return Number of currently queued commands on the work queue */
     public int size()
     {
-        synchronized (tasks)
-        {
-            return tasks.size();
-        }
+        return size.get();
+    }
+
+    /** @return Number of commands that were coalesced with a pending command */
+    public long getCoalescedCount()
+    {
+        return coalesced.get();
+    }
+
+    /** @return Time in milliseconds that the oldest queued command has been waiting, 0 if none */
+    public long getOldestAge()
+    {
+        final Task oldest = tasks.peek();
+        if (oldest == null)
+            return 0;
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.queued);
     }
 
     /** Add a command to the queue
@@ -78,16 +111,7 @@ public class WorkQueue implements Executor
     @Override
     public void execute(final Runnable command)
     {
-        synchronized (tasks)
-        {
-            // Hash: Use dummy key to add a new element
-            // tasks.put(new Object(), command);
-
-            // Queue:
-            tasks.add(command);
-
-            tasks.notifyAll();
-        }
+        enqueue(new Task(null, command));
     }
 
     /** Add a command to the queue but only if that same command is not already in the queue.
@@ -97,33 +121,78 @@ public class WorkQueue implements Executor
      */
     public void executeIfNotPending(final Runnable command)
     {
-        synchronized (tasks)
+        pending.compute(command, (key, task) ->
         {
-            if (!tasks.contains(command))
+            if (task != null)
             {
-                tasks.add(command);
-                tasks.notifyAll();
+                coalesced.incrementAndGet();
+                return task;
             }
-        }
+            return enqueue(new Task(key, command));
+        });
+    }
+
+    /** Add a command to the queue, replacing a pending command for the same key.
+     *
+     *  <p>If a command for the key is already queued, it will not be executed.
+     *  Instead, the new command is executed at the position of the
+     *  replaced command in the queue.
+     *
+     *  @param key Key, for example PV name
+     *  @param command the command to be added to the queue
+     */
+    public void executeReplacable(final Object key, final Runnable command)
+    {
+        pending.compute(key, (k, task) ->
+        {
+            if (task != null)
+            {
+                task.command = command;
+                coalesced.incrementAndGet();
+                return task;
+            }
+            return enqueue(new Task(k, command));
+        });
+    }
+
+    /** @param task Task to add to queue
+     *  @return Task
+     */
+    private Task enqueue(final Task task)
+    {
+        tasks.add(task);
+        size.incrementAndGet();
+        // Wake the thread if it's waiting for commands
+        final Thread waiting = thread;
+        if (waiting != null)
+            LockSupport.unpark(waiting);
+        return task;
     }
 
     /** @return Oldest runnable in the queue or <code>null</code> */
     private Runnable getOldestRunnable()
     {
-        synchronized (tasks)
+        final Task task = tasks.poll();
+        if (task == null)
+            return null;
+        size.decrementAndGet();
+        if (task.key != null)
+            pending.remove(task.key, task);
+        // Read command after removal from 'pending',
+        // so the latest replacement is used
+        return task.command;
+    }
+
+    /** @param task Command to execute */
+    private void run(final Runnable task)
+    {
+        try
         {
-            // Hash: Need iterator to get oldest
-            //final Iterator<Runnable> iter = tasks.values().iterator();
-            //if (iter.hasNext())
-            //{
-            //    final Runnable result = iter.next();
-            //    iter.remove();
-            //    return result;
-            //}
-            //return null;
-
-            // Queue was designed for this
-            return tasks.poll();
+            task.run();
+        }
+        catch (Throwable ex)
+        {
+            Activator.getLogger().log(Level.SEVERE, "Work Queue Exception", ex);
         }
     }
 
@@ -136,14 +205,7 @@ public class WorkQueue implements Executor
         Runnable task = getOldestRunnable();
         while (task != null)
         {
-            try
-            {
-                task.run();
-            }
-            catch (Throwable ex)
-            {
-                Activator.getLogger().log(Level.SEVERE, "Work Queue Exception", ex);
-            }
+            run(task);
             task = getOldestRunnable();
         }
     }
@@ -158,37 +220,27 @@ public class WorkQueue implements Executor
     public void performQueuedCommands(final int millisecs)
     {
         assertOnThread();
-        Runnable task;
-        // Wait in case there aren't any tasks in the queue
-        // Do this while sync'ed to not miss
-        // a notify.
-        synchronized (tasks)
-        {
-            task = getOldestRunnable();
-            if (task == null)
+        Runnable task = getOldestRunnable();
+        if (task == null)
+        {   // Wait for a command to be queued.
+            // 'enqueue' unparks this thread after adding a task,
+            // so a command that's added before we park is not missed
+            // because park() then returns right away.
+            final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millisecs);
+            while ((task = getOldestRunnable()) == null)
             {
-                try
-                {
-                    tasks.wait(millisecs);
-                }
-                catch (InterruptedException ex)
-                {
+                final long wait = end - System.nanoTime();
+                if (wait <= 0)
+                    return;
+                LockSupport.parkNanos(this, wait);
+                if (Thread.interrupted())
                     return;
-                }
-                task = getOldestRunnable();
             }
         }
         // Execute all tasks on queue
         while (task != null)
         {
-            try
-            {
-                task.run();
-            }
-            catch (Throwable ex)
-            {
-                Activator.getLogger().log(Level.SEVERE, "Work Queue Exception", ex);
-            }
+            run(task);
             task = getOldestRunnable();
         }
     }
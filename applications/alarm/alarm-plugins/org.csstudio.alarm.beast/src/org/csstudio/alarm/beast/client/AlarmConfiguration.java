@@ -25,6 +25,7 @@ import org.csstudio.alarm.beast.Activator;
 import org.csstudio.alarm.beast.AlarmTreePath;
 import org.csstudio.alarm.beast.Messages;
 import org.csstudio.alarm.beast.SQL;
+import org.csstudio.alarm.beast.SeverityLevel;
 import org.csstudio.alarm.beast.TimestampHelper;
 import org.csstudio.apputil.time.DelayCheck;
 import org.csstudio.platform.utility.rdb.RDBUtil;
@@ -56,12 +57,6 @@ public class AlarmConfiguration
     /** SQL strings */
     final private SQL sql;
 
-    /** Mapping of severity IDs to strings */
-    final private SeverityReader severity_mapping;
-
-    /** Mapping of message IDs to strings */
-    final private MessageReader message_mapping;
-
     final private AlarmConfigurationReader config_reader;
 
     /** Root of the alarm tree.
@@ -72,8 +67,13 @@ public class AlarmConfiguration
     /** Hash of all PVs in config_tree that maps PV name to PV */
     private HashMap<String, AlarmTreePV> pvs = new HashMap<String, AlarmTreePV>();
 
+    /** Configuration as last read from RDB, <code>null</code> if not read from RDB.
+     *  SYNC on this for access
+     */
+    private AlarmConfigurationSnapshot snapshot = null;
+
     /** Re-used statements */
-    private PreparedStatement sel_items_by_parent_statement, sel_pv_by_id_statement;
+    private PreparedStatement sel_pv_by_id_statement;
 
 
     /** Initialize
@@ -103,8 +103,6 @@ public class AlarmConfiguration
         if (auto_reconnect)
             rdb.setAutoReconnect(false);
         sql = new SQL(rdb, schema);
-        severity_mapping = new SeverityReader(rdb, sql);
-        message_mapping = new MessageReader(rdb, sql);
         config_reader = new AlarmConfigurationReader(rdb, sql);
 
         // Re-enable auto-connect if that was requested
@@ -179,6 +177,31 @@ public class AlarmConfiguration
         }
     }
 
+    /** Set configuration from a snapshot instead of reading it from the RDB,
+     *  for example from a snapshot file
+     *  @param snapshot {@link AlarmConfigurationSnapshot}
+     *  @param monitor Progress monitor
+     *  @throws Exception on error
+     */
+    public void readConfiguration(final AlarmConfigurationSnapshot snapshot,
+            final IProgressMonitor monitor) throws Exception
+    {
+        final DelayCheck monitor_update_delay = new DelayCheck(1, TimeUnit.SECONDS);
+        final AlarmTreeRoot new_config = createAlarmTree(snapshot, monitor, monitor_update_delay);
+        synchronized (this)
+        {
+            config_tree = new_config;
+        }
+    }
+
+    /** @return Configuration as last read from the RDB, for example
+     *          to write a snapshot file, or <code>null</code>
+     */
+    public synchronized AlarmConfigurationSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
     /** Must be called to release resources */
     public void close()
     {
@@ -245,10 +268,14 @@ public class AlarmConfiguration
                 return (AlarmTreeRoot) addRootOrComponent(null, root_name);
             }
             final int id = result.getInt(1);
-            final AlarmTreeRoot root = createAlarmTreeRoot(id, root_name);
-            config_reader.readGuidanceDisplaysCommands(root);
-            readChildren(root, monitor, monitor_update_delay);
-            return root;
+            result.close();
+            final AlarmConfigurationSnapshot new_snapshot =
+                AlarmConfigurationSnapshot.read(rdb, sql, id, root_name);
+            synchronized (this)
+            {
+                snapshot = new_snapshot;
+            }
+            return createAlarmTree(new_snapshot, monitor, monitor_update_delay);
         }
         finally
         {
@@ -257,60 +284,105 @@ public class AlarmConfiguration
         }
     }
 
-    /** Read configuration for child elements
-     *  @param parent Parent node. Children get added to it.
+    /** Create alarm tree from configuration snapshot
+     *  @param snapshot {@link AlarmConfigurationSnapshot}
      *  @param monitor Progress monitor
      *  @param monitor_update_delay Delay for updates to monitor
+     *  @return AlarmTreeRoot
      *  @throws Exception on error
      */
-    private void readChildren(final AlarmTreeItem parent,
+    private AlarmTreeRoot createAlarmTree(final AlarmConfigurationSnapshot snapshot,
             final IProgressMonitor monitor, final DelayCheck monitor_update_delay) throws Exception
     {
-        if (sel_items_by_parent_statement == null)
-            sel_items_by_parent_statement =
-                rdb.getConnection().prepareStatement(sql.sel_items_by_parent);
-        sel_items_by_parent_statement.setInt(1, parent.getID());
-        final ResultSet result = sel_items_by_parent_statement.executeQuery();
+        synchronized (this)
+        {
+            pvs.clear();
+        }
+        final AlarmConfigurationSnapshot.Item root_item = snapshot.getRoot();
+        final AlarmTreeRoot root = createAlarmTreeRoot(root_item.id, root_item.name);
+        setGuidanceDisplaysCommands(root, root_item);
+        createChildren(snapshot, root, root_item, monitor, monitor_update_delay);
+        return root;
+    }
 
-        final List<AlarmTreeItem> recurse_items = new ArrayList<AlarmTreeItem>();
-        while (result.next()  &&  !monitor.isCanceled())
+    /** Create child elements
+     *  @param snapshot {@link AlarmConfigurationSnapshot}
+     *  @param parent Parent node. Children get added to it.
+     *  @param parent_item Configuration of parent node
+     *  @param monitor Progress monitor
+     *  @param monitor_update_delay Delay for updates to monitor
+     *  @throws Exception on error
+     */
+    private void createChildren(final AlarmConfigurationSnapshot snapshot,
+            final AlarmTreeItem parent, final AlarmConfigurationSnapshot.Item parent_item,
+            final IProgressMonitor monitor, final DelayCheck monitor_update_delay) throws Exception
+    {
+        for (AlarmConfigurationSnapshot.Item child : snapshot.getChildren(parent_item))
         {
-            final int id = result.getInt(1);
-            final String name = result.getString(17);
-            final Timestamp config_time = result.getTimestamp(2);
+            if (monitor.isCanceled())
+                return;
             final AlarmTreeItem item;
-            // Check PV's ID. If null, this is a component, not PV
-            result.getInt(3);
-            if (result.wasNull())
-            {   // Component (area, system), not a PV
-                item = new AlarmTreeItem(parent, name, id);
-                recurse_items.add(item);
-            }
-            else
+            if (child.is_pv)
             {
-                final AlarmTreePV pv = new AlarmTreePV(parent, name, id);
-                pvs.put(name, pv);
+                final AlarmTreePV pv = new AlarmTreePV(parent, child.name, child.id);
+                final int count;
+                synchronized (this)
+                {
+                    pvs.put(child.name, pv);
+                    count = pvs.size();
+                }
                 // Periodically update progress monitor
                 if (monitor_update_delay.expired())
-                {
-                    final int count = pvs.size();
                     monitor.subTask(NLS.bind(Messages.ReadConfigProgressFmt, count));
-                }
-                config_reader.configurePVfromResult(pv, result, severity_mapping, message_mapping);
+                configurePV(pv, child);
                 item = pv;
             }
-            if (config_time != null)
-                item.setConfigTime(TimestampHelper.toEPICSTime(config_time));
-            config_reader.readGuidanceDisplaysCommands(item);
+            else
+                item = new AlarmTreeItem(parent, child.name, child.id);
+            if (child.config_time != null)
+                item.setConfigTime(child.config_time);
+            setGuidanceDisplaysCommands(item, child);
+            if (! child.is_pv)
+                createChildren(snapshot, item, child, monitor, monitor_update_delay);
         }
-        result.close();
+    }
 
-        // Recurse to children
-        // Cannot do that inside the above while() because that would reuse
-        // the statement of the current ResultSet
-        for (AlarmTreeItem item : recurse_items)
-            readChildren(item, monitor, monitor_update_delay);
-        recurse_items.clear();
+    /** @param item Item to update with GUI info
+     *  @param config Configuration of the item
+     */
+    private void setGuidanceDisplaysCommands(final AlarmTreeItem item,
+            final AlarmConfigurationSnapshot.Item config)
+    {
+        item.setGuidance(config.guidance);
+        item.setDisplays(config.displays);
+        item.setCommands(config.commands);
+        item.setAutomatedActions(config.automated_actions);
+    }
+
+    /** Configure a PV
+     *  @param pv PV to configure
+     *  @param config Configuration of the PV
+     */
+    private void configurePV(final AlarmTreePV pv, final AlarmConfigurationSnapshot.Item config)
+    {
+        // NULL in RDB reads as 'false'
+        pv.setDescription(config.description);
+        pv.setEnabled(Boolean.TRUE.equals(config.enabled));
+        pv.setAnnunciating(Boolean.TRUE.equals(config.annunciate));
+        pv.setLatching(Boolean.TRUE.equals(config.latch));
+        pv.setDelay(config.delay);
+        pv.setCount(config.count);
+        pv.setFilter(config.filter);
+
+        // If there is severity/status info, use it.
+        // Otherwise leave PV "OK" as it was initialized.
+        if (config.alarm_time != null)
+            pv.setAlarmState(
+                config.current_severity == null ? SeverityLevel.OK : config.current_severity,
+                config.current_status == null ? "" : config.current_status,
+                config.severity == null ? SeverityLevel.OK : config.severity,
+                config.status == null ? "" : config.status,
+                config.value, config.alarm_time);
     }
 
     /** Add a component to the model and RDB
@@ -954,11 +1026,6 @@ public class AlarmConfiguration
     {
         try
         {
-            if (sel_items_by_parent_statement != null)
-            {
-                sel_items_by_parent_statement.close();
-                sel_items_by_parent_statement = null;
-            }
             if (sel_pv_by_id_statement != null)
             {
                 sel_pv_by_id_statement.close();
@@ -0,0 +1,719 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.csstudio.alarm.beast.SQL;
+import org.csstudio.alarm.beast.SeverityLevel;
+import org.csstudio.alarm.beast.TimestampHelper;
+import org.csstudio.platform.utility.rdb.RDBUtil;
+
+/** Complete alarm configuration as plain data
+ *
+ *  <p>Holds the alarm tree hierarchy, PV settings and alarm state,
+ *  guidance, displays, commands and automated actions of one
+ *  configuration, i.e. one alarm tree root.
+ *
+ *  <p>Read from the RDB with a handful of set-based queries
+ *  instead of several queries per alarm tree item,
+ *  or from a local snapshot file.
+ *  Alarm server and clients turn this into their own
+ *  alarm tree items.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmConfigurationSnapshot
+{
+    /** Start of a snapshot file, "BEAS" */
+    final private static int MAGIC = 0x42454153;
+
+    /** Version of the snapshot file format */
+    final private static int VERSION = 1;
+
+    /** Component or PV of the alarm tree.
+     *  PV settings and alarm state are <code>null</code> resp. 0
+     *  for components, and also when not set in the RDB.
+     */
+    public static class Item
+    {
+        final public int id;
+        /** ID of parent, -1 for root */
+        final public int parent_id;
+        final public String name;
+        final public Instant config_time;
+        final public boolean is_pv;
+
+        final public String description;
+        final public Boolean enabled;
+        final public Boolean annunciate;
+        final public Boolean latch;
+        final public int delay;
+        final public int count;
+        final public String filter;
+
+        final public SeverityLevel current_severity;
+        final public String current_status;
+        final public SeverityLevel severity;
+        final public String status;
+        final public String value;
+        final public Instant alarm_time;
+
+        final public GDCDataStructure[] guidance;
+        final public GDCDataStructure[] displays;
+        final public GDCDataStructure[] commands;
+        final public AADataStructure[] automated_actions;
+
+        /** Initialize component */
+        public Item(final int id, final int parent_id, final String name, final Instant config_time,
+                final GDCDataStructure[] guidance, final GDCDataStructure[] displays,
+                final GDCDataStructure[] commands, final AADataStructure[] automated_actions)
+        {
+            this(id, parent_id, name, config_time, false,
+                 null, null, null, null, 0, 0, null,
+                 null, null, null, null, null, null,
+                 guidance, displays, commands, automated_actions);
+        }
+
+        /** Initialize component or PV */
+        public Item(final int id, final int parent_id, final String name, final Instant config_time,
+                final boolean is_pv,
+                final String description, final Boolean enabled, final Boolean annunciate, final Boolean latch,
+                final int delay, final int count, final String filter,
+                final SeverityLevel current_severity, final String current_status,
+                final SeverityLevel severity, final String status,
+                final String value, final Instant alarm_time,
+                final GDCDataStructure[] guidance, final GDCDataStructure[] displays,
+                final GDCDataStructure[] commands, final AADataStructure[] automated_actions)
+        {
+            this.id = id;
+            this.parent_id = parent_id;
+            this.name = name;
+            this.config_time = config_time;
+            this.is_pv = is_pv;
+            this.description = description;
+            this.enabled = enabled;
+            this.annunciate = annunciate;
+            this.latch = latch;
+            this.delay = delay;
+            this.count = count;
+            this.filter = filter;
+            this.current_severity = current_severity;
+            this.current_status = current_status;
+            this.severity = severity;
+            this.status = status;
+            this.value = value;
+            this.alarm_time = alarm_time;
+            this.guidance = guidance;
+            this.displays = displays;
+            this.commands = commands;
+            this.automated_actions = automated_actions;
+        }
+
+        /** @param other Other item
+         *  @return <code>true</code> if other item has the same configuration,
+         *          ignoring the alarm state
+         */
+        public boolean isSameConfiguration(final Item other)
+        {
+            return id == other.id  &&
+                   parent_id == other.parent_id  &&
+                   name.equals(other.name)  &&
+                   Objects.equals(config_time, other.config_time)  &&
+                   is_pv == other.is_pv  &&
+                   Objects.equals(description, other.description)  &&
+                   Objects.equals(enabled, other.enabled)  &&
+                   Objects.equals(annunciate, other.annunciate)  &&
+                   Objects.equals(latch, other.latch)  &&
+                   delay == other.delay  &&
+                   count == other.count  &&
+                   Objects.equals(filter, other.filter)  &&
+                   Arrays.equals(guidance, other.guidance)  &&
+                   Arrays.equals(displays, other.displays)  &&
+                   Arrays.equals(commands, other.commands)  &&
+                   isSameActions(automated_actions, other.automated_actions);
+        }
+
+        /** {@link AADataStructure#equals(Object)} ignores the delay,
+         *  which is part of the configuration
+         *  @param actions Automated actions
+         *  @param other Other automated actions
+         *  @return <code>true</code> if the actions have the same title, details and delay
+         */
+        private static boolean isSameActions(final AADataStructure[] actions, final AADataStructure[] other)
+        {
+            if (actions.length != other.length)
+                return false;
+            for (int i=0; i<actions.length; ++i)
+                if (! (actions[i].getTitle().equals(other[i].getTitle())  &&
+                       actions[i].getDetails().equals(other[i].getDetails())  &&
+                       actions[i].getDelay() == other[i].getDelay()))
+                    return false;
+            return true;
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (! (obj instanceof Item))
+                return false;
+            final Item other = (Item) obj;
+            return isSameConfiguration(other)  &&
+                   current_severity == other.current_severity  &&
+                   Objects.equals(current_status, other.current_status)  &&
+                   severity == other.severity  &&
+                   Objects.equals(status, other.status)  &&
+                   Objects.equals(value, other.value)  &&
+                   Objects.equals(alarm_time, other.alarm_time);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(id, parent_id, name);
+        }
+
+        @Override
+        public String toString()
+        {
+            return (is_pv ? "PV " : "Component ") + name + " (" + id + ")";
+        }
+    }
+
+    /** Root of the configuration */
+    final private Item root;
+
+    /** Child items by ID of their parent. Each list is ordered by item ID */
+    final private Map<Integer, List<Item>> children;
+
+    /** Number of PVs */
+    final private int pv_count;
+
+    /** Time when configuration was read from RDB */
+    final private Instant created;
+
+    /** Initialize
+     *  @param root Root item
+     *  @param children Items by parent ID
+     *  @param created Time when configuration was read from RDB
+     */
+    AlarmConfigurationSnapshot(final Item root, final Map<Integer, List<Item>> children, final Instant created)
+    {
+        this.root = root;
+        this.children = children;
+        this.created = created;
+        pv_count = countPVs(root);
+    }
+
+    /** @param item Start item
+     *  @return Number of PVs below start item
+     */
+    private int countPVs(final Item item)
+    {
+        int count = item.is_pv ? 1 : 0;
+        for (Item child : getChildren(item))
+            count += countPVs(child);
+        return count;
+    }
+
+    /** Read configuration from RDB
+     *
+     *  <p>Fetches all items and their guidance, displays, commands and automated actions
+     *  with one query each, then assembles the tree for the requested root in memory.
+     *
+     *  @param rdb RDB connection
+     *  @param sql SQL statements
+     *  @param root_id RDB ID of the root element
+     *  @param root_name Name of the root element
+     *  @return {@link AlarmConfigurationSnapshot}
+     *  @throws Exception on error
+     */
+    public static AlarmConfigurationSnapshot read(final RDBUtil rdb, final SQL sql,
+            final int root_id, final String root_name) throws Exception
+    {
+        final Instant created = Instant.now();
+        final Connection connection = rdb.getConnection();
+        final Map<Integer, List<GDCDataStructure>> guidance, displays, commands;
+        final Map<Integer, List<AADataStructure>> actions = new HashMap<>();
+        final Map<Integer, List<Item>> all_children = new HashMap<>();
+        try
+        (
+            final Statement statement = connection.createStatement();
+        )
+        {
+            guidance = readGDC(statement, sql.sel_all_guidance);
+            displays = readGDC(statement, sql.sel_all_displays);
+            commands = readGDC(statement, sql.sel_all_commands);
+            try
+            (
+                final ResultSet result = statement.executeQuery(sql.sel_all_auto_actions);
+            )
+            {
+                while (result.next())
+                    actions.computeIfAbsent(result.getInt(1), id -> new ArrayList<>())
+                           .add(new AADataStructure(result.getString(2), result.getString(3), result.getInt(4)));
+            }
+
+            // Items are ordered by ID, so each list of child items is ordered by ID
+            try
+            (
+                final ResultSet result = statement.executeQuery(sql.sel_all_items);
+            )
+            {
+                while (result.next())
+                {
+                    final Item item = createItem(result, guidance, displays, commands, actions);
+                    all_children.computeIfAbsent(item.parent_id, id -> new ArrayList<>()).add(item);
+                }
+            }
+        }
+
+        final Item root = new Item(root_id, -1, root_name, null,
+                toGDCArray(guidance.get(root_id)), toGDCArray(displays.get(root_id)),
+                toGDCArray(commands.get(root_id)), toAAArray(actions.get(root_id)));
+
+        // Keep only the items below the requested root
+        final Map<Integer, List<Item>> children = new HashMap<>();
+        final List<Item> parents = new ArrayList<>();
+        parents.add(root);
+        while (! parents.isEmpty())
+        {
+            final Item parent = parents.remove(parents.size()-1);
+            final List<Item> items = all_children.get(parent.id);
+            if (items == null)
+                continue;
+            children.put(parent.id, items);
+            for (Item item : items)
+                if (! item.is_pv)
+                    parents.add(item);
+        }
+        return new AlarmConfigurationSnapshot(root, children, created);
+    }
+
+    /** @param statement Statement
+     *  @param query Query for guidance, displays or commands of all items
+     *  @return Entries by item ID
+     *  @throws Exception on error
+     */
+    private static Map<Integer, List<GDCDataStructure>> readGDC(final Statement statement,
+            final String query) throws Exception
+    {
+        final Map<Integer, List<GDCDataStructure>> entries = new HashMap<>();
+        try
+        (
+            final ResultSet result = statement.executeQuery(query);
+        )
+        {
+            while (result.next())
+                entries.computeIfAbsent(result.getInt(1), id -> new ArrayList<>())
+                       .add(new GDCDataStructure(result.getString(2), result.getString(3)));
+        }
+        return entries;
+    }
+
+    /** @param result Result of sel_all_items
+     *  @return {@link Item} for the current row
+     *  @throws Exception on error
+     */
+    private static Item createItem(final ResultSet result,
+            final Map<Integer, List<GDCDataStructure>> guidance,
+            final Map<Integer, List<GDCDataStructure>> displays,
+            final Map<Integer, List<GDCDataStructure>> commands,
+            final Map<Integer, List<AADataStructure>> actions) throws Exception
+    {
+        final int id = result.getInt(1);
+        if (result.wasNull())
+            throw new Exception("NULL component ID");
+        final String name = result.getString(17);
+        if (result.wasNull())
+            throw new Exception("NULL component Name");
+        final int parent_id = result.getInt(18);
+        final Timestamp config_time = result.getTimestamp(2);
+        final Instant config_instant = config_time == null ? null : TimestampHelper.toEPICSTime(config_time);
+        final GDCDataStructure[] item_guidance = toGDCArray(guidance.get(id));
+        final GDCDataStructure[] item_displays = toGDCArray(displays.get(id));
+        final GDCDataStructure[] item_commands = toGDCArray(commands.get(id));
+        final AADataStructure[] item_actions = toAAArray(actions.get(id));
+
+        // Check PV's ID. If null, this is a component, not PV
+        final int pv_id = result.getInt(3);
+        if (result.wasNull())
+            return new Item(id, parent_id, name, config_instant,
+                            item_guidance, item_displays, item_commands, item_actions);
+        if (id != pv_id)
+            throw new Exception("Internal RDB error: Item '" + name + "' as ID " + id + " but also PV ID " + pv_id);
+
+        final String description = result.getString(4);
+        Boolean enabled = result.getBoolean(5);
+        if (result.wasNull())
+            enabled = null;
+        Boolean annunciate = result.getBoolean(6);
+        if (result.wasNull())
+            annunciate = null;
+        Boolean latch = result.getBoolean(7);
+        if (result.wasNull())
+            latch = null;
+        final int delay = result.getInt(8);
+        final int count = result.getInt(9);
+        final String filter = result.getString(10);
+
+        // Severity and status IDs of NULL leave the names NULL
+        result.getInt(11);
+        final SeverityLevel current_severity = result.wasNull() ? null : SeverityLevel.parse(result.getString(19));
+        final String current_status = result.getString(20);
+        result.getInt(13);
+        final SeverityLevel severity = result.wasNull() ? null : SeverityLevel.parse(result.getString(21));
+        final String status = result.getString(22);
+
+        final String value = result.getString(15);
+        final Timestamp time = result.getTimestamp(16);
+        final Instant alarm_time = time == null ? null : TimestampHelper.toEPICSTime(time);
+
+        return new Item(id, parent_id, name, config_instant, true,
+                description, enabled, annunciate, latch, delay, count, filter,
+                current_severity, current_status, severity, status, value, alarm_time,
+                item_guidance, item_displays, item_commands, item_actions);
+    }
+
+    private static GDCDataStructure[] toGDCArray(final List<GDCDataStructure> list)
+    {
+        if (list == null)
+            return new GDCDataStructure[0];
+        return list.toArray(new GDCDataStructure[list.size()]);
+    }
+
+    private static AADataStructure[] toAAArray(final List<AADataStructure> list)
+    {
+        if (list == null)
+            return new AADataStructure[0];
+        return list.toArray(new AADataStructure[list.size()]);
+    }
+
+    /** Owner of snapshot files written by the alarm server */
+    final public static String SERVER = "server";
+
+    /** Owner of snapshot files written by alarm clients */
+    final public static String CLIENT = "client";
+
+    /** Alarm server and clients use separate files,
+     *  because the server deletes its file once used
+     *  while clients keep theirs,
+     *  and a client snapshot may have outdated alarm states.
+     *
+     *  @param directory Directory for snapshot files
+     *  @param root_name Name of the configuration
+     *  @param owner {@link #SERVER} or {@link #CLIENT}
+     *  @return Snapshot file for that configuration
+     */
+    public static File getSnapshotFile(final File directory, final String root_name, final String owner)
+    {
+        return new File(directory, "alarm_config_" + root_name.replaceAll("[^A-Za-z0-9_.-]", "_") + "." + owner + ".snapshot");
+    }
+
+    /** @return Root of the configuration */
+    public Item getRoot()
+    {
+        return root;
+    }
+
+    /** @param parent Parent item
+     *  @return Child items of the parent, ordered by ID. May be empty.
+     */
+    public List<Item> getChildren(final Item parent)
+    {
+        final List<Item> items = children.get(parent.id);
+        if (items == null)
+            return Collections.emptyList();
+        return items;
+    }
+
+    /** @return Number of PVs in the configuration */
+    public int getPVCount()
+    {
+        return pv_count;
+    }
+
+    /** @return Time when configuration was read from RDB */
+    public Instant getCreated()
+    {
+        return created;
+    }
+
+    /** @param other Other snapshot
+     *  @return <code>true</code> if other snapshot has the same configuration,
+     *          ignoring the alarm state of PVs
+     */
+    public boolean isSameConfiguration(final AlarmConfigurationSnapshot other)
+    {
+        return isSameConfiguration(root, other, other.root);
+    }
+
+    private boolean isSameConfiguration(final Item item, final AlarmConfigurationSnapshot other, final Item other_item)
+    {
+        if (! item.isSameConfiguration(other_item))
+            return false;
+        final List<Item> items = getChildren(item);
+        final List<Item> other_items = other.getChildren(other_item);
+        if (items.size() != other_items.size())
+            return false;
+        for (int i=0; i<items.size(); ++i)
+            if (! isSameConfiguration(items.get(i), other, other_items.get(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean equals(final Object obj)
+    {
+        if (! (obj instanceof AlarmConfigurationSnapshot))
+            return false;
+        final AlarmConfigurationSnapshot other = (AlarmConfigurationSnapshot) obj;
+        return root.equals(other.root)  &&  children.equals(other.children);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return root.hashCode();
+    }
+
+    /** Write snapshot file
+     *
+     *  <p>File is first written under a temporary name,
+     *  then renamed, so readers never see a partial file.
+     *
+     *  @param file Snapshot file
+     *  @throws Exception on error
+     */
+    public void write(final File file) throws Exception
+    {
+        final File tmp = new File(file.getPath() + ".tmp");
+        try
+        (
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        )
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeInstant(out, created);
+            writeItem(out, root);
+            out.writeInt(children.size());
+            for (Map.Entry<Integer, List<Item>> entry : children.entrySet())
+            {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (Item item : entry.getValue())
+                    writeItem(out, item);
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Read snapshot file
+     *  @param file Snapshot file
+     *  @return {@link AlarmConfigurationSnapshot}
+     *  @throws Exception on error, including a file written by an incompatible version
+     */
+    public static AlarmConfigurationSnapshot read(final File file) throws Exception
+    {
+        try
+        (
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        )
+        {
+            if (in.readInt() != MAGIC)
+                throw new Exception("Invalid alarm configuration snapshot " + file);
+            final int version = in.readInt();
+            if (version != VERSION)
+                throw new Exception("Alarm configuration snapshot " + file + " has version " + version + ", expected " + VERSION);
+            final Instant created = readInstant(in);
+            final Item root = readItem(in);
+            final int parents = in.readInt();
+            final Map<Integer, List<Item>> children = new HashMap<>(parents * 2);
+            for (int p=0; p<parents; ++p)
+            {
+                final int parent_id = in.readInt();
+                final int count = in.readInt();
+                final List<Item> items = new ArrayList<>(count);
+                for (int i=0; i<count; ++i)
+                    items.add(readItem(in));
+                children.put(parent_id, items);
+            }
+            return new AlarmConfigurationSnapshot(root, children, created);
+        }
+    }
+
+    private static void writeItem(final DataOutputStream out, final Item item) throws IOException
+    {
+        out.writeInt(item.id);
+        out.writeInt(item.parent_id);
+        writeString(out, item.name);
+        writeInstant(out, item.config_time);
+        out.writeBoolean(item.is_pv);
+        if (item.is_pv)
+        {
+            writeString(out, item.description);
+            writeBoolean(out, item.enabled);
+            writeBoolean(out, item.annunciate);
+            writeBoolean(out, item.latch);
+            out.writeInt(item.delay);
+            out.writeInt(item.count);
+            writeString(out, item.filter);
+            writeString(out, item.current_severity == null ? null : item.current_severity.name());
+            writeString(out, item.current_status);
+            writeString(out, item.severity == null ? null : item.severity.name());
+            writeString(out, item.status);
+            writeString(out, item.value);
+            writeInstant(out, item.alarm_time);
+        }
+        writeGDC(out, item.guidance);
+        writeGDC(out, item.displays);
+        writeGDC(out, item.commands);
+        out.writeInt(item.automated_actions.length);
+        for (AADataStructure action : item.automated_actions)
+        {
+            writeString(out, action.getTitle());
+            writeString(out, action.getDetails());
+            out.writeInt(action.getDelay());
+        }
+    }
+
+    private static Item readItem(final DataInputStream in) throws IOException
+    {
+        final int id = in.readInt();
+        final int parent_id = in.readInt();
+        final String name = readString(in);
+        final Instant config_time = readInstant(in);
+        final boolean is_pv = in.readBoolean();
+        if (! is_pv)
+            return new Item(id, parent_id, name, config_time,
+                            readGDC(in), readGDC(in), readGDC(in), readAA(in));
+        final String description = readString(in);
+        final Boolean enabled = readBoolean(in);
+        final Boolean annunciate = readBoolean(in);
+        final Boolean latch = readBoolean(in);
+        final int delay = in.readInt();
+        final int count = in.readInt();
+        final String filter = readString(in);
+        final String current_severity = readString(in);
+        final String current_status = readString(in);
+        final String severity = readString(in);
+        final String status = readString(in);
+        final String value = readString(in);
+        final Instant alarm_time = readInstant(in);
+        return new Item(id, parent_id, name, config_time, true,
+                description, enabled, annunciate, latch, delay, count, filter,
+                current_severity == null ? null : SeverityLevel.parse(current_severity), current_status,
+                severity == null ? null : SeverityLevel.parse(severity), status, value, alarm_time,
+                readGDC(in), readGDC(in), readGDC(in), readAA(in));
+    }
+
+    private static void writeGDC(final DataOutputStream out, final GDCDataStructure[] entries) throws IOException
+    {
+        out.writeInt(entries.length);
+        for (GDCDataStructure entry : entries)
+        {
+            writeString(out, entry.getTitle());
+            writeString(out, entry.getDetails());
+        }
+    }
+
+    private static GDCDataStructure[] readGDC(final DataInputStream in) throws IOException
+    {
+        final GDCDataStructure[] entries = new GDCDataStructure[in.readInt()];
+        for (int i=0; i<entries.length; ++i)
+            entries[i] = new GDCDataStructure(readString(in), readString(in));
+        return entries;
+    }
+
+    private static AADataStructure[] readAA(final DataInputStream in) throws IOException
+    {
+        final AADataStructure[] entries = new AADataStructure[in.readInt()];
+        for (int i=0; i<entries.length; ++i)
+            entries[i] = new AADataStructure(readString(in), readString(in), in.readInt());
+        return entries;
+    }
+
+    /** Strings are written as UTF-8 with length, -1 for <code>null</code>.
+     *  Unlike writeUTF, this handles long guidance texts.
+     */
+    private static void writeString(final DataOutputStream out, final String text) throws IOException
+    {
+        if (text == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException
+    {
+        final int length = in.readInt();
+        if (length < 0)
+            return null;
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBoolean(final DataOutputStream out, final Boolean value) throws IOException
+    {
+        out.writeByte(value == null ? -1 : (value ? 1 : 0));
+    }
+
+    private static Boolean readBoolean(final DataInputStream in) throws IOException
+    {
+        final byte value = in.readByte();
+        if (value < 0)
+            return null;
+        return value != 0;
+    }
+
+    private static void writeInstant(final DataOutputStream out, final Instant time) throws IOException
+    {
+        out.writeBoolean(time != null);
+        if (time != null)
+        {
+            out.writeLong(time.getEpochSecond());
+            out.writeInt(time.getNano());
+        }
+    }
+
+    private static Instant readInstant(final DataInputStream in) throws IOException
+    {
+        if (! in.readBoolean())
+            return null;
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+}
@@ -7,8 +7,11 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast.ui.clientmodel;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -22,6 +25,7 @@ import org.csstudio.alarm.beast.Preferences;
 import org.csstudio.alarm.beast.SeverityLevel;
 import org.csstudio.alarm.beast.client.AADataStructure;
 import org.csstudio.alarm.beast.client.AlarmConfiguration;
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot;
 import org.csstudio.alarm.beast.client.AlarmTreeItem;
 import org.csstudio.alarm.beast.client.AlarmTreePV;
 import org.csstudio.alarm.beast.client.AlarmTreeRoot;
@@ -118,6 +122,19 @@ public class AlarmClientModel
      */
     private Set<AlarmTreePV> acknowledged_alarms = new HashSet<AlarmTreePV>();
 
+    /** Maximum number of changes to active_alarms, acknowledged_alarms to keep */
+    final private static int MAX_ALARM_DELTAS = 10000;
+
+    /** Changes to active_alarms, acknowledged_alarms
+     *  <br><b>SYNC:</b> Access needs to synchronize on <code>this</code>
+     */
+    final private List<AlarmDelta> alarm_deltas = new ArrayList<AlarmDelta>();
+
+    /** Sequence number of the first entry in alarm_deltas
+     *  <br><b>SYNC:</b> Access needs to synchronize on <code>this</code>
+     */
+    private long alarm_delta_start = 0;
+
     /** Listeners who registered for notifications */
     final private CopyOnWriteArrayList<AlarmClientModelListener> listeners =
         new CopyOnWriteArrayList<AlarmClientModelListener>();
@@ -374,8 +391,7 @@ public class AlarmClientModel
 
             if (config != null)
                 config.close();
-            active_alarms.clear();
-            acknowledged_alarms.clear();
+            clearAlarms();
             config = null;
             // Note config_tree stays as it was...
         }
@@ -430,6 +446,25 @@ public class AlarmClientModel
             return;
         }
 
+        // Show configuration from snapshot file while waiting for JMS and reading the RDB
+        final File snapshot_file = getSnapshotFile();
+        if (snapshot_file != null  &&  snapshot_file.canRead())
+        {
+            try
+            {
+                new_config.readConfiguration(AlarmConfigurationSnapshot.read(snapshot_file), monitor);
+                synchronized (this)
+                {
+                    config_tree = new_config.getAlarmTree();
+                }
+                fireNewConfig();
+            }
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.WARNING, "Cannot read alarm configuration snapshot " + snapshot_file, ex);
+            }
+        }
+
         // Presumably connected to JMS and RDB,
         // but assert that we are really connected to JMS:
         // While we read the RDB, new alarms could arrive.
@@ -466,6 +501,12 @@ public class AlarmClientModel
         monitor.subTask(Messages.AlarmClientModel_ReadingRDB);
         try
         {
+            // Alarms of a snapshot were collected when creating its tree.
+            // Start over for the configuration from the RDB.
+            synchronized (this)
+            {
+                clearAlarms();
+            }
             new_config.readConfiguration(getConfigurationName(), false, monitor);
             // Update model with newly received data
             synchronized (this)
@@ -476,6 +517,8 @@ public class AlarmClientModel
                 // because fireNewAlarmState() was called while building
                 // the alarm tree
             }
+            if (snapshot_file != null)
+                writeSnapshot(new_config.getSnapshot(), snapshot_file);
         }
         catch (Exception ex)
         {
@@ -507,6 +550,7 @@ public class AlarmClientModel
         synchronized (this)
         {
             notify_listeners = true;
+            resetAlarmDeltas();
         }
 
         if (monitor.isCanceled())
@@ -517,14 +561,40 @@ public class AlarmClientModel
                 if (config != null)
                     config.close();
                 config = null;
-                active_alarms.clear();
-                acknowledged_alarms.clear();
+                clearAlarms();
             }
         }
         fireNewConfig();
         monitor.done();
     }
 
+    /** @return Snapshot file for the current configuration or <code>null</code> */
+    private File getSnapshotFile()
+    {
+        final File directory = Preferences.getConfigSnapshotDirectory();
+        if (directory == null)
+            return null;
+        return AlarmConfigurationSnapshot.getSnapshotFile(directory, getConfigurationName(), AlarmConfigurationSnapshot.CLIENT);
+    }
+
+    /** @param snapshot Configuration to write, may be <code>null</code>
+     *  @param file Snapshot file
+     */
+    private void writeSnapshot(final AlarmConfigurationSnapshot snapshot, final File file)
+    {
+        if (snapshot == null)
+            return;
+        try
+        {
+            file.getParentFile().mkdirs();
+            snapshot.write(file);
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Cannot write alarm configuration snapshot " + file, ex);
+        }
+    }
+
     /** @return Name of JMS server or some text that indicates
      *          disconnected state. For information, not to determine
      *          exact connection state.
@@ -613,6 +683,30 @@ public class AlarmClientModel
         return acknowledged_alarms.toArray(array);
     }
 
+    /** Get changes to the active and acknowledged alarms.
+     *  <p>
+     *  Allows clients to update a display of the alarms incrementally.
+     *  Clients start with a sequence number of -1, which results in a reset
+     *  that lists all alarms, and then use the sequence number of the
+     *  returned {@link AlarmDeltas} for the next call.
+     *  Only a limited number of changes is kept,
+     *  so clients that don't call often enough,
+     *  or that call after a new configuration was read,
+     *  receive a reset.
+     *
+     *  @param sequence Sequence number from previous call, or -1
+     *  @return {@link AlarmDeltas} with changes since that call, or reset
+     */
+    synchronized public AlarmDeltas getAlarmDeltas(final long sequence)
+    {
+        final long end = alarm_delta_start + alarm_deltas.size();
+        if (sequence < alarm_delta_start  ||  sequence > end)
+            return new AlarmDeltas(end, getActiveAlarms(), getAcknowledgedAlarms());
+        final List<AlarmDelta> changes = alarm_deltas.subList((int) (sequence - alarm_delta_start), alarm_deltas.size());
+        return new AlarmDeltas(end, changes.toArray(new AlarmDelta[changes.size()]),
+                               active_alarms.size(), acknowledged_alarms.size());
+    }
+
     /** Add a component to the model and RDB
      *  @param root_or_component Root or Component under which to add the component
      *  @param name Name of the new component
@@ -1031,8 +1125,51 @@ public class AlarmClientModel
     {
         config_tree = new AlarmTreeRoot("Pseudo", -1);
         new AlarmTreeItem(config_tree, info, 0);
+        clearAlarms();
+    }
+
+    /** Clear active and acknowledged alarms.
+     *  Clients of {@link #getAlarmDeltas(long)} will receive a reset.
+     *  <p>Caller must synchronize on <code>this</code>
+     */
+    private void clearAlarms()
+    {
         active_alarms.clear();
         acknowledged_alarms.clear();
+        resetAlarmDeltas();
+    }
+
+    /** Drop all changes to active, acknowledged alarms.
+     *  Clients of {@link #getAlarmDeltas(long)} will receive a reset.
+     *  <p>Caller must synchronize on <code>this</code>
+     */
+    private void resetAlarmDeltas()
+    {
+        // Leave a gap in the sequence numbers so that
+        // even clients that were up to date need to reset
+        alarm_delta_start += alarm_deltas.size() + 1;
+        alarm_deltas.clear();
+    }
+
+    /** Remember change to active or acknowledged alarms
+     *  <p>Caller must synchronize on <code>this</code>
+     *  @param type Type of change
+     *  @param pv PV that changed
+     *  @param acknowledged Change to acknowledged or active alarms?
+     */
+    private void addAlarmDelta(final AlarmDelta.Type type, final AlarmTreePV pv, final boolean acknowledged)
+    {
+        // While (re-)reading the configuration, clients will be reset afterwards
+        if (! notify_listeners)
+            return;
+        if (alarm_deltas.size() >= MAX_ALARM_DELTAS)
+        {   // Drop the older half.
+            // Clients that keep up don't notice, others will be reset
+            final int drop = MAX_ALARM_DELTAS / 2;
+            alarm_deltas.subList(0, drop).clear();
+            alarm_delta_start += drop;
+        }
+        alarm_deltas.add(new AlarmDelta(type, pv, acknowledged));
     }
 
     /** Send debug trigger to alarm server */
@@ -1114,23 +1251,29 @@ public class AlarmClientModel
             synchronized (this)
             {
                 final SeverityLevel severity = pv.getSeverity();
+                // Record removal before addition, so clients that
+                // combine both lists see the PV moved, not removed
                 if (severity.ordinal() > 0)
                 {
                     if (severity.isActive())
                     {
-                        active_alarms.add(pv);
-                        acknowledged_alarms.remove(pv);
+                        if (acknowledged_alarms.remove(pv))
+                            addAlarmDelta(AlarmDelta.Type.REMOVED, pv, true);
+                        addAlarmDelta(active_alarms.add(pv) ? AlarmDelta.Type.ADDED : AlarmDelta.Type.UPDATED, pv, false);
                     }
                     else
                     {
-                        acknowledged_alarms.add(pv);
-                        active_alarms.remove(pv);
+                        if (active_alarms.remove(pv))
+                            addAlarmDelta(AlarmDelta.Type.REMOVED, pv, false);
+                        addAlarmDelta(acknowledged_alarms.add(pv) ? AlarmDelta.Type.ADDED : AlarmDelta.Type.UPDATED, pv, true);
                     }
                 }
                 else
                 {
-                    active_alarms.remove(pv);
-                    acknowledged_alarms.remove(pv);
+                    if (active_alarms.remove(pv))
+                        addAlarmDelta(AlarmDelta.Type.REMOVED, pv, false);
+                    if (acknowledged_alarms.remove(pv))
+                        addAlarmDelta(AlarmDelta.Type.REMOVED, pv, true);
                 }
                 if (!notify_listeners )
                     return;
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.clientmodel;
+
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+
+/** Change to the active or acknowledged alarms of the {@link AlarmClientModel}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmDelta
+{
+    /** Type of change */
+    public enum Type
+    {
+        /** PV was added to the list of alarms */
+        ADDED,
+        /** PV remains in the list of alarms, but its alarm state changed */
+        UPDATED,
+        /** PV was removed from the list of alarms */
+        REMOVED
+    }
+
+    final private Type type;
+    final private AlarmTreePV pv;
+    final private boolean acknowledged;
+
+    /** Initialize
+     *  @param type Type of change
+     *  @param pv PV that changed
+     *  @param acknowledged <code>true</code> for change to acknowledged alarms,
+     *                      <code>false</code> for active alarms
+     */
+    public AlarmDelta(final Type type, final AlarmTreePV pv, final boolean acknowledged)
+    {
+        this.type = type;
+        this.pv = pv;
+        this.acknowledged = acknowledged;
+    }
+
+    /** @return Type of change */
+    public Type getType()
+    {
+        return type;
+    }
+
+    /** @return PV that changed */
+    public AlarmTreePV getPV()
+    {
+        return pv;
+    }
+
+    /** @return <code>true</code> for change to acknowledged alarms,
+     *          <code>false</code> for active alarms
+     */
+    public boolean isAcknowledged()
+    {
+        return acknowledged;
+    }
+
+    /** @return Debug representation */
+    @Override
+    public String toString()
+    {
+        return type + (acknowledged ? " acknowledged " : " active ") + pv.getPathName();
+    }
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.clientmodel;
+
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+
+/** Changes to the active and acknowledged alarms since a previous call
+ *  to {@link AlarmClientModel#getAlarmDeltas(long)}.
+ *  <p>
+ *  When the changes are no longer available, for example
+ *  after a new configuration was read, this is a 'reset'
+ *  that provides the complete list of alarms instead of changes.
+ *
+ *  @author agent
+ */
+public class AlarmDeltas
+{
+    final private long sequence;
+    final private AlarmDelta[] deltas;
+    final private AlarmTreePV[] active, acknowledged;
+    final private int active_count, acknowledged_count;
+
+    /** Initialize with changes
+     *  @param sequence Sequence number for the next call
+     *  @param deltas Changes, in the order in which they happened
+     *  @param active_count Number of active alarms
+     *  @param acknowledged_count Number of acknowledged alarms
+     */
+    AlarmDeltas(final long sequence, final AlarmDelta[] deltas,
+                final int active_count, final int acknowledged_count)
+    {
+        this.sequence = sequence;
+        this.deltas = deltas;
+        this.active = null;
+        this.acknowledged = null;
+        this.active_count = active_count;
+        this.acknowledged_count = acknowledged_count;
+    }
+
+    /** Initialize with complete list of alarms
+     *  @param sequence Sequence number for the next call
+     *  @param active Active alarms
+     *  @param acknowledged Acknowledged alarms
+     */
+    AlarmDeltas(final long sequence, final AlarmTreePV[] active, final AlarmTreePV[] acknowledged)
+    {
+        this.sequence = sequence;
+        this.deltas = null;
+        this.active = active;
+        this.acknowledged = acknowledged;
+        this.active_count = active.length;
+        this.acknowledged_count = acknowledged.length;
+    }
+
+    /** @return Sequence number to use for the next call to {@link AlarmClientModel#getAlarmDeltas(long)} */
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    /** @return <code>true</code> if this provides the complete list of alarms, not changes */
+    public boolean isReset()
+    {
+        return deltas == null;
+    }
+
+    /** @return Changes in the order in which they happened, <code>null</code> for reset */
+    public AlarmDelta[] getDeltas()
+    {
+        return deltas;
+    }
+
+    /** @return All active alarms for reset, otherwise <code>null</code> */
+    public AlarmTreePV[] getActiveAlarms()
+    {
+        return active;
+    }
+
+    /** @return All acknowledged alarms for reset, otherwise <code>null</code> */
+    public AlarmTreePV[] getAcknowledgedAlarms()
+    {
+        return acknowledged;
+    }
+
+    /** @return Number of active alarms */
+    public int getActiveCount()
+    {
+        return active_count;
+    }
+
+    /** @return Number of acknowledged alarms */
+    public int getAcknowledgedCount()
+    {
+        return acknowledged_count;
+    }
+}
@@ -7,6 +7,12 @@
  ******************************************************************************/
 package org.csstudio.logging.jms2rdb;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import javax.jms.Connection;
@@ -20,18 +26,20 @@ import javax.jms.Session;
 import javax.jms.Topic;
 
 import org.csstudio.logging.jms2rdb.rdb.RDBWriter;
+import org.csstudio.logging.jms2rdb.rdb.ReceivedMessage;
 import org.csstudio.platform.utility.jms.JMSConnectionFactory;
 
 /** Thread that receives log messages and sends them to the RDB.
  *  <p>
- *  There is no further queuing in here.
- *  All messages are directly written to the RDB.
+ *  Received messages are placed in a bounded queue.
+ *  This thread takes them from the queue and writes
+ *  up to <code>batch_size</code> messages,
+ *  or what arrived within <code>batch_ms</code>,
+ *  in one RDB transaction.
  *  <p>
- *  If messages arrive quicker than they can be written to RDB,
- *  simple test showed that ActiveMQ JMS server will queue them up
- *  for this "consumer" as long as the consumer stays connected.
- *  TODO: Limits and config. of JMS server queue unclear.
- *        Queue in here?
+ *  When messages arrive quicker than they can be written to the RDB
+ *  for so long that the queue fills up, new messages are dropped
+ *  instead of piling up in the JMS server.
  *
  *  @author Kay Kasemir
  *  reviewed by Katia Danilova 08/20/08
@@ -45,6 +53,9 @@ public class LogClientThread extends Thread
      */
     private static final int RETRY_DELAY_MS = 20000;
 
+    /** Time to wait for new messages before checking if thread should stop */
+    private static final int IDLE_POLL_MS = 1000;
+
     /** JMS Server URL */
     final private String jms_url;
 
@@ -75,9 +86,33 @@ public class LogClientThread extends Thread
     /** RDB Writer for log messages */
     private RDBWriter rdb_writer;
 
+    /** Maximum number of messages per RDB transaction */
+    final private int batch_size;
+
+    /** Maximum time to wait for more messages of a batch */
+    final private long batch_ms;
+
+    /** Messages received, waiting to be written */
+    final private BlockingQueue<ReceivedMessage> queue;
+
     /** Counter for received JMS messages */
     private int message_count = 0;
 
+    /** Counter for messages dropped because queue was full or write failed */
+    private long dropped_count = 0;
+
+    /** Counter for messages written to RDB */
+    private long written_count = 0;
+
+    /** Counter for RDB transactions */
+    private long batch_count = 0;
+
+    /** Time from receipt to commit of the oldest message in the last batch [ms] */
+    private long lag_ms = 0;
+
+    /** Maximum of lag_ms */
+    private long max_lag_ms = 0;
+
     /** Last JMS Message */
     private MapMessage last_message = null;
 
@@ -91,11 +126,16 @@ public class LogClientThread extends Thread
      *  @param rdb_user User (or null)
      *  @param rdb_password Password (or null)
      *  @param rdb_schema RDB schema or ""
+     *  @param filters Filters for messages to ignore
+     *  @param queue_capacity Maximum number of messages to queue for the RDB
+     *  @param batch_size Maximum number of messages per RDB transaction
+     *  @param batch_ms Maximum time in milliseconds to wait for more messages of a batch
      */
     public LogClientThread(final String jms_url, final String jms_topic,
             final String rdb_url, final String rdb_user, final String rdb_password,
             final String rdb_schema,
-            final Filter filters[])
+            final Filter filters[],
+            final int queue_capacity, final int batch_size, final long batch_ms)
     {
         super("LogClientThread");
         this.jms_url = jms_url;
@@ -105,6 +145,9 @@ public class LogClientThread extends Thread
         this.rdb_password = rdb_password;
         this.rdb_schema = rdb_schema;
         this.filters = filters;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queue_capacity));
+        this.batch_size = Math.max(1, batch_size);
+        this.batch_ms = Math.max(0, batch_ms);
 
         for (Filter filter : filters)
             Activator.getLogger().config(filter.toString());
@@ -116,6 +159,42 @@ public class LogClientThread extends Thread
         return message_count;
     }
 
+    /** @return Number of messages waiting to be written */
+    public int getQueueSize()
+    {
+        return queue.size();
+    }
+
+    /** @return Number of messages dropped because the queue was full or the write failed */
+    public synchronized long getDroppedCount()
+    {
+        return dropped_count;
+    }
+
+    /** @return Number of messages written to the RDB */
+    public synchronized long getWrittenCount()
+    {
+        return written_count;
+    }
+
+    /** @return Number of RDB transactions */
+    public synchronized long getBatchCount()
+    {
+        return batch_count;
+    }
+
+    /** @return Time from receipt to commit of the oldest message in the last batch [ms] */
+    public synchronized long getLag()
+    {
+        return lag_ms;
+    }
+
+    /** @return Maximum time from receipt to commit of a message [ms] */
+    public synchronized long getMaxLag()
+    {
+        return max_lag_ms;
+    }
+
     /** @return Last messages received or <code>null</code> */
     public synchronized MapMessage getLastMessage()
     {
@@ -147,14 +226,19 @@ public class LogClientThread extends Thread
 
                 jms_connection = connectJMS();
 
-                // Incoming JMS messages are handled in onMessage,
-                // so nothing to do here but wait...
+                // Incoming JMS messages are queued in onMessage,
+                // written from here until cancelled or restarted
                 synchronized (this)
                 {
                     do_wait = true;
-                    // Check some condition to please FindBugs
-                    while (do_wait)
-                        wait();
+                }
+                final List<ReceivedMessage> batch = new ArrayList<>(batch_size);
+                while (isWriting())
+                {
+                    collectBatch(batch);
+                    if (batch.isEmpty())
+                        continue;
+                    writeBatch(batch);
                 }
             }
             catch (Exception ex)
@@ -182,6 +266,9 @@ public class LogClientThread extends Thread
                 // .. then the RDB used by the JMS client.
                 if (rdb_writer != null)
                 {
+                    // On shutdown, write what's still queued
+                    if (! run)
+                        flush();
                     rdb_writer.close();
                     rdb_writer = null;
                 }
@@ -204,6 +291,130 @@ public class LogClientThread extends Thread
                 }
             }
         }
+        // Messages that could not be flushed on shutdown are lost
+        final int lost = queue.size();
+        queue.clear();
+        if (lost > 0)
+        {
+            synchronized (this)
+            {
+                dropped_count += lost;
+            }
+            Activator.getLogger().log(Level.WARNING, "Dropped {0} queued messages on shutdown", lost);
+        }
+    }
+
+    /** @return <code>true</code> while messages should be written */
+    private synchronized boolean isWriting()
+    {
+        return do_wait;
+    }
+
+    /** Collect next batch of messages from queue
+     *
+     *  <p>Waits a little for the first message.
+     *  Then collects more messages until the batch is full
+     *  or the batch time has expired.
+     *
+     *  @param batch Batch to fill, empty if no message arrived
+     *  @throws InterruptedException on interruption
+     */
+    private void collectBatch(final List<ReceivedMessage> batch) throws InterruptedException
+    {
+        final ReceivedMessage first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+        if (first == null)
+            return;
+        batch.add(first);
+        final long end = System.currentTimeMillis() + batch_ms;
+        while (batch.size() < batch_size)
+        {
+            queue.drainTo(batch, batch_size - batch.size());
+            if (batch.size() >= batch_size)
+                break;
+            final long wait = end - System.currentTimeMillis();
+            if (wait <= 0)
+                break;
+            final ReceivedMessage message = queue.poll(wait, TimeUnit.MILLISECONDS);
+            if (message == null)
+                break;
+            batch.add(message);
+        }
+    }
+
+    /** Write batch of messages to RDB
+     *
+     *  <p>When the batch cannot be written in one transaction,
+     *  each message is written on its own,
+     *  so only the offending messages are dropped.
+     *
+     *  @param batch Messages to write, cleared when done
+     *  @throws Exception on error when none of the messages can be written,
+     *                    assuming a problem with the RDB connection
+     */
+    private void writeBatch(final List<ReceivedMessage> batch) throws Exception
+    {
+        final long oldest = batch.get(0).getReceived();
+        int written = 0;
+        try
+        {
+            rdb_writer.writeMessages(batch);
+            written = batch.size();
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING,
+                "Cannot write batch of " + batch.size() + " messages, writing one by one", ex);
+            Exception error = ex;
+            for (ReceivedMessage message : batch)
+            {
+                try
+                {
+                    rdb_writer.writeMessages(Collections.singletonList(message));
+                    ++written;
+                }
+                catch (Exception msg_ex)
+                {
+                    error = msg_ex;
+                    Activator.getLogger().log(Level.WARNING,
+                        "Dropped message " + message.getMessage(), msg_ex);
+                }
+            }
+            if (written <= 0)
+            {
+                synchronized (this)
+                {
+                    dropped_count += batch.size();
+                }
+                batch.clear();
+                throw error;
+            }
+        }
+        final long lag = System.currentTimeMillis() - oldest;
+        synchronized (this)
+        {
+            written_count += written;
+            dropped_count += batch.size() - written;
+            ++batch_count;
+            lag_ms = lag;
+            if (lag > max_lag_ms)
+                max_lag_ms = lag;
+        }
+        batch.clear();
+    }
+
+    /** Write all messages that are still queued */
+    private void flush()
+    {
+        final List<ReceivedMessage> batch = new ArrayList<>(batch_size);
+        try
+        {
+            while (queue.drainTo(batch, batch_size) > 0)
+                writeBatch(batch);
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Cannot flush queued messages", ex);
+        }
     }
 
     /** Connect to JMS server
@@ -232,7 +443,9 @@ public class LogClientThread extends Thread
         return connection;
     }
 
-    /** Ask thread to stop. Does not block for thread to actually exit */
+    /** Ask thread to stop. Does not block for thread to actually exit.
+     *  Messages that are already queued will still be written.
+     */
     public void cancel()
     {
         run = false;
@@ -267,7 +480,18 @@ public class LogClientThread extends Thread
                     ++message_count;
                     last_message  = map;
                 }
-                rdb_writer.write(map);
+                if (! queue.offer(new ReceivedMessage(map)))
+                {
+                    final long dropped;
+                    synchronized (this)
+                    {
+                        dropped = ++dropped_count;
+                    }
+                    // Log first and then every 1000th dropped message
+                    if (dropped % 1000 == 1)
+                        Activator.getLogger().log(Level.WARNING,
+                            "Message queue full, dropped {0} messages", dropped);
+                }
             }
             else
                 Activator.getLogger().log(Level.WARNING, "Received unhandled message {0}", message);
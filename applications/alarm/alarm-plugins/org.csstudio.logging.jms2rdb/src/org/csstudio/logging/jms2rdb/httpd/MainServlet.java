@@ -49,6 +49,15 @@ public class MainServlet extends AbstractServlet
 
         html.h2("Message Count: " + log_client_thread.getMessageCount());
 
+        html.openTable(2, new String [] { "RDB Writer" });
+        html.tableLine(new String [] { "Queued", Integer.toString(log_client_thread.getQueueSize()) });
+        html.tableLine(new String [] { "Dropped", Long.toString(log_client_thread.getDroppedCount()) });
+        html.tableLine(new String [] { "Written", Long.toString(log_client_thread.getWrittenCount()) });
+        html.tableLine(new String [] { "Transactions", Long.toString(log_client_thread.getBatchCount()) });
+        html.tableLine(new String [] { "Lag", log_client_thread.getLag() + " ms" });
+        html.tableLine(new String [] { "Max. Lag", log_client_thread.getMaxLag() + " ms" });
+        html.closeTable();
+
         final String last_error = log_client_thread.getLastError();
         if (last_error.length() > 0)
         {
@@ -12,9 +12,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.sql.Timestamp;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,9 +26,13 @@ import javax.jms.MapMessage;
 import org.csstudio.logging.JMSLogMessage;
 import org.csstudio.logging.jms2rdb.Activator;
 import org.csstudio.platform.utility.rdb.RDBUtil;
-import org.csstudio.platform.utility.rdb.RDBUtil.Dialect;
 
 /** Class that writes JMSLogMessages to the RDB
+ *
+ *  <p>Messages are written in batches, each batch in one transaction.
+ *  Property IDs are cached, and where the RDB uses a sequence
+ *  for message IDs, they are fetched in blocks.
+ *
  *  @author Kay Kasemir
  *  @author Lana Abadie - PostgreSQL additions. Disable autocommit as needed.
  *  reviewed by Katia Danilova 08/20/08
@@ -37,6 +44,9 @@ public class RDBWriter
 
     private static final int MAX_NAME_LENGTH = 80;
 
+    /** Number of message IDs to fetch from the sequence at once */
+    private static final int MESSAGE_ID_BLOCK = 100;
+
     /** Enable Oracle statistics? */
     private static final boolean enable_trace = false;
 
@@ -50,8 +60,14 @@ public class RDBWriter
     final private HashMap<String, Integer> properties =
         new HashMap<String, Integer>();
 
-    /** Lazily initialized statement */
-    private PreparedStatement next_message_id_statement;
+    /** Statement for a block of message IDs, <code>null</code> for auto-assigned IDs */
+    private PreparedStatement message_id_block_statement;
+
+    /** Pre-allocated message IDs */
+    private long[] message_ids = new long[0];
+
+    /** Index of next unused ID in message_ids */
+    private int next_message_id = 0;
 
     /** Lazily initialized statement */
     private PreparedStatement insert_message_statement;
@@ -88,19 +104,38 @@ public class RDBWriter
 
         sql = new SQL(rdb_util, schema);
 
-        if (sql.select_next_message_id != null)
-            next_message_id_statement =
-                connection.prepareStatement(sql.select_next_message_id);
-
-        if (rdb_util.getDialect() == Dialect.PostgreSQL)
+        if (sql.select_message_id_block != null)
+        {
+            message_id_block_statement =
+                connection.prepareStatement(sql.select_message_id_block);
             insert_message_statement =
-                        connection.prepareStatement(sql.insert_message_id_datum_type_name_severity);
+                connection.prepareStatement(sql.insert_message_id_datum_type_name_severity);
+        }
         else // MySQL, other RDB that supports RETURN_GENERATED_KEYS
             insert_message_statement =
                     connection.prepareStatement(sql.insert_message_id_datum_type_name_severity,
                             Statement.RETURN_GENERATED_KEYS);
         insert_property_statement =
             connection.prepareStatement(sql.insert_message_property_value);
+
+        readPropertyTypes();
+    }
+
+    /** Pre-load the cache of property IDs
+     *  @throws Exception on error
+     */
+    private void readPropertyTypes() throws Exception
+    {
+        try
+        (
+            final Statement statement = rdb_util.getConnection().createStatement();
+            final ResultSet result = statement.executeQuery(sql.select_property_ids);
+        )
+        {
+            while (result.next())
+                properties.put(result.getString(2), Integer.valueOf(result.getInt(1)));
+        }
+        Activator.getLogger().log(Level.CONFIG, "Read {0} message property types", properties.size());
     }
 
     /** Get numeric ID of a property, using either the local cache
@@ -139,8 +174,8 @@ public class RDBWriter
         // Fundamentally, there is a small chance that multiple instances
         // of this program will try to create duplicate property entries.
         // In reality, it probably doesn't matter.
-        // Since we wrap the whole one-message-write into a transaction,
-        // the worst case would be one lost message because of a property ID clash.
+        // Since property IDs are resolved before writing a batch of messages,
+        // the worst case would be one lost batch because of a property ID clash.
         statement = connection.prepareStatement(sql.select_next_property_id);
         int next_id;
         try
@@ -192,11 +227,11 @@ public class RDBWriter
     /** Close the RDB connection */
     public void close()
     {
-        if (next_message_id_statement != null)
+        if (message_id_block_statement != null)
         {
             try
             {
-                next_message_id_statement.close();
+                message_id_block_statement.close();
             }
             catch (Exception ex)
             { /* Ignore */ }
@@ -236,49 +271,61 @@ public class RDBWriter
         rdb_util.close();
     }
 
+    /** Message to write, with property IDs already resolved */
+    private static class Row
+    {
+        final Timestamp datum;
+        final String type, name, severity;
+        final List<String> properties = new ArrayList<>();
+        final List<Integer> property_ids = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+
+        Row(final long received, final String type, final String name, final String severity)
+        {
+            this.datum = new Timestamp(received);
+            this.type = type;
+            this.name = name;
+            this.severity = severity;
+        }
+    }
+
     /** Write log message to RDB
      *  @param message Text to write
      *  @throws Exception on error
      */
     public void write(final String message) throws Exception
     {
-        final Connection connection = rdb_util.getConnection();
-        connection.setAutoCommit(false);
-        try
-        {
-            final long message_id = insertMessage(JMSLogMessage.TYPE, null, "INFO");
-            batchProperty(message_id, JMSLogMessage.TEXT, message);
-            insert_property_statement.executeBatch();
-            connection.commit();
-        }
-        catch (Exception ex)
-        {
-            connection.rollback();
-            throw ex;
-        }
-        finally
-        {
-            connection.setAutoCommit(true);
-        }
+        final Row row = new Row(System.currentTimeMillis(), JMSLogMessage.TYPE, null, "INFO");
+        addProperty(row, JMSLogMessage.TEXT, message);
+        write(Collections.singletonList(row));
     }
 
     /** Write log message to RDB
-     *  @param message MapMessage to write
+     *  @param map MapMessage to write
      *  @throws Exception on error
      */
-    @SuppressWarnings("unchecked")
     public void write(final MapMessage map) throws Exception
     {
-        final String type = map.getString(JMSLogMessage.TYPE);
-        final String name = map.getString(JMSLogMessage.NAME);
-        final String severity = map.getString(JMSLogMessage.SEVERITY);
+        writeMessages(Collections.singletonList(new ReceivedMessage(map)));
+    }
 
-        final Connection connection = rdb_util.getConnection();
-        connection.setAutoCommit(false);
-        try
+    /** Write log messages to RDB in one transaction
+     *  @param messages Messages to write
+     *  @throws Exception on error
+     */
+    @SuppressWarnings("unchecked")
+    public void writeMessages(final List<ReceivedMessage> messages) throws Exception
+    {
+        // Resolve property IDs before starting the transaction,
+        // because adding a new property type commits on its own
+        final List<Row> rows = new ArrayList<>(messages.size());
+        for (ReceivedMessage message : messages)
         {
-            final long message_id = insertMessage(type, name, severity);
-
+            final MapMessage map = message.getMessage();
+            final Row row = new Row(message.getReceived(),
+                                    map.getString(JMSLogMessage.TYPE),
+                                    map.getString(JMSLogMessage.NAME),
+                                    map.getString(JMSLogMessage.SEVERITY));
             final Enumeration<String> props = map.getMapNames();
             while (props.hasMoreElements())
             {
@@ -288,13 +335,75 @@ public class RDBWriter
                     JMSLogMessage.NAME.equals(prop) ||
                     JMSLogMessage.SEVERITY.equals(prop))
                     continue;
-                batchProperty(message_id, prop, map.getString(prop));
+                addProperty(row, prop, map.getString(prop));
+            }
+            rows.add(row);
+        }
+        write(rows);
+    }
+
+    /** Add property to a message
+     *  @param row Message
+     *  @param property Property name
+     *  @param value Value of the property
+     *  @throws Exception on error
+     */
+    private void addProperty(final Row row, final String property, String value) throws Exception
+    {
+        // Don't bother to insert empty properties
+        if (value == null  ||  value.isEmpty())
+            return;
+        // Overcome RDB limitations
+        if (value.length() > MAX_VALUE_LENGTH)
+        {
+            Activator.getLogger().log(Level.WARNING,
+                    "Limiting {0} = {1} to {2} characters",
+                    new Object[] { property, value, MAX_VALUE_LENGTH });
+            value = value.substring(0, MAX_VALUE_LENGTH);
+        }
+        row.properties.add(property);
+        row.property_ids.add(getPropertyType(property));
+        row.values.add(value);
+    }
+
+    /** Write messages in one transaction
+     *  @param rows Messages to write
+     *  @throws Exception on error
+     */
+    private void write(final List<Row> rows) throws Exception
+    {
+        final Connection connection = rdb_util.getConnection();
+        connection.setAutoCommit(false);
+        try
+        {
+            final long[] ids = new long[rows.size()];
+            for (int i=0; i<ids.length; ++i)
+                ids[i] = insertMessage(rows.get(i));
+            // With pre-allocated IDs, messages were batched
+            if (message_id_block_statement != null)
+                insert_message_statement.executeBatch();
+
+            final Logger logger = Activator.getLogger();
+            for (int i=0; i<ids.length; ++i)
+            {
+                final Row row = rows.get(i);
+                for (int p=0; p<row.property_ids.size(); ++p)
+                {
+                    insert_property_statement.setLong(1, ids[i]);
+                    insert_property_statement.setInt(2, row.property_ids.get(p));
+                    insert_property_statement.setString(3, row.values.get(p));
+                    insert_property_statement.addBatch();
+                    if (logger.isLoggable(Level.FINE))
+                        logger.fine(String.format("  %-14s: %s", row.properties.get(p), row.values.get(p)));
+                }
             }
             insert_property_statement.executeBatch();
             connection.commit();
         }
         catch (Exception ex)
         {
+            insert_message_statement.clearBatch();
+            insert_property_statement.clearBatch();
             connection.rollback();
             throw ex;
         }
@@ -304,39 +413,38 @@ public class RDBWriter
         }
     }
 
-    /** Insert a new message
-     *  @param type  Message type
-     *  @param name Primary name (PV name, ...) to which the msg refers. May be <code>null</code>
-     *  @param severity Message severity
-     *  @return ID of the new message row
+    /** @return Next pre-allocated message ID
      *  @throws Exception on error
      */
-    private long insertMessage(
-            final String type, String name,
-            final String severity) throws Exception
+    private long nextMessageId() throws Exception
     {
-        long message_id = -1;
-        if (rdb_util.getDialect() == Dialect.Oracle)
-        {
-           // Read next unique message ID from sequence
-            final ResultSet result = next_message_id_statement.executeQuery();
-            if (result.next())
-                message_id = result.getInt(1);
-            else
+        if (next_message_id >= message_ids.length)
+        {   // Fetch a new block of IDs from the sequence
+            message_id_block_statement.setInt(1, MESSAGE_ID_BLOCK);
+            final long[] ids = new long[MESSAGE_ID_BLOCK];
+            int count = 0;
+            try (final ResultSet result = message_id_block_statement.executeQuery())
             {
-                result.close();
-                throw new Exception("Cannot obtain next message ID");
+                while (count < ids.length  &&  result.next())
+                    ids[count++] = result.getLong(1);
             }
-            result.close();
-            insert_message_statement.setLong(5, message_id);
+            if (count <= 0)
+                throw new Exception("Cannot obtain next message ID");
+            message_ids = count < ids.length ? Arrays.copyOf(ids, count) : ids;
+            next_message_id = 0;
         }
-        // else: Depend on AUTO_INCREMENT resp. SERIAL for new ID, then read it after insert
+        return message_ids[next_message_id++];
+    }
 
-        // Insert the main message
-        final Date now = new Date();
-        insert_message_statement.setTimestamp(1, new Timestamp(now.getTime()));
-        insert_message_statement.setString(2, type);
+    /** Insert a new message
+     *  @param row Message to insert
+     *  @return ID of the new message row
+     *  @throws Exception on error
+     */
+    private long insertMessage(final Row row) throws Exception
+    {
         // Overcome RDB limitations
+        String name = row.name;
         if (name == null)
             name = "";
         else if (name.length() > MAX_NAME_LENGTH)
@@ -346,88 +454,42 @@ public class RDBWriter
                 new Object[] { name, MAX_NAME_LENGTH });
             name = name.substring(0, MAX_NAME_LENGTH);
         }
+        insert_message_statement.setTimestamp(1, row.datum);
+        insert_message_statement.setString(2, row.type);
         insert_message_statement.setString(3, name);
-        insert_message_statement.setString(4, severity);
+        insert_message_statement.setString(4, row.severity);
 
-        // PostgreSQL, MySQL: Read auto-assigned unique message ID
-        if (rdb_util.getDialect() == Dialect.PostgreSQL)
-        {
-            final ResultSet result = insert_message_statement.executeQuery();
-            if (result.next())
-            {
-                  message_id = result.getInt(1);
-                  result.close();
-            }
-            else
-            {
-                 result.close();
-                throw new Exception("Cannot obtain next message ID");
-            }
+        long message_id = -1;
+        if (message_id_block_statement != null)
+        {   // Oracle, PostgreSQL: Use pre-allocated ID, batch the insert
+            message_id = nextMessageId();
+            insert_message_statement.setLong(5, message_id);
+            insert_message_statement.addBatch();
         }
-        else if (rdb_util.getDialect() == Dialect.MySQL)
-        {
+        else
+        {   // MySQL: Read auto-assigned unique message ID
             final int rows = insert_message_statement.executeUpdate();
             if (rows != 1)
                 throw new Exception("Inserted " + rows + " instead of 1 Message");
 
-            final ResultSet result = insert_message_statement.getGeneratedKeys();
-            if (result.next())
-                message_id = result.getInt(1);
-            else
+            try (final ResultSet result = insert_message_statement.getGeneratedKeys())
             {
-                result.close();
-                throw new Exception("Cannot obtain next message ID");
+                if (result.next())
+                    message_id = result.getLong(1);
+                else
+                    throw new Exception("Cannot obtain next message ID");
             }
-            result.close();
-        }
-        else // Oracle
-        {
-            final int rows = insert_message_statement.executeUpdate();
-            if (rows != 1)
-                throw new Exception("Inserted " + rows + " instead of 1 Message");
         }
 
         final Logger logger = Activator.getLogger();
         if (logger.isLoggable(Level.FINE))
         {
             logger.fine("Message " + message_id + ":");
-            logger.fine("  TYPE          : " + type);
-            logger.fine("  DATUM         : " + now);
+            logger.fine("  TYPE          : " + row.type);
+            logger.fine("  DATUM         : " + row.datum);
             logger.fine("  NAME          : " + name);
-            logger.fine("  SEVERITY      : " + severity);
+            logger.fine("  SEVERITY      : " + row.severity);
         }
         return message_id;
     }
-
-    /** Insert a property, add content to a message
-     *  @param message_id ID of message to which this property belongs
-     *  @param property_id ID of the property type
-     *  @param value Value of the property
-     *  @throws Exception on error
-     */
-    private boolean batchProperty(final long message_id,
-            final String property, String value) throws Exception
-    {
-        // Don't bother to insert empty properties
-        if (value == null  ||  value.isEmpty())
-            return false;
-
-        final int property_id = getPropertyType(property);
-
-        insert_property_statement.setLong(1, message_id);
-        insert_property_statement.setInt(2, property_id);
-        // Overcome RDB limitations
-        if (value.length() > MAX_VALUE_LENGTH)
-        {
-            Activator.getLogger().log(Level.WARNING,
-                    "Limiting {0} = {1} to {2} characters",
-                    new Object[] { property, value, MAX_NAME_LENGTH });
-            value = value.substring(0, MAX_VALUE_LENGTH);
-        }
-        insert_property_statement.setString(3, value);
-        insert_property_statement.addBatch();
-
-        Activator.getLogger().fine(String.format("  %-14s: %s", property, value));
-        return true;
-    }
 }
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.logging.jms2rdb.rdb;
+
+import javax.jms.MapMessage;
+
+/** JMS message and the time when it was received
+ *
+ *  <p>Messages are queued before they are written to the RDB,
+ *  so the time of receipt, not the time of the write,
+ *  is used for the message 'datum'.
+ *
+ *  @author agent
+ */
+public class ReceivedMessage
+{
+    final private MapMessage message;
+    final private long received;
+
+    /** @param message JMS message, received now */
+    public ReceivedMessage(final MapMessage message)
+    {
+        this.message = message;
+        this.received = System.currentTimeMillis();
+    }
+
+    /** @return JMS message */
+    public MapMessage getMessage()
+    {
+        return message;
+    }
+
+    /** @return Time of receipt in milliseconds since epoch */
+    public long getReceived()
+    {
+        return received;
+    }
+}
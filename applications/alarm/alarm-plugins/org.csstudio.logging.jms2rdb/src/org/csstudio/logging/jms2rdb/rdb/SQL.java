@@ -20,12 +20,17 @@ public class SQL
 {
     final public String select_property_id_by_name;
 
+    final public String select_property_ids;
+
     final public String select_next_property_id;
 
     final public String insert_property_id;
 
     final public String select_next_message_id;
 
+    /** Query for a block of message IDs, or <code>null</code> if IDs are auto-assigned */
+    final public String select_message_id_block;
+
     final public String insert_message_id_datum_type_name_severity;
 
     final public String insert_message_property_value;
@@ -41,6 +46,9 @@ public class SQL
         select_property_id_by_name =
             "SELECT id FROM " + prefix + "msg_property_type WHERE name=?";
 
+        select_property_ids =
+            "SELECT id, name FROM " + prefix + "msg_property_type";
+
         select_next_property_id =
             "SELECT MAX(id)+1 FROM " + prefix + "msg_property_type";
 
@@ -50,18 +58,21 @@ public class SQL
         if (rdb_util.getDialect() == Dialect.Oracle)
         {   // Oracle uses sequence to get message.id.
             select_next_message_id = "SELECT " + prefix + "message_id_seq.NEXTVAL FROM DUAL";
+            select_message_id_block = "SELECT " + prefix + "message_id_seq.NEXTVAL FROM DUAL CONNECT BY LEVEL <= ?";
             insert_message_id_datum_type_name_severity =
                 "INSERT INTO " + prefix + "message (datum, type, name, severity, id) VALUES (?,?,?,?,?)";
         }
         else if (rdb_util.getDialect() == Dialect.PostgreSQL)
-        {    // PostgreSQL 'returns' the auto-generated ID
-            select_next_message_id = null;
+        {   // PostgreSQL gets IDs from the sequence of the SERIAL message.id
+            select_next_message_id = "SELECT nextval('" + prefix + "message_id_seq')";
+            select_message_id_block = "SELECT nextval('" + prefix + "message_id_seq') FROM generate_series(1, ?)";
             insert_message_id_datum_type_name_severity =
-                "INSERT INTO " + prefix + "message (datum, type, name, severity) VALUES (?,?,?,?) returning id";
+                "INSERT INTO " + prefix + "message (datum, type, name, severity, id) VALUES (?,?,?,?,?)";
         }
         else
         {   // Other dialects (MySQL) use auto-increment ID column.
             select_next_message_id = null;
+            select_message_id_block = null;
             insert_message_id_datum_type_name_severity =
                 "INSERT INTO " + prefix + "message (datum, type, name, severity) VALUES (?,?,?,?)";
         }
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.rtplot;
+
+import org.csstudio.swt.rtplot.data.ArrayPlotDataProvider;
+import org.csstudio.swt.rtplot.data.SimpleDataItem;
+import org.csstudio.swt.rtplot.internal.PlotPart;
+import org.csstudio.swt.rtplot.internal.PlotPartListener;
+import org.csstudio.swt.rtplot.internal.TraceImpl;
+import org.csstudio.swt.rtplot.internal.TracePainter;
+import org.csstudio.swt.rtplot.internal.YAxisImpl;
+import org.csstudio.swt.rtplot.internal.util.LinearScreenTransform;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Display;
+
+/** Benchmark of {@link TracePainter}
+ *
+ *  <p>Paints traces of increasing sample count
+ *  into an image and prints the time per paint.
+ *  With the samples reduced per pixel column,
+ *  paint time should grow with the sample count
+ *  only for the transformation of samples into screen coordinates,
+ *  not for the drawing.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class TracePainterDemo
+{
+    final private static int WIDTH = 1200, HEIGHT = 800;
+    final private static int RUNS = 10;
+
+    private static ArrayPlotDataProvider<Double> createData(final int count)
+    {
+        final ArrayPlotDataProvider<Double> data = new ArrayPlotDataProvider<>();
+        for (int i=0; i<count; ++i)
+        {
+            final double value = 5.0 + 4.0*Math.sin(i * 20.0 * Math.PI / count) + Math.random();
+            data.add(new SimpleDataItem<Double>((double) i, value, 0.2, value - 0.5, value + 0.5, null));
+        }
+        return data;
+    }
+
+    public static void main(String[] args)
+    {
+        final Display display = new Display();
+        final Image image = new Image(display, WIDTH, HEIGHT);
+        final GC gc = new GC(image);
+        final SWTMediaPool media = new SWTMediaPool(display);
+        final Rectangle bounds = new Rectangle(0, 0, WIDTH, HEIGHT);
+
+        final YAxisImpl<Double> y_axis = new YAxisImpl<>("Value", new PlotPartListener()
+        {
+            @Override
+            public void refreshPlotPart(final PlotPart plotPart)
+            {
+                // Ignore
+            }
+
+            @Override
+            public void layoutPlotPart(final PlotPart plotPart)
+            {
+                // Ignore
+            }
+        });
+        y_axis.setBounds(0, 0, 50, HEIGHT);
+        y_axis.setValueRange(-1.0, 11.0);
+
+        final TracePainter<Double> painter = new TracePainter<>();
+        System.out.println("Samples      Type            ms/paint");
+        for (int count = 1000;  count <= 1000000;  count *= 10)
+        {
+            final ArrayPlotDataProvider<Double> data = createData(count);
+            final LinearScreenTransform x_transform = new LinearScreenTransform();
+            x_transform.config(0.0, (double) count, 0, WIDTH);
+
+            for (TraceType type : new TraceType[] { TraceType.SINGLE_LINE_DIRECT, TraceType.SINGLE_LINE,
+                                                    TraceType.AREA_DIRECT, TraceType.LINES })
+            {
+                final TraceImpl<Double> trace = new TraceImpl<>("Demo", "", data, new RGB(0, 0, 255),
+                                                                type, 1, PointType.NONE, 5, 0);
+                // Warm up, then measure
+                painter.paint(gc, media, bounds, 20, x_transform, y_axis, trace);
+                final long start = System.nanoTime();
+                for (int run=0; run<RUNS; ++run)
+                    painter.paint(gc, media, bounds, 20, x_transform, y_axis, trace);
+                final double ms = (System.nanoTime() - start) / 1e6 / RUNS;
+                System.out.format("%8d     %-18s %8.2f\n", count, type.name(), ms);
+            }
+        }
+
+        media.dispose();
+        gc.dispose();
+        image.dispose();
+        display.dispose();
+    }
+}
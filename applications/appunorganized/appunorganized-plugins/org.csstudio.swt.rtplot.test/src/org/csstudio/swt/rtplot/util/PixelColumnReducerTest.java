@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.rtplot.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import org.csstudio.swt.rtplot.internal.util.IntList;
+import org.csstudio.swt.rtplot.internal.util.PixelColumnReducer;
+import org.junit.Test;
+
+/** JUnit test of {@link PixelColumnReducer}
+ *  @author agent
+ */
+public class PixelColumnReducerTest
+{
+    @Test
+    public void testLine()
+    {
+        final IntList poly = new IntList(2);
+        final PixelColumnReducer reducer = new PixelColumnReducer(false);
+        // Column 0 goes down to 3, up to 7, ends at 6
+        reducer.add(poly, 0, 5);
+        reducer.add(poly, 0, 4);
+        reducer.add(poly, 0, 3);
+        reducer.add(poly, 0, 7);
+        reducer.add(poly, 0, 6);
+        // Column 1 has only one point
+        reducer.add(poly, 1, 2);
+        // Column 2 starts at its max
+        reducer.add(poly, 2, 9);
+        reducer.add(poly, 2, 8);
+        reducer.add(poly, 2, 1);
+        reducer.finish(poly);
+        assertThat(poly.toArray(), equalTo(new int[]
+        {
+            0, 5,  0, 3,  0, 7,  0, 6,
+            1, 2,
+            2, 9,  2, 1
+        }));
+    }
+
+    @Test
+    public void testStaircase()
+    {
+        final IntList poly = new IntList(2);
+        final PixelColumnReducer reducer = new PixelColumnReducer(true);
+        reducer.add(poly, 0, 5);
+        reducer.add(poly, 2, 7);
+        reducer.add(poly, 2, 6);
+        // Gap at x=4
+        reducer.finish(poly, 4);
+        assertThat(poly.toArray(), equalTo(new int[]
+        {
+            0, 5,  2, 5,  2, 7,  2, 6,  4, 6
+        }));
+    }
+
+    /** Reduced line must cover the same pixels as the full line */
+    @Test
+    public void testRandom()
+    {
+        final Random random = new Random(42);
+        final int N = 100000;
+        final int[] xs = new int[N], ys = new int[N];
+        for (int i=0; i<N; ++i)
+        {
+            xs[i] = i / 100;
+            ys[i] = random.nextInt(500);
+        }
+
+        final IntList poly = new IntList(2);
+        final PixelColumnReducer reducer = new PixelColumnReducer(false);
+        for (int i=0; i<N; ++i)
+            reducer.add(poly, xs[i], ys[i]);
+        reducer.finish(poly);
+
+        int p = 0;
+        for (int i=0; i<N; i += 100)
+        {
+            int min = ys[i], max = ys[i];
+            for (int j=i+1; j<i+100; ++j)
+            {
+                min = Math.min(min, ys[j]);
+                max = Math.max(max, ys[j]);
+            }
+            // First point of column, then the extremes, ending with last point
+            assertThat(poly.get(p), equalTo(xs[i]));
+            assertThat(poly.get(p+1), equalTo(ys[i]));
+            int col_min = ys[i], col_max = ys[i], last = ys[i];
+            while (p < poly.size()  &&  poly.get(p) == xs[i])
+            {
+                last = poly.get(p+1);
+                col_min = Math.min(col_min, last);
+                col_max = Math.max(col_max, last);
+                p += 2;
+            }
+            assertThat(col_min, equalTo(min));
+            assertThat(col_max, equalTo(max));
+            assertThat(last, equalTo(ys[i+99]));
+        }
+        assertThat(p, equalTo(poly.size()));
+        // About 4 points per column
+        assertThat(poly.size() <= 8 * N / 100, equalTo(true));
+    }
+}
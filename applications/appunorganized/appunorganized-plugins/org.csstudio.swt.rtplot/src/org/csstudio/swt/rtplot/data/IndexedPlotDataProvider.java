@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.rtplot.data;
+
+import java.time.Instant;
+
+import org.csstudio.swt.rtplot.Axis;
+
+/** {@link PlotDataProvider} with access to sample data by index.
+ *  <p>
+ *  A data provider that keeps its samples in primitive arrays
+ *  would need to create a {@link PlotDataItem} for each call to <code>get()</code>.
+ *  When painting many samples, the plot reads the data of this provider by index
+ *  instead of calling <code>get()</code>.
+ *  <p>
+ *  Same locking as for the {@link PlotDataProvider} applies.
+ *
+ *  @param <XTYPE> Data type used for the horizontal {@link Axis}
+ *
+ *  @author agent
+ */
+public interface IndexedPlotDataProvider<XTYPE extends Comparable<XTYPE>> extends PlotDataProvider<XTYPE>
+{
+    /** @param index Sample index
+     *  @return Position of the sample as number.
+     *          For an {@link Instant}, the time in seconds since epoch.
+     */
+    public double getPositionNumber(int index);
+
+    /** @param index Sample index
+     *  @return Value
+     *  @see PlotDataItem#getValue()
+     */
+    public double getValue(int index);
+
+    /** @param index Sample index
+     *  @return Standard deviation, or {@link Double#NaN}
+     *  @see PlotDataItem#getStdDev()
+     */
+    public double getStdDev(int index);
+
+    /** @param index Sample index
+     *  @return Minimum, or {@link Double#NaN}
+     *  @see PlotDataItem#getMin()
+     */
+    public double getMin(int index);
+
+    /** @param index Sample index
+     *  @return Maximum, or {@link Double#NaN}
+     *  @see PlotDataItem#getMax()
+     */
+    public double getMax(int index);
+}
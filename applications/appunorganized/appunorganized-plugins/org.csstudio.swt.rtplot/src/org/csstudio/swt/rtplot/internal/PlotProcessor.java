@@ -22,6 +22,7 @@ import org.csstudio.swt.rtplot.Axis;
 import org.csstudio.swt.rtplot.AxisRange;
 import org.csstudio.swt.rtplot.Messages;
 import org.csstudio.swt.rtplot.Trace;
+import org.csstudio.swt.rtplot.data.IndexedPlotDataProvider;
 import org.csstudio.swt.rtplot.data.PlotDataItem;
 import org.csstudio.swt.rtplot.data.PlotDataProvider;
 import org.csstudio.swt.rtplot.data.PlotDataSearch;
@@ -80,10 +81,14 @@ public class PlotProcessor<XTYPE extends Comparable<XTYPE>>
                         // If data is completely outside the x_range,
                         // we end up using just data[0]
                         // Check [start .. stop], including stop
+                        final IndexedPlotDataProvider<XTYPE> indexed = (data instanceof IndexedPlotDataProvider)
+                            ? (IndexedPlotDataProvider<XTYPE>) data
+                            : null;
                         for (int i=start; i<=stop; ++i)
                         {
-                            final PlotDataItem<XTYPE> item = data.get(i);
-                            final double value = item.getValue();
+                            final double value = indexed != null
+                                ? indexed.getValue(i)
+                                : data.get(i).getValue();
                             if (! Double.isFinite(value))
                                 continue;
                             if (value < low)
@@ -8,13 +8,17 @@
 package org.csstudio.swt.rtplot.internal;
 
 import org.csstudio.swt.rtplot.Axis;
+import org.csstudio.swt.rtplot.AxisRange;
 import org.csstudio.swt.rtplot.PointType;
 import org.csstudio.swt.rtplot.SWTMediaPool;
 import org.csstudio.swt.rtplot.Trace;
 import org.csstudio.swt.rtplot.TraceType;
+import org.csstudio.swt.rtplot.data.IndexedPlotDataProvider;
 import org.csstudio.swt.rtplot.data.PlotDataItem;
 import org.csstudio.swt.rtplot.data.PlotDataProvider;
+import org.csstudio.swt.rtplot.data.PlotDataSearch;
 import org.csstudio.swt.rtplot.internal.util.IntList;
+import org.csstudio.swt.rtplot.internal.util.PixelColumnReducer;
 import org.csstudio.swt.rtplot.internal.util.ScreenTransform;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
@@ -32,6 +36,16 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
     // plus it works better when using dashed or wide lines,
     // but it requires an int[] array of varying size.
     // IntList turned out to be about 3x faster than ArrayList<Integer>.
+    //
+    // Traces can have many more samples than pixels.
+    // Only the samples within the visible range, plus one on either end,
+    // are painted, and lines are reduced to at most four points
+    // per pixel column, which results in the same image.
+    // Assumes that samples are ordered by position,
+    // as already required by the PlotDataSearch for cursors.
+    //
+    // An IndexedPlotDataProvider is read by index,
+    // so painting does not create a PlotDataItem per sample.
 
     /** Initial {@link IntList} size */
     private static final int INITIAL_ARRAY_SIZE = 2048;
@@ -48,6 +62,133 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
     final private static int OUTSIDE = 1000;
     private int x_min, x_max, y_min, y_max;
 
+    final private PlotDataSearch<XTYPE> search = new PlotDataSearch<>();
+
+    /** Index range of samples to paint */
+    private int start, end;
+
+    /** Is the screen coordinate of a 'min' value below that of the 'max'? */
+    private boolean min_below;
+
+    /** Access to the samples of a trace by index */
+    private static abstract class Samples<XTYPE extends Comparable<XTYPE>>
+    {
+        final protected ScreenTransform<XTYPE> x_transform;
+
+        Samples(final ScreenTransform<XTYPE> x_transform)
+        {
+            this.x_transform = x_transform;
+        }
+
+        /** @param index Sample index
+         *  @return Horizontal screen coordinate of sample
+         */
+        abstract double getX(int index);
+        abstract double getValue(int index);
+        abstract double getStdDev(int index);
+        abstract double getMin(int index);
+        abstract double getMax(int index);
+    }
+
+    /** Samples read via {@link PlotDataItem}s */
+    private static class ItemSamples<XTYPE extends Comparable<XTYPE>> extends Samples<XTYPE>
+    {
+        final private PlotDataProvider<XTYPE> data;
+        private int index = -1;
+        private PlotDataItem<XTYPE> item;
+
+        ItemSamples(final ScreenTransform<XTYPE> x_transform, final PlotDataProvider<XTYPE> data)
+        {
+            super(x_transform);
+            this.data = data;
+        }
+
+        /** @param index Sample index
+         *  @return Item for that sample, fetched once for consecutive calls with same index
+         */
+        private PlotDataItem<XTYPE> get(final int index)
+        {
+            if (index != this.index)
+            {
+                item = data.get(index);
+                this.index = index;
+            }
+            return item;
+        }
+
+        @Override
+        double getX(final int index)
+        {
+            return x_transform.transform(get(index).getPosition());
+        }
+
+        @Override
+        double getValue(final int index)
+        {
+            return get(index).getValue();
+        }
+
+        @Override
+        double getStdDev(final int index)
+        {
+            return get(index).getStdDev();
+        }
+
+        @Override
+        double getMin(final int index)
+        {
+            return get(index).getMin();
+        }
+
+        @Override
+        double getMax(final int index)
+        {
+            return get(index).getMax();
+        }
+    }
+
+    /** Samples read from {@link IndexedPlotDataProvider} */
+    private static class IndexedSamples<XTYPE extends Comparable<XTYPE>> extends Samples<XTYPE>
+    {
+        final private IndexedPlotDataProvider<XTYPE> data;
+
+        IndexedSamples(final ScreenTransform<XTYPE> x_transform, final IndexedPlotDataProvider<XTYPE> data)
+        {
+            super(x_transform);
+            this.data = data;
+        }
+
+        @Override
+        double getX(final int index)
+        {
+            return x_transform.transformNumber(data.getPositionNumber(index));
+        }
+
+        @Override
+        double getValue(final int index)
+        {
+            return data.getValue(index);
+        }
+
+        @Override
+        double getStdDev(final int index)
+        {
+            return data.getStdDev(index);
+        }
+
+        @Override
+        double getMin(final int index)
+        {
+            return data.getMin(index);
+        }
+
+        @Override
+        double getMax(final int index)
+        {
+            return data.getMax(index);
+        }
+    }
+
     final private int clipX(final double x)
     {
         if (x < x_min)
@@ -95,19 +236,17 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
         gc.setAdvanced(true);
         gc.setAntialias(SWT.ON);
 
-        // TODO Optimize drawing
-        //
-        // Determine first sample to draw via PlotDataSearch.findSampleLessOrEqual(),
-        // then end drawing when reaching right end of area.
-        //
-        // Loop only once, performing drawMinMax, drawStdDev, drawValueStaircase in one loop
-        //
-        // For now, main point is that this happens in non-UI thread,
-        // so the slower the better to test UI responsiveness.
+        final AxisRange<Double> y_range = y_axis.getValueRange();
+        min_below = y_range.getLow() <= y_range.getHigh();
+
         final PlotDataProvider<XTYPE> data = trace.getData();
         data.getLock().lock();
         try
         {
+            determineRange(bounds, x_transform, data);
+            final Samples<XTYPE> samples = (data instanceof IndexedPlotDataProvider)
+                ? new IndexedSamples<>(x_transform, (IndexedPlotDataProvider<XTYPE>) data)
+                : new ItemSamples<>(x_transform, data);
             final TraceType type = trace.getType();
             switch (type)
             {
@@ -115,37 +254,37 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
                 break;
             case AREA:
                 gc.setAlpha(alpha);
-                drawMinMaxArea(gc, x_transform, y_axis, data);
+                drawMinMaxArea(gc, y_axis, samples);
                 gc.setAlpha(255);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth());
+                drawStdDevLines(gc, y_axis, samples, trace.getWidth());
+                drawValueStaircase(gc, y_axis, samples, trace.getWidth());
                 break;
             case AREA_DIRECT:
                 gc.setAlpha(alpha);
-                drawMinMaxArea(gc, x_transform, y_axis, data);
+                drawMinMaxArea(gc, y_axis, samples);
                 gc.setAlpha(255);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawStdDevLines(gc, y_axis, samples, trace.getWidth());
+                drawValueLines(gc, y_axis, samples, trace.getWidth());
                 break;
             case LINES:
-                drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawMinMaxLines(gc, y_axis, samples, trace.getWidth());
                 gc.setAlpha(alpha);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawStdDevLines(gc, y_axis, samples, trace.getWidth());
                 gc.setAlpha(255);
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueStaircase(gc, y_axis, samples, trace.getWidth());
                 break;
             case LINES_DIRECT:
-                drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawMinMaxLines(gc, y_axis, samples, trace.getWidth());
                 gc.setAlpha(alpha);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawStdDevLines(gc, y_axis, samples, trace.getWidth());
                 gc.setAlpha(255);
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueLines(gc, y_axis, samples, trace.getWidth());
                 break;
             case SINGLE_LINE:
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueStaircase(gc, y_axis, samples, trace.getWidth());
                 break;
             case SINGLE_LINE_DIRECT:
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawValueLines(gc, y_axis, samples, trace.getWidth());
                 break;
             }
 
@@ -159,7 +298,7 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
             case DIAMONDS:
             case XMARKS:
             case TRIANGLES:
-                drawPoints(gc, x_transform, y_axis, data, point_type, trace.getPointSize());
+                drawPoints(gc, y_axis, samples, point_type, trace.getPointSize());
                 break;
             }
         }
@@ -172,194 +311,260 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
         gc.setForeground(old_color);
     }
 
+    /** Determine index range of samples to paint
+     *  @param bounds Clipping bounds
+     *  @param x_transform Horizontal axis
+     *  @param data Data, must already be locked
+     */
+    final private void determineRange(final Rectangle bounds, final ScreenTransform<XTYPE> x_transform,
+                                      final PlotDataProvider<XTYPE> data)
+    {
+        XTYPE low = x_transform.inverse(bounds.x);
+        XTYPE high = x_transform.inverse(bounds.x + bounds.width);
+        if (low.compareTo(high) > 0)
+        {
+            final XTYPE tmp = low;
+            low = high;
+            high = tmp;
+        }
+        // Include the sample just outside on either end
+        // to draw lines from there into the visible range
+        start = search.findSampleLessOrEqual(data, low);
+        if (start < 0)
+            start = 0;
+        end = search.findSampleGreaterOrEqual(data, high);
+        if (end < 0)
+            end = data.size()-1;
+        ++end;
+    }
+
     /** Draw values of data as staircase line
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Samples
      *  @param line_width
      */
     final private void drawValueStaircase(final GC gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+            final YAxisImpl<XTYPE> y_axis,
+            final Samples<XTYPE> data, final int line_width)
     {
         final IntList value_poly = new IntList(INITIAL_ARRAY_SIZE);
-        final int N = data.size();
-        int last_x = -1, last_y = -1;
+        final PixelColumnReducer reducer = new PixelColumnReducer(true);
         gc.setLineWidth(line_width);
-        for (int i=0; i<N; ++i)
+        for (int i=start; i<end; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
-            if (value_poly.size() > 0  && x != last_x)
-            {   // Staircase from last 'y'..
-                value_poly.add(x);
-                value_poly.add(last_y);
-                last_x = x;
-            }
+            final int x = clipX(Math.round(data.getX(i)));
+            final double value = data.getValue(i);
             if (Double.isNaN(value))
-            {
+            {   // Staircase from last 'y' up to the gap
+                reducer.finish(value_poly, x);
                 flushPolyLine(gc, value_poly, line_width);
-                last_x = last_y = -1;
             }
             else
-            {
-                final int y = clipY(y_axis.getScreenCoord(value));
-                if (last_x == x  &&  last_y == y)
-                    continue;
-                value_poly.add(x);
-                value_poly.add(y);
-                last_y = y;
-            }
+                reducer.add(value_poly, x, clipY(y_axis.getScreenCoord(value)));
         }
+        reducer.finish(value_poly);
         flushPolyLine(gc, value_poly, line_width);
     }
 
     /** Draw values of data as direct line
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Samples
      *  @param line_width
      */
     final private void drawValueLines(final GC gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+            final YAxisImpl<XTYPE> y_axis,
+            final Samples<XTYPE> data, final int line_width)
     {
         final IntList value_poly = new IntList(INITIAL_ARRAY_SIZE);
-        final int N = data.size();
+        final PixelColumnReducer reducer = new PixelColumnReducer(false);
         gc.setLineWidth(line_width);
-        int last_x = -1, last_y = -1;
-        for (int i=0; i<N; ++i)
+        for (int i=start; i<end; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
+            final int x = clipX(Math.round(data.getX(i)));
+            final double value = data.getValue(i);
             if (Double.isNaN(value))
             {
+                reducer.finish(value_poly);
                 flushPolyLine(gc, value_poly, line_width);
-                last_x = last_y = -1;
             }
             else
-            {
-                final int y = clipY(y_axis.getScreenCoord(value));
-                if (x == last_x  &&  y == last_y)
-                    continue;
-                value_poly.add(x);
-                value_poly.add(y);
-                last_x = x;
-                last_y = y;
-            }
+                reducer.add(value_poly, x, clipY(y_axis.getScreenCoord(value)));
         }
+        reducer.finish(value_poly);
         flushPolyLine(gc, value_poly, line_width);
     }
 
     /** Draw min/max outline
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Samples
      */
     final private void drawMinMaxArea(final GC gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data)
+            final YAxisImpl<XTYPE> y_axis,
+            final Samples<XTYPE> data)
     {
         final IntList pos = new IntList(INITIAL_ARRAY_SIZE);
         final IntList min = new IntList(INITIAL_ARRAY_SIZE);
         final IntList max = new IntList(INITIAL_ARRAY_SIZE);
 
-        final int N = data.size();
-        for (int i = 0;  i < N;  ++i)
+        // Within a pixel column, the area covers the range from
+        // the outermost 'min' to the outermost 'max'.
+        // Keep the first, outermost and last min/max of each column.
+        boolean have_column = false;
+        int col_x = 0, count = 0;
+        int first_min = 0, first_max = 0, outer_min = 0, outer_max = 0, last_min = 0, last_max = 0;
+        for (int i = start;  i < end;  ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double ymin = item.getMin();
-            double ymax = item.getMax();
+            double ymin = data.getMin(i);
+            double ymax = data.getMax(i);
             if (Double.isNaN(ymin)  ||  Double.isNaN(ymax))
+            {
+                if (have_column)
+                    addAreaColumn(pos, min, max, col_x, count, first_min, first_max,
+                                  outer_min, outer_max, last_min, last_max);
+                have_column = false;
                 flushPolyFill(gc, pos, min, max);
+            }
             else
             {
-                final int x1 = clipX(x_transform.transform(item.getPosition()));
+                final int x1 = clipX(data.getX(i));
                 final int y1min = clipY(y_axis.getScreenCoord(ymin));
                 final int y1max = clipY(y_axis.getScreenCoord(ymax));
-                pos.add(x1);
-                min.add(y1min);
-                max.add(y1max);
+                if (have_column  &&  x1 == col_x)
+                {
+                    if (min_below)
+                    {
+                        outer_min = Math.max(outer_min, y1min);
+                        outer_max = Math.min(outer_max, y1max);
+                    }
+                    else
+                    {
+                        outer_min = Math.min(outer_min, y1min);
+                        outer_max = Math.max(outer_max, y1max);
+                    }
+                    last_min = y1min;
+                    last_max = y1max;
+                    ++count;
+                }
+                else
+                {
+                    if (have_column)
+                        addAreaColumn(pos, min, max, col_x, count, first_min, first_max,
+                                      outer_min, outer_max, last_min, last_max);
+                    have_column = true;
+                    col_x = x1;
+                    count = 1;
+                    first_min = outer_min = last_min = y1min;
+                    first_max = outer_max = last_max = y1max;
+                }
             }
         }
+        if (have_column)
+            addAreaColumn(pos, min, max, col_x, count, first_min, first_max,
+                          outer_min, outer_max, last_min, last_max);
         flushPolyFill(gc, pos, min, max);
     }
 
+    /** Add the reduced min/max of one pixel column to the area
+     *  @param pos Horizontal screen positions
+     *  @param min Minimum 'y' values in screen coords
+     *  @param max .. maximum
+     *  @param x Screen coordinate of the column
+     *  @param count Number of samples in the column
+     */
+    final private void addAreaColumn(final IntList pos, final IntList min, final IntList max,
+                                     final int x, final int count,
+                                     final int first_min, final int first_max,
+                                     final int outer_min, final int outer_max,
+                                     final int last_min, final int last_max)
+    {
+        pos.add(x);  min.add(first_min);  max.add(first_max);
+        if (count < 2)
+            return;
+        if (outer_min != first_min  ||  outer_max != first_max)
+        {
+            pos.add(x);  min.add(outer_min);  max.add(outer_max);
+        }
+        if (last_min != outer_min  ||  last_max != outer_max)
+        {
+            pos.add(x);  min.add(last_min);  max.add(last_max);
+        }
+    }
+
     /** Draw min/max outline
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Samples
      */
     final private void drawMinMaxLines(final GC gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+            final YAxisImpl<XTYPE> y_axis,
+            final Samples<XTYPE> data, final int line_width)
     {
         final IntList min = new IntList(INITIAL_ARRAY_SIZE);
         final IntList max = new IntList(INITIAL_ARRAY_SIZE);
+        final PixelColumnReducer min_reducer = new PixelColumnReducer(false);
+        final PixelColumnReducer max_reducer = new PixelColumnReducer(false);
 
-        final int N = data.size();
-        for (int i = 0;  i < N;  ++i)
+        for (int i = start;  i < end;  ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double ymin = item.getMin();
-            double ymax = item.getMax();
+            double ymin = data.getMin(i);
+            double ymax = data.getMax(i);
             if (Double.isNaN(ymin)  ||  Double.isNaN(ymax))
             {
+                min_reducer.finish(min);
+                max_reducer.finish(max);
                 flushPolyLine(gc, min, line_width);
                 flushPolyLine(gc, max, line_width);
             }
             else
             {
-                final int x1 = clipX(x_transform.transform(item.getPosition()));
-                final int y1min = clipY(y_axis.getScreenCoord(ymin));
-                final int y1max = clipY(y_axis.getScreenCoord(ymax));
-                min.add(x1);   min.add(y1min);
-                max.add(x1);   max.add(y1max);
+                final int x1 = clipX(data.getX(i));
+                min_reducer.add(min, x1, clipY(y_axis.getScreenCoord(ymin)));
+                max_reducer.add(max, x1, clipY(y_axis.getScreenCoord(ymax)));
             }
         }
+        min_reducer.finish(min);
+        max_reducer.finish(max);
         flushPolyLine(gc, min, line_width);
         flushPolyLine(gc, max, line_width);
     }
 
     /** Draw std. deviation outline
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Samples
      *  @param line_width
      */
-    final private void drawStdDevLines(final GC gc, final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+    final private void drawStdDevLines(final GC gc, final YAxisImpl<XTYPE> y_axis,
+            final Samples<XTYPE> data, final int line_width)
     {
         final IntList lower_poly = new IntList(INITIAL_ARRAY_SIZE);
         final IntList upper_poly = new IntList(INITIAL_ARRAY_SIZE);
+        final PixelColumnReducer lower_reducer = new PixelColumnReducer(false);
+        final PixelColumnReducer upper_reducer = new PixelColumnReducer(false);
 
-        final int N = data.size();
-        for (int i = 0;  i < N;  ++i)
+        for (int i = start;  i < end;  ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double value = item.getValue();
-            double dev = item.getStdDev();
+            double value = data.getValue(i);
+            double dev = data.getStdDev(i);
             if (Double.isNaN(value) ||  ! (dev > 0))
             {
+                lower_reducer.finish(lower_poly);
+                upper_reducer.finish(upper_poly);
                 flushPolyLine(gc, lower_poly, line_width);
                 flushPolyLine(gc, upper_poly, line_width);
             }
             else
             {
-                final int x = clipX(x_transform.transform(item.getPosition()));
-                final int low_y = clipY(y_axis.getScreenCoord(value - dev));
-                final int upp_y = clipY(y_axis.getScreenCoord(value + dev));
-                lower_poly.add(x);  lower_poly.add(low_y);
-                upper_poly.add(x);  upper_poly.add(upp_y);
+                final int x = clipX(data.getX(i));
+                lower_reducer.add(lower_poly, x, clipY(y_axis.getScreenCoord(value - dev)));
+                upper_reducer.add(upper_poly, x, clipY(y_axis.getScreenCoord(value + dev)));
             }
         }
+        lower_reducer.finish(lower_poly);
+        upper_reducer.finish(upper_poly);
         flushPolyLine(gc, lower_poly, line_width);
         flushPolyLine(gc, upper_poly, line_width);
     }
@@ -380,23 +585,20 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw values of data as direct line
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param data Samples
      *  @param point_type
      *  @param size
      */
     final private void drawPoints(final GC gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, PointType point_type, final int size)
+            final YAxisImpl<XTYPE> y_axis,
+            final Samples<XTYPE> data, PointType point_type, final int size)
     {
-        final int N = data.size();
         int last_x = -1, last_y = -1;
-        for (int i=0; i<N; ++i)
+        for (int i=start; i<end; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
+            final int x = clipX(Math.round(data.getX(i)));
+            final double value = data.getValue(i);
             if (!Double.isNaN(value))
             {
                 final int y = clipY(y_axis.getScreenCoord(value));
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.rtplot.internal.util;
+
+/** Reduces the points of a poly line to at most four per pixel column
+ *
+ *  <p>Consecutive points with the same screen 'x' only draw
+ *  a vertical line from the first 'y' via the extremes to the last 'y'.
+ *  Keeping just the first, minimum, maximum and last 'y'
+ *  of each column in the order in which they occurred
+ *  thus results in the same line on screen,
+ *  while a trace with many more samples than pixels
+ *  only creates a poly line of about four points per pixel.
+ *
+ *  <p>Identical consecutive points are skipped.
+ *
+ *  @author agent
+ */
+public class PixelColumnReducer
+{
+    final private boolean staircase;
+    private boolean have_column = false;
+    private int x, first, min, max, last;
+    /** Did the minimum occur before the maximum? */
+    private boolean min_first;
+
+    /** @param staircase Add horizontal step from last 'y' of a column to the next column? */
+    public PixelColumnReducer(final boolean staircase)
+    {
+        this.staircase = staircase;
+    }
+
+    /** Add point
+     *  @param poly Poly line that receives the points of completed columns
+     *  @param x Screen coordinate
+     *  @param y .. of point
+     */
+    final public void add(final IntList poly, final int x, final int y)
+    {
+        if (have_column  &&  x == this.x)
+        {
+            if (y < min)
+            {
+                min = y;
+                min_first = false;
+            }
+            else if (y > max)
+            {
+                max = y;
+                min_first = true;
+            }
+            last = y;
+            return;
+        }
+        if (have_column)
+        {
+            emit(poly);
+            if (staircase)
+                addPoint(poly, x, last);
+        }
+        have_column = true;
+        this.x = x;
+        first = min = max = last = y;
+        min_first = true;
+    }
+
+    /** Add points of the current column, then start a new poly line
+     *  @param poly Poly line that receives the points
+     */
+    final public void finish(final IntList poly)
+    {
+        if (have_column)
+            emit(poly);
+        have_column = false;
+    }
+
+    /** Add points of the current column, then start a new poly line
+     *  @param poly Poly line that receives the points
+     *  @param x Screen coordinate of a gap in the data.
+     *           For a staircase, the last 'y' extends to that point.
+     */
+    final public void finish(final IntList poly, final int x)
+    {
+        if (have_column)
+        {
+            emit(poly);
+            if (staircase  &&  x != this.x)
+                addPoint(poly, x, last);
+        }
+        have_column = false;
+    }
+
+    private void emit(final IntList poly)
+    {
+        addPoint(poly, x, first);
+        if (min_first)
+        {
+            addPoint(poly, x, min);
+            addPoint(poly, x, max);
+        }
+        else
+        {
+            addPoint(poly, x, max);
+            addPoint(poly, x, min);
+        }
+        addPoint(poly, x, last);
+    }
+
+    private static void addPoint(final IntList poly, final int x, final int y)
+    {
+        final int N = poly.size();
+        if (N >= 2  &&  poly.get(N-2) == x  &&  poly.get(N-1) == y)
+            return;
+        poly.add(x);
+        poly.add(y);
+    }
+}
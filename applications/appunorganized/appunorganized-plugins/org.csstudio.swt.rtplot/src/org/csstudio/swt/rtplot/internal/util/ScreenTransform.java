@@ -40,6 +40,12 @@ public interface ScreenTransform<T>
     /** @return Returns x transformed into the y range. */
     public abstract T inverse(double y);
 
+    /** @param x Position as number,
+     *           see {@link org.csstudio.swt.rtplot.data.IndexedPlotDataProvider#getPositionNumber(int)}
+     *  @return Returns x transformed into the y range.
+     */
+    public abstract double transformNumber(double x);
+
     /** @return Copy of this transformation */
     public abstract ScreenTransform<T> copy();
 }
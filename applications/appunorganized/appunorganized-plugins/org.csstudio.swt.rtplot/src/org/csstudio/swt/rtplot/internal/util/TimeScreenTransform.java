@@ -46,6 +46,15 @@ public class TimeScreenTransform implements ScreenTransform<Instant>
         return a*x + b;
     }
 
+    /** {@inheritDoc}
+     *  <p>For time stamps, the number is the time in seconds since epoch.
+     */
+    @Override
+    public synchronized double transformNumber(final double x)
+    {
+        return a*x + b;
+    }
+
     /** {@inheritDoc} */
     @Override
     public synchronized Instant inverse(double y)
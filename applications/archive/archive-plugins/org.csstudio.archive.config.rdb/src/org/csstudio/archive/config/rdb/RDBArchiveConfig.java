@@ -10,6 +10,7 @@ package org.csstudio.archive.config.rdb;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
@@ -18,6 +19,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.csstudio.archive.config.ArchiveConfig;
 import org.csstudio.archive.config.ChannelConfig;
@@ -560,6 +563,75 @@ public class RDBArchiveConfig implements ImportableArchiveConfig
     public ChannelConfig[] getChannels(final GroupConfig group, final boolean skip_last) throws Exception
     {
         final RDBGroupConfig rdb_group = (RDBGroupConfig) group;
+        List<ChannelConfig> channels = null;
+        if (! skip_last)
+        {
+            try
+            {
+                channels = getChannelsWithLastSampleTime(rdb_group);
+            }
+            catch (SQLException ex)
+            {
+                Logger.getLogger(Activator.ID).log(Level.WARNING,
+                    "Cannot read channels of group " + rdb_group.getName() +
+                    " with last sample time, reading it per channel", ex);
+            }
+        }
+        if (channels == null)
+            channels = getChannelsOneByOne(rdb_group, skip_last);
+
+        final ChannelConfig[] chan_arr = channels.toArray(new ChannelConfig[channels.size()]);
+        // Sort by channel name in Java.
+        // SQL should already give sorted result, but handling of upper/lowercase
+        // names seems to differ between Oracle and MySQL, resulting in
+        // files that were hard to compare
+        Arrays.sort(chan_arr, new Comparator<ChannelConfig>()
+        {
+            @Override
+            public int compare(final ChannelConfig a, final ChannelConfig b)
+            {
+                return a.getName().compareTo(b.getName());
+            }
+        });
+        return chan_arr;
+    }
+
+    /** Read channels of a group and the time of their last sample in one query
+     *  @param group Group
+     *  @return Channels
+     *  @throws Exception on error
+     */
+    private List<ChannelConfig> getChannelsWithLastSampleTime(final RDBGroupConfig group) throws Exception
+    {
+        final List<ChannelConfig> channels = new ArrayList<ChannelConfig>();
+        try
+        (
+            final PreparedStatement statement =
+                rdb.getConnection().prepareStatement(sql.channel_sel_by_group_id_with_last_time);
+        )
+        {
+            statement.setInt(1, group.getId());
+            final ResultSet result = statement.executeQuery();
+            while (result.next())
+            {   // channel_id, name, smpl_mode_id, smpl_val, smpl_per, MAX(smpl_time)
+                final SampleMode sample_mode =
+                    getSampleMode(result.getInt(3), result.getDouble(4), result.getDouble(5));
+                channels.add(new RDBChannelConfig(result.getInt(1), result.getString(2),
+                                                  sample_mode, getLastSampleTime(result.getTimestamp(6))));
+            }
+            result.close();
+        }
+        return channels;
+    }
+
+    /** Read channels of a group, then the time of the last sample for each channel
+     *  @param group Group
+     *  @param skip_last Skip reading the time of the last sample?
+     *  @return Channels
+     *  @throws Exception on error
+     */
+    private List<ChannelConfig> getChannelsOneByOne(final RDBGroupConfig group, final boolean skip_last) throws Exception
+    {
         final List<ChannelConfig> channels = new ArrayList<ChannelConfig>();
         try
         (
@@ -567,7 +639,7 @@ public class RDBArchiveConfig implements ImportableArchiveConfig
                 rdb.getConnection().prepareStatement(sql.channel_sel_by_group_id);
         )
         {
-            statement.setInt(1, rdb_group.getId());
+            statement.setInt(1, group.getId());
             final ResultSet result = statement.executeQuery();
             while (result.next())
             {   // channel_id, name, smpl_mode_id, smpl_val, smpl_per
@@ -582,21 +654,7 @@ public class RDBArchiveConfig implements ImportableArchiveConfig
             }
             result.close();
         }
-
-        final ChannelConfig[] chan_arr = channels.toArray(new ChannelConfig[channels.size()]);
-        // Sort by channel name in Java.
-        // SQL should already give sorted result, but handling of upper/lowercase
-        // names seems to differ between Oracle and MySQL, resulting in
-        // files that were hard to compare
-        Arrays.sort(chan_arr, new Comparator<ChannelConfig>()
-        {
-            @Override
-            public int compare(final ChannelConfig a, final ChannelConfig b)
-            {
-                return a.getName().compareTo(b.getName());
-            }
-        });
-        return chan_arr;
+        return channels;
     }
 
     /** @param channel_id Channel ID in RDB
@@ -639,25 +697,30 @@ public class RDBArchiveConfig implements ImportableArchiveConfig
         )
         {
             if (result.next())
-            {
-                final Timestamp stamp = result.getTimestamp(1);
-                if (stamp == null)
-                    return null;
-
-                if (rdb.getDialect() != Dialect.Oracle)
-                {
-                    // For Oracle, the time stamp is indeed the last time.
-                    // For others, it's only the seconds, not the nanoseconds.
-                    // Since this time stamp is only used to avoid going back in time,
-                    // add a second to assert that we are _after_ the last sample
-                    stamp.setTime(stamp.getTime() + 1000);
-                }
-                return TimestampHelper.fromSQLTimestamp(stamp);
-            }
+                return getLastSampleTime(result.getTimestamp(1));
         }
         return null;
     }
 
+    /** @param stamp Time stamp of last sample read from RDB, may be <code>null</code>
+     *  @return Time stamp to use as last sample time or <code>null</code>
+     */
+    private Instant getLastSampleTime(final Timestamp stamp)
+    {
+        if (stamp == null)
+            return null;
+
+        if (rdb.getDialect() != Dialect.Oracle)
+        {
+            // For Oracle, the time stamp is indeed the last time.
+            // For others, it's only the seconds, not the nanoseconds.
+            // Since this time stamp is only used to avoid going back in time,
+            // add a second to assert that we are _after_ the last sample
+            stamp.setTime(stamp.getTime() + 1000);
+        }
+        return TimestampHelper.fromSQLTimestamp(stamp);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void close()
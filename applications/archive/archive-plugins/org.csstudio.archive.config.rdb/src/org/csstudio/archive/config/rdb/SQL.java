@@ -34,6 +34,7 @@ public class SQL
 
     // 'channel' table
     final public String channel_sel_by_group_id;
+    final public String channel_sel_by_group_id_with_last_time;
     final public String channel_sel_by_id;
     final public String channel_sel_by_name;
     final public String channel_clear_grp_for_engine;
@@ -77,6 +78,12 @@ public class SQL
 
         // 'channel' table
         channel_sel_by_group_id = "SELECT channel_id, name, smpl_mode_id, smpl_val, smpl_per FROM " + schema + "channel WHERE grp_id=? ORDER BY name";
+        // Same as channel_sel_by_group_id, adding the time of the last sample.
+        // The MAX() per channel can use the (channel_id, smpl_time) index
+        channel_sel_by_group_id_with_last_time =
+            "SELECT c.channel_id, c.name, c.smpl_mode_id, c.smpl_val, c.smpl_per," +
+            " (SELECT MAX(s.smpl_time) FROM " + schema + "sample s WHERE s.channel_id=c.channel_id)" +
+            " FROM " + schema + "channel c WHERE c.grp_id=? ORDER BY c.name";
         channel_sel_by_id = "SELECT name FROM " + schema + "channel WHERE channel_id=?";
         channel_sel_by_name = "SELECT channel_id FROM " + schema + "channel WHERE name=?";
         channel_clear_grp_for_engine =
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link LastSampleJournal}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class LastSampleJournalUnitTest
+{
+    @Test
+    public void testWriteRead() throws Exception
+    {
+        final File directory = Files.createTempDirectory("journal").toFile();
+        final LastSampleJournal journal = new LastSampleJournal(directory, "Demo Engine");
+        assertEquals("Demo_Engine.last_sample_times", journal.getFile().getName());
+
+        // No journal, yet
+        assertNull(journal.read());
+
+        final Map<String, Instant> times = new HashMap<>();
+        times.put("sim://sine", Instant.ofEpochSecond(1500000000, 123456789));
+        times.put("ca://name with space", Instant.ofEpochSecond(1500000001));
+        journal.write(times);
+        assertTrue(journal.getFile().exists());
+
+        assertEquals(times, journal.read());
+
+        // Journal is deleted once read
+        assertFalse(journal.getFile().exists());
+        assertNull(journal.read());
+        directory.delete();
+    }
+}
@@ -27,6 +27,10 @@ import org.junit.Test;
  * ArrayList         :     48088144 values in 10.00 sec =    4808814.4 vals/sec
  * RingBuffer        :     48864698 values in 10.00 sec =    4886469.8 vals/sec
  *  </pre>
+ *  <p>
+ *  The lock-free SampleQueue avoids the lock altogether,
+ *  which matters most when PV monitor threads
+ *  compete with the write thread.
  *
  * @author Kay Kasemir
  */
@@ -149,4 +153,28 @@ public class QueueDemo
                 i, secs, i / secs);
     }
 
+    /** Lock-free SampleQueue: Add to end, remove head */
+    @Test
+    public void testSampleQueue() throws Exception
+    {
+        final SampleQueue<Integer> queue = new SampleQueue<Integer>(100);
+
+        final long start = System.currentTimeMillis();
+        final long run = start + RUNTIME;
+        int i = 0;
+        while (run > System.currentTimeMillis())
+        {
+            queue.offer(Integer.valueOf(i));
+            final Integer val = queue.poll();
+            final int number = val == null ? -1 : val.intValue();
+            assertEquals(i, number);
+            ++i;
+        }
+        final long end = System.currentTimeMillis();
+        final double secs = (end - start) / 1000.0;
+        System.out.format(
+                "SampleQueue       : %12d values in %.2f sec = %12.1f vals/sec\n",
+                i, secs, i / secs);
+    }
+
 }
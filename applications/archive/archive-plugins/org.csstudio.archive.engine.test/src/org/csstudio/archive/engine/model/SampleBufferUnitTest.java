@@ -9,6 +9,9 @@ package org.csstudio.archive.engine.model;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.csstudio.archive.vtype.VTypeHelper;
 import org.diirt.vtype.VType;
 import org.junit.Test;
@@ -53,6 +56,27 @@ public class SampleBufferUnitTest
         assertEquals(1.0, VTypeHelper.toDouble(value), 0.01);
     }
 
+    /** Remove several values at once */
+    @Test
+    public void testDrain()
+    {
+        for (int i=0; i<5; ++i)
+            buffer.add(TestHelper.newValue(i));
+        final List<VType> batch = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(batch, 3));
+        assertEquals(3, batch.size());
+        assertEquals(2, buffer.getQueueSize());
+        for (int i=0; i<3; ++i)
+            assertEquals(i, VTypeHelper.toDouble(batch.get(i)), 0.01);
+
+        batch.clear();
+        assertEquals(2, buffer.drainTo(batch, 10));
+        assertEquals(3.0, VTypeHelper.toDouble(batch.get(0)), 0.01);
+        assertEquals(4.0, VTypeHelper.toDouble(batch.get(1)), 0.01);
+        assertEquals(0, buffer.getQueueSize());
+        assertEquals(0, buffer.drainTo(batch, 10));
+    }
+
     final private static long TEST_RUNS = 1000L;
 
     class FillThread extends Thread
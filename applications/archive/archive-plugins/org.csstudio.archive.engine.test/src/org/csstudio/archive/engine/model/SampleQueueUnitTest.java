@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.vtype.VType;
+import org.junit.Test;
+
+/** JUnit test of the {@link SampleQueue}
+ *  and the overrun handling of the {@link SampleBuffer}
+ *  with concurrent producers and consumers
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SampleQueueUnitTest
+{
+    final private static int PRODUCERS = 4;
+    final private static int CONSUMERS = 3;
+    final private static int ITEMS = 50000;
+
+    /** Encode producer and sequence number in one item */
+    private static long encode(final int producer, final int sequence)
+    {
+        return producer * (long) ITEMS + sequence;
+    }
+
+    /** Basic add, remove, full and empty */
+    @Test
+    public void testFullEmpty()
+    {
+        final SampleQueue<Integer> queue = new SampleQueue<>(3);
+        assertNull(queue.poll());
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+        assertTrue(queue.offer(3));
+        assertFalse(queue.offer(4));
+        assertEquals(3, queue.size());
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertTrue(queue.offer(4));
+        final List<Integer> batch = new ArrayList<>();
+        assertEquals(3, queue.drainTo(batch, 10));
+        assertEquals(List.of(2, 3, 4), batch);
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+    }
+
+    /** Several producers and consumers, no item lost or duplicated,
+     *  items of each producer received in order
+     *  @throws Exception on error
+     */
+    @Test(timeout=30000)
+    public void testProducersConsumers() throws Exception
+    {
+        final SampleQueue<Long> queue = new SampleQueue<>(64);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean producing = new AtomicBoolean(true);
+        final AtomicInteger producers_done = new AtomicInteger();
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int p=0; p<PRODUCERS; ++p)
+        {
+            final int producer = p;
+            threads.add(new Thread(() ->
+            {
+                try
+                {
+                    start.await();
+                    for (int i=0; i<ITEMS; ++i)
+                        while (! queue.offer(encode(producer, i)))
+                            Thread.yield();
+                }
+                catch (InterruptedException ex)
+                {
+                    return;
+                }
+                if (producers_done.incrementAndGet() == PRODUCERS)
+                    producing.set(false);
+            }, "Producer " + p));
+        }
+
+        // Each consumer records what it received
+        final List<List<Long>> received = new ArrayList<>();
+        for (int c=0; c<CONSUMERS; ++c)
+        {
+            final List<Long> items = new ArrayList<>();
+            received.add(items);
+            threads.add(new Thread(() ->
+            {
+                try
+                {
+                    start.await();
+                }
+                catch (InterruptedException ex)
+                {
+                    return;
+                }
+                while (true)
+                {
+                    final boolean more = producing.get();
+                    final Long item = queue.poll();
+                    if (item != null)
+                        items.add(item);
+                    else if (! more)
+                        break;
+                    else
+                        Thread.yield();
+                }
+            }, "Consumer " + c));
+        }
+
+        for (Thread thread : threads)
+            thread.start();
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+
+        final boolean[] seen = new boolean[PRODUCERS * ITEMS];
+        int total = 0;
+        for (List<Long> items : received)
+        {   // Each consumer sees the items of a producer in order
+            final int[] last = new int[PRODUCERS];
+            for (int p=0; p<PRODUCERS; ++p)
+                last[p] = -1;
+            for (long item : items)
+            {
+                final int producer = (int) (item / ITEMS);
+                final int sequence = (int) (item % ITEMS);
+                assertTrue("Producer " + producer + " out of order", sequence > last[producer]);
+                last[producer] = sequence;
+                assertFalse("Duplicate item " + item, seen[(int) item]);
+                seen[(int) item] = true;
+            }
+            total += items.size();
+        }
+        assertEquals(PRODUCERS * ITEMS, total);
+    }
+
+    /** Several producers overrunning a small {@link SampleBuffer}
+     *  while a consumer drains it:
+     *  Every sample is either written, left in the buffer or counted as overrun,
+     *  and the samples of each producer remain in order.
+     *  @throws Exception on error
+     */
+    @Test(timeout=30000)
+    public void testOverrunUnderContention() throws Exception
+    {
+        final int items = 20000;
+        final SampleBuffer buffer = new SampleBuffer("Overrun", 10);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean producing = new AtomicBoolean(true);
+        final AtomicInteger producers_done = new AtomicInteger();
+
+        final List<Thread> producers = new ArrayList<>();
+        for (int p=0; p<PRODUCERS; ++p)
+        {
+            final int producer = p;
+            producers.add(new Thread(() ->
+            {
+                try
+                {
+                    start.await();
+                }
+                catch (InterruptedException ex)
+                {
+                    return;
+                }
+                for (int i=0; i<items; ++i)
+                    buffer.add(TestHelper.newValue(producer * (double) items + i));
+                if (producers_done.incrementAndGet() == PRODUCERS)
+                    producing.set(false);
+            }, "Producer " + p));
+        }
+
+        final List<VType> written = new ArrayList<>();
+        final Thread consumer = new Thread(() ->
+        {
+            try
+            {
+                start.await();
+            }
+            catch (InterruptedException ex)
+            {
+                return;
+            }
+            final List<VType> batch = new ArrayList<>();
+            while (producing.get())
+            {
+                batch.clear();
+                buffer.drainTo(batch, 3);
+                written.addAll(batch);
+                Thread.yield();
+            }
+        }, "Consumer");
+
+        for (Thread thread : producers)
+            thread.start();
+        consumer.start();
+        start.countDown();
+        for (Thread thread : producers)
+            thread.join();
+        consumer.join();
+
+        final int remaining = buffer.getQueueSize();
+        final int overruns = buffer.getBufferStats().getOverruns();
+        assertTrue("Expected overruns", overruns > 0);
+        assertTrue(remaining <= buffer.getCapacity());
+
+        // Remaining samples follow the ones that were written
+        final List<VType> all = new ArrayList<>(written);
+        buffer.drainTo(all, buffer.getCapacity());
+        assertEquals(remaining, all.size() - written.size());
+        assertEquals(PRODUCERS * items, all.size() + overruns);
+
+        final int[] last = new int[PRODUCERS];
+        for (int p=0; p<PRODUCERS; ++p)
+            last[p] = -1;
+        for (VType value : all)
+        {
+            final int item = (int) VTypeHelper.toDouble(value);
+            final int producer = item / items;
+            final int sequence = item % items;
+            assertTrue("Producer " + producer + " out of order", sequence > last[producer]);
+            last[producer] = sequence;
+        }
+    }
+}
@@ -11,6 +11,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.csstudio.apputil.time.BenchmarkTimer;
 import org.junit.Test;
 
@@ -198,4 +201,85 @@ public class ScannerUnitTest
 
         System.out.format("Idle: %.2f %%\n", scanner.getIdlePercentage());
     }
+
+    /** Slow item, scanned by worker threads, only delays items in its chunk */
+    @Test
+    public void testWorkerChunks()
+    {
+        final ScanList list = new ScanList(0.2);
+        final ScanItem[] items = new ScanItem[9];
+        for (int i=0; i<items.length; ++i)
+        {
+            items[i] = new ScanItem("Item" + i);
+            list.add(items[i]);
+        }
+
+        // 'Worker' that only runs the chunks when told to
+        final List<Runnable> chunks = new ArrayList<>();
+        // 9 items in 4 chunks: 3 chunks of 3 items
+        list.scanItems(chunks::add, 4);
+        assertEquals(3, chunks.size());
+        final Runnable slow_chunk = chunks.get(2);
+        chunks.remove(2);
+
+        // While the last chunk is busy, the others keep scanning
+        for (int round=2; round<=5; ++round)
+        {
+            for (Runnable chunk : chunks)
+                chunk.run();
+            chunks.clear();
+            list.scanItems(chunks::add, 4);
+            assertEquals(2, chunks.size());
+        }
+        for (Runnable chunk : chunks)
+            chunk.run();
+        chunks.clear();
+        for (int i=0; i<6; ++i)
+            assertEquals(5, items[i].scans);
+        for (int i=6; i<9; ++i)
+            assertEquals(0, items[i].scans);
+        assertEquals(4, list.getSkippedScans());
+
+        // Once the last chunk is done, it's scanned again
+        slow_chunk.run();
+        for (int i=6; i<9; ++i)
+            assertEquals(1, items[i].scans);
+        list.scanItems(chunks::add, 4);
+        assertEquals(3, chunks.size());
+        assertEquals(4, list.getSkippedScans());
+    }
+
+    /** Large scan list is split into chunks of limited size */
+    @Test
+    public void testMaxChunkSize()
+    {
+        final ScanList list = new ScanList(0.2);
+        final int count = 5 * ScanList.MAX_CHUNK_SIZE / 2;
+        final ScanItem[] items = new ScanItem[count];
+        for (int i=0; i<items.length; ++i)
+        {
+            items[i] = new ScanItem("Item" + i);
+            list.add(items[i]);
+        }
+        // 2 chunks would exceed the maximum chunk size
+        final List<Runnable> chunks = new ArrayList<>();
+        list.scanItems(chunks::add, 2);
+        assertEquals(3, chunks.size());
+        for (Runnable chunk : chunks)
+            chunk.run();
+        for (ScanItem item : items)
+            assertEquals(1, item.scans);
+    }
+
+    /** Utilization of worker threads */
+    @Test
+    public void testWorkerUtilization()
+    {
+        // 4 threads for 1 second, busy for a total of 1 second
+        assertEquals(25.0, Scanner.computeWorkerUtilization(1000000000L, 1000000000L, 4), 0.01);
+        assertEquals(0.0, Scanner.computeWorkerUtilization(0, 1000000000L, 4), 0.01);
+        assertEquals(100.0, Scanner.computeWorkerUtilization(4000000000L, 1000000000L, 4), 0.01);
+        // Time of a scan that started before the measurement
+        assertEquals(100.0, Scanner.computeWorkerUtilization(5000000000L, 1000000000L, 4), 0.01);
+    }
 }
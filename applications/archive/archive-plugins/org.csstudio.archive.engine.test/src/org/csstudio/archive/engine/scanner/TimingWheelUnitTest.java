@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link TimingWheel}
+ *
+ *  <p>Advances the wheel through simulated time,
+ *  comparing with checking the due time of every scan list.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class TimingWheelUnitTest
+{
+    /** Periods from one tick to beyond the span of the wheel */
+    final private static double[] PERIODS = { 0.1, 0.5, 1.0, 7.0, 30.0, 600.0, 30000.0 };
+
+    @Test
+    public void testWheel()
+    {
+        final TimingWheel wheel = new TimingWheel(100);
+        final List<ScanList> lists = new ArrayList<>();
+        for (double period : PERIODS)
+        {
+            final ScanList list = new ScanList(period);
+            list.add(() -> {});
+            lists.add(list);
+            wheel.insert(list);
+        }
+        assertEquals(lists.size(), wheel.size());
+
+        final Random random = new Random(42);
+        final List<ScanList> due = new ArrayList<>();
+        final int[] scans = new int[lists.size()];
+        long now = System.currentTimeMillis();
+        final long end = now + 40000 * 1000L;
+        while (now < end)
+        {
+            assertEquals(getNextDueTime(lists), wheel.getNextDueTime());
+
+            // Mostly small steps, sometimes skip ahead
+            now += random.nextInt(1000) == 0
+                ? random.nextInt(100000)
+                : random.nextInt(300);
+            wheel.advance(now, due);
+            for (ScanList list : lists)
+                assertEquals(list.toString(), list.getNextDueTime() <= now, due.contains(list));
+            assertEquals(lists.size() - due.size(), wheel.size());
+
+            for (ScanList list : due)
+            {
+                list.scanItems();
+                ++scans[lists.indexOf(list)];
+                wheel.insert(list);
+            }
+            due.clear();
+        }
+
+        for (int i=0; i<lists.size(); ++i)
+            System.out.println(lists.get(i) + ": " + scans[i] + " scans");
+        assertTrue(scans[0] > 100000);
+        assertTrue(scans[scans.length-1] >= 1);
+
+        // Remove one list
+        wheel.remove(lists.get(0));
+        assertEquals(lists.size() - 1, wheel.size());
+        lists.remove(0);
+        assertEquals(getNextDueTime(lists), wheel.getNextDueTime());
+
+        wheel.clear();
+        assertEquals(0, wheel.size());
+        assertEquals(Long.MAX_VALUE, wheel.getNextDueTime());
+    }
+
+    /** @return Earliest due time of all lists */
+    private static long getNextDueTime(final List<ScanList> lists)
+    {
+        long next = Long.MAX_VALUE;
+        for (ScanList list : lists)
+            next = Math.min(next, list.getNextDueTime());
+        return next;
+    }
+}
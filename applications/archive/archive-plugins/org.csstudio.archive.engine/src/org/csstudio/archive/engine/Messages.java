@@ -24,6 +24,7 @@ public class Messages
     final public static String HTTP_Description = "Description";
     final public static String HTTP_Disabled = "Disabled";
     final public static String HTTP_Disconnected = "Disconnected";
+    final public static String HTTP_EarlyWrites = "Early Writes";
     final public static String HTTP_DisconnectedTitle = "Disconnected Channels";
     final public static String HTTP_Enabled = "Enabled";
     final public static String HTTP_Enablement = "Enablement";
@@ -33,10 +34,15 @@ public class Messages
     final public static String HTTP_Host = "HTTP Server";
     final public static String HTTP_Idletime = "Idle Time";
     final public static String HTTP_InternalState = "Internal State";
+    final public static String HTTP_Jitter = "Jitter";
+    final public static String HTTP_Lateness = "Lateness";
     final public static String HTTP_CurrentValue = "Current Value";
     final public static String HTTP_LastArchivedValue = "Last Archived Value";
     final public static String HTTP_LastWriteTime = "Last Written";
     final public static String HTTP_MainTitle = "Archive Engine";
+    final public static String HTTP_MaxJitter = "Max. Jitter";
+    final public static String HTTP_MaxLateness = "Max. Lateness";
+    final public static String HTTP_MaxWriteDuration = "Max. Write Duration";
     final public static String HTTP_Mechanism = "Mechanism";
     final public static String HTTP_Never = "never";
     final public static String HTTP_QueueAvg = "Queue Avg.";
@@ -45,16 +51,24 @@ public class Messages
     final public static String HTTP_QueueCapacity = "Capacity";
     final public static String HTTP_QueueOverruns = "Overruns";
     final public static String HTTP_ReceivedValues = "Received Values";
+    final public static String HTTP_ScanLists = "Scan Lists";
+    final public static String HTTP_ScanPeriod = "Scan Period";
+    final public static String HTTP_ScanThreads = "Scan Threads";
+    final public static String HTTP_SkippedScans = "Skipped Scans";
     final public static String HTTP_StartTime = "Start Time";
     final public static String HTTP_State = "State";
     final public static String HTTP_Status = "Status";
     final public static String HTTP_Total = "Total";
     final public static String HTTP_Uptime = "Uptime";
     final public static String HTTP_Version = "Version";
+    final public static String HTTP_WorkerUtilization = "Scan Worker Utilization";
     final public static String HTTP_Workspace = "Workspace";
     final public static String HTTP_WriteCount = "Write Count";
     final public static String HTTP_WriteDuration = "Write Duration";
     final public static String HTTP_WriteError = "Write Error";
     final public static String HTTP_WritePeriod = "Write Period";
+    final public static String HTTP_WriteRate = "Write Rate";
     final public static String HTTP_WriteState = "Write State";
+    final public static String HTTP_WriteThread = "Write Thread";
+    final public static String HTTP_WriteThreads = "Write Threads";
 }
@@ -31,6 +31,33 @@ public class Preferences
         return prefs.getInt(Activator.ID, "write_period", write_period, null);
     }
 
+    public static int getWriteThreads()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        final int write_threads = 1;
+        if (prefs == null)
+            return write_threads;
+        return prefs.getInt(Activator.ID, "write_threads", write_threads, null);
+    }
+
+    public static double getWriteFillThreshold()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        final double fill_threshold = 0.8;
+        if (prefs == null)
+            return fill_threshold;
+        return prefs.getDouble(Activator.ID, "write_fill_threshold", fill_threshold, null);
+    }
+
+    public static int getScanThreads()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        final int scan_threads = 4;
+        if (prefs == null)
+            return scan_threads;
+        return prefs.getInt(Activator.ID, "scan_threads", scan_threads, null);
+    }
+
     public static int getMaxRepeats()
     {
         final IPreferencesService prefs = Platform.getPreferencesService();
@@ -58,5 +85,14 @@ public class Preferences
         return prefs.getDouble(Activator.ID, "buffer_reserve", buffer_reserve, null);
     }
 
+    public static String getLastSampleJournal()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        final String directory = "";
+        if (prefs == null)
+            return directory;
+        return prefs.getString(Activator.ID, "last_sample_journal", directory, null);
+    }
+
 
 }
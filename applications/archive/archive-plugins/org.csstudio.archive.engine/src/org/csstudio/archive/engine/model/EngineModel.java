@@ -7,11 +7,13 @@
  ******************************************************************************/
 package org.csstudio.archive.engine.model;
 
+import java.io.File;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 
 import org.csstudio.archive.config.ArchiveConfig;
 import org.csstudio.archive.config.ChannelConfig;
@@ -20,6 +22,7 @@ import org.csstudio.archive.config.GroupConfig;
 import org.csstudio.archive.config.SampleMode;
 import org.csstudio.archive.engine.Activator;
 import org.csstudio.archive.engine.Preferences;
+import org.csstudio.archive.engine.scanner.ScanList;
 import org.csstudio.archive.engine.scanner.ScanThread;
 import org.csstudio.archive.engine.scanner.Scanner;
 import org.csstudio.archive.vtype.ArchiveVString;
@@ -40,8 +43,8 @@ public class EngineModel
     /** Name of this model */
     private String name = "Archive Engine";  //$NON-NLS-1$
 
-    /** Thread that writes to the <code>archive</code> */
-    final private WriteThread writer;
+    /** Threads that write to the <code>archive</code> */
+    final private ShardedWriter writer;
 
     /** All the channels.
      *  <p>
@@ -62,7 +65,7 @@ public class EngineModel
     final List<ArchiveGroup> groups = new ArrayList<ArchiveGroup>();
 
     /** Scanner for scanned channels */
-    final Scanner scanner = new Scanner();
+    final Scanner scanner = new Scanner(Scanner.DEFAULT_IDLE_DELAY, Preferences.getScanThreads());
 
     /** Thread that runs the scanner */
     final ScanThread scan_thread = new ScanThread(scanner);
@@ -91,6 +94,12 @@ public class EngineModel
     /** Write period in seconds */
     final private static int write_period = Preferences.getWritePeriodSecs();
 
+    /** Number of write threads */
+    final private static int write_threads = Preferences.getWriteThreads();
+
+    /** Buffer fill level that triggers early write */
+    final private static double write_fill_threshold = Preferences.getWriteFillThreshold();
+
     /** Maximum number of repeat counts for scanned channels */
     final private static int max_repeats = Preferences.getMaxRepeats();
 
@@ -103,10 +112,22 @@ public class EngineModel
     /** Samples with time stamps this far ahead of the local time are ignored */
     final private static long ignored_future = Preferences.getIgnoredFutureSecs();
 
+    /** Directory for the last sample time journal, empty to disable */
+    final private static String last_sample_journal = Preferences.getLastSampleJournal();
+
+    /** Journal of last sample times, <code>null</code> if disabled */
+    private LastSampleJournal journal = null;
+
+    /** Last sample time of channels when the configuration was read.
+     *  <p>
+     *  @see channels about thread safety
+     */
+    final Map<String, Instant> last_sample_times = new HashMap<String, Instant>();
+
     /** Construct model that writes to archive */
     public EngineModel()
     {
-        writer = new WriteThread();
+        writer = new ShardedWriter(write_threads);
     }
 
     /** @return Name (description) */
@@ -133,6 +154,20 @@ public class EngineModel
         return batch_size;
     }
 
+    /** @return Number of write threads */
+    public int getWriteThreadCount()
+    {
+        return writer.getShardCount();
+    }
+
+    /** @param index Index 0 .. <code>getWriteThreadCount()-1</code>
+     *  @return Write thread
+     */
+    public WriteThread getWriteThread(final int index)
+    {
+        return writer.getShard(index);
+    }
+
     /** @return Current model state */
     public State getState()
     {
@@ -313,7 +348,7 @@ public class EngineModel
     {
         start_time = Instant.now();
         state = State.RUNNING;
-        writer.start(write_period, batch_size);
+        writer.start(write_period, batch_size, write_fill_threshold);
         for (ArchiveGroup group : groups)
         {
             group.start();
@@ -344,12 +379,38 @@ public class EngineModel
         return writer.getWriteDuration();
     }
 
+    /** @return Number of threads that scan channels */
+    public int getScanThreadCount()
+    {
+        return scanner.getScanThreadCount();
+    }
+
+    /** @return Number of scan lists */
+    public int getScanListCount()
+    {
+        return (int) scanner.size();
+    }
+
+    /** @param index Index 0 .. <code>getScanListCount()-1</code>
+     *  @return Scan list
+     */
+    public ScanList getScanList(final int index)
+    {
+        return scanner.get(index);
+    }
+
     /** @see Scanner#getIdlePercentage() */
     public double getIdlePercentage()
     {
         return scanner.getIdlePercentage();
     }
 
+    /** @see Scanner#getWorkerUtilization() */
+    public double getWorkerUtilization()
+    {
+        return scanner.getWorkerUtilization();
+    }
+
     /** Ask the model to stop.
      *  Merely updates the model state.
      *  @see #getState()
@@ -400,6 +461,9 @@ public class EngineModel
         // Flush all values out
         Activator.getLogger().info("Stopping writer");
         writer.shutdown();
+        // All samples are written, so last sample times are known
+        if (journal != null)
+            writeJournal();
         // Update state
         state = State.IDLE;
         start_time = null;
@@ -424,26 +488,98 @@ public class EngineModel
             throw new Exception("Engine running on port " + port +
                 " while configuration requires " + engine.getURL().toString());
 
+        // Journal of last sample times from a clean stop
+        // replaces reading them from the archive
+        Map<String, Instant> journal_times = null;
+        if (last_sample_journal.isEmpty())
+            journal = null;
+        else
+        {
+            journal = new LastSampleJournal(new File(last_sample_journal), name);
+            try
+            {
+                journal_times = journal.read();
+                if (journal_times != null)
+                    Activator.getLogger().log(Level.INFO, "Using last sample times from {0}", journal.getFile());
+            }
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.WARNING, "Cannot read " + journal.getFile(), ex);
+            }
+        }
+
         // Get groups
         final GroupConfig[] engine_groups = config.getGroups(engine);
         for (GroupConfig group_config : engine_groups)
         {
             final ArchiveGroup group = addGroup(group_config.getName());
             // Add channels to group
-            final ChannelConfig[] channel_configs = config.getChannels(group_config, skip_last);
+            final ChannelConfig[] channel_configs =
+                config.getChannels(group_config, skip_last  ||  journal_times != null);
+            // Channels missing from the journal, for example added since the last run,
+            // need their last sample time from the archive
+            Map<String, Instant> archived_times = null;
+            if (journal_times != null  &&  !skip_last)
+                for (ChannelConfig channel_config : channel_configs)
+                    if (! journal_times.containsKey(channel_config.getName()))
+                    {
+                        archived_times = new HashMap<String, Instant>();
+                        for (ChannelConfig archived : config.getChannels(group_config, false))
+                            if (archived.getLastSampleTime() != null)
+                                archived_times.put(archived.getName(), archived.getLastSampleTime());
+                        break;
+                    }
             for (ChannelConfig channel_config : channel_configs)
             {
                 Enablement enablement = Enablement.Passive;
                 if (channel_config.getName().equals(group_config.getEnablingChannel()))
                     enablement = Enablement.Enabling;
                 final SampleMode mode = channel_config.getSampleMode();
+                Instant last_sample_time = journal_times != null
+                    ? journal_times.get(channel_config.getName())
+                    : channel_config.getLastSampleTime();
+                if (last_sample_time == null  &&  archived_times != null)
+                    last_sample_time = archived_times.get(channel_config.getName());
 
                 addChannel(channel_config.getName(), channel_config.getRetention(), group, enablement,
-                           mode, channel_config.getLastSampleTime());
+                           mode, last_sample_time);
+                if (last_sample_time != null)
+                    synchronized (this)
+                    {
+                        last_sample_times.put(channel_config.getName(), last_sample_time);
+                    }
             }
         }
     }
 
+    /** Write journal of last sample times */
+    @SuppressWarnings("nls")
+    private void writeJournal()
+    {
+        final Map<String, Instant> written = writer.getLastSampleTimes();
+        final Map<String, Instant> times = new HashMap<String, Instant>();
+        synchronized (this)
+        {
+            for (ArchiveChannel channel : channels)
+            {
+                Instant time = written.get(channel.getName());
+                if (time == null)
+                    time = last_sample_times.get(channel.getName());
+                if (time != null)
+                    times.put(channel.getName(), time);
+            }
+        }
+        try
+        {
+            journal.write(times);
+            Activator.getLogger().log(Level.INFO, "Wrote last sample times to {0}", journal.getFile());
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Cannot write " + journal.getFile(), ex);
+        }
+    }
+
     /** Remove all channels and groups. */
     @SuppressWarnings("nls")
     public void clearConfig()
@@ -455,6 +591,7 @@ public class EngineModel
             groups.clear();
             channel_by_name.clear();
             channels.clear();
+            last_sample_times.clear();
         }
         scanner.clear();
     }
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Journal of the time stamp of the last sample written for each channel.
+ *  <p>
+ *  Written when the engine stops after all samples have been written.
+ *  On the next start, the engine can use it instead of
+ *  querying the archive for the last sample of each channel.
+ *  <p>
+ *  The journal is deleted once read,
+ *  so when the engine crashes instead of stopping,
+ *  the next start falls back to reading the archive.
+ *
+ *  <p>File format: Lines "channel name", TAB, ISO-8601 time stamp.
+ *  Lines starting with '#' are comments.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class LastSampleJournal
+{
+    final private File file;
+
+    /** @param directory Directory of the journal
+     *  @param engine Name of the engine
+     */
+    public LastSampleJournal(final File directory, final String engine)
+    {
+        file = new File(directory, engine.replaceAll("[^A-Za-z0-9_.-]", "_") + ".last_sample_times");
+    }
+
+    /** @return Journal file */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /** Read and then delete the journal
+     *  @return Last sample time by channel name, or <code>null</code> if there is no journal
+     *  @throws Exception on error
+     */
+    public Map<String, Instant> read() throws Exception
+    {
+        if (! file.exists())
+            return null;
+        try
+        {
+            final Map<String, Instant> times = new HashMap<>();
+            try
+            (
+                final BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+            )
+            {
+                String line;
+                while ((line = reader.readLine()) != null)
+                {
+                    if (line.isEmpty()  ||  line.startsWith("#"))
+                        continue;
+                    final int sep = line.lastIndexOf('\t');
+                    if (sep <= 0)
+                        throw new Exception("Invalid line in " + file + ": " + line);
+                    times.put(line.substring(0, sep), Instant.parse(line.substring(sep+1)));
+                }
+            }
+            return times;
+        }
+        finally
+        {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /** Write the journal
+     *  @param times Last sample time by channel name
+     *  @throws Exception on error
+     */
+    public void write(final Map<String, Instant> times) throws Exception
+    {
+        // Write to temporary file, then replace journal,
+        // so a partially written journal is never read
+        final File tmp = new File(file.getPath() + ".tmp");
+        try
+        (
+            final BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8);
+        )
+        {
+            writer.write("# Last sample time of archive engine channels, written " + Instant.now());
+            writer.newLine();
+            for (Map.Entry<String, Instant> entry : times.entrySet())
+            {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(entry.getValue().toString());
+                writer.newLine();
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
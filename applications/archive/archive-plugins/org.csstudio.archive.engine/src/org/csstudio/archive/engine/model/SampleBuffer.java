@@ -7,9 +7,10 @@
  ******************************************************************************/
 package org.csstudio.archive.engine.model;
 
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
-import org.csstudio.apputil.ringbuffer.RingBuffer;
 import org.csstudio.archive.engine.ThrottledLogger;
 import org.diirt.vtype.VType;
 
@@ -18,6 +19,10 @@ import org.diirt.vtype.VType;
  *  Assumes that one thread adds samples, while a different
  *  thread removes them.
  *  When the queue size is reached, older samples get dropped.
+ *  <p>
+ *  The queue is lock-free, so threads adding samples
+ *  are not delayed by the write thread removing samples
+ *  or by the web server reading the queue size.
  *
  *  @author Kay Kasemir
  */
@@ -35,22 +40,32 @@ public class SampleBuffer
     final private String retention;
 
     /** The actual samples in a thread-save queue. */
-    final private RingBuffer<VType> samples;
+    final private SampleQueue<VType> samples;
 
     /** Statistics */
     final private BufferStats stats = new BufferStats();
 
-    /** Number of overruns when new string of overruns started, or <code>null</code> */
-    private Integer start_of_overruns;
+    /** Value of <code>start_of_overruns</code> while not in a string of overruns */
+    final private static int NO_OVERRUNS = -1;
+
+    /** Number of overruns when new string of overruns started, or <code>NO_OVERRUNS</code> */
+    final private AtomicInteger start_of_overruns = new AtomicInteger(NO_OVERRUNS);
 
     /** Logger for overrun messages */
     final private static ThrottledLogger overrun_msg =
         new ThrottledLogger(Level.WARNING, "log_overrun"); //$NON-NLS-1$
 
-    /** Is the buffer in an error state because of RDB write errors?
+    /** Number of write threads with RDB write errors.
+     *  The buffer is in an error state while any write thread has errors.
      *  Note that this is global for all buffers, not per instance!
      */
-    private static volatile boolean error = false;
+    private static final AtomicInteger errors = new AtomicInteger();
+
+    /** Write thread to notify when buffer fills up, or <code>null</code> */
+    private volatile WriteThread write_trigger = null;
+
+    /** Queue size that triggers an early write */
+    private volatile int write_trigger_size = Integer.MAX_VALUE;
 
     /** Create sample buffer of given capacity
      * @deprecated Use {@link #SampleBuffer(String,String,int)} instead*/
@@ -65,7 +80,7 @@ public class SampleBuffer
     {
         this.channel_name = channel_name;
         this.retention = retention;
-        samples = new RingBuffer<VType>(capacity);
+        samples = new SampleQueue<VType>(capacity);
     }
 
     /** @return channel name of this buffer */
@@ -83,62 +98,94 @@ public class SampleBuffer
     /** @return Queue capacity, i.e. maximum queue size. */
     public int getCapacity()
     {
-        synchronized (samples)
-        {
-            return samples.getCapacity();
-        }
+        return samples.getCapacity();
     }
 
     /** @return Current queue size, i.e. number of samples in the queue. */
     public int getQueueSize()
     {
-        synchronized (samples)
-        {
-            return samples.size();
-        }
+        return samples.size();
     }
 
     /** @return <code>true</code> if currently experiencing write errors */
     public static boolean isInErrorState()
     {
-        return error;
+        return errors.get() > 0;
+    }
+
+    /** Update the error state.
+     *  @param error <code>true</code> when a write thread enters the error state,
+     *               <code>false</code> when it leaves the error state
+     */
+    static void changeErrorState(final boolean error)
+    {
+        if (error)
+            errors.incrementAndGet();
+        else
+            errors.decrementAndGet();
     }
 
-    /** Set the error state. */
-    static void setErrorState(final boolean error)
+    /** Request early writes when buffer fills up
+     *  @param writer Write thread to notify
+     *  @param fill_threshold Fraction 0..1 of capacity that triggers a write
+     */
+    void setWriteTrigger(final WriteThread writer, final double fill_threshold)
     {
-        SampleBuffer.error = error;
+        write_trigger_size = Math.max(1, (int) Math.ceil(samples.getCapacity() * fill_threshold));
+        write_trigger = writer;
     }
 
     /** Add a sample to the queue, maybe dropping older samples */
     @SuppressWarnings("nls")
     void add(final VType value)
     {
-        synchronized (samples)
+        if (samples.offer(value))
         {
-            if (samples.isFull())
-            {   // Note start of overruns, then drop older sample
-                if (start_of_overruns == null)
-                    start_of_overruns = Integer.valueOf(stats.getOverruns());
-                stats.addOverrun();
-            }
-            else if (start_of_overruns != null)
+            final WriteThread writer = write_trigger;
+            if (writer != null  &&  samples.size() >= write_trigger_size)
+                writer.requestWrite();
+            if (start_of_overruns.get() != NO_OVERRUNS)
             {   // Ending a string of overruns. Maybe log it.
-                final int overruns = stats.getOverruns() - start_of_overruns;
-                overrun_msg.log(channel_name + ": " + overruns + " overruns");
-                start_of_overruns = null;
+                final int start = start_of_overruns.getAndSet(NO_OVERRUNS);
+                if (start != NO_OVERRUNS)
+                {
+                    final int overruns = stats.getOverruns() - start;
+                    overrun_msg.log(channel_name + ": " + overruns + " overruns");
+                }
             }
-            samples.add(value);
+            return;
+        }
+        // Queue is full: Note start of overruns, then drop older samples
+        // until there's room.
+        // Write thread may remove samples at the same time, so 'offer' could
+        // succeed without dropping, or another producer may have taken the
+        // slot that we freed up, requiring another drop.
+        start_of_overruns.compareAndSet(NO_OVERRUNS, stats.getOverruns());
+        do
+        {
+            if (samples.poll() != null)
+                stats.addOverrun();
         }
+        while (! samples.offer(value));
+        final WriteThread writer = write_trigger;
+        if (writer != null)
+            writer.requestWrite();
     }
 
     /** @return latest sample in queue or <code>null</code> if empty */
     VType remove()
     {
-        synchronized (samples)
-        {
-            return samples.remove();
-        }
+        return samples.poll();
+    }
+
+    /** Remove several samples at once
+     *  @param batch Collection to which samples are added, oldest sample first
+     *  @param max_count Maximum number of samples to remove
+     *  @return Number of samples that were removed, 0 if buffer was empty
+     */
+    int drainTo(final Collection<? super VType> batch, final int max_count)
+    {
+        return samples.drainTo(batch, max_count);
     }
 
     /** Update stats with current values */
@@ -156,7 +203,7 @@ public class SampleBuffer
     /** Reset statistics */
     public void reset()
     {
-        start_of_overruns = null;
+        start_of_overruns.set(NO_OVERRUNS);
         stats.reset();
     }
 
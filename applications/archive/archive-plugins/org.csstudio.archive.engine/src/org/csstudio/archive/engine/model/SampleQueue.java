@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** Bounded, lock-free queue for the {@link SampleBuffer}.
+ *  <p>
+ *  Array-based ring where each slot carries a sequence number
+ *  that tells producers and consumers whether the slot is free
+ *  for writing or holds a published item.
+ *  Producers and consumers claim slots by advancing the
+ *  tail resp. head position via compare-and-set,
+ *  so neither side ever blocks the other.
+ *  <p>
+ *  Several threads may add, for example the PV monitor
+ *  and the thread that enables/disables groups.
+ *  Items are usually removed by the write thread,
+ *  but a producer may also remove the oldest item to make room,
+ *  so removal must be safe for several threads as well.
+ *
+ *  @author agent
+ *  @param <T> Element type
+ */
+final class SampleQueue<T>
+{
+    final private int capacity;
+
+    /** Items, <code>null</code> when slot is empty */
+    final private AtomicReferenceArray<T> items;
+
+    /** Per-slot sequence.
+     *  <p>
+     *  <code>sequence == pos</code>: Slot is free for the item at 'pos'.
+     *  <code>sequence == pos+1</code>: Slot holds the item added at 'pos'.
+     */
+    final private AtomicLongArray sequence;
+
+    /** Position of next item to remove */
+    final private AtomicLong head = new AtomicLong();
+
+    /** Position of next item to add */
+    final private AtomicLong tail = new AtomicLong();
+
+    /** @param capacity Maximum number of items in queue */
+    SampleQueue(final int capacity)
+    {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive"); //$NON-NLS-1$
+        this.capacity = capacity;
+        items = new AtomicReferenceArray<>(capacity);
+        sequence = new AtomicLongArray(capacity);
+        for (int i=0; i<capacity; ++i)
+            sequence.set(i, i);
+    }
+
+    /** @return Maximum number of items in queue */
+    int getCapacity()
+    {
+        return capacity;
+    }
+
+    /** @return Number of items in queue.
+     *          Only a snapshot while other threads add or remove items.
+     */
+    int size()
+    {
+        // Read head first so that size never appears negative
+        final long start = head.get();
+        final long size = tail.get() - start;
+        if (size <= 0)
+            return 0;
+        return size > capacity ? capacity : (int) size;
+    }
+
+    /** @param item Item to add
+     *  @return <code>true</code> if added, <code>false</code> if queue was full
+     */
+    boolean offer(final T item)
+    {
+        long pos = tail.get();
+        while (true)
+        {
+            final int index = (int) (pos % capacity);
+            final long diff = sequence.get(index) - pos;
+            if (diff == 0)
+            {   // Slot is free, try to claim it
+                if (tail.compareAndSet(pos, pos + 1))
+                {
+                    items.lazySet(index, item);
+                    // Publish to consumers
+                    sequence.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            }
+            else if (diff < 0) // Slot still holds item from last time around
+                return false;
+            else // Another producer claimed the slot
+                pos = tail.get();
+        }
+    }
+
+    /** @return Oldest item or <code>null</code> if queue is empty */
+    T poll()
+    {
+        long pos = head.get();
+        while (true)
+        {
+            final int index = (int) (pos % capacity);
+            final long diff = sequence.get(index) - (pos + 1);
+            if (diff == 0)
+            {   // Slot holds a published item, try to claim it
+                if (head.compareAndSet(pos, pos + 1))
+                {
+                    final T item = items.get(index);
+                    items.lazySet(index, null);
+                    // Release slot for the producer one time around
+                    sequence.set(index, pos + capacity);
+                    return item;
+                }
+                pos = head.get();
+            }
+            else if (diff < 0) // Nothing published, yet
+                return null;
+            else // Another consumer removed that item
+                pos = head.get();
+        }
+    }
+
+    /** Remove items from queue
+     *  @param batch Collection to which removed items are added
+     *  @param max_count Maximum number of items to remove
+     *  @return Number of items that were removed
+     */
+    int drainTo(final Collection<? super T> batch, final int max_count)
+    {
+        int count = 0;
+        while (count < max_count)
+        {
+            final T item = poll();
+            if (item == null)
+                break;
+            batch.add(item);
+            ++count;
+        }
+        return count;
+    }
+}
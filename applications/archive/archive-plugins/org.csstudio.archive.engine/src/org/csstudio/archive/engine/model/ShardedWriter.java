@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Distributes the sample buffers of all channels
+ *  over one or more {@link WriteThread}s.
+ *  <p>
+ *  Each write thread ('shard') has its own <code>ArchiveWriter</code>,
+ *  i.e. its own RDB connection, and handles the channels
+ *  whose name hashes to that shard.
+ *  With a single shard, this behaves like the original
+ *  single write thread.
+ *
+ *  @author agent
+ */
+public class ShardedWriter
+{
+    /** Write threads */
+    final private WriteThread[] shards;
+
+    /** @param shard_count Number of write threads */
+    @SuppressWarnings("nls")
+    public ShardedWriter(final int shard_count)
+    {
+        shards = new WriteThread[Math.max(1, shard_count)];
+        if (shards.length == 1)
+            shards[0] = new WriteThread();
+        else
+            for (int i=0; i<shards.length; ++i)
+                shards[i] = new WriteThread("WriteThread " + (i+1));
+    }
+
+    /** @return Number of write threads */
+    public int getShardCount()
+    {
+        return shards.length;
+    }
+
+    /** @param index Index 0 .. <code>getShardCount()-1</code>
+     *  @return Write thread
+     */
+    public WriteThread getShard(final int index)
+    {
+        return shards[index];
+    }
+
+    /** Add a channel's buffer to the write thread for that channel name */
+    public void addChannel(final ArchiveChannel channel)
+    {
+        shards[Math.floorMod(channel.getName().hashCode(), shards.length)].addChannel(channel);
+    }
+
+    /** Start the write threads.
+     *  @param write_period Period between writes in seconds
+     *  @param batch_size Number of values to batch
+     *  @param fill_threshold Fraction 0..1 of a buffer's capacity
+     *                        that requests an early write. 0 to disable.
+     */
+    public void start(final double write_period, final int batch_size, final double fill_threshold)
+    {
+        for (WriteThread shard : shards)
+            shard.start(write_period, batch_size, fill_threshold);
+    }
+
+    /** Reset statistics */
+    public void reset()
+    {
+        for (WriteThread shard : shards)
+            shard.reset();
+    }
+
+    /** @return Oldest timestamp of end of last write run among all write threads,
+     *          i.e. time since which all channels have been written,
+     *          or <code>null</code> if some thread never wrote
+     */
+    public Instant getLastWriteTime()
+    {
+        Instant oldest = null;
+        for (WriteThread shard : shards)
+        {
+            final Instant time = shard.getLastWriteTime();
+            if (time == null)
+                return null;
+            if (oldest == null  ||  time.isBefore(oldest))
+                oldest = time;
+        }
+        return oldest;
+    }
+
+    /** @return Time stamp of the last sample written for each channel */
+    public Map<String, Instant> getLastSampleTimes()
+    {
+        final Map<String, Instant> times = new HashMap<>();
+        for (WriteThread shard : shards)
+            times.putAll(shard.getLastSampleTimes());
+        return times;
+    }
+
+    /** @return Average number of values per write run, summed over write threads */
+    public double getWriteCount()
+    {
+        double count = 0.0;
+        for (WriteThread shard : shards)
+            count += shard.getWriteCount();
+        return count;
+    }
+
+    /** @return Average duration of write run in seconds of the slowest write thread */
+    public double getWriteDuration()
+    {
+        double duration = 0.0;
+        for (WriteThread shard : shards)
+            duration = Math.max(duration, shard.getWriteDuration());
+        return duration;
+    }
+
+    /** Stop the write threads, performing a final write.
+     *  @throws Exception on error in final write of any thread
+     */
+    public void shutdown() throws Exception
+    {
+        // Ask all threads to stop so they can exit in parallel
+        for (WriteThread shard : shards)
+            shard.stop();
+        Exception error = null;
+        for (WriteThread shard : shards)
+        {
+            try
+            {
+                shard.shutdown();
+            }
+            catch (Exception ex)
+            {   // Still shut down remaining threads, then report first error
+                if (error == null)
+                    error = ex;
+            }
+        }
+        if (error != null)
+            throw error;
+    }
+}
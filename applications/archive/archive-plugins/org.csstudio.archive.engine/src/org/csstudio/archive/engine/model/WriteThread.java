@@ -9,10 +9,16 @@ package org.csstudio.archive.engine.model;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
 import org.csstudio.apputil.time.BenchmarkTimer;
 import org.csstudio.archive.engine.Activator;
+import org.csstudio.archive.vtype.VTypeHelper;
 import org.csstudio.archive.writer.ArchiveWriter;
 import org.csstudio.archive.writer.ArchiveWriterFactory;
 import org.csstudio.archive.writer.WriteChannel;
@@ -29,6 +35,13 @@ import org.diirt.vtype.VType;
  *  be lost.
  *  The channels that add samples to the sample buffer supposedly notice
  *  the error condition and add a special indicator once we recover.
+ *  <p>
+ *  Each write thread uses its own <code>ArchiveWriter</code>,
+ *  so several write threads can handle different subsets of
+ *  the sample buffers in parallel, see {@link ShardedWriter}.
+ *  <p>
+ *  Sample buffers filling beyond a threshold request an early write,
+ *  so bursts of samples are written before the buffers overrun.
  *
  *  @author Kay Kasemir
  */
@@ -37,18 +50,32 @@ public class WriteThread implements Runnable
     /** Minimum write period [seconds] */
     private static final double MIN_WRITE_PERIOD = 5.0;
 
+    /** Minimum period between early writes requested by filling buffers [millisec] */
+    private static final long MIN_EARLY_WRITE_PERIOD_MS = 1000;
+
     /** Server to which this thread writes. */
     private ArchiveWriter writer;
 
-    /** All the sample buffers this thread writes. */
-    final private ArrayList<SampleBuffer> buffers =
-        new ArrayList<SampleBuffer>();
+    /** All the sample buffers this thread writes.
+     *  Channels may be added while the thread is running.
+     */
+    final private List<SampleBuffer> buffers =
+        new CopyOnWriteArrayList<SampleBuffer>();
+
+    /** Fraction 0..1 of a buffer's capacity that requests an early write, 0 if disabled */
+    private volatile double fill_threshold = 0.0;
+
+    /** Name of the thread */
+    final private String name;
 
     /** Flag that tells the write thread to run or quit. */
-    private boolean do_run;
+    private volatile boolean do_run;
+
+    /** Flag that tells the write thread to write ASAP */
+    private volatile boolean write_requested = false;
 
     /** Synchronization block for waiting.
-     *  Signaled in stop().
+     *  Signaled in stop() and requestWrite().
      */
     private Object wait_block = new Object();
 
@@ -67,9 +94,57 @@ public class WriteThread implements Runnable
     /** Average duration of write run */
     private Average write_time = new Average();
 
+    /** Maximum duration of write run */
+    private volatile double max_write_time = 0.0;
+
+    /** Average number of values per second while writing */
+    private Average write_rate = new Average();
+
+    /** Number of write runs that were requested early by a filling buffer */
+    private volatile long early_writes = 0;
+
+    /** Samples removed from a buffer, reused for each write run */
+    final private ArrayList<VType> batch = new ArrayList<VType>();
+
+    /** Samples that had been removed from a buffer but were not written
+     *  because of an error, written first by the next write run
+     */
+    final private Map<SampleBuffer, List<VType>> unwritten = new HashMap<>();
+
+    /** Time stamp of the last sample added to the writer for each channel,
+     *  reused for each write run and only valid once the samples were flushed
+     */
+    final private Map<String, Instant> pending_times = new HashMap<>();
+
+    /** Time stamp of the last sample written for each channel */
+    final private Map<String, Instant> last_sample_times = new ConcurrentHashMap<>();
+
+    /** Has this thread reported an error to the SampleBuffer? */
+    private boolean error_state = false;
+
     /** Thread the executes this.run() */
     private Thread thread;
 
+    /** Create write thread */
+    public WriteThread()
+    {
+        this("WriteThread"); //$NON-NLS-1$
+    }
+
+    /** Create write thread
+     *  @param name Name of the thread
+     */
+    public WriteThread(final String name)
+    {
+        this.name = name;
+    }
+
+    /** @return Name of the thread */
+    public String getName()
+    {
+        return name;
+    }
+
     /** Add a channel's buffer that this thread reads */
     public void addChannel(final ArchiveChannel channel)
     {
@@ -79,15 +154,36 @@ public class WriteThread implements Runnable
     /** Add a sample buffer that this thread reads */
     void addSampleBuffer(final SampleBuffer buffer)
     {
+        // When already running, buffer needs the write trigger right away
+        final double threshold = fill_threshold;
+        if (threshold > 0.0)
+            buffer.setWriteTrigger(this, threshold);
         buffers.add(buffer);
     }
 
+    /** @return Number of sample buffers that this thread writes */
+    public int getBufferCount()
+    {
+        return buffers.size();
+    }
+
     /** Start the write thread.
      *  @param write_period Period between writes in seconds
      *  @param batch_size Number of values to batch
      */
+    public void start(final double write_period, final int batch_size)
+    {
+        start(write_period, batch_size, 0.0);
+    }
+
+    /** Start the write thread.
+     *  @param write_period Period between writes in seconds
+     *  @param batch_size Number of values to batch
+     *  @param fill_threshold Fraction 0..1 of a buffer's capacity
+     *                        that requests an early write. 0 to disable.
+     */
     @SuppressWarnings("nls")
-    public void start(double write_period, int batch_size)
+    public void start(double write_period, int batch_size, final double fill_threshold)
     {
         if (write_period < MIN_WRITE_PERIOD)
         {
@@ -97,7 +193,14 @@ public class WriteThread implements Runnable
         }
         millisec_delay = (int)(1000.0 * write_period);
         this.batch_size = batch_size;
-        thread = new Thread(this, "WriteThread");
+        if (fill_threshold > 0.0)
+        {   // Set threshold before updating buffers so that
+            // buffers added meanwhile also receive the trigger
+            this.fill_threshold = fill_threshold;
+            for (SampleBuffer buffer : buffers)
+                buffer.setWriteTrigger(this, fill_threshold);
+        }
+        thread = new Thread(this, name);
         thread.start();
     }
 
@@ -106,10 +209,31 @@ public class WriteThread implements Runnable
     {
         write_count.reset();
         write_time.reset();
+        write_rate.reset();
+        max_write_time = 0.0;
+        early_writes = 0;
+    }
+
+    /** Ask the write thread to write ASAP instead of waiting
+     *  for the end of the write period.
+     *  <p>
+     *  Called by sample buffers that fill up.
+     */
+    void requestWrite()
+    {
+        // Many samples may arrive before the write thread reacts.
+        // Only notify once.
+        if (write_requested)
+            return;
+        write_requested = true;
+        synchronized (wait_block)
+        {
+            wait_block.notify();
+        }
     }
 
     /** Ask the write thread to stop ASAP. */
-    private void stop()
+    void stop()
     {
         do_run = false;
         synchronized (wait_block)
@@ -124,6 +248,14 @@ public class WriteThread implements Runnable
         return last_write_stamp;
     }
 
+    /** @return Time stamp of the last sample written for each channel
+     *          that this thread wrote
+     */
+    public Map<String, Instant> getLastSampleTimes()
+    {
+        return last_sample_times;
+    }
+
     /** @return Average number of values per write run */
     public double getWriteCount()
     {
@@ -136,6 +268,24 @@ public class WriteThread implements Runnable
         return write_time.get();
     }
 
+    /** @return Maximum duration of write run in seconds */
+    public double getMaxWriteDuration()
+    {
+        return max_write_time;
+    }
+
+    /** @return Average number of values written per second of a write run */
+    public double getWriteRate()
+    {
+        return write_rate.get();
+    }
+
+    /** @return Number of write runs requested early because buffers filled up */
+    public long getEarlyWrites()
+    {
+        return early_writes;
+    }
+
     /** 'Main loop' of the write thread.
      *  <p>
      *  Writes all values out, then waits.
@@ -153,7 +303,7 @@ public class WriteThread implements Runnable
     @SuppressWarnings("nls")
     public void run()
     {
-        Activator.getLogger().info("WriteThread starts");
+        Activator.getLogger().info(name + " starts");
         final BenchmarkTimer timer = new BenchmarkTimer();
         boolean write_error = false;
         do_run = true;
@@ -177,13 +327,20 @@ public class WriteThread implements Runnable
                 if (writer == null)
                     writer = ArchiveWriterFactory.getArchiveWriter();
                 timer.start();
+                // Samples that arrive from now on may request another write
+                write_requested = false;
                 // In case of a network problem, we can hang in here
                 // for a long time...
                 final long written = write();
                 timer.stop();
                 last_write_stamp = Instant.now();
+                final double seconds = timer.getSeconds();
                 write_count.update(written);
-                write_time.update(timer.getSeconds());
+                write_time.update(seconds);
+                if (seconds > max_write_time)
+                    max_write_time = seconds;
+                if (seconds > 0.0)
+                    write_rate.update(written / seconds);
                 // How much of the scheduled delay is left after write()?
                 delay = millisec_delay - timer.getMilliseconds();
             }
@@ -194,16 +351,38 @@ public class WriteThread implements Runnable
                 delay = millisec_delay;
                 write_error = true;
             }
-            SampleBuffer.setErrorState(write_error);
+            if (write_error != error_state)
+            {
+                error_state = write_error;
+                SampleBuffer.changeErrorState(write_error);
+            }
             // See if there's any time left to wait,
-            // or if we already used all that time in the last 'write'
+            // or if we already used all that time in the last 'write'.
+            // Stop waiting when a buffer filled up, but not before
+            // MIN_EARLY_WRITE_PERIOD and not while in error state.
             if (delay > 0)
             {
+                final long now = System.currentTimeMillis();
+                final long end = now + delay;
+                final long early_end = end - millisec_delay + MIN_EARLY_WRITE_PERIOD_MS;
                 synchronized (wait_block)
                 {
                     try
                     {
-                        wait_block.wait(delay);
+                        long wait = (write_requested  &&  !write_error)
+                                  ? early_end - now
+                                  : delay;
+                        while (do_run  &&  wait > 0)
+                        {
+                            wait_block.wait(wait);
+                            final long time = System.currentTimeMillis();
+                            if (write_requested  &&  !write_error)
+                                wait = early_end - time;
+                            else
+                                wait = end - time;
+                        }
+                        if (do_run  &&  System.currentTimeMillis() < end)
+                            ++early_writes;
                     }
                     catch (InterruptedException ex)
                     {
@@ -212,7 +391,7 @@ public class WriteThread implements Runnable
                 }
             }
         }
-        Activator.getLogger().info("WriteThread exists");
+        Activator.getLogger().info(name + " exists");
     }
 
     /** Stop the write thread, performing a final write. */
@@ -245,6 +424,7 @@ public class WriteThread implements Runnable
     {
         int total_count = 0;
         int count = 0;
+        pending_times.clear();
         for (SampleBuffer buffer : buffers)
         {
             // Update max buffer length etc. before we start to remove samples
@@ -253,25 +433,52 @@ public class WriteThread implements Runnable
             final String name = buffer.getChannelName();
             final String retention = buffer.getArchiveDataRetention();
             final WriteChannel channel = writer.getChannel(name, retention);
-            VType sample = buffer.remove();
-            while (sample != null)
-            {   // Write one value
-                writer.addSample(channel, sample);
-                // Note: count across different sample buffers!
-                ++count;
-                if (count > batch_size)
+            // Start with samples left over from a failed write run
+            final List<VType> retry = unwritten.remove(buffer);
+            if (retry != null)
+                batch.addAll(retry);
+            // Remove samples in chunks, not one by one
+            while (! batch.isEmpty()  ||  buffer.drainTo(batch, batch_size) > 0)
+            {
+                int written = 0;
+                try
                 {
-                    total_count += count;
-                    count = 0;
-                    writer.flush();
+                    pending_times.put(name, VTypeHelper.getTimestamp(batch.get(batch.size()-1)));
+                    for (VType sample : batch)
+                    {   // Write one value.
+                        // A sample that the writer rejects is not retried,
+                        // same as when it was removed from the buffer on its own
+                        ++written;
+                        writer.addSample(channel, sample);
+                        // Note: count across different sample buffers!
+                        ++count;
+                        if (count > batch_size)
+                        {
+                            total_count += count;
+                            count = 0;
+                            writer.flush();
+                        }
+                    }
+                    batch.clear();
+                }
+                finally
+                {   // On error, keep samples that did not reach the writer
+                    // for the next write run, like they would have remained
+                    // in the sample buffer when removed one by one
+                    if (! batch.isEmpty())
+                    {
+                        if (written < batch.size())
+                            unwritten.put(buffer, new ArrayList<>(batch.subList(written, batch.size())));
+                        batch.clear();
+                    }
                 }
-                // next
-                sample = buffer.remove();
             }
         }
         // Flush remaining samples (less than batch_size)
         writer.flush();
         total_count += count;
+        // All samples are now written
+        last_sample_times.putAll(pending_times);
         return total_count;
     }
 }
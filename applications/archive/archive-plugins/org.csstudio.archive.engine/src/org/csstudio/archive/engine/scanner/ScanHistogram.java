@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.scanner;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** Histogram of scan delays in milliseconds.
+ *  <p>
+ *  Thread-safe, updated by scan workers
+ *  while the web server reads it.
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ScanHistogram
+{
+    /** Upper limits of the bins in millisecs, last bin has no limit */
+    final private static long[] LIMITS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000 };
+
+    final private AtomicLongArray counts = new AtomicLongArray(LIMITS.length + 1);
+
+    final private AtomicLong max = new AtomicLong();
+
+    /** @param millis Delay to add to histogram */
+    public void update(final long millis)
+    {
+        int bin = 0;
+        while (bin < LIMITS.length  &&  millis >= LIMITS[bin])
+            ++bin;
+        counts.incrementAndGet(bin);
+        long old = max.get();
+        while (millis > old  &&  !max.compareAndSet(old, millis))
+            old = max.get();
+    }
+
+    /** @return Number of bins */
+    public int getBinCount()
+    {
+        return counts.length();
+    }
+
+    /** @param bin Bin index 0 .. <code>getBinCount()-1</code>
+     *  @return Label for the bin, for example "&lt;5 ms"
+     */
+    public String getBinLabel(final int bin)
+    {
+        if (bin < LIMITS.length)
+            return "<" + LIMITS[bin] + " ms";
+        return ">=" + LIMITS[LIMITS.length-1] + " ms";
+    }
+
+    /** @param bin Bin index 0 .. <code>getBinCount()-1</code>
+     *  @return Number of delays in that bin
+     */
+    public long getCount(final int bin)
+    {
+        return counts.get(bin);
+    }
+
+    /** @return Total number of delays */
+    public long getCount()
+    {
+        long total = 0;
+        for (int i=0; i<counts.length(); ++i)
+            total += counts.get(i);
+        return total;
+    }
+
+    /** @return Maximum delay in millisecs */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /** Reset statistics */
+    public void reset()
+    {
+        for (int i=0; i<counts.length(); ++i)
+            counts.set(i, 0);
+        max.set(0);
+    }
+
+    /** @return Non-empty bins, for example "&lt;1 ms: 20, &lt;2 ms: 3" */
+    @Override
+    public String toString()
+    {
+        final StringBuilder buf = new StringBuilder();
+        for (int i=0; i<counts.length(); ++i)
+        {
+            final long count = counts.get(i);
+            if (count <= 0)
+                continue;
+            if (buf.length() > 0)
+                buf.append(", ");
+            buf.append(getBinLabel(i)).append(": ").append(count);
+        }
+        return buf.toString();
+    }
+}
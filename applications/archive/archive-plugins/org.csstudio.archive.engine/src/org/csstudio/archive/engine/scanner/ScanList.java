@@ -8,6 +8,10 @@
 package org.csstudio.archive.engine.scanner;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import org.csstudio.archive.engine.Activator;
@@ -16,11 +20,25 @@ import org.csstudio.archive.engine.Activator;
  *  <p>
  *  Only the {@link Scanner} is supposed to modify and scan
  *  the scan list, so many methods are package-scoped.
+ *  <p>
+ *  The items can be scanned in chunks by several worker threads.
+ *  While a chunk is still busy with a previous scan,
+ *  further scans of that chunk are skipped, so an item is never scanned
+ *  by more than one thread at a time, and a slow item
+ *  only delays the other items in its chunk.
+ *  <p>
+ *  Those other items are not scanned until the slow item returns,
+ *  which is visible in the skipped scans.
+ *  To limit how many items a slow item can stall,
+ *  chunks hold at most {@link #MAX_CHUNK_SIZE} items.
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
 public class ScanList implements Scheduleable
 {
+    /** Maximum number of items in a chunk scanned by a worker thread */
+    final static int MAX_CHUNK_SIZE = 100;
+
     /** Scan period in seconds */
     final private long scan_period_millis;
 
@@ -29,6 +47,27 @@ public class ScanList implements Scheduleable
 
     private long next_due_time = System.currentTimeMillis();
 
+    /** Start of the previous scan in system millis, 0 if never scanned */
+    private long last_scan_start = 0;
+
+    /** Busy state of each chunk of items scanned by worker threads.
+     *  Items are only added or removed while not scanning,
+     *  so the chunks stay the same while scanning.
+     */
+    private AtomicBoolean[] busy_chunks = new AtomicBoolean[0];
+
+    /** Delay between due time and start of scanning items */
+    final private ScanHistogram lateness = new ScanHistogram();
+
+    /** Deviation of the time between scans from the scan period */
+    final private ScanHistogram jitter = new ScanHistogram();
+
+    /** Number of chunk scans skipped because the previous scan was still busy */
+    final private AtomicLong skipped_scans = new AtomicLong();
+
+    /** Slot of the {@link TimingWheel} that holds this list, <code>null</code> if none */
+    List<ScanList> wheel_slot = null;
+
     /** Construct scan list.
      *  @param scan_period Scan period in seconds
      */
@@ -87,28 +126,120 @@ public class ScanList implements Scheduleable
         return items.get(index);
     }
 
+    /** @return Histogram of delay between due time and start of scanning items */
+    public ScanHistogram getLateness()
+    {
+        return lateness;
+    }
+
+    /** @return Histogram of deviation of time between scans from the scan period */
+    public ScanHistogram getJitter()
+    {
+        return jitter;
+    }
+
+    /** @return Number of chunk scans skipped because the previous scan was still busy */
+    public long getSkippedScans()
+    {
+        return skipped_scans.get();
+    }
+
+    /** Reset statistics */
+    void reset()
+    {
+        lateness.reset();
+        jitter.reset();
+        skipped_scans.set(0);
+    }
+
     /** Scan all items on this scan list.
      *  Doesn't care if they're due or not,
      *  that's up to the code that invokes this.
      */
     void scanItems()
+    {
+        scanItems(null, 1);
+    }
+
+    /** Scan all items on this scan list.
+     *  Doesn't care if they're due or not,
+     *  that's up to the code that invokes this.
+     *  @param executor Executor for chunks of items,
+     *                  <code>null</code> to scan all items in calling thread
+     *  @param chunks Number of chunks (1 or more) into which to split the items.
+     *                More chunks are used when they would exceed {@link #MAX_CHUNK_SIZE}.
+     */
+    void scanItems(final Executor executor, final int chunks)
     {
         final long start = System.currentTimeMillis();
-        // Scan all items
-        for (Runnable item : items)
+        final long due = next_due_time;
+        // Determine next due time relative to the due time,
+        // swallowing the time used to scan the items.
+        // When already late by more than a period, skip ahead.
+        next_due_time = due + scan_period_millis;
+        if (next_due_time <= start)
+            next_due_time = start + scan_period_millis;
+
+        if (last_scan_start > 0)
+            jitter.update(Math.abs(start - last_scan_start - scan_period_millis));
+        last_scan_start = start;
+
+        final int N = items.size();
+        if (executor == null  ||  N <= 0)
+        {
+            lateness.update(Math.max(0, start - due));
+            scanItems(0, N);
+            return;
+        }
+        final int chunk_size = Math.min((N + chunks - 1) / chunks, MAX_CHUNK_SIZE);
+        final int count = (N + chunk_size - 1) / chunk_size;
+        if (busy_chunks.length != count)
+        {
+            busy_chunks = new AtomicBoolean[count];
+            for (int i=0; i<count; ++i)
+                busy_chunks[i] = new AtomicBoolean();
+        }
+        for (int i=0; i<count; ++i)
+        {
+            final AtomicBoolean busy = busy_chunks[i];
+            if (! busy.compareAndSet(false, true))
+            {   // Previous scan of chunk still running, don't pile up more
+                skipped_scans.incrementAndGet();
+                continue;
+            }
+            final int from = i * chunk_size;
+            final int to = Math.min(N, from + chunk_size);
+            executor.execute(() ->
+            {
+                try
+                {
+                    lateness.update(Math.max(0, System.currentTimeMillis() - due));
+                    scanItems(from, to);
+                }
+                finally
+                {
+                    busy.set(false);
+                }
+            });
+        }
+    }
+
+    /** @param from Index of first item to scan
+     *  @param to Index after the last item to scan
+     */
+    private void scanItems(final int from, final int to)
+    {
+        for (int i=from; i<to; ++i)
         {
             try
             {
-                item.run();
+                items.get(i).run();
             }
             catch (Throwable ex)
             {
                 Activator.getLogger().log(Level.SEVERE, toString() + " scan error", ex);
             }
         }
-        // Determine next due time relative to start,
-        // swallowing the time used to scan the items.
-        next_due_time = start + scan_period_millis;
     }
 
     @Override
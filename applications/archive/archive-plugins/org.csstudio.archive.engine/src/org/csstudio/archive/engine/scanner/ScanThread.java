@@ -56,6 +56,15 @@ public class ScanThread implements Runnable
         {
             scanner.scanOnce();
         }
+        // Items may still be scanned by worker threads
+        try
+        {
+            scanner.waitForScans();
+        }
+        catch (InterruptedException ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Scan Thread wait for scans", ex);
+        }
         Activator.getLogger().info("Scan Thread ends");
     }
 
@@ -8,6 +8,11 @@
 package org.csstudio.archive.engine.scanner;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import org.csstudio.archive.engine.Activator;
@@ -17,6 +22,13 @@ import org.csstudio.util.stats.Average;
  *  <p>
  *  Places runnable items on scan lists,
  *  determines how long to wait to the scan next.
+ *  <p>
+ *  Scan lists are scheduled in a {@link TimingWheel}.
+ *  With more than one scan thread, the items of due scan lists
+ *  are scanned in parallel by a pool of worker threads,
+ *  so a slow item does not delay all the other items.
+ *  It does, however, stall the other items in its chunk,
+ *  see {@link ScanList}.
  *  @author Kay Kasemir
  */
 public class Scanner implements Scheduleable
@@ -25,11 +37,35 @@ public class Scanner implements Scheduleable
     final private static double GRANULARITY = 0.1;
 
     /** Default idle delay */
-    final private static long DEFAULT_IDLE_DELAY = 500;
+    final public static long DEFAULT_IDLE_DELAY = 500;
 
     /** Time to wait in system millis when nothing to do */
     final private long idle_delay;
 
+    /** Number of threads that scan items */
+    final private int scan_threads;
+
+    /** Worker threads, <code>null</code> to scan in calling thread */
+    final private ExecutorService workers;
+
+    /** Number of chunks submitted to workers that are not done */
+    final private AtomicInteger busy_chunks = new AtomicInteger();
+
+    /** Time that worker threads spent scanning chunks in nanosecs */
+    final private AtomicLong worker_busy_nanos = new AtomicLong();
+
+    /** Start of current measurement of worker utilization in nanosecs */
+    private long measurement_start = System.nanoTime();
+
+    /** Worker busy time at start of current measurement */
+    private long measured_busy_nanos = 0;
+
+    /** Scan lists by due time */
+    final private TimingWheel wheel = new TimingWheel((long) (GRANULARITY * 1000));
+
+    /** Scan lists that are due, reused for each scan */
+    final private List<ScanList> due_lists = new ArrayList<ScanList>();
+
     /** All the single-period scan lists.
      *  <p>
      *  Note that we don't keep empty lists around,
@@ -43,12 +79,39 @@ public class Scanner implements Scheduleable
     /** Average idle time in percent. */
     final private Average idle_percentage = new Average();
 
+    /** Average utilization of worker threads in percent. */
+    final private Average worker_utilization = new Average();
+
     /** Construct scanner
      *  @param idle_delay Time to wait in system millis when nothing to do
      */
     public Scanner(final long idle_delay)
+    {
+        this(idle_delay, 1);
+    }
+
+    /** Construct scanner
+     *  @param idle_delay Time to wait in system millis when nothing to do
+     *  @param scan_threads Number of threads that scan items.
+     *                      1 to scan all items in the thread that calls <code>scanOnce</code>.
+     */
+    @SuppressWarnings("nls")
+    public Scanner(final long idle_delay, final int scan_threads)
     {
         this.idle_delay = idle_delay;
+        this.scan_threads = Math.max(1, scan_threads);
+        if (this.scan_threads > 1)
+        {
+            final AtomicInteger thread_count = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(this.scan_threads, runnable ->
+            {
+                final Thread thread = new Thread(runnable, "ScanWorker " + thread_count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        else
+            workers = null;
     }
 
     /** Construct scanner with default idle delay */
@@ -57,6 +120,12 @@ public class Scanner implements Scheduleable
         this(DEFAULT_IDLE_DELAY);
     }
 
+    /** @return Number of threads that scan items */
+    public int getScanThreadCount()
+    {
+        return scan_threads;
+    }
+
     /** Add an item to the scanner, placing it on a suitable scan list.
      *  @param item Item to scan
      *  @param period Scan period in seconds
@@ -82,8 +151,10 @@ public class Scanner implements Scheduleable
             the_list = new ScanList(Math.round(period / GRANULARITY) * GRANULARITY);
             lists.add(the_list);
         }
-        // Add item to list
+        // Add item to list, scheduling the list when it was empty
         the_list.add(item);
+        if (the_list.size() == 1)
+            wheel.insert(the_list);
         computeDueTime();
     }
 
@@ -97,7 +168,10 @@ public class Scanner implements Scheduleable
             {
                 // If this leaves an empty list, remove it.
                 if (! list.isDueAtAll())
+                {
                     lists.remove(list);
+                    wheel.remove(list);
+                }
                 return;
             }
     }
@@ -106,6 +180,7 @@ public class Scanner implements Scheduleable
     public void clear()
     {
         lists.clear();
+        wheel.clear();
     }
 
     /** @return Number of scan lists. */
@@ -139,24 +214,58 @@ public class Scanner implements Scheduleable
     /** Scan all the scan lists which are currently due */
     void scanDueScanLists()
     {
-        final long now = System.currentTimeMillis();
-        next_due_time = Long.MAX_VALUE;
-        for (ScanList list : lists)
-        {   // Scan (run) what's due now, and update the next due time
-            if (list.getNextDueTime() <= now)
+        wheel.advance(System.currentTimeMillis(), due_lists);
+        for (ScanList list : due_lists)
+        {   // Scan (run) what's due now, which updates the next due time
+            if (workers == null)
                 list.scanItems();
-            // Update the next due time - which could change in run()
-            if (list.getNextDueTime() < next_due_time)
-                next_due_time = list.getNextDueTime();
+            else
+                list.scanItems(this::execute, scan_threads);
+            wheel.insert(list);
+        }
+        due_lists.clear();
+        computeDueTime();
+    }
+
+    /** @param chunk Chunk of scan list items to scan in worker thread */
+    private void execute(final Runnable chunk)
+    {
+        busy_chunks.incrementAndGet();
+        workers.execute(() ->
+        {
+            final long start = System.nanoTime();
+            try
+            {
+                chunk.run();
+            }
+            finally
+            {
+                worker_busy_nanos.addAndGet(System.nanoTime() - start);
+                if (busy_chunks.decrementAndGet() <= 0)
+                    synchronized (busy_chunks)
+                    {
+                        busy_chunks.notifyAll();
+                    }
+            }
+        });
+    }
+
+    /** Wait until worker threads finished scanning all submitted items
+     *  @throws InterruptedException on interruption
+     */
+    public void waitForScans() throws InterruptedException
+    {
+        synchronized (busy_chunks)
+        {
+            while (busy_chunks.get() > 0)
+                busy_chunks.wait(idle_delay);
         }
     }
 
     /** Compute the next due time */
     private void computeDueTime()
     {
-        next_due_time = Long.MAX_VALUE;
-        for (ScanList list : lists)
-            next_due_time = Math.min(list.getNextDueTime(), next_due_time);
+        next_due_time = wheel.getNextDueTime();
     }
 
     /** Average idle time in percent.
@@ -164,16 +273,67 @@ public class Scanner implements Scheduleable
      *  100 means: Nothing to do, always waiting.<br>
      *   50 means: using about half the allocated time for the scan<br>
      *    0 means: Busy all the time, actually missing scans<br>
+     *  <p>
+     *  This is the idle time of the thread that calls <code>scanOnce</code>.
+     *  With worker threads, that thread only hands the items to the workers,
+     *  see {@link #getWorkerUtilization()} for the load of the workers.
      */
     public double getIdlePercentage()
     {
         return idle_percentage.get();
     }
 
+    /** Average utilization of the worker threads in percent.
+     *  <p>
+     *  100 means: All workers busy all the time<br>
+     *    0 means: Workers never busy, or no worker threads<br>
+     *  <p>
+     *  Scans that were skipped because the previous scan of a chunk
+     *  was still busy are counted by each {@link ScanList}.
+     */
+    public double getWorkerUtilization()
+    {
+        return worker_utilization.get();
+    }
+
     /** Reset statistics */
     public void reset()
     {
         idle_percentage.reset();
+        worker_utilization.reset();
+        for (ScanList list : lists)
+            list.reset();
+    }
+
+    /** Update idle time and worker utilization
+     *  @param thread_idle Idle time in percent of the thread that calls <code>scanOnce</code>
+     */
+    private void updateIdle(final double thread_idle)
+    {
+        idle_percentage.update(thread_idle);
+        if (workers == null)
+            return;
+        // Measure utilization of the workers over at least the idle delay
+        final long now = System.nanoTime();
+        final long elapsed = now - measurement_start;
+        if (elapsed < idle_delay * 1000000L)
+            return;
+        final long busy = worker_busy_nanos.get();
+        worker_utilization.update(computeWorkerUtilization(busy - measured_busy_nanos, elapsed, scan_threads));
+        measurement_start = now;
+        measured_busy_nanos = busy;
+    }
+
+    /** @param busy_nanos Time that workers spent scanning
+     *  @param elapsed_nanos Elapsed time
+     *  @param threads Number of worker threads
+     *  @return Utilization of the workers in percent
+     */
+    static double computeWorkerUtilization(final long busy_nanos, final long elapsed_nanos,
+                                           final int threads)
+    {
+        final double busy = busy_nanos * 100.0 / ((double) elapsed_nanos * threads);
+        return Math.max(0.0, Math.min(100.0, busy));
     }
 
     /** Perform one scan: Wait for the next scan, perform it. */
@@ -186,24 +346,24 @@ public class Scanner implements Scheduleable
                 final long delay = getNextDueTime() - System.currentTimeMillis();
                 if (delay > idle_delay)
                 {   // Nothing due within idle time
-                    idle_percentage.update(100.0);
+                    updateIdle(100.0);
                     Thread.sleep(idle_delay);
                     return;
                 }
                 if (delay > 0)
                 {   // Need to wait a little, then run scan
-                    idle_percentage.update(delay*100.0/idle_delay);
+                    updateIdle(delay*100.0/idle_delay);
                     Thread.sleep(delay);
                     scanDueScanLists();
                     return;
                 }
                 // High noon
-                idle_percentage.update(0.0);
+                updateIdle(0.0);
                 scanDueScanLists();
                 return;
             }
             // Nothing to do, ever. Just wait.
-            idle_percentage.update(100.0);
+            updateIdle(100.0);
             Thread.sleep(idle_delay);
         }
         catch (InterruptedException ex)
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.scanner;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/** Hierarchical timing wheel that schedules {@link ScanList}s.
+ *  <p>
+ *  Level 0 has one slot per tick,
+ *  each higher level has one slot per revolution of the level below.
+ *  A scan list is placed in the lowest level that reaches its due time,
+ *  and moves ('cascades') down to lower levels as time advances.
+ *  Locating the due lists thus only needs to check the current slot,
+ *  not all scan lists.
+ *  <p>
+ *  Not thread-safe, only accessed by the {@link Scanner}.
+ *  @author agent
+ */
+class TimingWheel
+{
+    /** Slots per level are 2^BITS */
+    final private static int BITS = 6;
+    final private static int SLOTS = 1 << BITS;
+    final private static int MASK = SLOTS - 1;
+    final private static int LEVELS = 3;
+
+    /** Ticks covered by all levels */
+    final private static long SPAN = 1L << (BITS * LEVELS);
+
+    /** Duration of a tick in millisecs */
+    final private long tick_millis;
+
+    /** Slots of all levels, slot <code>i</code> of level <code>l</code> at <code>l*SLOTS + i</code> */
+    final private List<List<ScanList>> slots = new ArrayList<>(LEVELS * SLOTS);
+
+    /** Number of scan lists in wheel */
+    private int count = 0;
+
+    /** Current tick, i.e. system millis / tick_millis */
+    private long current_tick;
+
+    /** @param tick_millis Duration of a tick in millisecs */
+    TimingWheel(final long tick_millis)
+    {
+        this.tick_millis = tick_millis;
+        for (int i=0; i<LEVELS*SLOTS; ++i)
+            slots.add(new ArrayList<ScanList>());
+        current_tick = System.currentTimeMillis() / tick_millis;
+    }
+
+    /** @return Number of scan lists in wheel */
+    int size()
+    {
+        return count;
+    }
+
+    /** @param list Scan list to schedule at its next due time */
+    void insert(final ScanList list)
+    {
+        final long due_tick = list.getNextDueTime() / tick_millis;
+        // When wheel was empty, it didn't advance
+        if (count == 0)
+            current_tick = Math.min(due_tick, System.currentTimeMillis() / tick_millis);
+        place(list, due_tick);
+        ++count;
+    }
+
+    /** @param list Scan list to remove from wheel */
+    void remove(final ScanList list)
+    {
+        if (list.wheel_slot == null)
+            return;
+        list.wheel_slot.remove(list);
+        list.wheel_slot = null;
+        --count;
+    }
+
+    /** Remove all scan lists */
+    void clear()
+    {
+        for (List<ScanList> slot : slots)
+        {
+            for (ScanList list : slot)
+                list.wheel_slot = null;
+            slot.clear();
+        }
+        count = 0;
+    }
+
+    /** @param list Scan list to place in slot for its due time
+     *  @param due_tick Due time in ticks
+     */
+    private void place(final ScanList list, long due_tick)
+    {
+        // Overdue lists go into the current slot
+        if (due_tick < current_tick)
+            due_tick = current_tick;
+        long delta = due_tick - current_tick;
+        // Lists beyond the span of the wheel are placed at its end,
+        // and placed again once that slot cascades
+        if (delta >= SPAN)
+        {
+            delta = SPAN - 1;
+            due_tick = current_tick + delta;
+        }
+        int level = 0;
+        while (delta >= (1L << (BITS * (level+1))))
+            ++level;
+        final int index = (int) ((due_tick >>> (BITS * level)) & MASK);
+        final List<ScanList> slot = slots.get(level*SLOTS + index);
+        slot.add(list);
+        list.wheel_slot = slot;
+    }
+
+    /** Advance the wheel, removing all scan lists that are due
+     *  @param now Current system millis
+     *  @param due Scan lists that are due are added to this list
+     */
+    void advance(final long now, final List<ScanList> due)
+    {
+        final long now_tick = now / tick_millis;
+        if (count == 0)
+        {
+            current_tick = now_tick;
+            return;
+        }
+        while (true)
+        {
+            collect(slots.get((int) (current_tick & MASK)), now, due);
+            if (current_tick >= now_tick)
+                break;
+            ++current_tick;
+            cascade();
+        }
+    }
+
+    /** @param slot Level 0 slot from which to remove lists that are due
+     *  @param now Current system millis
+     *  @param due Scan lists that are due are added to this list
+     */
+    private void collect(final List<ScanList> slot, final long now, final List<ScanList> due)
+    {
+        if (slot.isEmpty())
+            return;
+        final Iterator<ScanList> lists = slot.iterator();
+        while (lists.hasNext())
+        {
+            final ScanList list = lists.next();
+            if (list.getNextDueTime() <= now)
+            {
+                lists.remove();
+                list.wheel_slot = null;
+                --count;
+                due.add(list);
+            }
+        }
+    }
+
+    /** When a level completed a revolution, move lists from the next higher level down */
+    private void cascade()
+    {
+        for (int level=1; level<LEVELS; ++level)
+        {
+            if ((current_tick & ((1L << (BITS * level)) - 1)) != 0)
+                break;
+            final int index = (int) ((current_tick >>> (BITS * level)) & MASK);
+            final List<ScanList> slot = slots.get(level*SLOTS + index);
+            if (slot.isEmpty())
+                continue;
+            final List<ScanList> lists = new ArrayList<>(slot);
+            slot.clear();
+            for (ScanList list : lists)
+                place(list, list.getNextDueTime() / tick_millis);
+        }
+    }
+
+    /** @return Earliest due time of all scan lists in system millis,
+     *          <code>Long.MAX_VALUE</code> if empty
+     */
+    long getNextDueTime()
+    {
+        long next = Long.MAX_VALUE;
+        if (count == 0)
+            return next;
+        for (int level=0; level<LEVELS; ++level)
+        {
+            // In level 0, the current slot holds lists due within the current tick.
+            // In higher levels, the current slot was already cascaded
+            // and only holds lists for its next revolution
+            final long current = current_tick >>> (BITS * level);
+            final int first = level == 0 ? 0 : 1;
+            for (int i=first; i<first+SLOTS; ++i)
+            {
+                final List<ScanList> slot = slots.get(level*SLOTS + (int) ((current + i) & MASK));
+                if (slot.isEmpty())
+                    continue;
+                // Lists in later slots of this level are due later
+                for (ScanList list : slot)
+                    next = Math.min(next, list.getNextDueTime());
+                break;
+            }
+        }
+        return next;
+    }
+}
@@ -17,6 +17,8 @@ import org.csstudio.apputil.time.PeriodFormat;
 import org.csstudio.archive.engine.Messages;
 import org.csstudio.archive.engine.model.EngineModel;
 import org.csstudio.archive.engine.model.SampleBuffer;
+import org.csstudio.archive.engine.model.WriteThread;
+import org.csstudio.archive.engine.scanner.ScanList;
 import org.csstudio.archive.engine.server.AbstractMainResponse;
 import org.csstudio.archive.vtype.TimestampHelper;
 import org.diirt.util.time.TimeDuration;
@@ -129,6 +131,17 @@ public class HTMLMainResponse extends AbstractMainResponse
             Messages.HTTP_Idletime,
             String.format("%.1f %%", model.getIdlePercentage())
         });
+        html.tableLine(new String[]
+        {
+            Messages.HTTP_ScanThreads,
+            Integer.toString(model.getScanThreadCount())
+        });
+        if (model.getScanThreadCount() > 1)
+            html.tableLine(new String[]
+            {
+                Messages.HTTP_WorkerUtilization,
+                String.format("%.1f %%", model.getWorkerUtilization())
+            });
 
         final Runtime runtime = Runtime.getRuntime();
         final double used_mem = runtime.totalMemory() / MB;
@@ -144,6 +157,67 @@ public class HTMLMainResponse extends AbstractMainResponse
 
         html.closeTable();
 
+        // Per-thread write statistics
+        html.h2(Messages.HTTP_WriteThreads);
+        html.openTable(1, new String[]
+        {
+            Messages.HTTP_WriteThread,
+            Messages.HTTP_ChannelCount,
+            Messages.HTTP_LastWriteTime,
+            Messages.HTTP_WriteCount,
+            Messages.HTTP_WriteRate,
+            Messages.HTTP_WriteDuration,
+            Messages.HTTP_MaxWriteDuration,
+            Messages.HTTP_EarlyWrites,
+        });
+        for (int i=0; i<model.getWriteThreadCount(); ++i)
+        {
+            final WriteThread thread = model.getWriteThread(i);
+            final Instant last = thread.getLastWriteTime();
+            html.tableLine(new String[]
+            {
+                thread.getName(),
+                Integer.toString(thread.getBufferCount()),
+                (last == null
+                ? Messages.HTTP_Never
+                : TimestampHelper.format(last)),
+                (int)thread.getWriteCount() + " samples",
+                String.format("%.1f samples/sec", thread.getWriteRate()),
+                String.format("%.1f sec", thread.getWriteDuration()),
+                String.format("%.1f sec", thread.getMaxWriteDuration()),
+                Long.toString(thread.getEarlyWrites())
+            });
+        }
+        html.closeTable();
+
+        // Per-period scan statistics
+        html.h2(Messages.HTTP_ScanLists);
+        html.openTable(1, new String[]
+        {
+            Messages.HTTP_ScanPeriod,
+            Messages.HTTP_ChannelCount,
+            Messages.HTTP_SkippedScans,
+            Messages.HTTP_MaxLateness,
+            Messages.HTTP_Lateness,
+            Messages.HTTP_MaxJitter,
+            Messages.HTTP_Jitter,
+        });
+        for (int i=0; i<model.getScanListCount(); ++i)
+        {
+            final ScanList list = model.getScanList(i);
+            html.tableLine(new String[]
+            {
+                PeriodFormat.formatSeconds(list.getPeriod()),
+                Integer.toString(list.size()),
+                Long.toString(list.getSkippedScans()),
+                list.getLateness().getMax() + " ms",
+                list.getLateness().toString(),
+                list.getJitter().getMax() + " ms",
+                list.getJitter().toString()
+            });
+        }
+        html.closeTable();
+
         html.close();
     }
 }
@@ -17,6 +17,9 @@ import org.csstudio.apputil.time.PeriodFormat;
 import org.csstudio.archive.engine.Messages;
 import org.csstudio.archive.engine.model.EngineModel;
 import org.csstudio.archive.engine.model.SampleBuffer;
+import org.csstudio.archive.engine.model.WriteThread;
+import org.csstudio.archive.engine.scanner.ScanHistogram;
+import org.csstudio.archive.engine.scanner.ScanList;
 import org.csstudio.archive.engine.server.AbstractMainResponse;
 import org.csstudio.archive.vtype.TimestampHelper;
 import org.diirt.util.time.TimeDuration;
@@ -78,6 +81,45 @@ public class JSONMainResponse extends AbstractMainResponse
 
         json.writeObjectEntry(Messages.HTTP_Idletime, model.getIdlePercentage());
 
+        final JSONList threads = new JSONList();
+        for (int i=0; i<model.getWriteThreadCount(); ++i)
+        {
+            final WriteThread thread = model.getWriteThread(i);
+            final Instant last = thread.getLastWriteTime();
+            final JSONObject JSONthread = new JSONObject();
+            JSONthread.writeObjectEntry(Messages.HTTP_WriteThread, thread.getName());
+            JSONthread.writeObjectEntry(Messages.HTTP_ChannelCount, thread.getBufferCount());
+            JSONthread.writeObjectEntry(Messages.HTTP_LastWriteTime, last == null?
+                                                                     Messages.HTTP_Never
+                                                                     : TimestampHelper.format(last));
+            JSONthread.writeObjectEntry(Messages.HTTP_WriteCount, thread.getWriteCount());
+            JSONthread.writeObjectEntry(Messages.HTTP_WriteRate, thread.getWriteRate());
+            JSONthread.writeObjectEntry(Messages.HTTP_WriteDuration, thread.getWriteDuration());
+            JSONthread.writeObjectEntry(Messages.HTTP_MaxWriteDuration, thread.getMaxWriteDuration());
+            JSONthread.writeObjectEntry(Messages.HTTP_EarlyWrites, thread.getEarlyWrites());
+            threads.addObjectToList(JSONthread);
+        }
+        json.writeObjectEntry(Messages.HTTP_WriteThreads, threads);
+
+        json.writeObjectEntry(Messages.HTTP_ScanThreads, model.getScanThreadCount());
+        if (model.getScanThreadCount() > 1)
+            json.writeObjectEntry(Messages.HTTP_WorkerUtilization, model.getWorkerUtilization());
+        final JSONList scan_lists = new JSONList();
+        for (int i=0; i<model.getScanListCount(); ++i)
+        {
+            final ScanList list = model.getScanList(i);
+            final JSONObject JSONlist = new JSONObject();
+            JSONlist.writeObjectEntry(Messages.HTTP_ScanPeriod, list.getPeriod());
+            JSONlist.writeObjectEntry(Messages.HTTP_ChannelCount, list.size());
+            JSONlist.writeObjectEntry(Messages.HTTP_SkippedScans, list.getSkippedScans());
+            JSONlist.writeObjectEntry(Messages.HTTP_MaxLateness, list.getLateness().getMax());
+            JSONlist.writeObjectEntry(Messages.HTTP_Lateness, createHistogram(list.getLateness()));
+            JSONlist.writeObjectEntry(Messages.HTTP_MaxJitter, list.getJitter().getMax());
+            JSONlist.writeObjectEntry(Messages.HTTP_Jitter, createHistogram(list.getJitter()));
+            scan_lists.addObjectToList(JSONlist);
+        }
+        json.writeObjectEntry(Messages.HTTP_ScanLists, scan_lists);
+
         final Runtime runtime = Runtime.getRuntime();
         final double used_mem = runtime.totalMemory() / MB;
         final double max_mem = runtime.maxMemory() / MB;
@@ -90,4 +132,15 @@ public class JSONMainResponse extends AbstractMainResponse
 
         json.close();
     }
+
+    /** @param histogram Scan histogram
+     *  @return Object with count for each bin label
+     */
+    private JSONObject createHistogram(final ScanHistogram histogram)
+    {
+        final JSONObject JSONhistogram = new JSONObject();
+        for (int bin=0; bin<histogram.getBinCount(); ++bin)
+            JSONhistogram.writeObjectEntry(histogram.getBinLabel(bin), histogram.getCount(bin));
+        return JSONhistogram;
+    }
 }
@@ -9,23 +9,25 @@ package org.csstudio.archive.reader.channelarchiver.file;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
-import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 
 /**
  * Implements ByteBuffer-like relative get methods for getting binary data
  * from a file. Created for use with ArchiveFileReader and associated classes.
+ *
+ * <p>Reads from a {@link MappedArchiveFile} that is shared with
+ * all other buffers for the same file, so seeking is merely
+ * a change of the current offset, and reading data
+ * costs page faults instead of file system calls and copies.
  * @author Amanda Carpenter
  *
  */
 public class ArchiveFileBuffer implements AutoCloseable
 {
-    // XXX: what size? Bigger means less fetching, but too big means memory runs out;
-    private final ByteBuffer buffer = ByteBuffer.allocate(65536);
-    private FileChannel fileChannel;
+    private MappedArchiveFile mapped = null;
     private File file = null;
+    /** Current file offset */
+    private long position = 0;
 
     public ArchiveFileBuffer()
     {
@@ -44,11 +46,11 @@ public class ArchiveFileBuffer implements AutoCloseable
     {
         if (! file.equals(this.file))
         {
-            this.file = file;
             close();
-            fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            mapped = MappedArchiveFile.acquire(file);
+            this.file = file;
         }
-        buffer.position(0).limit(0);
+        position = 0;
     }
 
     public File getFile()
@@ -56,55 +58,41 @@ public class ArchiveFileBuffer implements AutoCloseable
         return file;
     }
 
-    public void prepareGet(int numBytes) throws IOException
-    {
-        if (buffer.remaining() < numBytes)
-        {
-            buffer.compact();
-            fileChannel.read(buffer);
-            buffer.limit(buffer.position()); //use limit to mark extent of read
-            buffer.position(0);
-        }
-    }
-
     public void get(byte dst []) throws IOException
     {
-        prepareGet(dst.length);
-        buffer.get(dst);
+        mapped.get(position, dst);
+        position += dst.length;
     }
 
     public long getUnsignedInt() throws IOException
     {
-        prepareGet(4);
-        return Integer.toUnsignedLong(buffer.getInt());
+        return Integer.toUnsignedLong(getInt());
     }
 
     public short getShort() throws IOException
     {
-        prepareGet(2);
-        return buffer.getShort();
+        final short value = mapped.getShort(position);
+        position += 2;
+        return value;
     }
 
     public float getFloat() throws IOException
     {
-        prepareGet(4);
-        return buffer.getFloat();
+        final float value = mapped.getFloat(position);
+        position += 4;
+        return value;
     }
 
     public double getDouble() throws IOException
     {
-        prepareGet(8);
-        return buffer.getDouble();
+        final double value = mapped.getDouble(position);
+        position += 8;
+        return value;
     }
 
     public byte get() throws IOException
     {
-        if (!buffer.hasRemaining())
-        {
-            buffer.clear();
-            buffer.limit(fileChannel.read(buffer));
-        }
-        return buffer.get();
+        return mapped.get(position++);
     }
 
     //get epicsTime saved in file as java Instant; automatically
@@ -116,82 +104,65 @@ public class ArchiveFileBuffer implements AutoCloseable
 
     public void skip(int numBytes) throws IOException
     {
-        int numAlready = buffer.remaining();
-        while (numBytes > numAlready)
-        {
-            numBytes -= numAlready;
-            buffer.clear();
-            numAlready = fileChannel.read(buffer);
-            buffer.limit(numAlready);
-            buffer.position(0);
-        }
-        buffer.position(buffer.position() + numBytes);
+        position += numBytes;
     }
 
     public void offset(long offset) throws IOException
     {
-         if (offset < 0 || offset > fileChannel.size())
+        if (offset < 0 || offset > mapped.size())
         {
             //throw new RuntimeException("Offset is invalid.") ?
             return;
         }
-        //check if buffer contains the data
-        //(Buffer always represents a contiguous portion of the file's contents)
-        long buffer_start_offset = fileChannel.position() - buffer.limit();
-        boolean doesNotContain = buffer_start_offset > offset || fileChannel.position() < offset;
-        if (doesNotContain)
-        {
-            fileChannel.position(offset);
-            buffer.clear();
-            buffer.limit(fileChannel.read(buffer));
-            buffer.position(0);
-        }
-        else
-        {
-            buffer.position((int)(offset - buffer_start_offset));
-        }
+        position = offset;
     }
 
     public int getInt() throws IOException
     {
-        prepareGet(4);
-        return buffer.getInt();
+        final int value = mapped.getInt(position);
+        position += 4;
+        return value;
     }
 
     long offset() throws IOException
     {
-        return fileChannel.position() - buffer.limit() + buffer.position();
+        return position;
     }
 
     public int remaining()
     {
-        return buffer.remaining();
+        if (mapped == null)
+            return 0;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, mapped.size() - position));
     }
 
     @Override
     public void close() throws IOException
     {
-        if (fileChannel != null)
+        if (mapped != null)
         {
-            fileChannel.close();
-            fileChannel = null;
+            mapped.release();
+            mapped = null;
+            file = null;
         }
     }
 
     @Override
     public String toString()
     {
-        long offset = -1;
-        try
-        {
-            offset = offset();
-        }
-        catch (IOException e)
+        final StringBuilder buf = new StringBuilder();
+        buf.append(String.format("buffer@offset=%x(%d):", position, position));
+        for (int i=0; i<8  &&  i<remaining(); ++i)
         {
-
+            try
+            {
+                buf.append(String.format(" %02x", mapped.get(position + i)));
+            }
+            catch (IOException e)
+            {
+                break;
+            }
         }
-        return String.format("buffer@offset=%x(%d): %02x %02x %02x %02x %02x %02x %02x %02x", offset, offset, buffer.get(buffer.position()),
-                buffer.get(buffer.position()+1), buffer.get(buffer.position()+2), buffer.get(buffer.position()+3), buffer.get(buffer.position()+4),
-                buffer.get(buffer.position()+5), buffer.get(buffer.position()+6), buffer.get(buffer.position()+7));
+        return buf.toString();
     }
-}
\ No newline at end of file
+}
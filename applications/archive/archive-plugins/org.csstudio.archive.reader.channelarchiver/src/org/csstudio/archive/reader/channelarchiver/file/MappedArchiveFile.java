@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.channelarchiver.file;
+
+import static org.csstudio.archive.reader.channelarchiver.file.ArchiveFileReader.logger;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Read-only memory mapping of a Channel Archiver index or data file.
+ *
+ *  <p>Mappings are shared: All {@link ArchiveFileBuffer}s that read
+ *  the same file use the same mapping, obtained via {@link #acquire(File)}
+ *  and returned via {@link #release()}.
+ *  When the last user releases it, the mapping remains cached
+ *  for the next reader of the same file until more than
+ *  {@link #MAX_IDLE} unused mappings have accumulated.
+ *
+ *  <p>Files are mapped in segments because a single
+ *  {@link ByteBuffer} is limited to 2GB,
+ *  while the Channel Archiver uses 32 bit unsigned file offsets.
+ *  All reads use absolute positions, so one mapping can be
+ *  used by several threads.
+ *
+ *  @author agent
+ */
+public class MappedArchiveFile
+{
+    /** Segment size is a power of 2 to locate segments via shift and mask */
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /** Number of mappings that are kept while nobody uses them */
+    private static final int MAX_IDLE = 16;
+
+    /** Mappings by canonical file, least recently used first. SYNC on access */
+    private static final Map<File, MappedArchiveFile> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Number of mappings in cache without references. SYNC on cache */
+    private static int idle = 0;
+
+    private final File file;
+    private final long size;
+    private final long modified;
+    private final ByteBuffer[] segments;
+
+    /** Number of {@link ArchiveFileBuffer}s using this mapping. SYNC on cache */
+    private int references = 0;
+
+    /** Get shared mapping of a file
+     *  @param file File to map
+     *  @return {@link MappedArchiveFile}, must be {@link #release()}d when no longer used
+     *  @throws IOException on error
+     */
+    public static MappedArchiveFile acquire(final File file) throws IOException
+    {
+        final File key = file.getCanonicalFile();
+        synchronized (cache)
+        {
+            MappedArchiveFile mapped = cache.get(key);
+            if (mapped != null  &&  mapped.references == 0)
+            {
+                --idle;
+                // Re-map unused file that has changed since it was mapped
+                if (key.length() != mapped.size  ||  key.lastModified() != mapped.modified)
+                {
+                    cache.remove(key);
+                    mapped = null;
+                }
+            }
+            if (mapped == null)
+            {
+                mapped = new MappedArchiveFile(key);
+                cache.put(key, mapped);
+            }
+            ++mapped.references;
+            return mapped;
+        }
+    }
+
+    private MappedArchiveFile(final File file) throws IOException
+    {
+        this.file = file;
+        modified = file.lastModified();
+        try
+        (
+            final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        )
+        {
+            size = channel.size();
+            final int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS);
+            segments = new ByteBuffer[count];
+            for (int i=0; i<count; ++i)
+            {
+                final long start = (long)i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+        }
+        logger.fine(() -> "Mapped " + file + ", " + size + " bytes in " + segments.length + " segments");
+    }
+
+    /** Return mapping obtained via {@link #acquire(File)} */
+    public void release()
+    {
+        synchronized (cache)
+        {
+            if (--references > 0)
+                return;
+            ++idle;
+            // Drop least recently used idle mappings.
+            // The mapped memory is unmapped when the buffers are garbage collected.
+            final Iterator<MappedArchiveFile> iter = cache.values().iterator();
+            while (idle > MAX_IDLE  &&  iter.hasNext())
+            {
+                final MappedArchiveFile mapped = iter.next();
+                if (mapped.references == 0)
+                {
+                    iter.remove();
+                    --idle;
+                    logger.fine(() -> "Unmapping " + mapped.file);
+                }
+            }
+        }
+    }
+
+    /** @return File that is mapped */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /** @return Size of file in bytes */
+    public long size()
+    {
+        return size;
+    }
+
+    private void checkRange(final long offset, final int numBytes) throws EOFException
+    {
+        if (offset < 0  ||  offset + numBytes > size)
+            throw new EOFException(String.format("Cannot read %d bytes at 0x%X in %s, size 0x%X",
+                                                 numBytes, offset, file, size));
+    }
+
+    /** @param offset File offset
+     *  @return Byte at that offset
+     *  @throws IOException when beyond end of file
+     */
+    public byte get(final long offset) throws IOException
+    {
+        checkRange(offset, 1);
+        return segments[(int) (offset >>> SEGMENT_BITS)].get((int) (offset & SEGMENT_MASK));
+    }
+
+    /** @param offset File offset
+     *  @param dst Buffer to fill with bytes starting at that offset
+     *  @throws IOException when beyond end of file
+     */
+    public void get(final long offset, final byte[] dst) throws IOException
+    {
+        checkRange(offset, dst.length);
+        int done = 0;
+        while (done < dst.length)
+        {
+            final long pos = offset + done;
+            final ByteBuffer segment = segments[(int) (pos >>> SEGMENT_BITS)];
+            final int index = (int) (pos & SEGMENT_MASK);
+            final int chunk = Math.min(dst.length - done, segment.limit() - index);
+            // Absolute bulk get would need Java 13, so use a view
+            final ByteBuffer view = segment.duplicate();
+            view.position(index);
+            view.get(dst, done, chunk);
+            done += chunk;
+        }
+    }
+
+    /** @param offset File offset
+     *  @param numBytes Number of bytes to read, 1 to 8
+     *  @return Big-endian value of those bytes, also when they span segments
+     *  @throws IOException when beyond end of file
+     */
+    private long getSpanning(final long offset, final int numBytes) throws IOException
+    {
+        long value = 0;
+        for (int i=0; i<numBytes; ++i)
+            value = (value << 8) | (get(offset + i) & 0xFF);
+        return value;
+    }
+
+    /** @param offset File offset
+     *  @return Short at that offset
+     *  @throws IOException when beyond end of file
+     */
+    public short getShort(final long offset) throws IOException
+    {
+        checkRange(offset, 2);
+        final ByteBuffer segment = segments[(int) (offset >>> SEGMENT_BITS)];
+        final int index = (int) (offset & SEGMENT_MASK);
+        if (index + 2 <= segment.limit())
+            return segment.getShort(index);
+        return (short) getSpanning(offset, 2);
+    }
+
+    /** @param offset File offset
+     *  @return Int at that offset
+     *  @throws IOException when beyond end of file
+     */
+    public int getInt(final long offset) throws IOException
+    {
+        checkRange(offset, 4);
+        final ByteBuffer segment = segments[(int) (offset >>> SEGMENT_BITS)];
+        final int index = (int) (offset & SEGMENT_MASK);
+        if (index + 4 <= segment.limit())
+            return segment.getInt(index);
+        return (int) getSpanning(offset, 4);
+    }
+
+    /** @param offset File offset
+     *  @return Float at that offset
+     *  @throws IOException when beyond end of file
+     */
+    public float getFloat(final long offset) throws IOException
+    {
+        return Float.intBitsToFloat(getInt(offset));
+    }
+
+    /** @param offset File offset
+     *  @return Double at that offset
+     *  @throws IOException when beyond end of file
+     */
+    public double getDouble(final long offset) throws IOException
+    {
+        checkRange(offset, 8);
+        final ByteBuffer segment = segments[(int) (offset >>> SEGMENT_BITS)];
+        final int index = (int) (offset & SEGMENT_MASK);
+        if (index + 8 <= segment.limit())
+            return segment.getDouble(index);
+        return Double.longBitsToDouble(getSpanning(offset, 8));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Mapped " + file + " (" + size + " bytes)";
+    }
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.channelarchiver.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.vtype.VType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/** JUnit-based benchmark of the memory-mapped {@link ArchiveFileBuffer}
+ *
+ *  <p>Creates a synthetic data file with scalar double samples
+ *  in the Channel Archiver layout, then reads it
+ *  sequentially and via random time lookups.
+ *  Both use the {@link ArchiveFileSampleReader}, with the data blocks
+ *  listed directly instead of going through an index.
+ *
+ *  <p>Set DATA_FILE_SIZE to a few GB to read more than
+ *  what is typically in the page cache.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ArchiveFileBufferDemo
+{
+    final private static long DATA_FILE_SIZE = 2L * 1024 * 1024 * 1024;
+    final private static int SAMPLES_PER_BLOCK = 8192;
+    final private static int LOOKUPS = 100000;
+
+    /** DBR_TIME_DOUBLE: status, severity, time, pad, value */
+    final private static int SAMPLE_SIZE = 24;
+    final private static int HEADER_SIZE = 152;
+    final private static int BLOCK_SIZE = HEADER_SIZE + SAMPLES_PER_BLOCK * SAMPLE_SIZE;
+    final private static int CTRL_INFO_SIZE = 40;
+
+    /** Start time in EPICS seconds, one sample per second */
+    final private static long START_SECS = 800000000L;
+
+    private static File data_file;
+    private static List<DataFileEntry> entries = new ArrayList<>();
+
+    private static Instant getTime(final long sample)
+    {
+        return Instant.ofEpochSecond(START_SECS + ArchiveFileTime.EPICS_OFFSET + sample);
+    }
+
+    private static void putEpicsTime(final ByteBuffer buf, final long sample)
+    {
+        buf.putInt((int) (START_SECS + sample));
+        buf.putInt(0);
+    }
+
+    private static void putName(final ByteBuffer buf, final String name)
+    {
+        final byte[] chars = new byte[40];
+        final byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, chars, 0, bytes.length);
+        buf.put(chars);
+    }
+
+    @BeforeClass
+    public static void createDataFile() throws Exception
+    {
+        data_file = File.createTempFile("archive_buffer_demo", ".data");
+        data_file.deleteOnExit();
+        final int blocks = (int) ((DATA_FILE_SIZE - CTRL_INFO_SIZE) / BLOCK_SIZE);
+        System.out.format("Creating %s with %d blocks of %d samples\n",
+                          data_file, blocks, SAMPLES_PER_BLOCK);
+        final long start = System.currentTimeMillis();
+        try
+        (
+            final FileChannel channel = FileChannel.open(data_file.toPath(), StandardOpenOption.WRITE);
+        )
+        {
+            final ByteBuffer buf = ByteBuffer.allocate(BLOCK_SIZE);
+
+            // Numeric control info at offset 0
+            buf.putShort((short) CTRL_INFO_SIZE);
+            buf.putShort((short) 1);
+            for (float limit : new float[] { 10, 0, 2, 1, 8, 9 })
+                buf.putFloat(limit);
+            buf.putInt(2);
+            buf.put("V\0\0\0\0\0\0\0".getBytes(StandardCharsets.US_ASCII));
+            buf.flip();
+            channel.write(buf);
+
+            long sample = 0;
+            for (int block=0; block<blocks; ++block)
+            {
+                final long offset = CTRL_INFO_SIZE + (long)block * BLOCK_SIZE;
+                final long next = block < blocks-1 ? offset + BLOCK_SIZE : 0;
+                buf.clear();
+                buf.putInt(0);                          // directory offset
+                buf.putInt((int) next);                 // next offset
+                buf.putInt(block > 0 ? (int) (offset - BLOCK_SIZE) : 0);
+                buf.putInt((int) offset);               // current offset
+                buf.putInt(SAMPLES_PER_BLOCK);
+                buf.putInt(0);                          // control info offset
+                buf.putInt(BLOCK_SIZE);                 // allocated
+                buf.putInt(0);                          // free
+                buf.putShort((short) ArchiveFileSampleReader.DbrType.DBR_TIME_DOUBLE.typeCode);
+                buf.putShort((short) 1);
+                buf.putInt(0);                          // pad
+                buf.putDouble(1.0);                     // period
+                putEpicsTime(buf, sample);              // begin time
+                putEpicsTime(buf, sample + SAMPLES_PER_BLOCK);  // next file time
+                putEpicsTime(buf, sample + SAMPLES_PER_BLOCK - 1); // end time
+                putName(buf, block > 0 ? data_file.getName() : "");
+                putName(buf, next != 0 ? data_file.getName() : "");
+                for (int i=0; i<SAMPLES_PER_BLOCK; ++i)
+                {
+                    buf.putShort((short) 0);            // status
+                    buf.putShort((short) 0);            // severity
+                    putEpicsTime(buf, sample);
+                    buf.putInt(0);                      // pad
+                    buf.putDouble(sample % 1000);
+                    ++sample;
+                }
+                buf.flip();
+                while (buf.hasRemaining())
+                    channel.write(buf, offset + buf.position());
+                entries.add(new DataFileEntry(data_file, offset));
+            }
+        }
+        final double secs = (System.currentTimeMillis() - start) / 1000.0;
+        System.out.format("Created %d MB in %.2f sec\n", data_file.length() / 1024 / 1024, secs);
+    }
+
+    @AfterClass
+    public static void deleteDataFile()
+    {
+        data_file.delete();
+    }
+
+    /** Read all samples */
+    @Test
+    public void testSequentialRead() throws Exception
+    {
+        final long total = (long)entries.size() * SAMPLES_PER_BLOCK;
+        final long start = System.currentTimeMillis();
+        long count = 0;
+        final ValueIterator values = new ArchiveFileSampleReader(getTime(0), getTime(total), entries);
+        try
+        {
+            while (values.hasNext())
+            {
+                final VType value = values.next();
+                assertEquals(count % 1000, VTypeHelper.toDouble(value), 0.0);
+                ++count;
+            }
+        }
+        finally
+        {
+            values.close();
+        }
+        final double secs = (System.currentTimeMillis() - start) / 1000.0;
+        System.out.format("Sequential: %12d samples in %.2f sec = %12.1f samples/sec\n",
+                          count, secs, count / secs);
+        assertEquals(total, count);
+    }
+
+    /** Locate random start times, read a few samples from there */
+    @Test
+    public void testRandomLookup() throws Exception
+    {
+        final Random random = new Random(42);
+        final long start = System.currentTimeMillis();
+        for (int i=0; i<LOOKUPS; ++i)
+        {
+            final int block = random.nextInt(entries.size());
+            final long sample = (long)block * SAMPLES_PER_BLOCK + random.nextInt(SAMPLES_PER_BLOCK);
+            final ValueIterator values = new ArchiveFileSampleReader(getTime(sample), getTime(sample + 10),
+                                                                     Collections.singletonList(entries.get(block)));
+            try
+            {
+                assertTrue(values.hasNext());
+                assertEquals(sample % 1000, VTypeHelper.toDouble(values.next()), 0.0);
+                while (values.hasNext())
+                    values.next();
+            }
+            finally
+            {
+                values.close();
+            }
+        }
+        final double secs = (System.currentTimeMillis() - start) / 1000.0;
+        System.out.format("Lookup    : %12d lookups in %.2f sec = %12.1f lookups/sec\n",
+                          LOOKUPS, secs, LOOKUPS / secs);
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.rdb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.ArchiveVString;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.VType;
+import org.junit.Test;
+
+/** JUnit test of the {@link AggregatedValueIterator} helpers
+ *  that does not require an RDB
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AggregatedValueIteratorUnitTest
+{
+    final private static Instant start = Instant.ofEpochSecond(1000000);
+
+    /** Iterator over a list of values */
+    private static class ListValueIterator implements ValueIterator
+    {
+        final private Iterator<VType> values;
+        boolean closed = false;
+
+        ListValueIterator(final VType... values)
+        {
+            this.values = Arrays.asList(values).iterator();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return values.hasNext();
+        }
+
+        @Override
+        public VType next() throws Exception
+        {
+            return values.next();
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+
+    /** @param secs Time of last sample in bucket
+     *  @return Bucket
+     */
+    private static VType bucket(final double secs)
+    {
+        return new ArchiveVStatistics(start.plusMillis(Math.round(secs * 1000)),
+                AlarmSeverity.NONE, "", null, 1.0, 0.0, 2.0, 0.5, 10);
+    }
+
+    private static VType number(final double secs)
+    {
+        return new ArchiveVNumber(start.plusMillis(Math.round(secs * 1000)), AlarmSeverity.NONE, "", null, 1.0);
+    }
+
+    private static VType off(final double secs)
+    {
+        return new ArchiveVString(start.plusMillis(Math.round(secs * 1000)), AlarmSeverity.INVALID, "Archive_Off", "Archive_Off");
+    }
+
+    private static List<VType> read(final ValueIterator values) throws Exception
+    {
+        final List<VType> result = new ArrayList<>();
+        while (values.hasNext())
+            result.add(values.next());
+        values.close();
+        return result;
+    }
+
+    @Test
+    public void testMerge() throws Exception
+    {
+        final VType b0 = bucket(5.0), b1 = bucket(15.0), b4 = bucket(45.0);
+        final VType o1 = off(1.0), o15 = off(15.0), o50 = off(50.0), o60 = off(60.0);
+        final ListValueIterator buckets = new ListValueIterator(b0, b1, b4);
+        final ListValueIterator samples = new ListValueIterator(o1, o15, o50, o60);
+        final List<VType> merged = read(AggregatedValueIterator.merge(buckets, samples));
+        assertEquals(Arrays.asList(o1, b0, o15, b1, b4, o50, o60), merged);
+        assertTrue(buckets.closed);
+        assertTrue(samples.closed);
+    }
+
+    @Test
+    public void testMergeSameTime() throws Exception
+    {
+        // Sample comes before the bucket with the same time stamp
+        final VType b0 = bucket(5.0), o5 = off(5.0);
+        List<VType> merged = read(AggregatedValueIterator.merge(new ListValueIterator(b0), new ListValueIterator(o5)));
+        assertEquals(2, merged.size());
+        assertSame(o5, merged.get(0));
+        assertSame(b0, merged.get(1));
+
+        // Single sample of a bucket keeps its original time stamp
+        final VType n3 = number(3.0);
+        merged = read(AggregatedValueIterator.merge(new ListValueIterator(n3, b0), new ListValueIterator(o5)));
+        assertEquals(Arrays.asList(n3, o5, b0), merged);
+    }
+
+    @Test
+    public void testSplitBucket() throws Exception
+    {
+        // Bucket 0..10 split by a disconnect at 4:
+        // Each part is stamped with its last sample, so the disconnect stays in between
+        final VType before = bucket(2.0), after = bucket(7.0), o4 = off(4.0);
+        final List<VType> merged = read(AggregatedValueIterator.merge(new ListValueIterator(before, after), new ListValueIterator(o4)));
+        assertEquals(Arrays.asList(before, o4, after), merged);
+    }
+
+    @Test
+    public void testMergeEmpty() throws Exception
+    {
+        assertFalse(AggregatedValueIterator.merge(new ListValueIterator(), new ListValueIterator()).hasNext());
+
+        final VType b0 = bucket(5.0), o1 = off(1.0);
+        assertEquals(Arrays.asList(b0), read(AggregatedValueIterator.merge(new ListValueIterator(b0), new ListValueIterator())));
+        assertEquals(Arrays.asList(o1), read(AggregatedValueIterator.merge(new ListValueIterator(), new ListValueIterator(o1))));
+    }
+}
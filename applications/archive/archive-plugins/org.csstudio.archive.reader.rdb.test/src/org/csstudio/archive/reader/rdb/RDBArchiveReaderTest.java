@@ -8,6 +8,7 @@
 package org.csstudio.archive.reader.rdb;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -23,8 +24,10 @@ import org.csstudio.archive.reader.ArchiveInfo;
 import org.csstudio.archive.reader.ArchiveReader;
 import org.csstudio.archive.reader.ValueIterator;
 import org.csstudio.archive.vtype.TimestampHelper;
+import org.csstudio.archive.vtype.VTypeHelper;
 import org.diirt.util.time.TimeDuration;
 import org.diirt.vtype.Display;
+import org.diirt.vtype.VStatistics;
 import org.diirt.vtype.VType;
 import org.diirt.vtype.ValueUtil;
 import org.junit.After;
@@ -289,6 +292,111 @@ public class RDBArchiveReaderTest
         values.close();
     }
 
+    /** Compare client-side {@link AveragedValueIterator} with server-side {@link AggregatedValueIterator} */
+    @Test
+    public void testSQLAggregation() throws Exception
+    {
+        if (reader == null  ||  reader.isOracle())
+            return;
+        final int channel_id = reader.getChannelID(name);
+        System.out.println("Optimized samples for " + name + " (" + channel_id + "):");
+
+        final Instant end = Instant.now();
+        final Instant start = end.minus(TIMERANGE);
+        final double seconds = TimeDuration.toSecondsDouble(Duration.between(start, end)) / BUCKETS;
+
+        System.out.println("-- Java implementation --");
+        BenchmarkTimer timer = new BenchmarkTimer();
+        ValueIterator values = new AveragedValueIterator(reader.getRawValues(channel_id, start, end), seconds);
+        final int java_count = dumpValues(values);
+        timer.stop();
+        System.out.println(java_count + " values in " + timer);
+
+        System.out.println("-- SQL aggregation --");
+        timer = new BenchmarkTimer();
+        final AggregatedValueIterator aggregated = new AggregatedValueIterator(reader, channel_id, start, end, seconds);
+        assertTrue("Test needs a numeric channel", aggregated.isAggregated());
+        final int sql_count = checkAggregatedValues(aggregated, start, end);
+        timer.stop();
+        System.out.println(sql_count + " values in " + timer);
+
+        // One value per bucket with data, plus samples that are not numeric.
+        // Raw data starts with the last sample before 'start',
+        // and bucket boundaries can split samples differently
+        assertTrue(sql_count > 0);
+        assertTrue("Java " + java_count + " vs. SQL " + sql_count + " values",
+                   Math.abs(java_count - sql_count) <= 2 + BUCKETS / 10);
+
+        // Every raw sample is in exactly one bucket, or returned as is
+        final ValueIterator raw = reader.getRawValues(channel_id, start, end);
+        int raw_count = 0;
+        while (raw.hasNext())
+        {
+            if (! VTypeHelper.getTimestamp(raw.next()).isBefore(start))
+                ++raw_count;
+        }
+        raw.close();
+        assertEquals(raw_count, sample_count);
+    }
+
+    /** Number of samples represented by the values of the last <code>checkAggregatedValues</code> */
+    private int sample_count;
+
+    /** @param values Aggregated values to check, print and close
+     *  @param start Start time
+     *  @param end End time
+     *  @return Number of values
+     *  @throws Exception on error
+     */
+    private int checkAggregatedValues(final ValueIterator values, final Instant start, final Instant end) throws Exception
+    {
+        int count = 0;
+        sample_count = 0;
+        Instant last = start;
+        while (values.hasNext())
+        {
+            final VType value = values.next();
+            if (dump)
+                System.out.println(value);
+            ++count;
+            final Instant time = VTypeHelper.getTimestamp(value);
+            assertFalse("Sorted by time: " + value, time.isBefore(last));
+            assertFalse("Within time range: " + value, time.isAfter(end));
+            last = time;
+            if (value instanceof VStatistics)
+            {
+                final VStatistics stats = (VStatistics) value;
+                assertTrue("Several samples in bucket: " + value, stats.getNSamples() > 1);
+                assertTrue("min <= average: " + value, stats.getMin() <= stats.getAverage());
+                assertTrue("average <= max: " + value, stats.getAverage() <= stats.getMax());
+                assertTrue("stddev: " + value, stats.getStdDev() >= 0.0);
+                sample_count += stats.getNSamples();
+            }
+            else
+                ++sample_count;
+        }
+        values.close();
+        return count;
+    }
+
+    /** @param values Values to print and close
+     *  @return Number of values
+     *  @throws Exception on error
+     */
+    private int dumpValues(final ValueIterator values) throws Exception
+    {
+        int count = 0;
+        while (values.hasNext())
+        {
+            final VType value = values.next();
+            if (dump)
+                System.out.println(value);
+            ++count;
+        }
+        values.close();
+        return count;
+    }
+
 //    /** Directly call the stored procedure */
 //    @Test
 //    @Ignore
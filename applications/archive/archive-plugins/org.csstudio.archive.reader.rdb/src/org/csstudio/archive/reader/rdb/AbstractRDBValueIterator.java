@@ -9,6 +9,7 @@ package org.csstudio.archive.reader.rdb;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -39,6 +40,12 @@ abstract public class AbstractRDBValueIterator  implements ValueIterator
     final protected RDBArchiveReader reader;
     final protected int channel_id;
 
+    /** Connection used by this iterator until it is closed */
+    final protected Connection connection;
+
+    /** Has the connection been released? */
+    private boolean released = false;
+
     protected Display display = null;
     protected List<String> labels = null;
 
@@ -70,6 +77,7 @@ abstract public class AbstractRDBValueIterator  implements ValueIterator
     {
         this.reader = reader;
         this.channel_id = channel_id;
+        this.connection = reader.acquireConnection();
         try
         {
             this.display = determineDisplay();
@@ -77,10 +85,11 @@ abstract public class AbstractRDBValueIterator  implements ValueIterator
         }
         catch (final Exception ex)
         {
-            // Set iterator to empty
-            close();
             if (! RDBArchiveReader.isCancellation(ex))
+            {
+                close();
                 throw ex;
+            }
             // Else: Not a real error, return empty iterator
         }
         if (labels == null  &&  display == null)
@@ -94,7 +103,7 @@ abstract public class AbstractRDBValueIterator  implements ValueIterator
     {
         // Try numeric meta data
         final PreparedStatement statement =
-            reader.getConnection().prepareStatement(reader.getSQL().numeric_meta_sel_by_channel);
+            connection.prepareStatement(reader.getSQL().numeric_meta_sel_by_channel);
         try
         {
             statement.setInt(1, channel_id);
@@ -131,7 +140,7 @@ abstract public class AbstractRDBValueIterator  implements ValueIterator
     {
         // Try enumerated meta data
         List<String> labels = null;
-        final PreparedStatement statement = reader.getConnection().prepareStatement(
+        final PreparedStatement statement = connection.prepareStatement(
                                 reader.getSQL().enum_sel_num_val_by_channel);
         try
         {
@@ -259,7 +268,7 @@ abstract public class AbstractRDBValueIterator  implements ValueIterator
         // See if there are more array elements
         if (sel_array_samples == null)
         {   // Lazy initialization
-            sel_array_samples = reader.getConnection().prepareStatement(
+            sel_array_samples = connection.prepareStatement(
                     reader.getSQL().sample_sel_array_vals);
         }
         sel_array_samples.setInt(1, channel_id);
@@ -356,6 +365,8 @@ abstract public class AbstractRDBValueIterator  implements ValueIterator
 
     /** Release all database resources.
      *  OK to call more than once.
+     *  Derived classes must call this last,
+     *  after they are done with the <code>connection</code>.
      */
     @Override
     public void close()
@@ -372,5 +383,10 @@ abstract public class AbstractRDBValueIterator  implements ValueIterator
             }
             sel_array_samples = null;
         }
+        if (! released)
+        {
+            released = true;
+            reader.releaseConnection(connection);
+        }
     }
 }
@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.rdb;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.csstudio.archive.reader.MergingValueIterator;
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.TimestampHelper;
+import org.csstudio.platform.utility.rdb.RDBUtil.Dialect;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.VType;
+
+/** Value Iterator that provides 'optimized' data by aggregating
+ *  samples into time buckets within the RDB.
+ *
+ *  <p>Alternative to the {@link StoredProcedureValueIterator}
+ *  for MySQL and PostgreSQL that does not require a stored procedure,
+ *  and to the {@link AveragedValueIterator} which needs to read
+ *  all raw samples.
+ *
+ *  <p>Numeric samples are reduced to min/max/average/count per bucket,
+ *  using the time stamp, severity and status of the last sample in the bucket.
+ *  Samples without a numeric value, for example "Archive_Off",
+ *  are returned as they are.
+ *  Like the {@link AveragedValueIterator}, such a sample ends the current bucket,
+ *  and the following samples start a new one,
+ *  so that a bucket never combines samples from before and after a disconnect.
+ *  Both are read from the RDB as they are returned by <code>next()</code>.
+ *
+ *  <p>Enumerated channels are not aggregated,
+ *  see {@link #isAggregated()}.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AggregatedValueIterator extends AbstractRDBValueIterator
+{
+    /** Decoder for a row of a {@link ResultSet} */
+    @FunctionalInterface
+    private interface RowDecoder
+    {
+        VType decode(ResultSet result) throws Exception;
+    }
+
+    /** Iterator over the rows of a {@link ResultSet} */
+    private class ResultSetIterator implements ValueIterator
+    {
+        final private ResultSet result;
+        final private RowDecoder decoder;
+
+        /** Value that <code>next()</code> will return, or <code>null</code> */
+        private VType value;
+
+        ResultSetIterator(final ResultSet result, final RowDecoder decoder) throws Exception
+        {
+            this.result = result;
+            this.decoder = decoder;
+            value = result.next() ? decoder.decode(result) : null;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return value != null;
+        }
+
+        @Override
+        public VType next() throws Exception
+        {
+            final VType current = value;
+            try
+            {
+                value = result.next() ? decoder.decode(result) : null;
+            }
+            catch (Exception ex)
+            {
+                value = null;
+                if (! RDBArchiveReader.isCancellation(ex))
+                    throw ex;
+                // Else: Not a real error; end of data
+            }
+            return current;
+        }
+
+        @Override
+        public void close()
+        {
+            value = null;
+            try
+            {
+                result.close();
+            }
+            catch (Exception ex)
+            {
+                // Ignore
+            }
+        }
+    }
+
+    /** Duration of a time bucket in seconds */
+    final private double seconds;
+
+    /** SELECT ... for the buckets and for the samples that are not aggregated */
+    private PreparedStatement sel_buckets = null, sel_samples = null;
+
+    /** Buckets and samples merged by time, <code>null</code> when closed */
+    private ValueIterator values = null;
+
+    /** Was auto-commit disabled to stream the results? */
+    private boolean restore_auto_commit = false;
+
+    /** Initialize
+     *  @param reader RDBArchiveReader
+     *  @param channel_id ID of channel
+     *  @param start Start time
+     *  @param end End time
+     *  @param seconds Duration of a time bucket in seconds
+     *  @throws Exception on error
+     */
+    public AggregatedValueIterator(final RDBArchiveReader reader,
+            final int channel_id, final Instant start, final Instant end,
+            final double seconds) throws Exception
+    {
+        super(reader, channel_id);
+        this.seconds = seconds;
+        final SQL sql = reader.getSQL();
+        if (sql.sample_aggregate_by_id_start_end == null)
+        {
+            close();
+            throw new Exception("Aggregation not supported for " + reader.getDialect());
+        }
+        if (! isAggregated())
+            return;
+        try
+        {
+            // PostgreSQL only honors the fetch size with auto-commit disabled,
+            // otherwise it reads the complete result
+            if (reader.getDialect() == Dialect.PostgreSQL  &&  connection.getAutoCommit())
+            {
+                connection.setAutoCommit(false);
+                restore_auto_commit = true;
+            }
+            final ValueIterator samples = new ResultSetIterator(selectSamples(start, end),
+                    result -> decodeSampleTableValue(result, false));
+            final ValueIterator buckets = new ResultSetIterator(selectBuckets(start, end),
+                    this::decodeBucket);
+            values = merge(buckets, samples);
+        }
+        catch (Exception ex)
+        {
+            close();
+            if (! RDBArchiveReader.isCancellation(ex))
+                throw ex;
+            // Else: Not a real error; return empty iterator
+            Logger.getLogger(getClass().getName()).log(Level.FINE,
+                    "Aggregation cancelled", ex);
+        }
+    }
+
+    /** @return <code>true</code> if samples are aggregated,
+     *          <code>false</code> for an enumerated channel,
+     *          where the iterator has no values and the raw samples
+     *          need to be read instead
+     */
+    public boolean isAggregated()
+    {
+        return labels == null;
+    }
+
+    /** Select aggregated time buckets
+     *  @param start Start time
+     *  @param end End time
+     *  @return Rows for each bucket that has samples
+     *  @throws Exception on error, including cancellation
+     */
+    private ResultSet selectBuckets(final Instant start, final Instant end) throws Exception
+    {
+        final Timestamp start_stamp = TimestampHelper.toSQLTimestamp(start);
+        sel_buckets = connection.prepareStatement(reader.getSQL().sample_aggregate_by_id_start_end);
+        reader.addForCancellation(sel_buckets);
+        sel_buckets.setFetchSize(Preferences.getFetchSize());
+        sel_buckets.setTimestamp(1, start_stamp);
+        sel_buckets.setDouble(2, seconds);
+        sel_buckets.setInt(3, channel_id);
+        sel_buckets.setTimestamp(4, start_stamp);
+        sel_buckets.setTimestamp(5, TimestampHelper.toSQLTimestamp(end));
+        return sel_buckets.executeQuery();
+    }
+
+    /** Select samples that are not aggregated
+     *  @param start Start time
+     *  @param end End time
+     *  @return Rows with columns of SAMPLE table
+     *  @throws Exception on error, including cancellation
+     */
+    private ResultSet selectSamples(final Instant start, final Instant end) throws Exception
+    {
+        sel_samples = connection.prepareStatement(reader.getSQL().sample_sel_unaggregated_by_id_start_end);
+        reader.addForCancellation(sel_samples);
+        sel_samples.setFetchSize(Preferences.getFetchSize());
+        sel_samples.setInt(1, channel_id);
+        sel_samples.setTimestamp(2, TimestampHelper.toSQLTimestamp(start));
+        sel_samples.setTimestamp(3, TimestampHelper.toSQLTimestamp(end));
+        return sel_samples.executeQuery();
+    }
+
+    /** @param result Row of aggregated bucket
+     *  @return Value for the bucket
+     *  @throws Exception on error
+     */
+    private VType decodeBucket(final ResultSet result) throws Exception
+    {
+        // Columns 1 BUCKET, 2 MIN, 3 MAX, 4 AVG, 5 STDDEV, 6 CNT,
+        // 7 last SEVERITY_ID, 8 last STATUS_ID, 9 last SMPL_TIME, 10 last NANOSECS
+        final String status = reader.getStatus(result.getInt(8));
+        final AlarmSeverity severity = filterSeverity(reader.getSeverity(result.getInt(7)), status);
+        // Time stamp of the last sample in the bucket,
+        // which keeps the bucket before a following sample without value
+        final Timestamp stamp = result.getTimestamp(9);
+        stamp.setNanos(result.getInt(10));
+        final Instant time = TimestampHelper.fromSQLTimestamp(stamp);
+        final int cnt = result.getInt(6);
+        if (cnt == 1)   // Only one sample in bucket: Return it as is
+            return new ArchiveVNumber(time, severity, status, display, result.getDouble(4));
+        return new ArchiveVStatistics(time, severity, status, display,
+                result.getDouble(4), result.getDouble(2), result.getDouble(3),
+                result.getDouble(5), cnt);
+    }
+
+    /** @param buckets Aggregated buckets, sorted by time
+     *  @param samples Samples that were not aggregated, sorted by time
+     *  @return All values, sorted by time.
+     *          A sample is returned before a bucket with the same time stamp.
+     *  @throws Exception on error
+     */
+    static ValueIterator merge(final ValueIterator buckets, final ValueIterator samples) throws Exception
+    {
+        return new MergingValueIterator(samples, buckets);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext()
+    {
+        return values != null  &&  values.hasNext();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public VType next() throws Exception
+    {
+        if (! hasNext())
+            throw new Exception("AggregatedValueIterator.next(" + channel_id + ") called after end");
+        return values.next();
+    }
+
+    /** Release all database resources.
+     *  OK to call more than once.
+     */
+    @Override
+    public void close()
+    {
+        if (values != null)
+        {
+            values.close();
+            values = null;
+        }
+        sel_buckets = closeStatement(sel_buckets);
+        sel_samples = closeStatement(sel_samples);
+        if (restore_auto_commit)
+        {
+            restore_auto_commit = false;
+            try
+            {
+                // Only read in this transaction
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            catch (Exception ex)
+            {
+                // Ignore
+            }
+        }
+        super.close();
+    }
+
+    /** @param statement Statement to close, may be <code>null</code>
+     *  @return <code>null</code>
+     */
+    private PreparedStatement closeStatement(final PreparedStatement statement)
+    {
+        if (statement != null)
+        {
+            reader.removeFromCancellation(statement);
+            try
+            {
+                statement.close();
+            }
+            catch (Exception ex)
+            {
+                // Ignore
+            }
+        }
+        return null;
+    }
+}
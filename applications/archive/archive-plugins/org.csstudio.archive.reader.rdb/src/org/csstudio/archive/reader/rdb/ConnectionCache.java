@@ -11,10 +11,12 @@ import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.csstudio.platform.utility.rdb.RDBConnectionPool;
 import org.csstudio.platform.utility.rdb.RDBUtil;
 import org.csstudio.platform.utility.rdb.RDBUtil.Dialect;
 
@@ -26,6 +28,10 @@ import org.csstudio.platform.utility.rdb.RDBUtil.Dialect;
  *  actually connect. Other 'concurrent' readers re-use the same connection,
  *  and finally the connection is closed as all readers release it.
  *
+ *  <p>With a <code>connection_pool_size</code> above 1, each query
+ *  or value iterator of a reader obtains a connection from an {@link RDBConnectionPool}
+ *  while it runs instead of sharing one connection, so queries can run concurrently.
+ *
  *  <p>Connections are marked read-only which helps at least MySQL.
  *
  *  @author Kay Kasemir
@@ -63,31 +69,74 @@ public class ConnectionCache
         }
     }
 
-    /** Cached RDB connection with reference count */
+    /** Time to wait for a pooled connection */
+    private static final long POOL_TIMEOUT_SECS = 60;
+
+    /** Cached RDB connection or pool with reference count */
     public static class Entry
     {
         private final ID id;
         private final AtomicInteger references = new AtomicInteger(1);
         private final RDBUtil rdb;
+        private final RDBConnectionPool pool;
 
-        Entry(final ID id, final RDBUtil rdb)
+        Entry(final ID id, final RDBUtil rdb, final RDBConnectionPool pool)
         {
             this.id = id;
             this.rdb = rdb;
+            this.pool = pool;
         }
 
-        /** @return JDBC connection, MUST NOT BE CLOSED
-         *  @throws Exception
+        /** @return JDBC connection, MUST NOT BE CLOSED but released
+         *  @throws Exception on error
+         *  @see #releaseConnection(Connection)
          */
-        public Connection getConnection() throws Exception
+        public Connection acquireConnection() throws Exception
         {
+            if (pool != null)
+                return pool.acquire(POOL_TIMEOUT_SECS, TimeUnit.SECONDS);
             return rdb.getConnection();
         }
 
+        /** Release connection
+         *
+         *  <p>A pooled connection is returned to the pool
+         *  after ending a transaction that was left open,
+         *  or discarded if that fails.
+         *
+         *  @param connection Connection obtained from <code>acquireConnection()</code>
+         */
+        public void releaseConnection(final Connection connection)
+        {
+            if (pool == null)
+                return;
+            try
+            {
+                if (! connection.getAutoCommit())
+                {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            }
+            catch (Exception ex)
+            {
+                logger.log(Level.WARNING, "Cannot clean up connection to " + id.url, ex);
+                pool.discard(connection);
+                return;
+            }
+            pool.release(connection);
+        }
+
         /** @return RDB Dialect */
         public Dialect getDialect()
         {
-            return rdb.getDialect();
+            return pool != null ? pool.getDialect() : rdb.getDialect();
+        }
+
+        /** @return Connection pool or <code>null</code> */
+        public RDBConnectionPool getPool()
+        {
+            return pool;
         }
     }
 
@@ -126,10 +175,25 @@ public class ConnectionCache
             Entry entry = find(id);
             if (entry == null)
             {
+                final int pool_size = Preferences.getConnectionPoolSize();
+                if (pool_size > 1)
+                {
+                    // Read-only allows MySQL to use load balancing
+                    final RDBConnectionPool pool = new RDBConnectionPool("Archive Reader", url, user, password,
+                            pool_size, RDBUtil.DEFAULT_VALIDATION_MILLIS, true);
+                    // PostgreSQL readers each use their own connection, see below
+                    if (pool.getDialect() != RDBUtil.Dialect.PostgreSQL)
+                    {
+                        logger.log(Level.FINE, "Pooling {0} connections to {1}", new Object[] { pool_size, url });
+                        entry = new Entry(id, null, pool);
+                        cache.add(entry);
+                        return entry;
+                    }
+                }
                 logger.log(Level.FINE, "Connecting to {0}", url);
-                entry = new Entry(id, RDBUtil.connect(url, user, password, false));
+                entry = new Entry(id, RDBUtil.connect(url, user, password, false), null);
                 // Read-only allows MySQL to use load balancing
-                entry.getConnection().setReadOnly(true);
+                entry.rdb.getConnection().setReadOnly(true);
                 // Avoid caching for PostgreSQL
                 if(entry.getDialect() != RDBUtil.Dialect.PostgreSQL)
                 {
@@ -151,8 +215,16 @@ public class ConnectionCache
                 return; // Still in use
             cache.remove(entry);
         }
-        entry.rdb.close();
-        logger.log(Level.FINE, "Closed {0}", entry.id.url);
+        if (entry.pool != null)
+        {
+            entry.pool.close();
+            logger.log(Level.INFO, "Closed {0}: {1}", new Object[] { entry.pool, entry.pool.getStatistics() });
+        }
+        else
+        {
+            entry.rdb.close();
+            logger.log(Level.FINE, "Closed {0}", entry.id.url);
+        }
     }
 
     /**
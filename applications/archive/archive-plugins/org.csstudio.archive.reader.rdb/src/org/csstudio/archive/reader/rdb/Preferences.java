@@ -25,6 +25,8 @@ public class Preferences
     final public static String FETCH_SIZE = "fetch_size";
     final public static String STORED_PROCEDURE = "use_stored_procedure";
     final public static String STARTTIME_FUNCTION = "use_starttime_function";
+    final public static String CONNECTION_POOL_SIZE = "connection_pool_size";
+    final public static String SQL_AGGREGATION = "use_sql_aggregation";
 
     public static int getFetchSize()
     {
@@ -35,6 +37,25 @@ public class Preferences
         return prefs.getInt(Activator.ID, FETCH_SIZE, fetch_size, null);
     }
 
+    /** @return Number of pooled RDB connections, 1 to share a single connection */
+    public static int getConnectionPoolSize()
+    {
+        int size = 1;
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+            return size;
+        return prefs.getInt(Activator.ID, CONNECTION_POOL_SIZE, size, null);
+    }
+
+    /** @return Aggregate 'optimized' data in the RDB when there is no stored procedure? */
+    public static boolean useSQLAggregation()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+            return true;
+        return prefs.getBoolean(Activator.ID, SQL_AGGREGATION, true, null);
+    }
+
     public static String getStoredProcedure()
     {
         return getString(STORED_PROCEDURE, "");
@@ -10,11 +10,14 @@ package org.csstudio.archive.reader.rdb;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,6 +45,12 @@ public class RDBArchiveReader implements ArchiveReader
     /** Oracle error code "error occurred at recursive SQL level ...: */
     final private static String ORACLE_RECURSIVE_ERROR = "ORA-00604"; //$NON-NLS-1$
 
+    /** URLs of databases that do not support the aggregation in the RDB,
+     *  for example MySQL before 8.0 without window functions.
+     *  Readers are created for each request, so this is kept across readers.
+     */
+    final private static Set<String> no_sql_aggregation = ConcurrentHashMap.newKeySet();
+
     final private boolean use_array_blob;
 
     final private String url;
@@ -107,11 +116,6 @@ public class RDBArchiveReader implements ArchiveReader
         timeout = RDBArchivePreferences.getSQLTimeoutSecs();
         rdb = ConnectionCache.get(url, user, password);
 
-        // Read-only allows MySQL to use load balancing
-        if (!rdb.getConnection().isReadOnly()) {
-            rdb.getConnection().setReadOnly(true);
-        }
-
         final Dialect dialect = rdb.getDialect();
         switch (dialect)
         {
@@ -155,9 +159,10 @@ public class RDBArchiveReader implements ArchiveReader
     private HashMap<Integer, String> getStatusValues() throws Exception
     {
         final HashMap<Integer, String> stati = new HashMap<Integer, String>();
+        final Connection connection = acquireConnection();
         try
         (
-            final Statement statement = rdb.getConnection().createStatement();
+            final Statement statement = connection.createStatement();
         )
         {
             if (timeout > 0)
@@ -168,6 +173,10 @@ public class RDBArchiveReader implements ArchiveReader
                 stati.put(result.getInt(1), result.getString(2));
             return stati;
         }
+        finally
+        {
+            releaseConnection(connection);
+        }
     }
 
     /** @return Map of all severity ID/AlarmSeverity mappings
@@ -176,9 +185,10 @@ public class RDBArchiveReader implements ArchiveReader
     private HashMap<Integer, AlarmSeverity> getSeverityValues() throws Exception
     {
         final HashMap<Integer, AlarmSeverity> severities = new HashMap<Integer, AlarmSeverity>();
+        final Connection connection = acquireConnection();
         try
         (
-            final Statement statement = rdb.getConnection().createStatement();
+            final Statement statement = connection.createStatement();
         )
         {
             if (timeout > 0)
@@ -214,14 +224,31 @@ public class RDBArchiveReader implements ArchiveReader
             }
             return severities;
         }
+        finally
+        {
+            releaseConnection(connection);
+        }
     }
 
-    /** @return RDB connection
+    /** Obtain connection for a query
+     *
+     *  <p>With a connection pool, each query or value iterator
+     *  uses its own connection while it runs.
+     *  Without a pool, all share the same connection.
+     *
+     *  @return RDB connection, must be released
      *  @throws Exception on error
+     *  @see #releaseConnection(Connection)
      */
-    Connection getConnection() throws Exception
+    Connection acquireConnection() throws Exception
     {
-        return rdb.getConnection();
+        return rdb.acquireConnection();
+    }
+
+    /** @param connection Connection obtained from <code>acquireConnection()</code> */
+    void releaseConnection(final Connection connection)
+    {
+        rdb.releaseConnection(connection);
     }
 
     Dialect getDialect()
@@ -277,9 +304,12 @@ public class RDBArchiveReader implements ArchiveReader
     @Override
     public String getDescription()
     {
-        return "RDB Archive V" + getVersion() + " (" + rdb.getDialect() + ")\n" +
+        final String info = "RDB Archive V" + getVersion() + " (" + rdb.getDialect() + ")\n" +
                "User: " + user + "\n" +
                "Password: " + password + " characters";
+        if (rdb.getPool() == null)
+            return info;
+        return info + "\nConnections: " + rdb.getPool().getStatistics();
     }
 
     /** {@inheritDoc} */
@@ -328,7 +358,17 @@ public class RDBArchiveReader implements ArchiveReader
     private String[] perform_search(final String pattern, final String sql_query) throws Exception
     {
         final ArrayList<String> names = new ArrayList<String>();
-        final PreparedStatement statement = rdb.getConnection().prepareStatement(sql_query);
+        final Connection connection = acquireConnection();
+        final PreparedStatement statement;
+        try
+        {
+            statement = connection.prepareStatement(sql_query);
+        }
+        catch (Exception ex)
+        {
+            releaseConnection(connection);
+            throw ex;
+        }
         addForCancellation(statement);
         try
         {
@@ -350,6 +390,7 @@ public class RDBArchiveReader implements ArchiveReader
         {
             removeFromCancellation(statement);
             statement.close();
+            releaseConnection(connection);
         }
         return names.toArray(new String[names.size()]);
     }
@@ -392,9 +433,10 @@ public class RDBArchiveReader implements ArchiveReader
 
         // Else: Determine how many samples there are
         final int counted;
+        final Connection connection = acquireConnection();
         try
         (
-            final PreparedStatement count_samples = rdb.getConnection().prepareStatement(
+            final PreparedStatement count_samples = connection.prepareStatement(
                     sql.sample_count_by_id_start_end);
         )
         {
@@ -406,15 +448,67 @@ public class RDBArchiveReader implements ArchiveReader
                 throw new Exception("Cannot count samples");
             counted = result.getInt(1);
         }
-        // Fetch raw data and perform averaging
-        final ValueIterator raw_data = getRawValues(channel_id, start, end);
-
-        // If there weren't that many, that's it
+        finally
+        {
+            releaseConnection(connection);
+        }
+        // If there weren't that many, return raw data
         if (counted < count)
-            return raw_data;
+            return getRawValues(channel_id, start, end);
 
         // Else: Perform averaging to reduce sample count
         final double seconds = TimeDuration.toSecondsDouble(Duration.between(start, end)) / count;
+
+        // Aggregate within the RDB?
+        if (!is_oracle  &&  Preferences.useSQLAggregation()  &&  !no_sql_aggregation.contains(url))
+        {
+            try
+            {
+                final AggregatedValueIterator aggregated =
+                    new AggregatedValueIterator(this, channel_id, start, end, seconds);
+                if (aggregated.isAggregated())
+                    return aggregated;
+                // Enumerated channel: Average the raw samples
+                aggregated.close();
+            }
+            catch (Exception ex)
+            {
+                if (isUnsupportedQuery(ex))
+                {   // For example MySQL before 8.0 without window functions:
+                    // Don't try again, always average raw data for this database
+                    no_sql_aggregation.add(url);
+                    Activator.getLogger().log(Level.WARNING,
+                        "Aggregation in RDB not supported by " + url + ", averaging raw data from now on", ex);
+                }
+                else
+                    Activator.getLogger().log(Level.WARNING,
+                        "Cannot aggregate samples for " + name + " in RDB, averaging raw data", ex);
+                // PostgreSQL fails all further statements in the transaction
+                if (getDialect() == Dialect.PostgreSQL)
+                {
+                    try
+                    {
+                        final Connection connection = acquireConnection();
+                        try
+                        {
+                            if (! connection.getAutoCommit())
+                                connection.rollback();
+                        }
+                        finally
+                        {
+                            releaseConnection(connection);
+                        }
+                    }
+                    catch (Exception e)
+                    {
+                        // Ignore
+                    }
+                }
+            }
+        }
+
+        // Fetch raw data and perform averaging
+        final ValueIterator raw_data = getRawValues(channel_id, start, end);
         return new AveragedValueIterator(raw_data, seconds);
     }
 
@@ -426,10 +520,11 @@ public class RDBArchiveReader implements ArchiveReader
     // Allow access from 'package' for tests
     int getChannelID(final String name) throws UnknownChannelException, Exception
     {
+        final Connection connection = acquireConnection();
         try
         (
             final PreparedStatement statement =
-                rdb.getConnection().prepareStatement(sql.channel_sel_by_name);
+                connection.prepareStatement(sql.channel_sel_by_name);
         )
         {
             if (timeout > 0)
@@ -440,6 +535,10 @@ public class RDBArchiveReader implements ArchiveReader
                 throw new UnknownChannelException(name);
             return result.getInt(1);
         }
+        finally
+        {
+            releaseConnection(connection);
+        }
     }
 
     /** Add a statement to the list of statements-to-cancel in cancel()
@@ -487,6 +586,19 @@ public class RDBArchiveReader implements ArchiveReader
         return false;
     }
 
+    /** @param ex Error from the aggregation in the RDB
+     *  @return <code>true</code> if the RDB does not support the query,
+     *          i.e. a syntax error or unknown function (SQL state class 42)
+     *          as opposed to for example a timeout or lost connection
+     */
+    private static boolean isUnsupportedQuery(final Exception ex)
+    {
+        if (! (ex instanceof SQLException))
+            return false;
+        final String state = ((SQLException) ex).getSQLState();
+        return state != null  &&  state.startsWith("42");
+    }
+
     /** Cancel an ongoing RDB query.
      *  Not supported by all queries.
      */
@@ -519,19 +631,23 @@ public class RDBArchiveReader implements ArchiveReader
     public void close()
     {
         cancel();
-        try
+        // Pooled connections are cleaned up as they are released
+        if (rdb.getPool() == null)
         {
-            Connection connection = rdb.getConnection();
-            if (connection != null && connection.getAutoCommit() == false)
+            try
             {
-                connection.rollback();
-                connection.setAutoCommit(true);
+                final Connection connection = rdb.acquireConnection();
+                if (connection != null && connection.getAutoCommit() == false)
+                {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            }
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.WARNING,
+                    "Attempt to cleanup connection failed with Exception", ex); //$NON-NLS-1$
             }
-        }
-        catch (Exception ex)
-        {
-            Activator.getLogger().log(Level.WARNING,
-                "Attempt to cleanup connection failed with Exception", ex); //$NON-NLS-1$
         }
         ConnectionCache.release(rdb);
     }
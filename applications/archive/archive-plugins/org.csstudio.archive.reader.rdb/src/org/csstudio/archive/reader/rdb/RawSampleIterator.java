@@ -54,7 +54,10 @@ public class RawSampleIterator extends AbstractRDBValueIterator
         catch (Exception ex)
         {
             if (! RDBArchiveReader.isCancellation(ex))
+            {
+                close();
                 throw ex;
+            }
             // Else: Not a real error; return empty iterator
             value = null;
         }
@@ -86,7 +89,7 @@ public class RawSampleIterator extends AbstractRDBValueIterator
 
         // Get time of initial sample
         final PreparedStatement statement =
-            reader.getConnection().prepareStatement(reader.getSQL().sample_sel_initial_time);
+            connection.prepareStatement(reader.getSQL().sample_sel_initial_time);
         reader.addForCancellation(statement);
         try
         {
@@ -115,27 +118,27 @@ public class RawSampleIterator extends AbstractRDBValueIterator
             statement.close();
         }
 
-        boolean autoCommit = reader.getConnection().getAutoCommit();
+        boolean autoCommit = connection.getAutoCommit();
         // Disable auto-commit to determine sample with PostgreSQL when fetch direction is FETCH_FORWARD
         if (reader.getDialect() == Dialect.PostgreSQL && autoCommit) {
-            reader.getConnection().setAutoCommit(false);
+            connection.setAutoCommit(false);
         }
 
         // Fetch the samples
         if (reader.useArrayBlob()) {
             if (concurrency && reader.getDialect() == Dialect.PostgreSQL) {
-                sel_samples = reader.getConnection().prepareStatement(
+                sel_samples = connection.prepareStatement(
                         reader.getSQL().sample_sel_by_id_start_end_with_blob, ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY);
             } else {
-                sel_samples = reader.getConnection().prepareStatement(
+                sel_samples = connection.prepareStatement(
                         reader.getSQL().sample_sel_by_id_start_end_with_blob);
             }
         } else {
             if (concurrency && reader.getDialect() == Dialect.PostgreSQL) {
-                sel_samples = reader.getConnection().prepareStatement(
+                sel_samples = connection.prepareStatement(
                         reader.getSQL().sample_sel_by_id_start_end, ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY);
             } else {
-                sel_samples = reader.getConnection().prepareStatement(
+                sel_samples = connection.prepareStatement(
                         reader.getSQL().sample_sel_by_id_start_end);
             }
         }
@@ -205,7 +208,6 @@ public class RawSampleIterator extends AbstractRDBValueIterator
     @Override
     public void close()
     {
-        super.close();
         value = null;
         if (result_set != null)
         {
@@ -235,11 +237,12 @@ public class RawSampleIterator extends AbstractRDBValueIterator
         if (reader.getDialect() == Dialect.PostgreSQL) {
             // Restore default auto-commit on result set close
              try {
-                 reader.getConnection().setAutoCommit(true);
+                 connection.setAutoCommit(true);
              } catch (Exception e) {
                  // Ignore
              }
         }
+        super.close();
     }
 
     public void setConcurrency(boolean concurrency) {
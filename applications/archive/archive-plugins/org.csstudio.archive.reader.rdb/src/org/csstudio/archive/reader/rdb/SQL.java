@@ -39,6 +39,10 @@ public class SQL
     final public String sample_sel_array_vals;
     final public String sample_count_by_id_start_end;
 
+    // Time-bucketed aggregation in the RDB, not supported for Oracle (null)
+    final public String sample_aggregate_by_id_start_end;
+    final public String sample_sel_unaggregated_by_id_start_end;
+
     /** Initialize SQL statements
      *  @param dialect RDB dialect
      *  @param prefix Schema (table) prefix, including "." etc. as needed
@@ -107,6 +111,9 @@ public class SQL
                     "   ORDER BY smpl_time";
             sample_sel_array_vals = "SELECT float_val FROM " + prefix + "array_val" +
                 " WHERE channel_id=? AND smpl_time=? ORDER BY seq_nbr";
+            // Oracle uses the stored procedure
+            sample_aggregate_by_id_start_end = null;
+            sample_sel_unaggregated_by_id_start_end = null;
         }
         else
         {    // MySQL, Postgres
@@ -127,6 +134,47 @@ public class SQL
                 "   ORDER BY smpl_time, nanosecs";
             sample_sel_array_vals = "SELECT float_val FROM " + prefix + "array_val" +
                 " WHERE channel_id=? AND smpl_time=? AND nanosecs=? ORDER BY seq_nbr";
+
+            // Index of the time bucket, relative to start time (1st parameter), for bucket seconds (2nd parameter)
+            final String bucket = dialect == RDBUtil.Dialect.PostgreSQL
+                ? "FLOOR(EXTRACT(EPOCH FROM (smpl_time - CAST(? AS TIMESTAMP))) / ?)"
+                : "FLOOR(TIMESTAMPDIFF(MICROSECOND, ?, smpl_time) / (? * 1000000))";
+            // Samples without a value: No number, or status for 'archive off' etc.
+            final String no_value =
+                "(float_val IS NULL AND num_val IS NULL)" +
+                " OR status_id IN (SELECT status_id FROM " + prefix + "status" +
+                " WHERE UPPER(name) IN ('ARCHIVE_OFF', 'DISCONNECTED', 'WRITE_ERROR'))";
+            // Samples without a value split the buckets into segments,
+            // so a bucket never combines samples from before and after for example a disconnect.
+            // Per bucket segment: Index, min, max, average, std. deviation, count,
+            // severity, status and time of last sample
+            final String last = " OVER (PARTITION BY bucket, segment ORDER BY smpl_time DESC, nanosecs DESC)";
+            sample_aggregate_by_id_start_end =
+                "SELECT bucket, MIN(val), MAX(val), AVG(val), STDDEV_POP(val), COUNT(*)," +
+                "       MAX(last_severity_id), MAX(last_status_id), MAX(smpl_time), MAX(last_nanosecs)" +
+                "   FROM (SELECT bucket, segment, val, smpl_time," +
+                "                FIRST_VALUE(severity_id)" + last + " AS last_severity_id," +
+                "                FIRST_VALUE(status_id)" + last + " AS last_status_id," +
+                "                FIRST_VALUE(nanosecs)" + last + " AS last_nanosecs" +
+                "         FROM (SELECT bucket, no_value, val, smpl_time, nanosecs, severity_id, status_id," +
+                "                      SUM(no_value) OVER (ORDER BY smpl_time, nanosecs) AS segment" +
+                "               FROM (SELECT " + bucket + " AS bucket," +
+                "                            CASE WHEN " + no_value + " THEN 1 ELSE 0 END AS no_value," +
+                "                            COALESCE(float_val, num_val) AS val," +
+                "                            smpl_time, nanosecs, severity_id, status_id" +
+                "                     FROM " + prefix + "sample" +
+                "                     WHERE channel_id=?" +
+                "                       AND smpl_time>=? AND smpl_time<=?) samples" +
+                "              ) segments" +
+                "         WHERE no_value=0" +
+                "        ) buckets" +
+                "   GROUP BY bucket, segment ORDER BY bucket, segment";
+            sample_sel_unaggregated_by_id_start_end =
+                "SELECT smpl_time, severity_id, status_id, num_val, float_val, str_val, nanosecs FROM " + prefix + "sample" +
+                "   WHERE channel_id=?" +
+                "     AND smpl_time>=? AND smpl_time<=?" +
+                "     AND (" + no_value + ")" +
+                "   ORDER BY smpl_time, nanosecs";
         }
         // Rough count, ignoring nanosecs for the non-Oracle dialects
         sample_count_by_id_start_end = "SELECT COUNT(*) FROM " + prefix + "sample" +
@@ -65,7 +65,15 @@ public class StoredProcedureValueIterator extends AbstractRDBValueIterator
     {
         super(reader, channel_id);
         this.stored_procedure = stored_procedure;
-        executeProcedure(start, end, count);
+        try
+        {
+            executeProcedure(start, end, count);
+        }
+        catch (Exception ex)
+        {
+            close();
+            throw ex;
+        }
     }
 
     /** Invoke stored procedure
@@ -97,7 +105,7 @@ public class StoredProcedureValueIterator extends AbstractRDBValueIterator
         }
 
         final CallableStatement statement =
-                reader.getConnection().prepareCall(sql);
+                connection.prepareCall(sql);
         reader.addForCancellation(statement);
         try
         {
@@ -113,10 +121,10 @@ public class StoredProcedureValueIterator extends AbstractRDBValueIterator
             }
             else if(dialect == RDBUtil.Dialect.PostgreSQL)
             {    //PostgreSQL
-                boolean autoCommit = reader.getConnection().getAutoCommit();
+                boolean autoCommit = connection.getAutoCommit();
                 // Disable auto-commit to determine sample with PostgreSQL when fetch direction is FETCH_FORWARD
                 if (autoCommit) {
-                    reader.getConnection().setAutoCommit(false);
+                    connection.setAutoCommit(false);
                 }
                 statement.registerOutParameter(1, Types.OTHER);
                 statement.setLong(2, channel_id);
@@ -270,17 +278,16 @@ public class StoredProcedureValueIterator extends AbstractRDBValueIterator
     @Override
     public void close()
     {
-        super.close();
         index = -1;
         values = null;
         if (reader.getDialect() == Dialect.PostgreSQL) {
             // Restore default auto-commit on result set close
              try {
-                 reader.getConnection().setAutoCommit(true);
+                 connection.setAutoCommit(true);
              } catch (Exception e) {
                  // Ignore
              }
         }
-
+        super.close();
     }
 }
@@ -0,0 +1,429 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.diirt.util.array.ListNumber;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/** Rows for one table, submitted via PostgreSQL binary COPY.
+ *
+ *  <p>Rows are encoded in the binary COPY format into a buffer
+ *  that is re-used for each flush, so there is no per-sample
+ *  allocation of statements, strings or byte arrays.
+ *
+ *  <p>The binary format requires the exact column types,
+ *  which are read from the database meta data so that
+ *  schema variations like INT vs. BIGINT IDs are handled.
+ *
+ *  <p>Values must be added in the order of the columns
+ *  passed to the constructor.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+class PGBinaryCopy
+{
+    /** Signature, flags and header extension length of binary COPY */
+    private static final byte[] HEADER =
+    {
+        'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0,
+        0, 0, 0, 0,
+        0, 0, 0, 0
+    };
+
+    /** PostgreSQL epoch 2000-01-01 in microseconds since 1970-01-01 */
+    private static final long PG_EPOCH_MICROS = 946684800000000L;
+
+    /** Supported column types */
+    private enum Type
+    {
+        INT2, INT4, INT8, FLOAT4, FLOAT8, TIMESTAMP, TIMESTAMPTZ, TEXT, BYTEA
+    }
+
+    final private String table;
+
+    final private String copy_sql;
+
+    final private Type[] types;
+
+    /** Encoded rows */
+    private byte[] buffer = new byte[64*1024];
+
+    /** Bytes used in buffer */
+    private int size = 0;
+
+    /** Number of rows in buffer */
+    private int rows = 0;
+
+    /** Column of next value */
+    private int column = 0;
+
+    /** Buffer size at start of current row */
+    private int row_start = 0;
+
+    /** Initialize
+     *  @param connection Connection used to read column types
+     *  @param table Table name, may include "schema."
+     *  @param columns Columns for which values will be provided
+     *  @throws Exception on error, including unsupported column types
+     */
+    PGBinaryCopy(final Connection connection, final String table, final String... columns) throws Exception
+    {
+        this(table, columns, getColumnTypes(connection, table, columns));
+    }
+
+    /** Initialize
+     *  @param table Table name, may include "schema."
+     *  @param columns Columns for which values will be provided
+     *  @param type_names PostgreSQL type names of the columns
+     *  @throws Exception on error, including unsupported column types
+     */
+    PGBinaryCopy(final String table, final String[] columns, final String[] type_names) throws Exception
+    {
+        this.table = table;
+        copy_sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH BINARY";
+        types = new Type[columns.length];
+        for (int i=0; i<columns.length; ++i)
+        {
+            types[i] = getType(type_names[i]);
+            if (types[i] == null)
+                throw new Exception("Column " + table + "." + columns[i] + " has unsupported type " + type_names[i]);
+        }
+        clear();
+    }
+
+    /** @param connection Connection used to read column types
+     *  @param table Table name, may include "schema."
+     *  @param columns Columns
+     *  @return PostgreSQL type names of the columns
+     *  @throws Exception on error, including unknown columns
+     */
+    private static String[] getColumnTypes(final Connection connection, final String table, final String... columns) throws Exception
+    {
+        String schema = null, name = table;
+        final int sep = table.indexOf('.');
+        if (sep > 0)
+        {
+            schema = table.substring(0, sep);
+            name = table.substring(sep + 1);
+        }
+        final Map<String, String> column_types = new HashMap<>();
+        final DatabaseMetaData meta = connection.getMetaData();
+        try
+        (
+            final ResultSet result = meta.getColumns(connection.getCatalog(), schema, name, null);
+        )
+        {
+            while (result.next())
+                column_types.put(result.getString("COLUMN_NAME").toLowerCase(),
+                                 result.getString("TYPE_NAME").toLowerCase());
+        }
+        final String[] type_names = new String[columns.length];
+        for (int i=0; i<columns.length; ++i)
+        {
+            type_names[i] = column_types.get(columns[i].toLowerCase());
+            if (type_names[i] == null)
+                throw new Exception("Cannot locate column " + columns[i] + " in table " + table);
+        }
+        return type_names;
+    }
+
+    /** @param type_name PostgreSQL type name
+     *  @return {@link Type} or <code>null</code>
+     */
+    private static Type getType(final String type_name)
+    {
+        switch (type_name)
+        {
+        case "int2":
+            return Type.INT2;
+        case "int4":
+        case "serial":
+            return Type.INT4;
+        case "int8":
+        case "bigserial":
+            return Type.INT8;
+        case "float4":
+            return Type.FLOAT4;
+        case "float8":
+            return Type.FLOAT8;
+        case "timestamp":
+            return Type.TIMESTAMP;
+        case "timestamptz":
+            return Type.TIMESTAMPTZ;
+        case "varchar":
+        case "bpchar":
+        case "text":
+            return Type.TEXT;
+        case "bytea":
+            return Type.BYTEA;
+        default:
+            return null;
+        }
+    }
+
+    /** @return Table name */
+    String getTable()
+    {
+        return table;
+    }
+
+    /** @return Number of rows that have been added since last flush */
+    int getRowCount()
+    {
+        return rows;
+    }
+
+    /** Start a new row */
+    void startRow()
+    {
+        row_start = size;
+        ensure(2);
+        putShort(types.length);
+        column = 0;
+    }
+
+    /** @param value Value for next column
+     *  @throws Exception on error, including value that exceeds the column type
+     */
+    void addLong(final long value) throws Exception
+    {
+        switch (nextType())
+        {
+        case INT2:
+            if (value < Short.MIN_VALUE  ||  value > Short.MAX_VALUE)
+                throw new Exception("Value " + value + " exceeds INT2 column of " + table);
+            putLength(2);
+            putShort((int) value);
+            break;
+        case INT4:
+            if (value < Integer.MIN_VALUE  ||  value > Integer.MAX_VALUE)
+                throw new Exception("Value " + value + " exceeds INT4 column of " + table);
+            putLength(4);
+            putInt((int) value);
+            break;
+        case INT8:
+            putLength(8);
+            putLong(value);
+            break;
+        case FLOAT4:
+            putLength(4);
+            putInt(Float.floatToIntBits(value));
+            break;
+        case FLOAT8:
+            putLength(8);
+            putLong(Double.doubleToLongBits(value));
+            break;
+        default:
+            throw new Exception("Cannot write number to " + types[column-1] + " column of " + table);
+        }
+    }
+
+    /** @param value Value for next column */
+    void addDouble(final double value) throws Exception
+    {
+        switch (nextType())
+        {
+        case FLOAT4:
+            putLength(4);
+            putInt(Float.floatToIntBits((float) value));
+            break;
+        case FLOAT8:
+            putLength(8);
+            putLong(Double.doubleToLongBits(value));
+            break;
+        default:
+            throw new Exception("Cannot write double to " + types[column-1] + " column of " + table);
+        }
+    }
+
+    /** @param stamp Value for next column */
+    void addTimestamp(final Timestamp stamp) throws Exception
+    {
+        final long seconds;
+        switch (nextType())
+        {
+        case TIMESTAMP:
+            // Like JDBC, write local time of the JVM into 'timestamp without time zone'
+            seconds = stamp.toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+            break;
+        case TIMESTAMPTZ:
+            seconds = Math.floorDiv(stamp.getTime(), 1000);
+            break;
+        default:
+            throw new Exception("Cannot write timestamp to " + types[column-1] + " column of " + table);
+        }
+        putLength(8);
+        putLong(seconds * 1000000L + stamp.getNanos() / 1000 - PG_EPOCH_MICROS);
+    }
+
+    /** @param text Value for next column */
+    void addString(final String text) throws Exception
+    {
+        if (nextType() != Type.TEXT)
+            throw new Exception("Cannot write text to " + types[column-1] + " column of " + table);
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        putLength(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /** Add array elements, encoded like the RDB writer's BLOB:
+     *  Element count, followed by the 'double' elements.
+     *  @param data Value for next column
+     */
+    void addDoubleArrayBlob(final ListNumber data) throws Exception
+    {
+        if (nextType() != Type.BYTEA)
+            throw new Exception("Cannot write BLOB to " + types[column-1] + " column of " + table);
+        final int N = data.size();
+        putLength(4 + 8*N);
+        ensure(4 + 8*N);
+        putInt(N);
+        for (int i=0; i<N; ++i)
+            putLong(Double.doubleToLongBits(data.getDouble(i)));
+    }
+
+    /** Set next column to NULL */
+    void addNull()
+    {
+        nextType();
+        putLength(-1);
+    }
+
+    /** Mark end of row */
+    void endRow() throws Exception
+    {
+        if (column != types.length)
+            throw new Exception("Row for " + table + " has " + column + " instead of " + types.length + " values");
+        ++rows;
+    }
+
+    /** Remove the current, incomplete row,
+     *  for example after an error while adding its values
+     */
+    void cancelRow()
+    {
+        size = row_start;
+        column = 0;
+    }
+
+    /** Submit rows via COPY.
+     *
+     *  <p>Buffer is cleared, even on error.
+     *  Caller needs to commit or roll back.
+     *
+     *  @param connection Connection
+     *  @return Number of rows written
+     *  @throws Exception on error
+     */
+    long flush(final Connection connection) throws Exception
+    {
+        if (rows <= 0)
+            return 0;
+        try
+        {
+            putTrailer();
+            final CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copy_sql);
+            try
+            {
+                copy.writeToCopy(buffer, 0, size);
+                return copy.endCopy();
+            }
+            finally
+            {
+                if (copy.isActive())
+                    copy.cancelCopy();
+            }
+        }
+        finally
+        {
+            clear();
+        }
+    }
+
+    /** @return Copy of the data that {@link #flush(Connection)} would submit,
+     *          header, rows and trailer
+     */
+    byte[] getCopyData()
+    {
+        final int data_size = size;
+        putTrailer();
+        final byte[] data = Arrays.copyOf(buffer, size);
+        size = data_size;
+        return data;
+    }
+
+    private void putTrailer()
+    {
+        ensure(2);
+        putShort(-1);
+    }
+
+    /** Remove all rows */
+    void clear()
+    {
+        System.arraycopy(HEADER, 0, buffer, 0, HEADER.length);
+        size = HEADER.length;
+        row_start = size;
+        rows = 0;
+        column = 0;
+    }
+
+    private Type nextType()
+    {
+        if (column >= types.length)
+            throw new IllegalStateException("Too many values for " + table);
+        return types[column++];
+    }
+
+    private void putLength(final int length)
+    {
+        ensure(4);
+        putInt(length);
+    }
+
+    /** @param count Number of bytes that need to fit into buffer */
+    private void ensure(final int count)
+    {
+        if (size + count > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + count));
+    }
+
+    private void putShort(final int value)
+    {
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+    }
+
+    private void putInt(final int value)
+    {
+        buffer[size++] = (byte) (value >>> 24);
+        buffer[size++] = (byte) (value >>> 16);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+    }
+
+    private void putLong(final long value)
+    {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+}
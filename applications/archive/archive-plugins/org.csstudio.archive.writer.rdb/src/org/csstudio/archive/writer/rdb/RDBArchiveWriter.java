@@ -7,8 +7,7 @@
  ******************************************************************************/
 package org.csstudio.archive.writer.rdb;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -96,7 +95,15 @@ public class RDBArchiveWriter implements ArchiveWriter
     /** Counter for accumulated samples in 'String' batch */
     private int batched_txt_inserts = 0;
 
-    /** Copy of batched samples, used to display batch errors */
+    /** Binary COPY for the sample table, or <code>null</code> when using INSERT */
+    private PGBinaryCopy copy_sample = null;
+
+    /** Binary COPY for the array_val table, or <code>null</code> */
+    private PGBinaryCopy copy_array = null;
+
+    /** Copy of batched samples, used to display batch errors
+     *  and to re-submit via INSERT when COPY fails
+     */
     private final List<RDBWriteChannel> batched_channel = new ArrayList<RDBWriteChannel>();
     private final List<VType> batched_samples = new ArrayList<VType>();
 
@@ -109,7 +116,7 @@ public class RDBArchiveWriter implements ArchiveWriter
     {
         this(RDBArchivePreferences.getURL(), RDBArchivePreferences.getUser(),
                 RDBArchivePreferences.getPassword(), RDBArchivePreferences.getSchema(),
-                RDBArchivePreferences.useArrayBlob());
+                RDBArchivePreferences.useArrayBlob(), Preferences.isUsePostgresBinaryCopy());
     }
 
     /** Initialize
@@ -122,6 +129,21 @@ public class RDBArchiveWriter implements ArchiveWriter
      */
     public RDBArchiveWriter(final String url, final String user, final String password,
             final String schema, boolean use_array_blob) throws Exception
+    {
+        this(url, user, password, schema, use_array_blob, false);
+    }
+
+    /** Initialize
+     *  @param url RDB URL
+     *  @param user .. user name
+     *  @param password .. password
+     *  @param schema Schema/table prefix, not including ".". May be empty
+     *  @param use_array_blob Use BLOB for array elements?
+     *  @param use_binary_copy Use binary COPY instead of INSERT? Only for PostgreSQL
+     *  @throws Exception on error, for example RDB connection error
+     */
+    public RDBArchiveWriter(final String url, final String user, final String password,
+            final String schema, boolean use_array_blob, final boolean use_binary_copy) throws Exception
     {
         this.use_array_blob = use_array_blob;
         rdb = RDBUtil.connect(url, user, password, false);
@@ -136,6 +158,44 @@ public class RDBArchiveWriter implements ArchiveWriter
         // auto-commit is off, then enables it briefly as needed,
         // and otherwise commits/rolls back.
         rdb.getConnection().setAutoCommit(false);
+
+        if (use_binary_copy)
+        {
+            if (rdb.getDialect() == Dialect.PostgreSQL)
+                createBinaryCopy(schema);
+            else
+                Activator.getLogger().log(Level.WARNING,
+                    "Binary COPY is only supported for PostgreSQL, using INSERT for {0}", rdb.getDialect());
+        }
+    }
+
+    /** Prepare binary COPY, falling back to INSERT on error
+     *  @param schema Schema/table prefix, not including ".". May be empty
+     */
+    private void createBinaryCopy(final String schema)
+    {
+        final String prefix = (schema == null  ||  schema.isEmpty()) ? "" : schema + ".";
+        try
+        {
+            // Like the INSERT statements, only use datatype and array_val with BLOB
+            if (use_array_blob)
+                copy_sample = new PGBinaryCopy(rdb.getConnection(), prefix + Preferences.getWriteSampleTable(),
+                        "channel_id", "smpl_time", "nanosecs", "severity_id", "status_id",
+                        "num_val", "float_val", "str_val", "datatype", "array_val");
+            else
+                copy_sample = new PGBinaryCopy(rdb.getConnection(), prefix + Preferences.getWriteSampleTable(),
+                        "channel_id", "smpl_time", "nanosecs", "severity_id", "status_id",
+                        "num_val", "float_val", "str_val");
+            if (! use_array_blob)
+                copy_array = new PGBinaryCopy(rdb.getConnection(), prefix + "array_val",
+                        "channel_id", "smpl_time", "nanosecs", "seq_nbr", "float_val");
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Cannot use binary COPY, using INSERT", ex);
+            copy_sample = null;
+            copy_array = null;
+        }
     }
 
     @Override
@@ -174,7 +234,10 @@ public class RDBArchiveWriter implements ArchiveWriter
     {
         final RDBWriteChannel rdb_channel = (RDBWriteChannel) channel;
         writeMetaData(rdb_channel, sample);
-        batchSample(rdb_channel, sample);
+        if (copy_sample != null)
+            copySample(rdb_channel, sample);
+        else
+            batchSample(rdb_channel, sample);
         batched_channel.add(rdb_channel);
         batched_samples.add(sample);
     }
@@ -233,8 +296,10 @@ public class RDBArchiveWriter implements ArchiveWriter
     private PreparedStatement createInsertPrepareStatement(String sqlQuery)
             throws SQLException, Exception {
         PreparedStatement statement = null;
+        // When binary COPY is used, INSERT is the fallback and must not also use COPY
         if (rdb.getDialect() == Dialect.PostgreSQL
-                && Preferences.isUsePostgresCopy()) {
+                && Preferences.isUsePostgresCopy()
+                && copy_sample == null) {
             statement = new PGCopyPreparedStatement(rdb.getConnection(),
                     sqlQuery);
         } else {
@@ -341,17 +406,17 @@ public class RDBArchiveWriter implements ArchiveWriter
             }
         }
         else
-        {   // More array elements
-            final ByteArrayOutputStream bout = new ByteArrayOutputStream();
-            final DataOutputStream dout = new DataOutputStream(bout);
-            // Indicate 'Double' as data type
+        {   // More array elements.
+            // The JDBC driver keeps a reference to the bytes until the batch
+            // is executed, so need one array per sample, but fill it directly
+            // instead of going through (growing) streams.
             final int N = additional.size();
-            dout.writeInt(N);
+            final byte[] asBytes = new byte[4 + 8*N];
+            final ByteBuffer buffer = ByteBuffer.wrap(asBytes);
+            buffer.putInt(N);
             // Write binary data for array elements
             for (int i=0; i<N; ++i)
-                dout.writeDouble(additional.getDouble(i));
-            dout.close();
-            final byte[] asBytes = bout.toByteArray();
+                buffer.putDouble(additional.getDouble(i));
             if (rdb.getDialect() == Dialect.Oracle)
             {
                 insert_double_sample.setString(6, "d");
@@ -492,11 +557,182 @@ public class RDBArchiveWriter implements ArchiveWriter
         insert_xx.addBatch();
     }
 
+    /** Add sample to binary COPY.
+     *  <p>Needs eventual flush()
+     *  @param channel Channel
+     *  @param sample Sample to insert
+     *  @throws Exception on error
+     */
+    private void copySample(final RDBWriteChannel channel, final VType sample) throws Exception
+    {
+        final Timestamp stamp = TimestampHelper.toSQLTimestamp(VTypeHelper.getTimestamp(sample));
+        int severity = severities.findOrCreate(VTypeHelper.getSeverity(sample));
+        Status status = stati.findOrCreate(VTypeHelper.getMessage(sample));
+
+        // Severity/status cache may enable auto-commit
+        if (rdb.getConnection().getAutoCommit() == true)
+            rdb.getConnection().setAutoCommit(false);
+
+        // Determine value for num_val, float_val, str_val
+        // using the same type decisions as batchSample
+        Long num = null;
+        double dbl = Double.NaN;
+        boolean is_double = false;
+        String txt = null;
+        ListNumber array = null;
+        if (sample instanceof VDouble)
+        {
+            dbl = ((VDouble)sample).getValue();
+            is_double = true;
+        }
+        else if (sample instanceof VNumber)
+        {
+            final Number number = ((VNumber)sample).getValue();
+            if (number instanceof Double)
+            {
+                dbl = number.doubleValue();
+                is_double = true;
+            }
+            else
+                num = number.longValue();
+        }
+        else if (sample instanceof VNumberArray)
+        {
+            array = ((VNumberArray)sample).getData();
+            dbl = array.size() > 0 ? array.getDouble(0) : Double.NaN;
+            is_double = true;
+        }
+        else if (sample instanceof VEnum)
+            num = Long.valueOf(((VEnum)sample).getIndex());
+        else
+        {
+            txt = (sample instanceof VString) ? ((VString)sample).getValue() : sample.toString();
+            if (txt.length() > MAX_TEXT_SAMPLE_LENGTH)
+            {
+                Activator.getLogger().log(Level.INFO,
+                    "Value of {0} exceeds {1} chars: {2}",
+                    new Object[] { channel.getName(), MAX_TEXT_SAMPLE_LENGTH, txt });
+                txt = txt.substring(0, MAX_TEXT_SAMPLE_LENGTH);
+            }
+        }
+        if (is_double  &&  Double.isNaN(dbl))
+        {   // Same NaN handling as for INSERT
+            dbl = 0.0;
+            severity = severities.findOrCreate(AlarmSeverity.UNDEFINED);
+            status = stati.findOrCreate(NOT_A_NUMBER_STATUS);
+        }
+
+        // Like completeAndBatchInsert, write time stamp truncated to seconds, nanos in separate column
+        final Timestamp truncated = Timestamp.from(stamp.toInstant());
+        truncated.setNanos(0);
+
+        copy_sample.startRow();
+        try
+        {
+            copy_sample.addLong(channel.getId());
+            copy_sample.addTimestamp(truncated);
+            copy_sample.addLong(stamp.getNanos());
+            copy_sample.addLong(severity);
+            copy_sample.addLong(status.getId());
+            if (num != null)
+                copy_sample.addLong(num);
+            else
+                copy_sample.addNull();
+            if (is_double)
+                copy_sample.addDouble(dbl);
+            else
+                copy_sample.addNull();
+            if (txt != null)
+                copy_sample.addString(txt);
+            else
+                copy_sample.addNull();
+            if (use_array_blob)
+            {
+                if (array != null)
+                {
+                    copy_sample.addString("d");
+                    copy_sample.addDoubleArrayBlob(array);
+                }
+                else
+                {
+                    copy_sample.addString(" ");
+                    copy_sample.addNull();
+                }
+            }
+            copy_sample.endRow();
+        }
+        catch (Exception ex)
+        {   // Keep the rows of other samples intact
+            copy_sample.cancelRow();
+            throw ex;
+        }
+
+        // Remaining array elements in array_val table
+        if (array != null  &&  copy_array != null)
+        {
+            final int N = array.size();
+            for (int i = 1; i < N; i++)
+            {
+                copy_array.startRow();
+                copy_array.addLong(channel.getId());
+                copy_array.addTimestamp(stamp);
+                copy_array.addLong(stamp.getNanos());
+                copy_array.addLong(i);
+                final double element = array.getDouble(i);
+                copy_array.addDouble(Double.isNaN(element) ? 0.0 : element);
+                copy_array.endRow();
+            }
+        }
+    }
+
     /** {@inheritDoc}
      *  RDB implementation completes pending batches
      */
     @Override
     public void flush() throws Exception
+    {
+        if (copy_sample != null)
+            flushCopy();
+        else
+            flushBatches();
+    }
+
+    /** Submit samples via binary COPY.
+     *  On error, re-submit them via batched INSERT
+     *  @throws Exception on error
+     */
+    private void flushCopy() throws Exception
+    {
+        final Connection connection = rdb.getConnection();
+        try
+        {
+            copy_sample.flush(connection);
+            if (copy_array != null)
+                copy_array.flush(connection);
+            connection.commit();
+        }
+        catch (final Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING,
+                "Binary COPY failed, using INSERT for " + batched_samples.size() + " samples", ex);
+            copy_sample.clear();
+            if (copy_array != null)
+                copy_array.clear();
+            connection.rollback();
+            // Replay the samples of this flush via INSERT.
+            // Rows that fail there are reported by flushBatches.
+            final int N = Math.min(batched_samples.size(), batched_channel.size());
+            for (int i=0; i<N; ++i)
+                batchSample(batched_channel.get(i), batched_samples.get(i));
+            flushBatches();
+            return;
+        }
+        batched_channel.clear();
+        batched_samples.clear();
+    }
+
+    /** Execute batched inserts */
+    private void flushBatches() throws Exception
     {
         try
         {
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import java.time.Instant;
+
+import org.csstudio.apputil.test.TestProperties;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVNumberArray;
+import org.csstudio.archive.writer.WriteChannel;
+import org.diirt.util.array.ArrayDouble;
+import org.diirt.util.text.NumberFormats;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.Display;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+import org.junit.Test;
+
+/** JUnit-based benchmark of INSERT vs. binary COPY for PostgreSQL
+ *
+ *  <p>Needs a PostgreSQL archive, for example on localhost,
+ *  configured via the same test properties as the {@link RDBArchiveWriterTest}.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PGBinaryCopyDemo
+{
+    final private static int TEST_DURATION_SECS = 30;
+    final private static long FLUSH_COUNT = 500;
+    final private static int WAVEFORM_SIZE = 1000;
+
+    final private Display display = ValueFactory.newDisplay(0.0, 1.0, 2.0, "a.u.", NumberFormats.format(2), 8.0, 9.0, 10.0, 0.0, 10.0);
+
+    /** Sample generator */
+    private interface SampleMaker
+    {
+        VType create(Instant time, long count);
+    }
+
+    /** @param use_copy Use binary COPY?
+     *  @param waveform Write waveform, or scalar?
+     */
+    private void runBenchmark(final boolean use_copy, final boolean waveform) throws Exception
+    {
+        final TestProperties settings = new TestProperties();
+        final String url = settings.getString("archive_rdb_url");
+        final String user = settings.getString("archive_rdb_user");
+        final String password = settings.getString("archive_rdb_password");
+        final String schema = settings.getString("archive_rdb_schema");
+        final String name = waveform ? settings.getString("archive_array_channel")
+                                     : settings.getString("archive_channel");
+        if (url == null  ||  !url.startsWith("jdbc:postgresql")  ||  user == null  ||  password == null  ||  name == null)
+        {
+            System.out.println("Skipping test, no PostgreSQL archive_rdb_url, user, password, channel");
+            return;
+        }
+        final boolean use_blob = Boolean.parseBoolean(settings.getString("archive_use_blob"));
+
+        final SampleMaker maker;
+        if (waveform)
+        {
+            final double[] template = new double[WAVEFORM_SIZE];
+            for (int i=0; i<WAVEFORM_SIZE; ++i)
+                template[i] = Math.sin(i * 0.01);
+            maker = (time, count) ->
+            {
+                final double[] data = template.clone();
+                data[0] = count;
+                return new ArchiveVNumberArray(time, AlarmSeverity.NONE, "OK", display, new ArrayDouble(data));
+            };
+        }
+        else
+            maker = (time, count) -> new ArchiveVNumber(time, AlarmSeverity.NONE, "OK", display, count * 0.1);
+
+        final RDBArchiveWriter writer = new RDBArchiveWriter(url, user, password, schema, use_blob, use_copy);
+        try
+        {
+            final WriteChannel channel = writer.getChannel(name);
+            // Use made-up, increasing time stamps to avoid duplicates
+            final Instant base = Instant.now();
+            long count = 0;
+            final long start = System.currentTimeMillis();
+            final long end = start + TEST_DURATION_SECS*1000L;
+            do
+            {
+                ++count;
+                writer.addSample(channel, maker.create(base.plusNanos(count*1000), count));
+                if (count % FLUSH_COUNT == 0)
+                    writer.flush();
+            }
+            while (System.currentTimeMillis() < end);
+            writer.flush();
+            final double secs = (System.currentTimeMillis() - start) / 1000.0;
+            System.out.format("%-6s %-8s: %10d samples in %.1f sec = %10.1f samples/sec\n",
+                              use_copy ? "COPY" : "INSERT",
+                              waveform ? "waveform" : "scalar",
+                              count, secs, count / secs);
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void benchmarkScalar() throws Exception
+    {
+        runBenchmark(false, false);
+        runBenchmark(true, false);
+    }
+
+    @Test
+    public void benchmarkWaveform() throws Exception
+    {
+        runBenchmark(false, true);
+        runBenchmark(true, true);
+    }
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.diirt.util.array.ArrayDouble;
+import org.junit.Test;
+
+/** JUnit test of the PostgreSQL binary COPY encoding
+ *
+ *  <p>Decodes the buffer according to the PGCOPY layout:
+ *  Signature, flags, header extension length,
+ *  then per row the field count and for each field
+ *  its length (-1 for NULL) and big-endian value,
+ *  and finally a field count of -1 as trailer.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PGBinaryCopyUnitTest
+{
+    /** Microseconds from 1970-01-01 to the PostgreSQL epoch 2000-01-01 */
+    private static final long PG_EPOCH_MICROS = 946684800000000L;
+
+    private static final String[] COLUMNS =
+    {
+        "channel_id", "big", "small", "float_val", "single", "smpl_time", "local_time", "str_val", "datatype", "num_val"
+    };
+
+    private static final String[] TYPES =
+    {
+        "int4", "int8", "int2", "float8", "float4", "timestamptz", "timestamp", "varchar", "bytea", "int4"
+    };
+
+    /** @return Input positioned after the checked header */
+    private DataInputStream openData(final PGBinaryCopy copy) throws Exception
+    {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(copy.getCopyData()));
+        final byte[] signature = new byte[11];
+        in.readFully(signature);
+        assertArrayEquals(new byte[] { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 }, signature);
+        // Flags
+        assertThat(in.readInt(), equalTo(0));
+        // Header extension length
+        assertThat(in.readInt(), equalTo(0));
+        return in;
+    }
+
+    private void addRow(final PGBinaryCopy copy, final long id, final Timestamp stamp, final Timestamp local) throws Exception
+    {
+        copy.startRow();
+        copy.addLong(id);
+        copy.addLong(-1234567890123L);
+        copy.addLong(-7);
+        copy.addDouble(3.14);
+        copy.addDouble(2.5);
+        copy.addTimestamp(stamp);
+        copy.addTimestamp(local);
+        copy.addString("Text µ");
+        copy.addDoubleArrayBlob(new ArrayDouble(1.0, 2.5, -3.0));
+        copy.addNull();
+        copy.endRow();
+    }
+
+    private void checkRow(final DataInputStream in, final long id, final long stamp_micros, final long local_micros) throws Exception
+    {
+        assertThat(in.readShort(), equalTo((short) COLUMNS.length));
+
+        assertThat(in.readInt(), equalTo(4));
+        assertThat((long) in.readInt(), equalTo(id));
+
+        assertThat(in.readInt(), equalTo(8));
+        assertThat(in.readLong(), equalTo(-1234567890123L));
+
+        assertThat(in.readInt(), equalTo(2));
+        assertThat(in.readShort(), equalTo((short) -7));
+
+        assertThat(in.readInt(), equalTo(8));
+        assertThat(in.readDouble(), equalTo(3.14));
+
+        assertThat(in.readInt(), equalTo(4));
+        assertThat(in.readFloat(), equalTo(2.5f));
+
+        assertThat(in.readInt(), equalTo(8));
+        assertThat(in.readLong(), equalTo(stamp_micros));
+
+        assertThat(in.readInt(), equalTo(8));
+        assertThat(in.readLong(), equalTo(local_micros));
+
+        final byte[] expected = "Text µ".getBytes(StandardCharsets.UTF_8);
+        assertThat(in.readInt(), equalTo(expected.length));
+        final byte[] text = new byte[expected.length];
+        in.readFully(text);
+        assertArrayEquals(expected, text);
+
+        assertThat(in.readInt(), equalTo(4 + 3*8));
+        assertThat(in.readInt(), equalTo(3));
+        assertThat(in.readDouble(), equalTo(1.0));
+        assertThat(in.readDouble(), equalTo(2.5));
+        assertThat(in.readDouble(), equalTo(-3.0));
+
+        // NULL
+        assertThat(in.readInt(), equalTo(-1));
+    }
+
+    @Test
+    public void testEncoding() throws Exception
+    {
+        final PGBinaryCopy copy = new PGBinaryCopy("archive.sample", COLUMNS, TYPES);
+
+        // 'timestamptz' is the time since epoch
+        final Timestamp stamp = Timestamp.from(Instant.ofEpochSecond(1500000000L, 123456789));
+        final long stamp_micros = 1500000000L * 1000000L + 123456 - PG_EPOCH_MICROS;
+        // 'timestamp' is the local time, 1 second and 1 microsecond after the PostgreSQL epoch
+        final Timestamp local = Timestamp.valueOf(LocalDateTime.of(2000, 1, 1, 0, 0, 1, 1000));
+
+        addRow(copy, 1, stamp, local);
+        addRow(copy, 2, stamp, local);
+        assertThat(copy.getRowCount(), equalTo(2));
+
+        final DataInputStream in = openData(copy);
+        checkRow(in, 1, stamp_micros, 1000001L);
+        checkRow(in, 2, stamp_micros, 1000001L);
+        // Trailer
+        assertThat(in.readShort(), equalTo((short) -1));
+        assertThat(in.available(), equalTo(0));
+    }
+
+    @Test
+    public void testTimestampBeforePGEpoch() throws Exception
+    {
+        final PGBinaryCopy copy = new PGBinaryCopy("sample", new String[] { "smpl_time" }, new String[] { "timestamptz" });
+        copy.startRow();
+        // 1 ms and 1 us before 1970-01-01 floors to the second before 1970
+        copy.addTimestamp(Timestamp.from(Instant.ofEpochSecond(-1, 998999000)));
+        copy.endRow();
+
+        final DataInputStream in = openData(copy);
+        assertThat(in.readShort(), equalTo((short) 1));
+        assertThat(in.readInt(), equalTo(8));
+        assertThat(in.readLong(), equalTo(-1001L - PG_EPOCH_MICROS));
+        assertThat(in.readShort(), equalTo((short) -1));
+    }
+
+    @Test
+    public void testCancelRow() throws Exception
+    {
+        final PGBinaryCopy copy = new PGBinaryCopy("sample", new String[] { "channel_id", "small" }, new String[] { "int4", "int2" });
+        copy.startRow();
+        copy.addLong(1);
+        try
+        {
+            copy.addLong(100000);
+            fail("Value exceeds INT2");
+        }
+        catch (Exception ex)
+        {
+            // Expected
+        }
+        copy.cancelRow();
+        assertThat(copy.getRowCount(), equalTo(0));
+
+        copy.startRow();
+        copy.addLong(2);
+        copy.addLong(3);
+        copy.endRow();
+
+        final DataInputStream in = openData(copy);
+        assertThat(in.readShort(), equalTo((short) 2));
+        assertThat(in.readInt(), equalTo(4));
+        assertThat(in.readInt(), equalTo(2));
+        assertThat(in.readInt(), equalTo(2));
+        assertThat(in.readShort(), equalTo((short) 3));
+        assertThat(in.readShort(), equalTo((short) -1));
+        assertThat(in.available(), equalTo(0));
+    }
+
+    @Test(expected=Exception.class)
+    public void testUnsupportedType() throws Exception
+    {
+        new PGBinaryCopy("sample", new String[] { "num_val" }, new String[] { "numeric" });
+    }
+}
@@ -3,6 +3,8 @@
  */
 package org.csstudio.autocomplete.channelfinder;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -13,6 +15,8 @@ import gov.bnl.channelfinder.api.ChannelFinderClient;
 import org.csstudio.autocomplete.AutoCompleteHelper;
 import org.csstudio.autocomplete.AutoCompleteResult;
 import org.csstudio.autocomplete.IAutoCompleteProvider;
+import org.csstudio.autocomplete.index.PVNameIndex;
+import org.csstudio.autocomplete.index.PVNameIndexService;
 import org.csstudio.autocomplete.parser.ContentDescriptor;
 import org.csstudio.autocomplete.parser.ContentType;
 import org.csstudio.autocomplete.proposals.Proposal;
@@ -20,6 +24,10 @@ import org.csstudio.autocomplete.proposals.ProposalStyle;
 
 /**
  * Autocomplete support using the Channelfinder directory service
+ * <p>
+ * Names are looked up in the {@link PVNameIndexService}, which is loaded from
+ * Channelfinder by the {@link ChannelFinderNameSource}. Until that index is
+ * available, Channelfinder is queried directly.
  *
  * @author shroffk
  *
@@ -38,32 +46,49 @@ public class AutoCompleteChannelFinderProvider implements IAutoCompleteProvider
     @Override
     public AutoCompleteResult listResult(ContentDescriptor desc, int limit) {
     AutoCompleteResult result = new AutoCompleteResult();
+    String trimmedName = AutoCompleteHelper.trimWildcards(desc.getValue().trim());
+    PVNameIndex index = PVNameIndexService.getInstance().getIndex();
+    if (index.size() > 0) {
+        // Look up names in the local index, no need to query Channelfinder
+        if (trimmedName.isEmpty())
+        return result;
+        List<String> names;
+        if (trimmedName.contains("*") || trimmedName.contains("?"))
+        names = index.findGlob("*" + trimmedName + "*", limit);
+        else
+        names = index.find(trimmedName, limit);
+        addProposals(result, trimmedName, names, limit);
+        return result;
+    }
     if(desc.getValue().trim().length() > 8){
         if (client == null) {
         client = ChannelFinder.getClient();
         }
-        String trimmedName = AutoCompleteHelper.trimWildcards(desc.getValue().trim());
-        Pattern namePattern = AutoCompleteHelper.convertToPattern(trimmedName);
-        int count = 0;
-        for (Channel channel : client.findByName("*" + trimmedName + "*")) {
-        if (count < limit) {
-            Proposal proposal = new Proposal(channel.getName(), false);
-            Matcher m = namePattern.matcher(channel.getName());
-            if (m.find()) {
-            proposal.addStyle(ProposalStyle.getDefault(m.start(), m.end() - 1));
-            result.addProposal(proposal);
-            count++;
-            }
-        } else {
-            result.setCount(count);
-            return result;
-        }
-        }
-    result.setCount(count);
+        List<String> names = new ArrayList<String>();
+        for (Channel channel : client.findByName("*" + trimmedName + "*"))
+        names.add(channel.getName());
+        addProposals(result, trimmedName, names, limit);
     }
     return result;
     }
 
+    private void addProposals(AutoCompleteResult result, String trimmedName, List<String> names, int limit) {
+    Pattern namePattern = AutoCompleteHelper.convertToPattern(trimmedName);
+    int count = 0;
+    for (String name : names) {
+        if (count >= limit)
+        break;
+        Proposal proposal = new Proposal(name, false);
+        Matcher m = namePattern.matcher(name);
+        if (m.find()) {
+        proposal.addStyle(ProposalStyle.getDefault(m.start(), m.end() - 1));
+        result.addProposal(proposal);
+        count++;
+        }
+    }
+    result.setCount(count);
+    }
+
     @Override
     public void cancel() {
 
@@ -0,0 +1,38 @@
+/**
+ *
+ */
+package org.csstudio.autocomplete.channelfinder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import gov.bnl.channelfinder.api.Channel;
+import gov.bnl.channelfinder.api.ChannelFinder;
+
+import org.csstudio.autocomplete.index.PVNameSource;
+
+/**
+ * Bulk-loads all channel names from the Channelfinder directory service
+ * for the PV name index
+ *
+ * @author agent
+ *
+ */
+public class ChannelFinderNameSource implements PVNameSource {
+
+    @Override
+    public Collection<String> getNames() throws Exception {
+    final Collection<Channel> channels = ChannelFinder.getClient().getAllChannels();
+    final List<String> names = new ArrayList<String>(channels.size());
+    for (Channel channel : channels)
+        names.add(channel.getName());
+    return names;
+    }
+
+    @Override
+    public String toString() {
+    return "ChannelFinder";
+    }
+
+}
@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.archive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.archive.reader.ArchiveInfo;
+import org.csstudio.archive.reader.ArchiveReader;
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.trends.databrowser2.model.ArchiveDataSource;
+import org.csstudio.trends.databrowser2.model.PVItem;
+import org.csstudio.trends.databrowser2.model.PVSamples;
+import org.csstudio.trends.databrowser2.model.PlotSample;
+import org.diirt.util.time.Timestamp;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+import org.junit.Test;
+
+/** [Headless] JUnit Plug-in test of ArchiveFetchJob
+ *  reading several archive data sources in parallel,
+ *  using demo readers instead of actual archives.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ArchiveFetchJobSourcesTest implements ArchiveFetchJobListener
+{
+    private volatile boolean completed = false;
+    private volatile Exception error = null;
+
+    /** Demo reader that returns fixed samples */
+    private static class DemoReader implements ArchiveReader
+    {
+        final private String name;
+        final private List<VType> values;
+        final private long delay_ms;
+        final private CountDownLatch cancelled = new CountDownLatch(1);
+        final private CountDownLatch closed = new CountDownLatch(1);
+        volatile boolean blocking = false;
+        /** Number of samples after which the reader hangs until cancelled */
+        volatile int hang_after = Integer.MAX_VALUE;
+
+        /** @param name Server name
+         *  @param values Samples to return
+         *  @param delay_ms Delay before each sample
+         */
+        DemoReader(final String name, final List<VType> values, final long delay_ms)
+        {
+            this.name = name;
+            this.values = values;
+            this.delay_ms = delay_ms;
+        }
+
+        @Override
+        public String getServerName()
+        {
+            return name;
+        }
+
+        @Override
+        public String getURL()
+        {
+            return "demo:" + name;
+        }
+
+        @Override
+        public String getDescription()
+        {
+            return name;
+        }
+
+        @Override
+        public int getVersion()
+        {
+            return 1;
+        }
+
+        @Override
+        public ArchiveInfo[] getArchiveInfos()
+        {
+            return new ArchiveInfo[0];
+        }
+
+        @Override
+        public String[] getNamesByPattern(final int key, final String glob_pattern) throws Exception
+        {
+            return new String[0];
+        }
+
+        @Override
+        public String[] getNamesByRegExp(final int key, final String reg_exp) throws Exception
+        {
+            return new String[0];
+        }
+
+        @Override
+        public ValueIterator getRawValues(final int key, final String name,
+                final Instant start, final Instant end) throws Exception
+        {
+            return new ValueIterator()
+            {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext()
+                {
+                    try
+                    {
+                        if (blocking  ||  index >= hang_after)
+                        {   // Hang until cancelled
+                            cancelled.await();
+                            return false;
+                        }
+                        if (cancelled.await(delay_ms, TimeUnit.MILLISECONDS))
+                            return false;
+                    }
+                    catch (InterruptedException ex)
+                    {
+                        return false;
+                    }
+                    return index < values.size();
+                }
+
+                @Override
+                public VType next() throws Exception
+                {
+                    return values.get(index++);
+                }
+
+                @Override
+                public void close()
+                {
+                    // NOP
+                }
+            };
+        }
+
+        @Override
+        public ValueIterator getOptimizedValues(final int key, final String name,
+                final Instant start, final Instant end, final int count) throws Exception
+        {
+            return getRawValues(key, name, start, end);
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled.countDown();
+        }
+
+        @Override
+        public void close()
+        {
+            closed.countDown();
+        }
+    }
+
+    /** ArchiveFetchJob that uses demo readers */
+    private static class DemoFetchJob extends ArchiveFetchJob
+    {
+        final private Map<String, DemoReader> readers;
+
+        DemoFetchJob(final PVItem item, final Map<String, DemoReader> readers,
+                     final ArchiveFetchJobListener listener)
+        {
+            super(item, Instant.ofEpochSecond(0), Instant.ofEpochSecond(100), listener);
+            this.readers = readers;
+        }
+
+        @Override
+        protected ArchiveReader getArchiveReader(final String url) throws Exception
+        {
+            return readers.get(url);
+        }
+    }
+
+    /** @param start First time stamp in seconds
+     *  @param end Last time stamp in seconds
+     *  @param value Value of all samples
+     *  @return Samples
+     */
+    private static List<VType> makeValues(final int start, final int end, final double value)
+    {
+        final List<VType> values = new ArrayList<>();
+        for (int t=start; t<=end; ++t)
+            values.add(ValueFactory.newVDouble(value, ValueFactory.newTime(Timestamp.of(t, 0))));
+        return values;
+    }
+
+    /** Later data source replaces the overlapping section of an earlier one,
+     *  even when the later source completes first
+     */
+    @Test(timeout=60000)
+    public void testOverlappingSources() throws Exception
+    {
+        final PVItem item = new PVItem("demo", 1.0);
+        item.addArchiveDataSource(new ArchiveDataSource("demo:a", 1, "A"));
+        item.addArchiveDataSource(new ArchiveDataSource("demo:b", 1, "B"));
+        final Map<String, DemoReader> readers = new HashMap<>();
+        // 'A' is slow, 'B' completes first
+        readers.put("demo:a", new DemoReader("A", makeValues(0, 10, 1.0), 20));
+        readers.put("demo:b", new DemoReader("B", makeValues(5, 15, 2.0), 0));
+
+        final ArchiveFetchJob job = new DemoFetchJob(item, readers, this);
+        job.schedule();
+        job.join();
+        assertTrue(completed);
+        assertEquals(null, error);
+
+        // A for 0..4, then B for 5..15, no interleaving
+        final PVSamples samples = item.getSamples();
+        samples.getLock().lock();
+        try
+        {
+            // Samples may include the continuation until 'now'
+            assertTrue(samples.size() >= 16);
+            Instant last = null;
+            for (int i=0; i<16; ++i)
+            {
+                final PlotSample sample = samples.get(i);
+                assertEquals(Instant.ofEpochSecond(i), sample.getPosition());
+                assertEquals(i < 5 ? 1.0 : 2.0, sample.getValue(), 0.01);
+                assertEquals(i < 5 ? "A" : "B", sample.getSource());
+                if (last != null)
+                    assertTrue(sample.getPosition().isAfter(last));
+                last = sample.getPosition();
+            }
+        }
+        finally
+        {
+            samples.getLock().unlock();
+        }
+        for (DemoReader reader : readers.values())
+            assertTrue(reader.closed.await(1, TimeUnit.SECONDS));
+    }
+
+    /** Samples of the first data source are merged while it is still reading,
+     *  samples of a later data source only once the earlier ones are complete
+     */
+    @Test(timeout=60000)
+    public void testPartialResults() throws Exception
+    {
+        final PVItem item = new PVItem("demo", 1.0);
+        item.addArchiveDataSource(new ArchiveDataSource("demo:a", 1, "A"));
+        item.addArchiveDataSource(new ArchiveDataSource("demo:b", 1, "B"));
+        final Map<String, DemoReader> readers = new HashMap<>();
+        // 'A' hangs after 5 samples, 'B' completes right away
+        final DemoReader a = new DemoReader("A", makeValues(0, 10, 1.0), 0);
+        a.hang_after = 5;
+        readers.put("demo:a", a);
+        readers.put("demo:b", new DemoReader("B", makeValues(5, 15, 2.0), 0));
+
+        final ArchiveFetchJob job = new DemoFetchJob(item, readers, this);
+        job.schedule();
+
+        // First samples of 'A' are merged after the poll period
+        final PVSamples samples = item.getSamples();
+        while (samples.size() < 5)
+            Thread.sleep(100);
+        // Give the worker time to (wrongly) merge 'B'
+        Thread.sleep(2000);
+        samples.getLock().lock();
+        try
+        {
+            assertTrue(samples.size() >= 5);
+            for (int i=0; i<samples.size(); ++i)
+                assertEquals("A", samples.get(i).getSource());
+        }
+        finally
+        {
+            samples.getLock().unlock();
+        }
+
+        job.cancel();
+        job.join();
+        assertFalse(completed);
+        assertEquals(null, error);
+    }
+
+    /** Cancelling the job cancels and closes all readers */
+    @Test(timeout=60000)
+    public void testCancellation() throws Exception
+    {
+        final PVItem item = new PVItem("demo", 1.0);
+        item.addArchiveDataSource(new ArchiveDataSource("demo:a", 1, "A"));
+        item.addArchiveDataSource(new ArchiveDataSource("demo:b", 1, "B"));
+        final Map<String, DemoReader> readers = new HashMap<>();
+        final DemoReader a = new DemoReader("A", makeValues(0, 10, 1.0), 0);
+        final DemoReader b = new DemoReader("B", makeValues(5, 15, 2.0), 0);
+        // Both readers hang until cancelled
+        a.blocking = true;
+        b.blocking = true;
+        readers.put("demo:a", a);
+        readers.put("demo:b", b);
+
+        final ArchiveFetchJob job = new DemoFetchJob(item, readers, this);
+        job.schedule();
+        // Let readers start, then cancel
+        Thread.sleep(500);
+        job.cancel();
+        job.join();
+
+        assertTrue(a.cancelled.await(5, TimeUnit.SECONDS));
+        assertTrue(b.cancelled.await(5, TimeUnit.SECONDS));
+        assertTrue(a.closed.await(5, TimeUnit.SECONDS));
+        assertTrue(b.closed.await(5, TimeUnit.SECONDS));
+        assertFalse(completed);
+        assertEquals(null, error);
+        assertEquals(0, item.getSamples().size());
+    }
+
+    @Override
+    public void fetchCompleted(final ArchiveFetchJob job)
+    {
+        completed = true;
+    }
+
+    @Override
+    public void archiveFetchFailed(final ArchiveFetchJob job,
+            final ArchiveDataSource archive, final Exception error)
+    {
+        this.error = error;
+    }
+}
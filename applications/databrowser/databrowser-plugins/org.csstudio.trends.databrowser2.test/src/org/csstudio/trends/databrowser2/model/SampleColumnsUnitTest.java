@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVNumberArray;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.VStatistics;
+import org.diirt.vtype.VType;
+import org.junit.Test;
+
+/** JUnit test for SampleColumns
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SampleColumnsUnitTest
+{
+    private static List<VType> makeValues(final int start, final int end, final double offset)
+    {
+        final List<VType> values = new ArrayList<>();
+        for (int i=start; i<end; ++i)
+            values.add(new ArchiveVNumber(Instant.ofEpochSecond(i), AlarmSeverity.NONE, "OK", null, i + offset));
+        return values;
+    }
+
+    /** Merging into columns must have the same result as the PlotSampleMerger */
+    @Test
+    public void testMerge()
+    {
+        final AtomicInteger waveform_index = new AtomicInteger(0);
+        final Random random = new Random(42);
+        for (int run=0; run<100; ++run)
+        {
+            final SampleColumns columns = new SampleColumns();
+            PlotSample[] expected = new PlotSample[0];
+            for (int merge=0; merge<5; ++merge)
+            {
+                final int start = random.nextInt(50);
+                final List<VType> values = makeValues(start, start + random.nextInt(20), merge * 0.1);
+                columns.merge(Collections.nCopies(values.size(), "Test"), values);
+
+                final PlotSample[] add = new PlotSample[values.size()];
+                for (int i=0; i<add.length; ++i)
+                    add[i] = new PlotSample("Test", values.get(i));
+                expected = PlotSampleMerger.merge(expected, add);
+
+                assertEquals(expected.length, columns.size());
+                for (int i=0; i<expected.length; ++i)
+                {
+                    final PlotSample sample = columns.get(i, waveform_index);
+                    assertEquals(expected[i].getPosition(), sample.getPosition());
+                    assertEquals(expected[i].getValue(), sample.getValue(), 0.0);
+                }
+            }
+        }
+    }
+
+    /** Statistics and alarm info must survive the columns */
+    @Test
+    public void testStatistics()
+    {
+        final AtomicInteger waveform_index = new AtomicInteger(0);
+        final SampleColumns columns = new SampleColumns();
+        final List<VType> values = new ArrayList<>();
+        values.add(new ArchiveVStatistics(Instant.ofEpochSecond(1), AlarmSeverity.MINOR, "HIGH", null, 1.0, 0.5, 2.0, 0.1, 10));
+        values.add(new ArchiveVNumber(Instant.ofEpochSecond(2), AlarmSeverity.NONE, "OK", null, 3));
+        columns.merge(Collections.nCopies(values.size(), "Test"), values);
+        assertEquals(2, columns.size());
+
+        PlotSample sample = columns.get(0, waveform_index);
+        assertEquals(1.0, sample.getValue(), 0.0);
+        assertEquals(0.5, sample.getMin(), 0.0);
+        assertEquals(2.0, sample.getMax(), 0.0);
+        assertEquals(AlarmSeverity.MINOR, sample.getSeverity());
+        final VStatistics stats = (VStatistics) sample.getVType();
+        assertEquals("HIGH", stats.getAlarmName());
+        assertEquals(10, stats.getNSamples().intValue());
+
+        sample = columns.get(1, waveform_index);
+        assertEquals(Double.NaN, sample.getMin(), 0.0);
+        assertEquals(Integer.valueOf(3), ((ArchiveVNumber) sample.getVType()).getValue());
+    }
+
+    /** Access by index must match the {@link PlotSample} */
+    @Test
+    public void testIndexedAccess()
+    {
+        final AtomicInteger waveform_index = new AtomicInteger(0);
+        final SampleColumns columns = new SampleColumns();
+        final List<VType> values = new ArrayList<>();
+        values.add(new ArchiveVStatistics(Instant.ofEpochSecond(1, 500000000), AlarmSeverity.MINOR, "HIGH", null, 1.0, 0.5, 2.0, 0.1, 10));
+        values.add(new ArchiveVNumber(Instant.ofEpochSecond(2), AlarmSeverity.MAJOR, "HIHI", null, 3));
+        values.add(new ArchiveVNumberArray(Instant.ofEpochSecond(3), AlarmSeverity.NONE, "OK", null, 4.0, 5.0));
+        columns.merge(Collections.nCopies(values.size(), "Test"), values);
+
+        for (int wf=0; wf<2; ++wf)
+        {
+            waveform_index.set(wf);
+            for (int i=0; i<values.size(); ++i)
+            {
+                final PlotSample sample = columns.get(i, waveform_index);
+                final Instant time = sample.getPosition();
+                assertEquals(time.getEpochSecond() * 1000000000L + time.getNano(), columns.getEpochNanos(i));
+                assertEquals(time.getEpochSecond() + 1e-9*time.getNano(), columns.getEpochSeconds(i), 1e-9);
+                assertEquals(sample.getValue(), columns.getValue(i, waveform_index), 0.0);
+                assertEquals(sample.getMin(), columns.getMin(i, waveform_index), 0.0);
+                assertEquals(sample.getMax(), columns.getMax(i, waveform_index), 0.0);
+                assertEquals(sample.getStdDev(), columns.getStdDev(i, waveform_index), 0.0);
+                assertEquals(sample.getSeverity(), columns.getSeverity(i));
+            }
+        }
+        waveform_index.set(1);
+        assertEquals(5.0, columns.getValue(2, waveform_index), 0.0);
+    }
+}
@@ -10,8 +10,10 @@ package org.csstudio.trends.databrowser2.archive;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
 import org.csstudio.apputil.time.BenchmarkTimer;
@@ -26,6 +28,7 @@ import org.csstudio.trends.databrowser2.model.PVItem;
 import org.csstudio.trends.databrowser2.model.RequestType;
 import org.csstudio.trends.databrowser2.model.TimeHelper;
 import org.csstudio.trends.databrowser2.preferences.Preferences;
+import org.diirt.vtype.Time;
 import org.diirt.vtype.VType;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -38,6 +41,13 @@ import org.eclipse.osgi.util.NLS;
  *  Actually spawns another thread so that the 'main' job can
  *  poll the progress monitor for cancellation and ask the secondary
  *  thread to cancel.
+ *  <p>
+ *  The archive data sources of the item are read in parallel,
+ *  each by a {@link SourceReader} whose samples are taken in chunks.
+ *  The secondary thread adds the chunks of the first data source to the item
+ *  as they arrive. Chunks of later data sources are held until all
+ *  earlier data sources are complete, so where their time ranges overlap,
+ *  the later data source takes precedence.
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -46,6 +56,12 @@ public class ArchiveFetchJob extends Job
     /** Poll period in millisecs */
     private static final int POLL_PERIOD_MS = 1000;
 
+    /** Number of samples after which a chunk is merged before the end of the poll period */
+    private static final int CHUNK_SIZE = 1000;
+
+    /** Marks the end of the chunks of a source reader */
+    private static final List<VType> END_OF_SAMPLES = new ArrayList<>(0);
+
     /**to manage concurrency on postgresql*/
     private final boolean concurrency;
 
@@ -58,6 +74,205 @@ public class ArchiveFetchJob extends Job
     /** Listener that's notified when (if) we completed OK */
     final private ArchiveFetchJobListener listener;
 
+    /** Reads samples from one archive data source.
+     *
+     *  Runs in its own thread.
+     *  The WorkerThread takes the samples in chunks while the source is read.
+     */
+    private class SourceReader implements Runnable
+    {
+        final private WorkerThread worker;
+        final private ArchiveDataSource archive;
+        final private int bins;
+
+        /** Set when the channel is not known to the archive */
+        private volatile boolean unknown_channel = false;
+
+        /** Archive reader that's currently queried.
+         *  Synchronize 'this' on access.
+         */
+        private ArchiveReader reader = null;
+
+        /** Name of the archive server, set once the reader is available */
+        private volatile String server_name;
+
+        /** Samples read from the archive that have not been taken.
+         *  Synchronize on access.
+         */
+        final private List<VType> pending = new ArrayList<>();
+
+        /** Number of samples at the start of 'pending' that were already taken. SYNC on pending */
+        private int repeated = 0;
+
+        /** Set when the reader is done. SYNC on pending */
+        private boolean done = false;
+
+        /** Number of samples read from the archive */
+        private volatile long sample_count = 0;
+
+        SourceReader(final WorkerThread worker, final ArchiveDataSource archive, final int bins)
+        {
+            this.worker = worker;
+            this.archive = archive;
+            this.bins = bins;
+        }
+
+        /** Cancel ongoing archive request */
+        public void cancel()
+        {
+            synchronized (this)
+            {
+                if (reader != null)
+                    reader.cancel();
+            }
+        }
+
+        /** Read samples from the archive */
+        @Override
+        public void run()
+        {
+            final String url = archive.getUrl();
+            try
+            {
+                final ArchiveReader the_reader = getArchiveReader(url);
+                synchronized (this)
+                {
+                    reader = the_reader;
+                }
+                // Handle cancellation while reader was created
+                if (worker.cancelled)
+                    return;
+                server_name = the_reader.getServerName();
+                the_reader.enableConcurrency(concurrency);
+                final ValueIterator value_iter;
+                try
+                {
+                    if (item.getRequestType() == RequestType.RAW)
+                        value_iter = the_reader.getRawValues(archive.getKey(), item.getResolvedName(),
+                                                             start, end);
+                    else
+                        value_iter = the_reader.getOptimizedValues(archive.getKey(), item.getResolvedName(),
+                                                                   start, end, bins);
+                }
+                catch (UnknownChannelException e)
+                {
+                    // Do not immediately notify about unknown channels. First search for the data in all archive
+                    // sources and only report this kind of errors at the end
+                    unknown_channel = true;
+                    return;
+                }
+                try
+                {
+                    while (value_iter.hasNext()  &&  !worker.cancelled)
+                    {
+                        final VType sample = value_iter.next();
+                        ++sample_count;
+                        synchronized (pending)
+                        {
+                            pending.add(sample);
+                            if (pending.size() - repeated >= CHUNK_SIZE)
+                                pending.notifyAll();
+                        }
+                    }
+                }
+                finally
+                {
+                    value_iter.close();
+                }
+            }
+            catch (Exception ex)
+            {   // Tell listener unless it's the result of a 'cancel'?
+                if (! worker.cancelled)
+                    listener.archiveFetchFailed(ArchiveFetchJob.this, archive, ex);
+                // Other data sources continue
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    if (reader != null)
+                        reader.close();
+                    reader = null;
+                }
+                synchronized (pending)
+                {
+                    done = true;
+                    pending.notifyAll();
+                }
+            }
+        }
+
+        /** @param chunk Samples
+         *  @return Index of the first sample that has the time stamp of the last sample
+         */
+        private int findLastTimeRun(final List<VType> chunk)
+        {
+            int i = chunk.size() - 1;
+            final Instant last = getTime(chunk.get(i));
+            while (i > 0  &&  Objects.equals(getTime(chunk.get(i-1)), last))
+                --i;
+            return i;
+        }
+
+        private Instant getTime(final VType sample)
+        {
+            return sample instanceof Time ? ((Time) sample).getTimestamp() : null;
+        }
+
+        /** @return Archive data source */
+        public ArchiveDataSource getArchive()
+        {
+            return archive;
+        }
+
+        /** @return Archive server name, may be <code>null</code> when reader failed */
+        public String getServerName()
+        {
+            return server_name;
+        }
+
+        /** Take the samples read so far.
+         *
+         *  <p>Merging a chunk replaces the existing samples from its first to its last time stamp.
+         *  Each chunk therefore starts with the samples at the last time stamp of the previous chunk,
+         *  so that samples of earlier sources between two chunks are replaced as well.
+         *
+         *  @param timeout_ms Time to wait for a full chunk or the end of the samples
+         *  @return Next chunk of samples, {@link ArchiveFetchJob#END_OF_SAMPLES} when done,
+         *          <code>null</code> if there are no new samples
+         *  @throws InterruptedException when interrupted
+         */
+        public List<VType> takeChunk(final long timeout_ms) throws InterruptedException
+        {
+            synchronized (pending)
+            {
+                if (! done  &&  pending.size() - repeated < CHUNK_SIZE)
+                    pending.wait(timeout_ms);
+                if (pending.size() > repeated)
+                {
+                    // Keep the samples at the last time stamp for the next chunk
+                    final List<VType> chunk = new ArrayList<>(pending);
+                    pending.subList(0, done ? pending.size() : findLastTimeRun(pending)).clear();
+                    repeated = pending.size();
+                    return chunk;
+                }
+                return done ? END_OF_SAMPLES : null;
+            }
+        }
+
+        /** @return Number of samples read from the archive */
+        public long getSampleCount()
+        {
+            return sample_count;
+        }
+
+        /** @return <code>true</code> if the archive does not know the channel */
+        public boolean isChannelUnknown()
+        {
+            return unknown_channel;
+        }
+    }
+
     /** Thread that performs the actual background work.
      *
      *  Instead of directly accessing the archive, ArchiveFetchJob launches
@@ -71,10 +286,8 @@ public class ArchiveFetchJob extends Job
         private String message = "";
         private volatile boolean cancelled = false;
 
-        /** Archive reader that's currently queried.
-         *  Synchronize 'this' on access.
-         */
-        private volatile ArchiveReader reader = null;
+        /** Readers for all archive data sources */
+        private SourceReader[] sources = new SourceReader[0];
 
         /** @return Message that somehow indicates progress */
         public synchronized String getMessage()
@@ -86,10 +299,60 @@ public class ArchiveFetchJob extends Job
         public synchronized void cancel()
         {
             cancelled = true;
-            synchronized (this)
+            for (SourceReader source : sources)
+                source.cancel();
+        }
+
+        /** Merge the chunks of a source as they arrive, until the source is done
+         *  @param source Source reader
+         *  @return <code>true</code> if all chunks were merged
+         */
+        private boolean mergeChunks(final SourceReader source)
+        {
+            while (! cancelled)
             {
-                if (reader != null)
-                    reader.cancel();
+                final List<VType> chunk;
+                try
+                {
+                    chunk = source.takeChunk(POLL_PERIOD_MS);
+                }
+                catch (InterruptedException ex)
+                {
+                    return false;
+                }
+                if (chunk == END_OF_SAMPLES)
+                    return true;
+                // No new samples to check for cancellation, or chunk to merge
+                if (chunk != null  &&  !cancelled)
+                    item.mergeArchivedSamples(source.getServerName(), chunk);
+            }
+            return false;
+        }
+
+        /** Wait for a reader to complete
+         *  @param reader Reader
+         */
+        private void await(final Future<?> reader)
+        {
+            while (true)
+            {
+                try
+                {
+                    reader.get(POLL_PERIOD_MS, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                catch (TimeoutException ex)
+                {
+                    // Keep waiting, a cancelled reader still needs to close
+                }
+                catch (InterruptedException ex)
+                {
+                    return;
+                }
+                catch (Exception ex)
+                {   // Readers report their own errors
+                    return;
+                }
             }
         }
 
@@ -106,74 +369,51 @@ public class ArchiveFetchJob extends Job
             if (bins < 0)
                 bins = Activator.display_pixel_width * (- bins);
 
+            // Query all archive data sources in parallel
             final ArchiveDataSource archives[] = item.getArchiveDataSources();
-            List<ArchiveDataSource> sourcesWhereChannelDoesntExist = new ArrayList<>();
-            for (int i=0; i<archives.length && !cancelled; ++i)
+            synchronized (this)
             {
-                final ArchiveDataSource archive = archives[i];
-                final String url = archive.getUrl();
+                sources = new SourceReader[archives.length];
+                for (int i=0; i<archives.length; ++i)
+                    sources[i] = new SourceReader(this, archives[i], bins);
+            }
+            final List<Future<?>> readers = new ArrayList<>(archives.length);
+            for (SourceReader source : sources)
+                readers.add(Activator.getThreadPool().submit(source));
+
+            // Merge the chunks of each source in the order of the data sources.
+            // Where time ranges overlap, a later source replaces the samples
+            // of earlier sources, same as when reading them one by one.
+            // The first source's chunks are merged as they arrive,
+            // chunks of later sources are held until it's their turn.
+            for (int i=0; i<sources.length && !cancelled; ++i)
+            {
+                final SourceReader source = sources[i];
                 // Display "N/total", using '1' for the first sub-archive.
                 synchronized  (this)
                 {
                     message = NLS.bind(Messages.ArchiveFetchDetailFmt,
                             new Object[]
                             {
-                                archive.getName(),
+                                source.getArchive().getName(),
                                 (i+1),
                                 archives.length
                             });
                 }
-                try
-                {
-                    final ArchiveReader the_reader;
-                    synchronized (this)
-                    {
-                        the_reader = reader = ArchiveRepository.getInstance().getArchiveReader(url);
-                    }
-                    the_reader.enableConcurrency(concurrency);
-                    final ValueIterator value_iter;
-                    try
-                    {
-                        if (item.getRequestType() == RequestType.RAW)
-                            value_iter = the_reader.getRawValues(archive.getKey(), item.getResolvedName(),
-                                                                 start, end);
-                        else
-                            value_iter = the_reader.getOptimizedValues(archive.getKey(), item.getResolvedName(),
-                                                                       start, end, bins);
-                    }
-                    catch (UnknownChannelException e)
-                    {
-                        // Do not immediately notify about unknown channels. First search for the data in all archive
-                        // sources and only report this kind of errors at the end
-                        sourcesWhereChannelDoesntExist.add(archives[i]);
-                        continue;
-                    }
-                    // Get samples into array
-                    final List<VType> result = new ArrayList<VType>();
-                    while (value_iter.hasNext())
-                        result.add(value_iter.next());
-                    samples += result.size();
-                    item.mergeArchivedSamples(the_reader.getServerName(), result);
-                    if (cancelled)
-                        break;
-                    value_iter.close();
-                }
-                catch (Exception ex)
-                {   // Tell listener unless it's the result of a 'cancel'?
-                    if (! cancelled)
-                        listener.archiveFetchFailed(ArchiveFetchJob.this, archive, ex);
-                    // Continue with the next data source
-                }
-                finally
-                {
-                    synchronized (this)
-                    {
-                        if (reader != null)
-                            reader.close();
-                        reader = null;
-                    }
-                }
+                if (! mergeChunks(source))
+                    break;
             }
+
+            // Wait for readers to close their archive connections
+            for (Future<?> reader : readers)
+                await(reader);
+            for (SourceReader source : sources)
+                samples += source.getSampleCount();
+
+            final List<ArchiveDataSource> sourcesWhereChannelDoesntExist = new ArrayList<>();
+            for (SourceReader source : sources)
+                if (source.isChannelUnknown())
+                    sourcesWhereChannelDoesntExist.add(source.getArchive());
             if (!sourcesWhereChannelDoesntExist.isEmpty() && !cancelled)
             {
                 listener.channelNotFound(ArchiveFetchJob.this, sourcesWhereChannelDoesntExist.size() < archives.length,
@@ -231,6 +471,18 @@ public class ArchiveFetchJob extends Job
         this.concurrency = enableConcurrency;
     }
 
+    /** Create archive reader.
+     *
+     *  <p>Called from several threads, once per archive data source.
+     *  @param url Archive URL
+     *  @return {@link ArchiveReader} for that URL
+     *  @throws Exception on error
+     */
+    protected ArchiveReader getArchiveReader(final String url) throws Exception
+    {
+        return ArchiveRepository.getInstance().getArchiveReader(url);
+    }
+
     /** @return PVItem for which this job was created */
     public PVItem getPVItem()
     {
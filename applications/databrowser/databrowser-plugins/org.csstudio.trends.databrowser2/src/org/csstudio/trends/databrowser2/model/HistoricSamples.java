@@ -8,10 +8,12 @@
 package org.csstudio.trends.databrowser2.model;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.diirt.vtype.AlarmSeverity;
 import org.diirt.vtype.VType;
 
 /** Holder for 'historic' samples.
@@ -36,7 +38,7 @@ public class HistoricSamples extends PlotSamples
     // No locking in here, all access is via PVSamples
 
     /** "All" historic samples */
-    private PlotSample samples[] = new PlotSample[0];
+    final private SampleColumns samples = new SampleColumns();
 
     /** If set, samples beyond this time are hidden from access */
     private Optional<Instant> border_time = Optional.empty();
@@ -71,13 +73,9 @@ public class HistoricSamples extends PlotSamples
     private void computeVisibleSize()
     {
         if (border_time.isPresent())
-        {
-            final int last_index = PlotSampleSearch.findSampleLessThan(
-                    samples, border_time.get());
-            visible_size = (last_index < 0)   ?   0   :   last_index + 1;
-        }
+            visible_size = samples.countBefore(border_time.get());
         else
-            visible_size = samples.length;
+            visible_size = samples.size();
     }
 
     /** {@inheritDoc} */
@@ -87,7 +85,49 @@ public class HistoricSamples extends PlotSamples
     {
         if (i >= visible_size)
             throw new IndexOutOfBoundsException("Index " + i + " exceeds visible size " + visible_size);
-        return samples[i];
+        return samples.get(i, waveform_index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getPositionNumber(final int i)
+    {
+        return samples.getEpochSeconds(i);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getValue(final int i)
+    {
+        return samples.getValue(i, waveform_index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getStdDev(final int i)
+    {
+        return samples.getStdDev(i, waveform_index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMin(final int i)
+    {
+        return samples.getMin(i, waveform_index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMax(final int i)
+    {
+        return samples.getMax(i, waveform_index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AlarmSeverity getSeverity(final int i)
+    {
+        return samples.getSeverity(i);
     }
 
     /** {@inheritDoc} */
@@ -101,7 +141,7 @@ public class HistoricSamples extends PlotSamples
      * @return the number of samples, ignoring the border time
      */
     public int getRawSize() {
-        return samples.length;
+        return samples.size();
     }
 
     /**
@@ -111,7 +151,7 @@ public class HistoricSamples extends PlotSamples
      * @return the plot sample
      */
     public PlotSample getRawSample(int i) {
-        return samples[i];
+        return samples.get(i, waveform_index);
     }
 
     /** Merge newly received archive data into historic samples
@@ -120,25 +160,15 @@ public class HistoricSamples extends PlotSamples
      */
     public void mergeArchivedData(final String source, final List<VType> result)
     {
-        // Anything new at all?
-        if (result.size() <= 0)
-            return;
-        // Turn IValues into PlotSamples
-        final PlotSample new_samples[] = new PlotSample[result.size()];
-        for (int i=0; i<new_samples.length; ++i)
-            new_samples[i] = new PlotSample(waveform_index, source, result.get(i));
         // Merge with existing samples
-        final PlotSample merged[] = PlotSampleMerger.merge(samples, new_samples);
-        if (merged == samples)
-            return;
-        samples = merged;
-        computeVisibleSize();
+        if (samples.merge(Collections.nCopies(result.size(), source), result))
+            computeVisibleSize();
     }
 
     /** Delete all samples */
     public void clear()
     {
         visible_size = 0;
-        samples = new PlotSample[0];
+        samples.clear();
     }
 }
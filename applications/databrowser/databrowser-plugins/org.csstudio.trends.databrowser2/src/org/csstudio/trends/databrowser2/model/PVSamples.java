@@ -82,8 +82,7 @@ public class PVSamples extends PlotSamples
         final int raw = getRawSize();
         if (raw <= 0)
             return raw;
-        final PlotSample last = get(raw-1);
-        if (VTypeHelper.getSeverity(last.getVType()) == AlarmSeverity.UNDEFINED)
+        if (getSeverity(raw-1) == AlarmSeverity.UNDEFINED)
             return raw;
         // Last sample is valid, so it should still apply 'now'
         return raw+1;
@@ -126,6 +125,91 @@ public class PVSamples extends PlotSamples
         return live.get(index - num_old);
     }
 
+    /** @param index 0... getSize()-1
+     *  @return Section that holds the sample, <code>null</code> for the continuation until 'now'
+     */
+    private PlotSamples getSection(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history;
+        if (index < num_old + live.size())
+            return live;
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getPositionNumber(final int index)
+    {
+        final PlotSamples section = getSection(index);
+        if (section == history)
+            return history.getPositionNumber(index);
+        if (section == live)
+            return live.getPositionNumber(index - history.size());
+        return super.getPositionNumber(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getValue(final int index)
+    {
+        final PlotSamples section = getSection(index);
+        if (section == history)
+            return history.getValue(index);
+        if (section == live)
+            return live.getValue(index - history.size());
+        return super.getValue(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getStdDev(final int index)
+    {
+        final PlotSamples section = getSection(index);
+        if (section == history)
+            return history.getStdDev(index);
+        if (section == live)
+            return live.getStdDev(index - history.size());
+        return super.getStdDev(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMin(final int index)
+    {
+        final PlotSamples section = getSection(index);
+        if (section == history)
+            return history.getMin(index);
+        if (section == live)
+            return live.getMin(index - history.size());
+        return super.getMin(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMax(final int index)
+    {
+        final PlotSamples section = getSection(index);
+        if (section == history)
+            return history.getMax(index);
+        if (section == live)
+            return live.getMax(index - history.size());
+        return super.getMax(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AlarmSeverity getSeverity(final int index)
+    {
+        final PlotSamples section = getSection(index);
+        if (section == history)
+            return history.getSeverity(index);
+        if (section == live)
+            return live.getSeverity(index - history.size());
+        return super.getSeverity(index);
+    }
+
     /** Test if samples changed since the last time
      *  <code>testAndClearNewSamplesFlag</code> was called.
      *  @return <code>true</code> if there were new samples
@@ -193,7 +277,7 @@ public class PVSamples extends PlotSamples
         {
             // Skip the initial UNDEFINED/Disconnected sample sent by PVManager
             if (live.size() == 0  &&
-                VTypeHelper.getSeverity(sample.getVType()) == AlarmSeverity.UNDEFINED)
+                sample.getSeverity() == AlarmSeverity.UNDEFINED)
                 return;
             live.add(sample);
             // History ends before the start of 'live' samples.
@@ -111,6 +111,12 @@ public class PlotSample implements PlotDataItem<Instant>
         return value;
     }
 
+    /** @return Alarm severity of the value */
+    public AlarmSeverity getSeverity()
+    {
+        return VTypeHelper.getSeverity(value);
+    }
+
     /** @return Control system time stamp */
     private Instant getTime()
     {
@@ -187,6 +193,6 @@ public class PlotSample implements PlotDataItem<Instant>
     @Override
     public String toString()
     {
-        return VTypeHelper.toString(value);
+        return VTypeHelper.toString(getVType());
     }
 }
@@ -13,14 +13,20 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.csstudio.swt.rtplot.data.IndexedPlotDataProvider;
 import org.csstudio.swt.rtplot.data.PlotDataProvider;
+import org.diirt.vtype.AlarmSeverity;
 
 /** Base for classes that hold plot samples
  *  in a way accessible as {@link PlotDataProvider}
+ *  <p>
+ *  Access by index is implemented via <code>get()</code>.
+ *  Derived classes that don't keep {@link PlotSample}s
+ *  should override it to avoid creating a {@link PlotSample} per call.
  *
  *  @author Kay Kasemir
  */
-abstract public class PlotSamples implements PlotDataProvider<Instant>
+abstract public class PlotSamples implements IndexedPlotDataProvider<Instant>
 {
     final private ReadWriteLock lock = new ReentrantReadWriteLock();
 
@@ -57,6 +63,50 @@ abstract public class PlotSamples implements PlotDataProvider<Instant>
     @Override
     abstract public PlotSample get(int index);
 
+    /** {@inheritDoc} */
+    @Override
+    public double getPositionNumber(final int index)
+    {
+        final Instant time = get(index).getPosition();
+        return time.getEpochSecond() + 1e-9*time.getNano();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getValue(final int index)
+    {
+        return get(index).getValue();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getStdDev(final int index)
+    {
+        return get(index).getStdDev();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMin(final int index)
+    {
+        return get(index).getMin();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMax(final int index)
+    {
+        return get(index).getMax();
+    }
+
+    /** @param index Sample index
+     *  @return Alarm severity of that sample
+     */
+    public AlarmSeverity getSeverity(final int index)
+    {
+        return get(index).getSeverity();
+    }
+
     /** Test if samples changed since the last time
      *  <code>testAndClearNewSamplesFlag</code> was called.
      *  @return <code>true</code> if there were new samples
@@ -0,0 +1,537 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.model;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.diirt.vtype.Alarm;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.Display;
+import org.diirt.vtype.Time;
+import org.diirt.vtype.VNumber;
+import org.diirt.vtype.VStatistics;
+import org.diirt.vtype.VType;
+
+/** Column-oriented storage of historic samples.
+ *  <p>
+ *  Scalar numbers and statistics are kept in primitive arrays
+ *  for time, value, min/max etc. instead of
+ *  one {@link PlotSample} with {@link VType} and {@link Instant} per sample.
+ *  Other values, for example arrays, are kept as {@link VType}.
+ *  <p>
+ *  The plot reads time, value, severity etc. by index
+ *  without creating objects per sample.
+ *  {@link PlotSample}s are only created for the sample view,
+ *  export and similar, and their {@link VType} is only re-created
+ *  when requested.
+ *  <p>
+ *  New samples are merged in place.
+ *  The arrays grow in chunks.
+ *  <p>
+ *  No locking in here, all access is via {@link HistoricSamples}.
+ *
+ *  @author agent
+ */
+class SampleColumns
+{
+    /** Minimum number of samples by which the arrays grow */
+    private static final int GROW_CHUNK = 4096;
+
+    /** Kinds of samples */
+    private static final byte KIND_DOUBLE = 0,
+                              KIND_FLOAT = 1,
+                              KIND_INT = 2,
+                              KIND_STATS = 3,
+                              KIND_OTHER = 4;
+
+    private static final AlarmSeverity[] SEVERITIES = AlarmSeverity.values();
+
+    /** Source, alarm status and display info,
+     *  shared by consecutive samples where they match.
+     */
+    private static class Meta
+    {
+        final String source;
+        final String status;
+        final Display display;
+
+        Meta(final String source, final String status, final Display display)
+        {
+            this.source = source;
+            this.status = status;
+            this.display = display;
+        }
+
+        boolean matches(final String source, final String status, final Display display)
+        {
+            return Objects.equals(this.source, source)  &&
+                   Objects.equals(this.status, status)  &&
+                   this.display == display;
+        }
+    }
+
+    /** Number of samples */
+    private int size = 0;
+
+    /** Columns, all with the same capacity */
+    private long[] epoch_nanos = new long[0];
+    private double[] value = new double[0];
+    private byte[] severity = new byte[0];
+    private byte[] kind = new byte[0];
+    private Meta[] meta = new Meta[0];
+
+    /** VType for samples of KIND_OTHER, <code>null</code> for all other samples */
+    private VType[] other = new VType[0];
+
+    /** Statistics columns, <code>null</code> until the first KIND_STATS sample is added */
+    private double[] min = null, max = null, stddev = null;
+    private int[] count = null;
+
+    /** @return Number of samples */
+    public int size()
+    {
+        return size;
+    }
+
+    /** @param index Sample index
+     *  @return Time stamp of that sample in epoch nanoseconds
+     */
+    public long getEpochNanos(final int index)
+    {
+        return epoch_nanos[index];
+    }
+
+    /** @param index Sample index
+     *  @return Time stamp of that sample in seconds since epoch
+     */
+    public double getEpochSeconds(final int index)
+    {
+        final long nanos = epoch_nanos[index];
+        return Math.floorDiv(nanos, 1000000000L) + 1e-9*Math.floorMod(nanos, 1000000000L);
+    }
+
+    /** @param index Sample index
+     *  @param waveform_index Waveform index
+     *  @return Value of that sample, same as {@link PlotSample#getValue()}
+     */
+    public double getValue(final int index, final AtomicInteger waveform_index)
+    {
+        if (kind[index] == KIND_OTHER)
+            return VTypeHelper.toDouble(other[index], waveform_index.get());
+        // Scalar, so only element 0 of 'waveform' has a value
+        return waveform_index.get() == 0 ? value[index] : Double.NaN;
+    }
+
+    /** @param index Sample index
+     *  @param waveform_index Waveform index
+     *  @return {@link VStatistics} of a sample that's not kept in columns, or <code>null</code>
+     */
+    private VStatistics getOtherStats(final int index, final AtomicInteger waveform_index)
+    {
+        if (waveform_index.get() == 0  &&  other[index] instanceof VStatistics)
+            return (VStatistics) other[index];
+        return null;
+    }
+
+    /** @param index Sample index
+     *  @param waveform_index Waveform index
+     *  @return Standard deviation of that sample, same as {@link PlotSample#getStdDev()}
+     */
+    public double getStdDev(final int index, final AtomicInteger waveform_index)
+    {
+        if (kind[index] == KIND_STATS)
+            return waveform_index.get() == 0 ? stddev[index] : Double.NaN;
+        final VStatistics stats = getOtherStats(index, waveform_index);
+        return stats != null ? stats.getStdDev() : Double.NaN;
+    }
+
+    /** @param index Sample index
+     *  @param waveform_index Waveform index
+     *  @return Minimum of that sample, same as {@link PlotSample#getMin()}
+     */
+    public double getMin(final int index, final AtomicInteger waveform_index)
+    {
+        if (kind[index] == KIND_STATS)
+            return waveform_index.get() == 0 ? min[index] : Double.NaN;
+        final VStatistics stats = getOtherStats(index, waveform_index);
+        return stats != null ? stats.getMin() : Double.NaN;
+    }
+
+    /** @param index Sample index
+     *  @param waveform_index Waveform index
+     *  @return Maximum of that sample, same as {@link PlotSample#getMax()}
+     */
+    public double getMax(final int index, final AtomicInteger waveform_index)
+    {
+        if (kind[index] == KIND_STATS)
+            return waveform_index.get() == 0 ? max[index] : Double.NaN;
+        final VStatistics stats = getOtherStats(index, waveform_index);
+        return stats != null ? stats.getMax() : Double.NaN;
+    }
+
+    /** @param index Sample index
+     *  @return Alarm severity of that sample
+     */
+    public AlarmSeverity getSeverity(final int index)
+    {
+        if (kind[index] == KIND_OTHER)
+            return VTypeHelper.getSeverity(other[index]);
+        return SEVERITIES[severity[index]];
+    }
+
+    private static long toNanos(final Instant time)
+    {
+        return time.getEpochSecond() * 1000000000L + time.getNano();
+    }
+
+    private static Instant toInstant(final long nanos)
+    {
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1000000000L), Math.floorMod(nanos, 1000000000L));
+    }
+
+    /** @param nanos Time to locate
+     *  @return Index of first sample at or after that time, <code>size</code> if there is none
+     */
+    private int findFirstAtOrAfter(final long nanos)
+    {
+        int low = 0, high = size;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (epoch_nanos[mid] < nanos)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /** @param nanos Time to locate
+     *  @return Index of first sample after that time, <code>size</code> if there is none
+     */
+    private int findFirstAfter(final long nanos)
+    {
+        int low = 0, high = size;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (epoch_nanos[mid] <= nanos)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /** @param time Time to locate
+     *  @return Number of samples before that time
+     */
+    public int countBefore(final Instant time)
+    {
+        return findFirstAtOrAfter(toNanos(time));
+    }
+
+    /** Ensure capacity, growing in chunks
+     *  @param needed Required number of samples
+     */
+    private void ensureCapacity(final int needed)
+    {
+        final int capacity = epoch_nanos.length;
+        if (needed <= capacity)
+            return;
+        final int new_capacity = Math.max(needed, capacity + Math.max(GROW_CHUNK, capacity / 2));
+        epoch_nanos = Arrays.copyOf(epoch_nanos, new_capacity);
+        value = Arrays.copyOf(value, new_capacity);
+        severity = Arrays.copyOf(severity, new_capacity);
+        kind = Arrays.copyOf(kind, new_capacity);
+        meta = Arrays.copyOf(meta, new_capacity);
+        other = Arrays.copyOf(other, new_capacity);
+        if (min != null)
+        {
+            min = Arrays.copyOf(min, new_capacity);
+            max = Arrays.copyOf(max, new_capacity);
+            stddev = Arrays.copyOf(stddev, new_capacity);
+            count = Arrays.copyOf(count, new_capacity);
+        }
+    }
+
+    /** Move samples within the arrays
+     *  @param from First sample to move
+     *  @param to Index where that sample is moved
+     *  @param length Number of samples to move
+     */
+    private void move(final int from, final int to, final int length)
+    {
+        if (from == to  ||  length <= 0)
+            return;
+        System.arraycopy(epoch_nanos, from, epoch_nanos, to, length);
+        System.arraycopy(value, from, value, to, length);
+        System.arraycopy(severity, from, severity, to, length);
+        System.arraycopy(kind, from, kind, to, length);
+        System.arraycopy(meta, from, meta, to, length);
+        System.arraycopy(other, from, other, to, length);
+        if (min != null)
+        {
+            System.arraycopy(min, from, min, to, length);
+            System.arraycopy(max, from, max, to, length);
+            System.arraycopy(stddev, from, stddev, to, length);
+            System.arraycopy(count, from, count, to, length);
+        }
+    }
+
+    /** Merge new samples.
+     *  <p>
+     *  Where the time ranges overlap, the new samples replace the existing samples,
+     *  same as {@link PlotSampleMerger}.
+     *  @param sources Source of each new sample
+     *  @param values New samples, ordered by time
+     *  @return <code>true</code> if anything was added
+     */
+    public boolean merge(final List<String> sources, final List<VType> values)
+    {
+        final int add = values.size();
+        if (add <= 0)
+            return false;
+        final long add_start = getNanos(values.get(0));
+        final long add_end = getNanos(values.get(add-1));
+        // Replace existing samples [l, r) with the new samples
+        final int l = findFirstAtOrAfter(add_start);
+        final int r = Math.max(l, findFirstAfter(add_end));
+        final int new_size = size - (r - l) + add;
+        ensureCapacity(new_size);
+        move(r, l + add, size - r);
+        // Clear references beyond the new end
+        if (new_size < size)
+        {
+            Arrays.fill(meta, new_size, size, null);
+            Arrays.fill(other, new_size, size, null);
+        }
+        size = new_size;
+
+        Meta last = l > 0 ? meta[l-1] : null;
+        for (int i=0; i<add; ++i)
+            last = set(l + i, sources.get(i), values.get(i), last);
+        return true;
+    }
+
+    /** @param value Sample
+     *  @return Time stamp in epoch nanoseconds, using 'now' if sample has no time stamp
+     */
+    private static long getNanos(final VType value)
+    {
+        if (value instanceof Time)
+            return toNanos(((Time) value).getTimestamp());
+        return toNanos(Instant.now());
+    }
+
+    /** @param index Index where to place the sample
+     *  @param source Source of the sample
+     *  @param sample Sample
+     *  @param last Meta info of previous sample, may be <code>null</code>
+     *  @return Meta info of this sample
+     */
+    private Meta set(final int index, final String source, final VType sample, Meta last)
+    {
+        epoch_nanos[index] = getNanos(sample);
+
+        // Determine kind of sample and value
+        byte sample_kind = KIND_OTHER;
+        if (sample instanceof VNumber  &&  ((VNumber) sample).getValue() != null)
+        {
+            final Number number = ((VNumber) sample).getValue();
+            if (number instanceof Double)
+                sample_kind = KIND_DOUBLE;
+            else if (number instanceof Float)
+                sample_kind = KIND_FLOAT;
+            else if (number instanceof Integer)
+                sample_kind = KIND_INT;
+            if (sample_kind != KIND_OTHER)
+                value[index] = number.doubleValue();
+        }
+        else if (sample instanceof VStatistics)
+        {
+            final VStatistics stats = (VStatistics) sample;
+            if (stats.getAverage() != null  &&  stats.getMin() != null  &&  stats.getMax() != null  &&
+                stats.getStdDev() != null  &&  stats.getNSamples() != null)
+            {
+                sample_kind = KIND_STATS;
+                if (min == null)
+                {
+                    final int capacity = epoch_nanos.length;
+                    min = new double[capacity];
+                    max = new double[capacity];
+                    stddev = new double[capacity];
+                    count = new int[capacity];
+                }
+                value[index] = stats.getAverage();
+                min[index] = stats.getMin();
+                max[index] = stats.getMax();
+                stddev[index] = stats.getStdDev();
+                count[index] = stats.getNSamples();
+            }
+        }
+        kind[index] = sample_kind;
+
+        if (sample_kind == KIND_OTHER)
+        {
+            other[index] = sample;
+            value[index] = Double.NaN;
+            severity[index] = 0;
+            // Keep the source, VType has all other info
+            if (last == null  ||  !last.matches(source, null, null))
+                last = new Meta(source, null, null);
+        }
+        else
+        {
+            other[index] = null;
+            final Alarm alarm = (Alarm) sample;
+            severity[index] = (byte) alarm.getAlarmSeverity().ordinal();
+            final String status = alarm.getAlarmName();
+            final Display display = (Display) sample;
+            if (last == null  ||  !last.matches(source, status, display))
+                last = new Meta(source, status, display);
+        }
+        meta[index] = last;
+        return last;
+    }
+
+    /** @param index Sample index
+     *  @param waveform_index Waveform index
+     *  @return {@link PlotSample} for that sample.
+     *          Creates a new object, use the other getters to plot.
+     */
+    public PlotSample get(final int index, final AtomicInteger waveform_index)
+    {
+        final Meta info = meta[index];
+        if (kind[index] == KIND_OTHER)
+            return new PlotSample(waveform_index, info.source, other[index]);
+        if (kind[index] == KIND_STATS)
+            return new StoredSample(waveform_index, info, kind[index], epoch_nanos[index], severity[index],
+                                    value[index], min[index], max[index], stddev[index], count[index]);
+        return new StoredSample(waveform_index, info, kind[index], epoch_nanos[index], severity[index],
+                                value[index], Double.NaN, Double.NaN, Double.NaN, 0);
+    }
+
+    /** Delete all samples */
+    public void clear()
+    {
+        size = 0;
+        epoch_nanos = new long[0];
+        value = new double[0];
+        severity = new byte[0];
+        kind = new byte[0];
+        meta = new Meta[0];
+        other = new VType[0];
+        min = max = stddev = null;
+        count = null;
+    }
+
+    /** {@link PlotSample} for a sample in the columns.
+     *
+     *  <p>Holds a copy of the sample's data,
+     *  so it remains valid when the columns change.
+     *  The {@link VType} is created on demand.
+     */
+    private static class StoredSample extends PlotSample
+    {
+        final private AtomicInteger waveform_index;
+        final private Meta info;
+        final private byte kind;
+        final private long nanos;
+        final private byte severity;
+        final private double value, min, max, stddev;
+        final private int count;
+        private VType vtype = null;
+
+        StoredSample(final AtomicInteger waveform_index, final Meta info, final byte kind,
+                     final long nanos, final byte severity,
+                     final double value, final double min, final double max, final double stddev, final int count)
+        {
+            super(waveform_index, info.source, null);
+            this.waveform_index = waveform_index;
+            this.info = info;
+            this.kind = kind;
+            this.nanos = nanos;
+            this.severity = severity;
+            this.value = value;
+            this.min = min;
+            this.max = max;
+            this.stddev = stddev;
+            this.count = count;
+        }
+
+        @Override
+        public VType getVType()
+        {
+            if (vtype == null)
+            {
+                final Instant time = toInstant(nanos);
+                final AlarmSeverity sevr = SEVERITIES[severity];
+                switch (kind)
+                {
+                case KIND_STATS:
+                    vtype = new ArchiveVStatistics(time, sevr, info.status, info.display, value, min, max, stddev, count);
+                    break;
+                case KIND_FLOAT:
+                    vtype = new ArchiveVNumber(time, sevr, info.status, info.display, Float.valueOf((float) value));
+                    break;
+                case KIND_INT:
+                    vtype = new ArchiveVNumber(time, sevr, info.status, info.display, Integer.valueOf((int) value));
+                    break;
+                default:
+                    vtype = new ArchiveVNumber(time, sevr, info.status, info.display, Double.valueOf(value));
+                }
+            }
+            return vtype;
+        }
+
+        @Override
+        public AlarmSeverity getSeverity()
+        {
+            return SEVERITIES[severity];
+        }
+
+        @Override
+        public Instant getPosition()
+        {
+            return toInstant(nanos);
+        }
+
+        @Override
+        public double getValue()
+        {
+            // Scalar, so only element 0 of 'waveform' has a value
+            return waveform_index.get() == 0 ? value : Double.NaN;
+        }
+
+        @Override
+        public double getStdDev()
+        {
+            return waveform_index.get() == 0 ? stddev : Double.NaN;
+        }
+
+        @Override
+        public double getMin()
+        {
+            return waveform_index.get() == 0 ? min : Double.NaN;
+        }
+
+        @Override
+        public double getMax()
+        {
+            return waveform_index.get() == 0 ? max : Double.NaN;
+        }
+    }
+}
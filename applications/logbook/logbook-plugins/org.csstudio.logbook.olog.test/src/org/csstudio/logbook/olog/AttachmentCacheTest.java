@@ -0,0 +1,214 @@
+package org.csstudio.logbook.olog;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link AttachmentCache}
+ *
+ * @author agent
+ */
+public class AttachmentCacheTest {
+
+    private File directory;
+
+    /** Number of times that a loader was called */
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("attachment-cache").toFile();
+    }
+
+    @After
+    public void deleteDirectory() {
+        delete(directory);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private Callable<InputStream> loader(final byte[] content) {
+        return () -> {
+            loads.incrementAndGet();
+            return new ByteArrayInputStream(content);
+        };
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        assertNotNull(in);
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[1024];
+            int len;
+            while ((len = stream.read(buf)) > 0) {
+                out.write(buf, 0, len);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    @Test
+    public void testFetchOnce() throws Exception {
+        AttachmentCache cache = new AttachmentCache(directory, 1000);
+        byte[] content = "Hello".getBytes();
+        assertArrayEquals(content, read(cache.get(1L, "a b.txt", loader(content))));
+        assertArrayEquals(content, read(cache.get(1L, "a b.txt", loader(content))));
+        assertEquals(1, loads.get());
+        assertEquals(content.length, cache.getSize());
+
+        // Same file name of another log entry is fetched
+        assertArrayEquals(content, read(cache.get(2L, "a b.txt", loader(content))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        AttachmentCache cache = new AttachmentCache(directory, 250);
+        byte[] content = new byte[100];
+        read(cache.get(1L, "1", loader(content)));
+        read(cache.get(2L, "2", loader(content)));
+        // Use the first, so that the second is the least recently used
+        read(cache.get(1L, "1", loader(content)));
+        assertEquals(2, loads.get());
+
+        read(cache.get(3L, "3", loader(content)));
+        assertEquals(3, loads.get());
+        assertEquals(200, cache.getSize());
+
+        // First and third are still cached, second was evicted
+        read(cache.get(1L, "1", loader(content)));
+        read(cache.get(3L, "3", loader(content)));
+        assertEquals(3, loads.get());
+        read(cache.get(2L, "2", loader(content)));
+        assertEquals(4, loads.get());
+        assertEquals(200, cache.getSize());
+    }
+
+    @Test
+    public void testReuseAcrossSessions() throws Exception {
+        byte[] content = "Kept".getBytes();
+        AttachmentCache cache = new AttachmentCache(directory, 1000);
+        read(cache.get(1L, "kept.txt", loader(content)));
+        assertEquals(1, loads.get());
+
+        // Partially written file of an earlier session is removed
+        File partial = new File(new File(directory, "1"), "other.txt.part");
+        Files.write(partial.toPath(), new byte[10]);
+
+        cache = new AttachmentCache(directory, 1000);
+        assertFalse(partial.exists());
+        assertEquals(content.length, cache.getSize());
+        assertArrayEquals(content, read(cache.get(1L, "kept.txt", loader(content))));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testPut() throws Exception {
+        AttachmentCache cache = new AttachmentCache(directory, 1000);
+        File upload = new File(directory, "upload.txt");
+        byte[] content = "Uploaded".getBytes();
+        Files.write(upload.toPath(), content);
+
+        // Uploaded file is found under its own name
+        cache.put(1L, upload);
+        assertArrayEquals(content, read(cache.get(1L, "upload.txt", loader("Other".getBytes()))));
+        assertEquals(0, loads.get());
+        assertEquals(content.length, cache.getSize());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", png);
+        return png.toByteArray();
+    }
+
+    @Test
+    public void testThumbnail() throws Exception {
+        byte[] png = png(200, 100);
+        AttachmentCache cache = new AttachmentCache(directory, 100000, 20);
+        BufferedImage thumbnail = ImageIO.read(cache.getThumbnail(1L, "image.png", loader(png)));
+        assertEquals(20, thumbnail.getWidth());
+        assertEquals(10, thumbnail.getHeight());
+
+        // Thumbnail and attachment are cached
+        assertNotNull(ImageIO.read(cache.getThumbnail(1L, "image.png", loader(png))));
+        assertArrayEquals(png, read(cache.get(1L, "image.png", loader(png))));
+        assertEquals(1, loads.get());
+
+        // Thumbnail is reused by the next session
+        cache = new AttachmentCache(directory, 100000, 20);
+        assertEquals(20, ImageIO.read(cache.getThumbnail(1L, "image.png", loader(png))).getWidth());
+        assertEquals(1, loads.get());
+
+        // No thumbnail for other attachments
+        assertNull(cache.getThumbnail(1L, "text.txt", loader("Text".getBytes())));
+    }
+
+    @Test
+    public void testThumbnailOfUpload() throws Exception {
+        AttachmentCache cache = new AttachmentCache(directory, 100000, 20);
+        assertEquals(20, ImageIO.read(cache.getThumbnail(1L, "image.png", loader(png(200, 100)))).getWidth());
+
+        // Uploading other content under the same name replaces the thumbnail
+        File upload = new File(directory, "image.png");
+        Files.write(upload.toPath(), png(100, 200));
+        cache.put(1L, upload);
+        BufferedImage thumbnail = ImageIO.read(cache.getThumbnail(1L, "image.png", loader(new byte[0])));
+        assertEquals(10, thumbnail.getWidth());
+        assertEquals(20, thumbnail.getHeight());
+        assertEquals(1, loads.get());
+
+        // Name of an attachment never clashes with a thumbnail
+        assertArrayEquals("Text".getBytes(),
+                read(cache.get(1L, "image.png#thumbnail.png", loader("Text".getBytes()))));
+    }
+
+    @Test
+    public void testEvictedWhileOpen() throws Exception {
+        AttachmentCache cache = new AttachmentCache(directory, 150);
+        byte[] content = new byte[100];
+        content[0] = 42;
+        try (InputStream in = cache.get(1L, "1", loader(content))) {
+            // Evicts the open attachment
+            read(cache.get(2L, "2", loader(new byte[100])));
+            assertEquals(100, cache.getSize());
+            assertArrayEquals(content, read(in));
+        }
+    }
+
+    @Test
+    public void testServiceKey() {
+        String key = AttachmentCache.getServiceKey("https://olog.site.org/Olog/resources");
+        assertEquals(32, key.length());
+        assertEquals(key, AttachmentCache.getServiceKey("https://olog.site.org/Olog/resources"));
+        assertTrue(!key.equals(AttachmentCache.getServiceKey("https://other.site.org/Olog/resources")));
+    }
+}
@@ -0,0 +1,359 @@
+package org.csstudio.logbook.olog;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * A size bounded on-disk cache of olog attachments.
+ * <p>
+ * Each attachment is stored in a file below the cache directory, keyed by the
+ * id of the log entry and the file name of the attachment. When the total size
+ * of the cached files exceeds the limit, the least recently used files are
+ * deleted. Thumbnails of image attachments are generated on demand and cached
+ * next to the attachments, in the same size limit. Files left in the directory
+ * by a previous session are reused.
+ * <p>
+ * The default caches are kept per service in the state location of the
+ * plugin, which belongs to the current user, so attachments of different
+ * services or users are never mixed up.
+ *
+ * @author agent
+ */
+public class AttachmentCache {
+
+    private static final Logger logger = Logger.getLogger(AttachmentCache.class.getName());
+
+    /** '#' is always escaped in the encoded attachment names, so thumbnails cannot clash with them */
+    private static final String THUMBNAIL_SUFFIX = "#thumbnail.png";
+    private static final String TEMP_SUFFIX = ".part";
+
+    /** The default limit of the cache size, 256 MB */
+    public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+    /** The default size of the longer side of a thumbnail in pixels */
+    public static final int DEFAULT_THUMBNAIL_SIZE = 128;
+
+    /** Default caches by service URL */
+    private static final Map<String, AttachmentCache> defaultCaches = new HashMap<String, AttachmentCache>();
+
+    private final File directory;
+    private final long maxSize;
+    private final int thumbnailSize;
+    /** Cached files in the order of access, the least recently used first */
+    private final Map<File, Long> files = new LinkedHashMap<File, Long>(16, 0.75f, true);
+    private long size = 0;
+
+    /**
+     * Create a cache in the given directory.
+     *
+     * @param directory the directory, created if it does not exist
+     * @param maxSize the maximum total size of the cached files in bytes
+     */
+    public AttachmentCache(File directory, long maxSize) {
+        this(directory, maxSize, DEFAULT_THUMBNAIL_SIZE);
+    }
+
+    /**
+     * Create a cache in the given directory.
+     *
+     * @param directory the directory, created if it does not exist
+     * @param maxSize the maximum total size of the cached files in bytes
+     * @param thumbnailSize the size of the longer side of the thumbnails in pixels
+     */
+    public AttachmentCache(File directory, long maxSize, int thumbnailSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.thumbnailSize = thumbnailSize;
+        if (directory.mkdirs()) {
+            // only readable by the current user
+            try {
+                Files.setPosixFilePermissions(directory.toPath(), PosixFilePermissions.fromString("rwx------"));
+            } catch (UnsupportedOperationException | IOException e) {
+                logger.log(Level.FINE, "Cannot restrict access to " + directory, e);
+            }
+        }
+        List<File> existing = new ArrayList<File>();
+        File[] logDirs = directory.listFiles(File::isDirectory);
+        if (logDirs != null) {
+            for (File logDir : logDirs) {
+                File[] cached = logDir.listFiles(File::isFile);
+                if (cached != null) {
+                    existing.addAll(Arrays.asList(cached));
+                }
+            }
+        }
+        existing.sort(Comparator.comparingLong(File::lastModified));
+        synchronized (files) {
+            for (File file : existing) {
+                if (file.getName().endsWith(TEMP_SUFFIX)) {
+                    file.delete();
+                } else {
+                    files.put(file, file.length());
+                    size += file.length();
+                }
+            }
+            evict();
+        }
+    }
+
+    /**
+     * @param serviceURL the URL of the olog service
+     * @return the cache shared by all olog clients of that service
+     */
+    public static synchronized AttachmentCache getDefault(String serviceURL) {
+        AttachmentCache cache = defaultCaches.get(serviceURL);
+        if (cache == null) {
+            cache = new AttachmentCache(new File(getBaseDirectory(), getServiceKey(serviceURL)), DEFAULT_MAX_SIZE);
+            defaultCaches.put(serviceURL, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * @return the directory of the default caches, the state location of the plugin or,
+     *         without a workspace, a directory in the home of the user
+     */
+    private static File getBaseDirectory() {
+        if (Activator.getContext() != null) {
+            try {
+                return Platform.getStateLocation(Activator.getContext().getBundle()).append("attachments").toFile();
+            } catch (IllegalStateException e) {
+                logger.log(Level.FINE, "No state location for olog attachments", e);
+            }
+        }
+        return new File(new File(System.getProperty("user.home"), ".olog"), "attachments");
+    }
+
+    /**
+     * @param serviceURL the URL of the olog service
+     * @return the hash of the URL, used as the name of the cache directory
+     */
+    static String getServiceKey(String serviceURL) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(serviceURL.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                key.append(String.format("%02x", hash[i]));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Return the content of the attachment. If the attachment is not cached yet, it is
+     * fetched with the loader and stored in the cache.
+     *
+     * @param logId the id of the log entry
+     * @param fileName the name of the attachment
+     * @param loader fetches the content of the attachment from the service
+     * @return the stream to the content, or null if it could not be fetched
+     * @throws IOException if the cache file could not be written or read
+     */
+    public InputStream get(Long logId, String fileName, Callable<InputStream> loader) throws IOException {
+        File file = getFile(logId, fileName, "");
+        InputStream cached = open(file);
+        if (cached != null) {
+            return cached;
+        }
+        InputStream in;
+        try {
+            in = loader.call();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+        if (in == null) {
+            return null;
+        }
+        return store(file, in);
+    }
+
+    /**
+     * Return a scaled down PNG image of an image attachment. The thumbnail is generated
+     * from the cached attachment, which is fetched with the loader if needed.
+     *
+     * @param logId the id of the log entry
+     * @param fileName the name of the attachment
+     * @param loader fetches the content of the attachment from the service
+     * @return the stream to the thumbnail, or null if the attachment is not an image
+     * @throws IOException if the cache file could not be written or read
+     */
+    public InputStream getThumbnail(Long logId, String fileName, Callable<InputStream> loader)
+            throws IOException {
+        File thumbnail = getFile(logId, fileName, THUMBNAIL_SUFFIX);
+        InputStream cached = open(thumbnail);
+        if (cached != null) {
+            return cached;
+        }
+        BufferedImage image;
+        try (InputStream in = get(logId, fileName, loader)) {
+            image = in == null ? null : ImageIO.read(in);
+        }
+        if (image == null) {
+            return null;
+        }
+        double scale = Math.min(1.0, (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        File temp = File.createTempFile("thumbnail", TEMP_SUFFIX, thumbnail.getParentFile());
+        try {
+            if (!ImageIO.write(scaled, "png", temp)) {
+                throw new IOException("No PNG writer for thumbnail of " + fileName);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        return commit(temp, thumbnail);
+    }
+
+    /**
+     * Put the uploaded file into the cache. The service names the attachment after the
+     * uploaded file, so the file name is also the key of the cached content.
+     *
+     * @param logId the id of the log entry
+     * @param content the uploaded file, which is copied
+     * @throws IOException if the cache file could not be written
+     */
+    public void put(Long logId, File content) throws IOException {
+        store(getFile(logId, content.getName(), ""), new FileInputStream(content)).close();
+        // a thumbnail of previous content with the same name is outdated
+        remove(getFile(logId, content.getName(), THUMBNAIL_SUFFIX));
+    }
+
+    /**
+     * @return the total size of the cached files in bytes
+     */
+    public long getSize() {
+        synchronized (files) {
+            return size;
+        }
+    }
+
+    private File getFile(Long logId, String fileName, String suffix) {
+        try {
+            return new File(new File(directory, String.valueOf(logId)),
+                    URLEncoder.encode(fileName, StandardCharsets.UTF_8.name()) + suffix);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Open the cached file. The file is opened while holding the lock, so it cannot be
+     * evicted between the lookup and the opening.
+     *
+     * @param file the cached file
+     * @return the stream to the file, or null if it is not cached
+     */
+    private InputStream open(File file) {
+        synchronized (files) {
+            // the lookup also marks the file as recently used
+            Long length = files.get(file);
+            if (length == null) {
+                return null;
+            }
+            try {
+                return new FileInputStream(file);
+            } catch (FileNotFoundException e) {
+                // deleted from outside of the cache
+                files.remove(file);
+                size -= length;
+                return null;
+            }
+        }
+    }
+
+    private void remove(File file) {
+        synchronized (files) {
+            Long length = files.remove(file);
+            if (length != null) {
+                size -= length;
+                file.delete();
+            }
+        }
+    }
+
+    private InputStream store(File file, InputStream in) throws IOException {
+        file.getParentFile().mkdirs();
+        // prefix must have at least 3 characters, which attachment names may not
+        File temp = File.createTempFile("attachment", TEMP_SUFFIX, file.getParentFile());
+        try {
+            Files.copy(in, temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            in.close();
+        }
+        return commit(temp, file);
+    }
+
+    /**
+     * Move the temporary file to its place in the cache and open it. The stream is opened
+     * before other threads can evict the file.
+     */
+    private InputStream commit(File temp, File file) throws IOException {
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        synchronized (files) {
+            Long previous = files.put(file, file.length());
+            size += file.length() - (previous == null ? 0 : previous);
+            evict();
+            return new FileInputStream(file);
+        }
+    }
+
+    private void evict() {
+        // the most recently used file is kept even if it alone exceeds the limit
+        for (Iterator<Map.Entry<File, Long>> it = files.entrySet().iterator(); size > maxSize
+                && files.size() > 1 && it.hasNext();) {
+            Map.Entry<File, Long> e = it.next();
+            size -= e.getValue();
+            it.remove();
+            if (!e.getKey().delete()) {
+                logger.log(Level.FINE, "Could not delete cached attachment " + e.getKey());
+            }
+        }
+    }
+}
@@ -10,22 +10,23 @@ import static org.csstudio.logbook.util.LogEntrySearchUtil.SEARCH_KEYWORD_TEXT;
 
 import static java.util.stream.Collectors.toList;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.csstudio.apputil.time.StartEndTimeParser;
 import org.csstudio.logbook.Attachment;
@@ -36,7 +37,6 @@ import org.csstudio.logbook.Property;
 import org.csstudio.logbook.Tag;
 import org.csstudio.logbook.util.LogEntrySearchUtil;
 
-import edu.msu.nscl.olog.api.AttachmentBuilder;
 import edu.msu.nscl.olog.api.Log;
 import edu.msu.nscl.olog.api.LogBuilder;
 import edu.msu.nscl.olog.api.OlogClient;
@@ -44,19 +44,34 @@ import edu.msu.nscl.olog.api.PropertyBuilder;
 
 public class OlogLogbookClient implements LogbookClient {
 
+    private static final Logger logger = Logger.getLogger(OlogLogbookClient.class.getName());
+
     private final OlogClient reader;
     private final OlogClient writer;
+    private final AttachmentCache cache;
 
     private final List<String> levels = Arrays.asList("Info", "Problem", "Request", "Suggestion", "Urgent");
 
     public OlogLogbookClient(OlogClient ologClient) {
-        this.reader = ologClient;
-        this.writer = ologClient;
+        this(ologClient, ologClient);
     }
 
     public OlogLogbookClient(OlogClient reader, OlogClient writer) {
+        this(reader, writer, AttachmentCache.getDefault(OlogLogbookClientFactory.getServiceURL()));
+    }
+
+    /**
+     * Create a client, which keeps the downloaded and uploaded attachments in
+     * the given cache.
+     *
+     * @param reader
+     * @param writer
+     * @param cache
+     */
+    public OlogLogbookClient(OlogClient reader, OlogClient writer, AttachmentCache cache) {
         this.reader = reader;
         this.writer = writer;
+        this.cache = cache;
     }
 
     @Override
@@ -85,36 +100,41 @@ public class OlogLogbookClient implements LogbookClient {
         }).collect(toList()));
     }
 
+    /**
+     * Lists the attachments of the log entry. The content of an attachment is
+     * only downloaded when its input stream is requested.
+     */
     @Override
     public Collection<Attachment> listAttachments(final Object logId) throws Exception {
-        return Collections
-                .unmodifiableCollection(reader.listAttachments((Long) logId).parallelStream().map((attachment) -> {
-                    try {
-                        return new OlogAttachment(attachment, getAttachment(logId, attachment.getFileName()));
-                    } catch (IOException e) {
-                        // TODO handle exception
-                    }
-                    return null;
-                }).collect(toList()));
+        return Collections.unmodifiableCollection(reader.listAttachments((Long) logId).stream().map((attachment) -> {
+            return new OlogAttachment((Long) logId, attachment);
+        }).collect(toList()));
     }
 
     @Override
-    public InputStream getAttachment(Object logId, String attachmentFileName) {
-        return reader.getAttachment((Long) logId, attachmentFileName);
+    public InputStream getAttachment(Object logId, String attachmentFileName) throws IOException {
+        return cache.get((Long) logId, attachmentFileName,
+                () -> reader.getAttachment((Long) logId, attachmentFileName));
+    }
+
+    /**
+     * Returns a scaled down PNG image of an image attachment, generated from
+     * and cached next to the cached attachment.
+     *
+     * @param logId the id of the log entry
+     * @param attachmentFileName the name of the attachment
+     * @return the stream to the thumbnail, or null if the attachment is not an image
+     * @throws IOException if the attachment could not be fetched or cached
+     */
+    public InputStream getAttachmentThumbnail(Object logId, String attachmentFileName) throws IOException {
+        return cache.getThumbnail((Long) logId, attachmentFileName,
+                () -> reader.getAttachment((Long) logId, attachmentFileName));
     }
 
-    @SuppressWarnings("deprecation")
     @Override
     public LogEntry findLogEntry(Object logId) throws Exception {
-        Log log = reader.getLog((Long) logId);
-        if (log != null) {
-            LogBuilder logBuilder = LogBuilder.log(log);
-            for (edu.msu.nscl.olog.api.Attachment attachments : reader.listAttachments(log.getId())) {
-                logBuilder.attach(AttachmentBuilder.attachment(attachments));
-            }
-            return new OlogEntry(logBuilder.build());
-        }
-        return new OlogEntry(log);
+        // the log already lists its attachments, the content is fetched lazily
+        return new OlogEntry(reader.getLog((Long) logId));
     }
 
     @Override
@@ -154,59 +174,90 @@ public class OlogLogbookClient implements LogbookClient {
     @Override
     public LogEntry createLogEntry(LogEntry logEntry) throws Exception {
         OlogEntry ologEntry = new OlogEntry(writer.set(LogBuilder(logEntry)));
-        // creates the log entry and then adds all the attachments
-        // TODO (shroffk) multiple network calls, one for each attachment, need
-        // to improve
+        // creates the log entry and then adds all the attachments in one batch
+        Map<String, InputStream> attachments = new LinkedHashMap<String, InputStream>();
         for (Attachment attachment : logEntry.getAttachment()) {
-            if (attachment.getInputStream() != null) {
-                addAttachment(ologEntry.getId(), attachment.getInputStream(), attachment.getFileName());
+            InputStream in = attachment.getInputStream();
+            if (in != null) {
+                attachments.put(attachment.getFileName(), in);
             }
         }
+        addAttachments(ologEntry.getId(), attachments);
         return ologEntry;
     }
 
     @Override
     public LogEntry updateLogEntry(LogEntry logEntry) throws Exception {
         OlogEntry ologEntry = new OlogEntry(writer.update(LogBuilder(logEntry)));
-        // creates the log entry and then adds all the attachments
-        // TODO (shroffk) multiple network calls, one for each attachment, need
-        // to improve
+        // updates the log entry and then adds all the new attachments in one
+        // batch
         Collection<String> existingFiles = new ArrayList<String>();
         for (edu.msu.nscl.olog.api.Attachment attachment : reader.getLog((Long) ologEntry.getId()).getAttachments()) {
             existingFiles.add(attachment.getFileName());
         }
+        Map<String, InputStream> attachments = new LinkedHashMap<String, InputStream>();
         for (Attachment attachment : logEntry.getAttachment()) {
-            // Check the attachment doe snot already exist.
-            if (!existingFiles.contains(attachment.getFileName()) && attachment.getInputStream() != null) {
-                addAttachment(ologEntry.getId(), attachment.getInputStream(), attachment.getFileName());
+            // Check the attachment does not already exist, the content of the
+            // existing ones is not needed.
+            if (!existingFiles.contains(attachment.getFileName())) {
+                InputStream in = attachment.getInputStream();
+                if (in != null) {
+                    attachments.put(attachment.getFileName(), in);
+                }
             }
         }
+        addAttachments(ologEntry.getId(), attachments);
         return ologEntry;
     }
 
     @Override
     public Attachment addAttachment(Object logId, InputStream attachment, String name) throws Exception {
-        try {
-            File file = new File(name);
-            OutputStream out = new FileOutputStream(file);
-            int read = 0;
-            byte[] bytes = new byte[1024];
+        Map<String, InputStream> attachments = new LinkedHashMap<String, InputStream>();
+        attachments.put(name, attachment);
+        Collection<Attachment> added = addAttachments(logId, attachments);
+        return added.isEmpty() ? null : added.iterator().next();
+    }
 
-            while ((read = attachment.read(bytes)) != -1) {
-                out.write(bytes, 0, read);
+    /**
+     * Upload all the attachments to the log entry with a single call to the
+     * writer. The uploaded files are also put into the attachment cache, so
+     * they are not downloaded again when the entry is opened.
+     *
+     * @param logId
+     * @param attachments the content of the attachments mapped by the file name
+     * @return the added attachments
+     * @throws IOException
+     */
+    private Collection<Attachment> addAttachments(Object logId, Map<String, InputStream> attachments)
+            throws IOException {
+        if (attachments.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // the service takes the attachment name from the uploaded file
+        File directory = Files.createTempDirectory("olog").toFile();
+        List<File> files = new ArrayList<File>();
+        try {
+            for (Entry<String, InputStream> attachment : attachments.entrySet()) {
+                File file = new File(directory, new File(attachment.getKey()).getName());
+                try (InputStream in = attachment.getValue()) {
+                    Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                files.add(file);
+            }
+            Collection<edu.msu.nscl.olog.api.Attachment> response = writer.add(files, (Long) logId);
+            for (File file : files) {
+                cache.put((Long) logId, file);
             }
-            attachment.close();
-            out.flush();
-            out.close();
-            edu.msu.nscl.olog.api.Attachment response;
-            if (file != null) {
-                response = writer.add(file, (Long) logId);
+            Collection<Attachment> added = new ArrayList<Attachment>();
+            for (edu.msu.nscl.olog.api.Attachment attachment : response) {
+                added.add(new OlogAttachment((Long) logId, attachment));
+            }
+            return added;
+        } finally {
+            for (File file : files) {
                 file.delete();
-                return new OlogAttachment(response, getAttachment(logId, response.getFileName()));
             }
-            return null;
-        } catch (IOException e) {
-            throw new Exception(e);
+            directory.delete();
         }
     }
 
@@ -316,25 +367,17 @@ public class OlogLogbookClient implements LogbookClient {
 
     }
 
+    /**
+     * A handle to an attachment, which fetches the content through the
+     * attachment cache the first time the input stream is requested.
+     */
     private class OlogAttachment implements Attachment {
 
+        private final Long logId;
         private final edu.msu.nscl.olog.api.Attachment attachment;
-        private byte[] byteArray = new byte[] {};
 
-        public OlogAttachment(edu.msu.nscl.olog.api.Attachment attachment, InputStream inputStream) throws IOException {
-            this.attachment = attachment;
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            ByteArrayOutputStream output = new ByteArrayOutputStream();
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                output.write(buffer, 0, bytesRead);
-            }
-            byteArray = output.toByteArray();
-            inputStream.close();
-            output.close();
-        }
-
-        public OlogAttachment(edu.msu.nscl.olog.api.Attachment attachment) {
+        public OlogAttachment(Long logId, edu.msu.nscl.olog.api.Attachment attachment) {
+            this.logId = logId;
             this.attachment = attachment;
         }
 
@@ -360,7 +403,24 @@ public class OlogLogbookClient implements LogbookClient {
 
         @Override
         public InputStream getInputStream() {
-            return new ByteArrayInputStream(byteArray);
+            try {
+                return getAttachment(logId, attachment.getFileName());
+            } catch (IOException e) {
+                logger.log(Level.WARNING,
+                        "Failed to fetch attachment " + attachment.getFileName() + " of log " + logId, e);
+                return null;
+            }
+        }
+
+        @Override
+        public InputStream getThumbnailInputStream() {
+            try {
+                return getAttachmentThumbnail(logId, attachment.getFileName());
+            } catch (IOException e) {
+                logger.log(Level.WARNING,
+                        "Failed to create thumbnail of attachment " + attachment.getFileName() + " of log " + logId, e);
+                return null;
+            }
         }
 
     }
@@ -386,7 +446,7 @@ public class OlogLogbookClient implements LogbookClient {
                 return new OlogProperty(name);
             }).collect(toList());
             this.attachments = log.getAttachments().parallelStream().map((name) -> {
-                return new OlogAttachment(name);
+                return new OlogAttachment(log.getId(), name);
             }).collect(toList());
         }
 
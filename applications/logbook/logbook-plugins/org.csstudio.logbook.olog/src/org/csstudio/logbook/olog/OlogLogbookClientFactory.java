@@ -9,6 +9,7 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.IPreferencesService;
 
 import edu.msu.nscl.olog.api.Olog;
+import edu.msu.nscl.olog.api.OlogClient;
 
 public class OlogLogbookClientFactory implements LogbookClientFactory {
 
@@ -20,12 +21,20 @@ public class OlogLogbookClientFactory implements LogbookClientFactory {
     @Override
     public LogbookClient getClient(String username, String password)
         throws Exception {
+    String url = getServiceURL();
+    OlogClient client = serviceURL(url).withHTTPAuthentication(true).username(username)
+        .password(password).create();
+    return new OlogLogbookClient(client, client, AttachmentCache.getDefault(url));
+    }
+
+    /**
+     * @return the URL of the olog service from the preferences
+     */
+    static String getServiceURL() {
     final IPreferencesService prefs = Platform.getPreferencesService();
-    String url = prefs.getString(org.csstudio.utility.olog.Activator.PLUGIN_ID,
+    return prefs.getString(org.csstudio.utility.olog.Activator.PLUGIN_ID,
             PreferenceConstants.Olog_URL,
             "https://localhost:8181/Olog/resources", null);
-    return new OlogLogbookClient(serviceURL(url).withHTTPAuthentication(true).username(username)
-        .password(password).create());
     }
 
 }
@@ -1029,6 +1029,7 @@ public class LogEntryWidget extends Composite {
         setExpanded(false);
         }
         Map<String, InputStream> imageInputStreamsMap = new HashMap<String, InputStream>();
+        Map<String, InputStream> thumbnailInputStreamsMap = new HashMap<String, InputStream>();
         for (Attachment attachment : logEntry.getAttachment()) {
         if (Arrays.asList(supportedImageTypes).contains(
             "*"
@@ -1040,6 +1041,11 @@ public class LogEntryWidget extends Composite {
             if (attachment.getInputStream().available() > 0) {
                 imageInputStreamsMap.put(attachment.getFileName(),
                     attachment.getInputStream());
+                InputStream thumbnail = attachment.getThumbnailInputStream();
+                if (thumbnail != null) {
+                thumbnailInputStreamsMap.put(attachment.getFileName(),
+                    thumbnail);
+                }
             }
             } catch (IOException e) {
             setLastException(e);
@@ -1047,7 +1053,8 @@ public class LogEntryWidget extends Composite {
         }
         }
         try {
-        imageStackWidget.setImageInputStreamsMap(imageInputStreamsMap);
+        imageStackWidget.setImageInputStreamsMap(imageInputStreamsMap,
+            thumbnailInputStreamsMap);
         if (imageToSelect != null) {
             imageStackWidget.setSelectedImageName(imageToSelect);
             imageToSelect = null;
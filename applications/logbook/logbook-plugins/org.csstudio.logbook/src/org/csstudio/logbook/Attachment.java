@@ -37,6 +37,17 @@ public interface Attachment {
      */
     public Boolean getThumbnail();
 
+    /**
+     * An input stream to a scaled down image of the attached file, for clients
+     * which list image attachments. Clients which do not generate thumbnails
+     * return null.
+     *
+     * @return InputStream - to the thumbnail, or null if there is none
+     */
+    public default InputStream getThumbnailInputStream() {
+        return null;
+    }
+
     /**
      *
      * @return Long - the size of the file in bytes
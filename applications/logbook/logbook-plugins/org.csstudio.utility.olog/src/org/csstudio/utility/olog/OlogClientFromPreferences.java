@@ -177,6 +177,12 @@ public class OlogClientFromPreferences implements OlogClient {
 
     }
 
+    @Override
+    public Collection<Attachment> add(Collection<File> local, Long logId)
+            throws OlogException {
+        return client.add(local, logId);
+    }
+
     @Override
     public Log findLogById(Long logId) throws OlogException {
         return client.findLogById(logId);
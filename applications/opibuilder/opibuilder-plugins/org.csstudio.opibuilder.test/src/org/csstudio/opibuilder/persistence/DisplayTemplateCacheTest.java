@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.opibuilder.persistence.LineAwareXMLParser.LineAwareElement;
+import org.jdom.Element;
+import org.junit.Before;
+import org.junit.Test;
+
+/** JUnit test of the {@link DisplayTemplateCache}
+ *  @author agent
+ */
+public class DisplayTemplateCacheTest {
+
+    /** OPIs of the scalability tests, relative to this plugin */
+    private static final File SCALABILITY_TESTS = new File("../org.csstudio.opibuilder.performanceTest/ScalabilityTests");
+
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    @Before
+    public void setup() {
+        DisplayTemplateCache.clear();
+    }
+
+    private Callable<Element> parser(final File file) {
+        return () -> {
+            parsed.incrementAndGet();
+            try (InputStream stream = new FileInputStream(file)) {
+                return LineAwareXMLParser.createBuilder().build(stream).getRootElement();
+            }
+        };
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        final File file = File.createTempFile("display", ".opi");
+        file.deleteOnExit();
+        Files.write(file.toPath(),
+                "<display>\n<widget typeId=\"label\"><name>A</name></widget>\n</display>".getBytes(StandardCharsets.UTF_8));
+        final String path = file.getAbsolutePath();
+
+        final Element first = DisplayTemplateCache.getTemplate(path, file, parser(file));
+        assertEquals(1, parsed.get());
+        // Same file for many linking containers is parsed once, but each receives a copy
+        for (int i = 0; i < 100; ++i) {
+            final Element copy = DisplayTemplateCache.getTemplate(path, file, parser(file));
+            assertNotSame(first, copy);
+            assertEquals("A", copy.getChild("widget").getChildText("name"));
+            // Copies keep the line numbers
+            assertEquals(2, ((LineAwareElement) copy.getChild("widget")).getLineNumber());
+            // Changing one copy does not affect the others
+            copy.getChild("widget").getChild("name").setText("B");
+        }
+        assertEquals(1, parsed.get());
+        assertEquals("A", first.getChild("widget").getChildText("name"));
+
+        // Changed file is parsed again, replacing the old version
+        Files.write(file.toPath(),
+                "<display>\n<widget typeId=\"label\"><name>Changed</name></widget>\n</display>".getBytes(StandardCharsets.UTF_8));
+        file.setLastModified(file.lastModified() + 2000);
+        Element copy = DisplayTemplateCache.getTemplate(path, file, parser(file));
+        assertEquals("Changed", copy.getChild("widget").getChildText("name"));
+        assertEquals(2, parsed.get());
+        assertEquals(1, DisplayTemplateCache.size());
+
+        // Without a file, for example for a URL, it's parsed each time
+        copy = DisplayTemplateCache.getTemplate("http://host/display.opi", null, parser(file));
+        copy = DisplayTemplateCache.getTemplate("http://host/display.opi", null, parser(file));
+        assertEquals(4, parsed.get());
+        assertEquals(1, DisplayTemplateCache.size());
+        file.delete();
+    }
+
+    /** Same OPI embedded in many linking containers */
+    @Test
+    public void testManyInstances() throws Exception {
+        final File file = File.createTempFile("embedded", ".opi");
+        file.deleteOnExit();
+        final StringBuilder opi = new StringBuilder("<display>\n");
+        for (int i = 0; i < 100; ++i)
+            opi.append("<widget typeId=\"label\"><name>Label ").append(i).append("</name></widget>\n");
+        opi.append("</display>");
+        Files.write(file.toPath(), opi.toString().getBytes(StandardCharsets.UTF_8));
+
+        final int instances = 200;
+        final Set<Element> copies = Collections.newSetFromMap(new IdentityHashMap<Element, Boolean>());
+        for (int i = 0; i < instances; ++i) {
+            final Element copy = DisplayTemplateCache.getTemplate(file.getAbsolutePath(), file, parser(file));
+            assertEquals(100, copy.getChildren("widget").size());
+            copies.add(copy);
+        }
+        // Parsed once, and each instance received its own copy
+        assertEquals(1, parsed.get());
+        assertEquals(instances, copies.size());
+        file.delete();
+    }
+
+    /** Time to load the OPIs of the scalability tests many times,
+     *  as when embedded in many linking containers.
+     *  Prints the times, but does not compare them, since that
+     *  depends on the load of the computer.
+     */
+    @Test
+    public void testOpenTime() throws Exception {
+        final File[] opis = SCALABILITY_TESTS.listFiles((dir, name) -> name.endsWith(".opi"));
+        assumeTrue(opis != null && opis.length > 0);
+        final int instances = 50;
+
+        long start = System.currentTimeMillis();
+        for (File opi : opis)
+            for (int i = 0; i < instances; ++i)
+                parser(opi).call();
+        final long parse_ms = System.currentTimeMillis() - start;
+
+        parsed.set(0);
+        start = System.currentTimeMillis();
+        for (File opi : opis)
+            for (int i = 0; i < instances; ++i)
+                DisplayTemplateCache.getTemplate(opi.getAbsolutePath(), opi, parser(opi));
+        final long cached_ms = System.currentTimeMillis() - start;
+        assertEquals(opis.length, parsed.get());
+
+        System.out.println("Loading " + opis.length + " OPIs " + instances + " times: parsed each time "
+                + parse_ms + " ms, cached " + cached_ms + " ms");
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/** JUnit test of the {@link CompiledScriptCache}
+ *  @author agent
+ */
+public class CompiledScriptCacheTest {
+
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    /** 'Compiles' by wrapping the text into a new object */
+    private final CompiledScriptCache.Compiler<StringBuilder> compiler = text -> {
+        compilations.incrementAndGet();
+        return new StringBuilder(text);
+    };
+
+    @Before
+    public void setup() {
+        CompiledScriptCache.clear();
+    }
+
+    private static InputStream stream(final String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testStrings() throws Exception {
+        final StringBuilder first = CompiledScriptCache.compileString("test", "x = 1", compiler);
+        // Same text for many widgets is compiled once
+        for (int i = 0; i < 100; ++i)
+            assertSame(first, CompiledScriptCache.compileString("test", "x = 1", compiler));
+        assertEquals(1, compilations.get());
+
+        // Different text or engine is compiled again
+        assertNotSame(first, CompiledScriptCache.compileString("test", "x = 2", compiler));
+        assertNotSame(first, CompiledScriptCache.compileString("other", "x = 1", compiler));
+        assertEquals(3, compilations.get());
+    }
+
+    @Test
+    public void testFile() throws Exception {
+        final File file = File.createTempFile("script", ".js");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "x = 1".getBytes(StandardCharsets.UTF_8));
+        final String path = file.getAbsolutePath();
+
+        StringBuilder script;
+        try (InputStream s = new FileInputStream(file)) {
+            script = CompiledScriptCache.compileFile("test", path, file, s, compiler);
+        }
+        assertEquals("x = 1", script.toString());
+        try (InputStream s = new FileInputStream(file)) {
+            assertSame(script, CompiledScriptCache.compileFile("test", path, file, s, compiler));
+        }
+        assertEquals(1, compilations.get());
+
+        // Changed file is compiled again, replacing the old version
+        Files.write(file.toPath(), "x = 22".getBytes(StandardCharsets.UTF_8));
+        file.setLastModified(file.lastModified() + 2000);
+        try (InputStream s = new FileInputStream(file)) {
+            script = CompiledScriptCache.compileFile("test", path, file, s, compiler);
+        }
+        assertEquals("x = 22", script.toString());
+        assertEquals(2, compilations.get());
+        assertEquals(1, CompiledScriptCache.size());
+        file.delete();
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        // Engines of two displays
+        final Object engine1 = new Object(), engine2 = new Object();
+        CompiledScriptCache.compileString(engine1, "x = 1", compiler);
+        CompiledScriptCache.compileFile(engine1, "http://host/a.js", null, stream("x = 2"), compiler);
+        final StringBuilder script = CompiledScriptCache.compileString(engine2, "x = 1", compiler);
+        assertEquals(3, CompiledScriptCache.size());
+
+        // Closing the first display drops only the scripts of its engine
+        CompiledScriptCache.release(engine1);
+        assertEquals(1, CompiledScriptCache.size());
+        assertSame(script, CompiledScriptCache.compileString(engine2, "x = 1", compiler));
+        assertEquals(3, compilations.get());
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        // Without a file, the content identifies the script
+        final StringBuilder script = CompiledScriptCache.compileFile("test", "http://host/a.js", null, stream("x = 1"), compiler);
+        assertSame(script, CompiledScriptCache.compileFile("test", "http://host/a.js", null, stream("x = 1"), compiler));
+        assertNotSame(script, CompiledScriptCache.compileFile("test", "http://host/a.js", null, stream("x = 2"), compiler));
+        assertEquals(2, compilations.get());
+    }
+}
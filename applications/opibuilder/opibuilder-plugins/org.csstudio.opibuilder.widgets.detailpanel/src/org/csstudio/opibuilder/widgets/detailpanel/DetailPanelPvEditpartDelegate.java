@@ -14,6 +14,7 @@ import org.csstudio.opibuilder.editparts.ExecutionMode;
 import org.csstudio.opibuilder.editparts.IPVWidgetEditpart;
 import org.csstudio.opibuilder.model.AbstractWidgetModel;
 import org.csstudio.opibuilder.model.IPVWidgetModel;
+import org.csstudio.opibuilder.preferences.PreferencesHelper;
 import org.csstudio.opibuilder.properties.AbstractWidgetProperty;
 import org.csstudio.opibuilder.properties.IWidgetPropertyChangeHandler;
 import org.csstudio.opibuilder.properties.PVValueProperty;
@@ -128,7 +129,7 @@ public class DetailPanelPvEditpartDelegate implements IPVWidgetEditpart {
                 }
                 try {
                     IPV pv = BOYPVFactory.createPV((String) sp.getPropertyValue(),
-                            isAllValuesBuffered);
+                            isAllValuesBuffered, PreferencesHelper.getGUIRefreshCycle(), editpart);
                     pvMap.put(sp.getPropertyID(), pv);
                     WidgetPVListener pvListener = new WidgetPVListener(sp.getPropertyID());
                     pv.addListener(pvListener);
@@ -281,7 +282,8 @@ public class DetailPanelPvEditpartDelegate implements IPVWidgetEditpart {
                     return false;
                 try {
                     lastWriteAccess = null;
-                    IPV newPV = BOYPVFactory.createPV(newPVName, isAllValuesBuffered);
+                    IPV newPV = BOYPVFactory.createPV(newPVName, isAllValuesBuffered,
+                            PreferencesHelper.getGUIRefreshCycle(), editpart);
                     WidgetPVListener pvListener = new WidgetPVListener(pvNamePropID);
                     newPV.addListener(pvListener);
                     pvMap.put(pvNamePropID, newPV);
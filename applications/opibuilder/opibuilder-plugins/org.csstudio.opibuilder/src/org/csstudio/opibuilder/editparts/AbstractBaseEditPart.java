@@ -192,7 +192,8 @@ public abstract class AbstractBaseEditPart extends AbstractGraphicalEditPart imp
                             pvArray[i] = pvMap.get(pvName);
                         } else {
                             try {
-                                IPV pv = BOYPVFactory.createPV(pvName, false, 2);
+                                IPV pv = BOYPVFactory.createPV(pvName, false, 2,
+                                        AbstractBaseEditPart.this);
                                 pvMap.put(pvName, pv);
                                 addToConnectionHandler(pvName, pv);
                                 pvArray[i] = pv;
@@ -177,7 +177,7 @@ public class PVWidgetEditpartDelegate implements IPVWidgetEditpart {
 
                     try {
                         IPV pv = BOYPVFactory.createPV((String) sp.getPropertyValue(),
-                                isAllValuesBuffered);
+                                isAllValuesBuffered, PreferencesHelper.getGUIRefreshCycle(), editpart);
                         pvMap.put(sp.getPropertyID(), pv);
                         editpart.addToConnectionHandler((String) sp.getPropertyValue(), pv);
                         WidgetPVListener pvListener = new WidgetPVListener(sp.getPropertyID());
@@ -436,7 +436,8 @@ public class PVWidgetEditpartDelegate implements IPVWidgetEditpart {
                     return false;
                 try {
                     lastWriteAccess = null;
-                    IPV newPV = BOYPVFactory.createPV(newPVName, isAllValuesBuffered);
+                    IPV newPV = BOYPVFactory.createPV(newPVName, isAllValuesBuffered,
+                            PreferencesHelper.getGUIRefreshCycle(), editpart);
                     WidgetPVListener pvListener = new WidgetPVListener(pvNamePropID);
                     newPV.addListener(pvListener);
                     pvMap.put(pvNamePropID, newPV);
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.persistence;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.jdom.Element;
+
+/**
+ * Process-wide cache of parsed OPI files that are embedded in linking containers.
+ * <p>
+ * A display that embeds the same OPI in many linking containers,
+ * or a display that is opened again, only parses that OPI once.
+ * The cache is only used by {@link XMLUtil} when it fills a linking container.
+ * The top-level OPI of a display is still parsed each time it is opened.
+ * The cache holds the parsed XML, which does not depend on macros.
+ * Each linking container receives a copy of the XML from which
+ * it builds its own widget models, and macros are then resolved
+ * for each of these widget models as usual.
+ * <p>
+ * Parsed files are identified by their resolved path.
+ * The modification time and size of the file are remembered
+ * to detect changes, so an edited OPI is parsed again.
+ * An edit that keeps the size of the file and happens within the
+ * resolution of the file system's modification time, which can be
+ * one or two seconds, is not detected. The OPI is then parsed again
+ * after its next change or when the cache is cleared.
+ * OPIs that are not available as files, for example from a URL,
+ * are not cached because their modification time is unknown.
+ *
+ * @author agent
+ */
+public class DisplayTemplateCache {
+
+    /** Parsed file */
+    private static class Template {
+        private final long modified;
+        private final long length;
+        private final Element root;
+
+        Template(final long modified, final long length, final Element root) {
+            this.modified = modified;
+            this.length = length;
+            this.root = root;
+        }
+
+        boolean matches(final long modified, final long length) {
+            return this.modified == modified && this.length == length;
+        }
+    }
+
+    /** Maximum number of parsed files to keep */
+    private static final int MAX_TEMPLATES = 200;
+
+    /** Parsed files by path, least recently used first. SYNC on cache */
+    private static final Map<String, Template> cache = new LinkedHashMap<String, Template>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Template> eldest) {
+            return size() > MAX_TEMPLATES;
+        }
+    };
+
+    /**Get the XML of an OPI file.
+     * @param path Resolved path of the OPI, used to identify the parsed file
+     * @param file OPI file in the file system, or <code>null</code> if not known
+     * @param parser Reads and parses the OPI if it is not in the cache
+     * @return Root element of the OPI. Caller may modify it, since it is a copy of the cached element.
+     * @throws Exception on error
+     */
+    public static Element getTemplate(final String path, final File file,
+            final Callable<Element> parser) throws Exception {
+        if (file == null || !file.isFile())
+            return parser.call();
+
+        final long modified = file.lastModified();
+        final long length = file.length();
+        synchronized (cache) {
+            final Template template = cache.get(path);
+            if (template != null && template.matches(modified, length))
+                return (Element) template.root.clone();
+        }
+
+        // Parse without holding the lock.
+        // Worst case, another thread parses the same file concurrently.
+        final Element root = parser.call();
+        if (root == null)
+            return null;
+        synchronized (cache) {
+            cache.put(path, new Template(modified, length, root));
+        }
+        return (Element) root.clone();
+    }
+
+    /** Remove all parsed files */
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /** @return Number of parsed files in the cache */
+    public static int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
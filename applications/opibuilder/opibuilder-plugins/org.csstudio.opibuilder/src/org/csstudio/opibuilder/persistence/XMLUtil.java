@@ -9,6 +9,7 @@ package org.csstudio.opibuilder.persistence;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -206,6 +207,25 @@ public class XMLUtil {
         if(display == null){
             display = Display.getCurrent();
         }
+        try {
+            checkSecuredPath(displayModel, display);
+        } catch (FailedLoginException e) {
+            inputStream.close();
+            throw e;
+        }
+
+        Element root = inputStreamToXML(inputStream);
+        fillDisplayModelFromXML(root, displayModel, display, trace, macrosInput_);
+        inputStream.close();
+    }
+
+    /**In RAP, authenticate the user if the OPI is on a secured path.
+     * @param displayModel the {@link DisplayModel} to be filled.
+     * @param display the display in UI Thread.
+     * @throws FailedLoginException if the user needs to but could not log in
+     */
+    private static void checkSecuredPath(final DisplayModel displayModel, final Display display)
+            throws FailedLoginException {
         IPath opiPath = displayModel.getOpiFilePath();
         if (OPIBuilderPlugin.isRAP() && opiPath != null
                 && !SingleSourceHelper.rapIsLoggedIn(display)) {
@@ -215,7 +235,6 @@ public class XMLUtil {
                 for(String securedPath : securedPaths){
                     if(opiPath.toString().startsWith(securedPath)) {
                         if (!SingleSourceHelper.rapAuthenticate(display)) {
-                            inputStream.close();
                             throw new FailedLoginException();
                         }
                     }
@@ -234,7 +253,6 @@ public class XMLUtil {
                     }
                     if(shouldBeSecured){
                         if (!SingleSourceHelper.rapAuthenticate(display)) {
-                            inputStream.close();
                             throw new FailedLoginException();
                         }
                     }
@@ -242,8 +260,10 @@ public class XMLUtil {
             }
 
         }
+    }
 
-        Element root = inputStreamToXML(inputStream);
+    private static void fillDisplayModelFromXML(final Element root, final DisplayModel displayModel, Display display,
+            List<IPath> trace, final MacrosInput macrosInput_) throws Exception{
         if(root != null){
              XMLElementToWidgetSub(root, displayModel, trace, macrosInput_);
 
@@ -275,7 +295,6 @@ public class XMLUtil {
              }
 
         }
-        inputStream.close();
     }
 
     /**Fill the DisplayModel from an OPI file inputstream. In RAP, it must be called in UI Thread.
@@ -520,7 +539,22 @@ public class XMLUtil {
 
                 try
                 {
-                    fillDisplayModelFromInputStreamSub(ResourceUtil.pathToInputStream(path), inside, Display.getCurrent(), trace, macrosInput_);
+                    final Display display = Display.getCurrent();
+                    checkSecuredPath(inside, display);
+                    // Many linking containers may use the same OPI, so parse it once and copy the XML
+                    final IPath opiPath = path;
+                    File file = null;
+                    try {
+                        file = ResourceUtil.getFile(opiPath);
+                    } catch (Exception ex) {
+                        // Not a local file, parse it each time
+                    }
+                    Element root = DisplayTemplateCache.getTemplate(opiPath.toString(), file, () -> {
+                        try (InputStream stream = ResourceUtil.pathToInputStream(opiPath)) {
+                            return inputStreamToXML(stream);
+                        }
+                    });
+                    fillDisplayModelFromXML(root, inside, display, trace, macrosInput_);
                 }
                 catch (Exception ex)
                 {
@@ -158,12 +158,10 @@ public abstract class AbstractScriptStore implements IScriptStore{
                             ? null
                             : syspath.toFile();
 
-            //read file
-            InputStream inputStream = ResourceUtil.pathToInputStream(absoluteScriptPath, false);
-
-            //compile
-            compileInputStream(file, inputStream);
-            inputStream.close();
+            //read file and compile, unless it's already in the CompiledScriptCache
+            try (InputStream inputStream = ResourceUtil.pathToInputStream(absoluteScriptPath, false)) {
+                compileInputStream(file, inputStream);
+            }
         }
 
 
@@ -236,7 +234,7 @@ public abstract class AbstractScriptStore implements IScriptStore{
      */
     protected abstract void compileString(String string) throws Exception;
 
-    /**Compile InputStream with script engine. The stream will be closed by this method.
+    /**Compile InputStream with script engine. The stream will be closed by the caller.
      * @param file Script file that engine may use to update its search path, or <code>null</code>
      * @param reader
      * @throws Exception
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Process-wide cache of compiled scripts.
+ * <p>
+ * A display where many widgets use the same script file or the same rule
+ * only compiles that script once per script engine.
+ * Compiled scripts are identified by engine, script path and a hash of the script text,
+ * so a changed script is compiled again.
+ * For script files, the modification time and size of the file are remembered
+ * to detect changes without reading the file again.
+ * <p>
+ * The compiled scripts must not hold state of a specific widget,
+ * which is kept in the scope or bindings that each script store
+ * uses when executing the script.
+ * <p>
+ * Compiled scripts may reference the engine that compiled them,
+ * so scripts of an engine that is only used by one display
+ * must be {@link #release(Object) released} when the display is disposed.
+ *
+ * @author agent
+ */
+public class CompiledScriptCache {
+
+    /** Compiles script text for a script engine
+     *  @param <T> Type of compiled script
+     */
+    @FunctionalInterface
+    public interface Compiler<T> {
+        /**
+         * @param text Script text
+         * @return Compiled script
+         * @throws Exception on error
+         */
+        T compile(String text) throws Exception;
+    }
+
+    private static class Key {
+        private final Object engine;
+        private final String path;
+        private final String hash;
+
+        Key(final Object engine, final String path, final String hash) {
+            this.engine = engine;
+            this.path = path;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(engine, path, hash);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key))
+                return false;
+            final Key other = (Key) obj;
+            return engine.equals(other.engine) && Objects.equals(path, other.path) && hash.equals(other.hash);
+        }
+    }
+
+    /** Last known state of a script file */
+    private static class Stamp {
+        private final long modified;
+        private final long length;
+        private final String hash;
+
+        Stamp(final File file, final String hash) {
+            modified = file.lastModified();
+            length = file.length();
+            this.hash = hash;
+        }
+
+        boolean matches(final File file) {
+            return file.lastModified() == modified && file.length() == length;
+        }
+    }
+
+    /** Maximum number of compiled scripts to keep */
+    private static final int MAX_SCRIPTS = 1000;
+
+    /** Compiled scripts, least recently used first. SYNC on cache */
+    private static final Map<Key, Object> cache = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Object> eldest) {
+            return size() > MAX_SCRIPTS;
+        }
+    };
+
+    /** Stamps of script files by path. SYNC on cache */
+    private static final Map<String, Stamp> stamps = new HashMap<>();
+
+    /**Get compiled script for a script text, for example a rule or an embedded script.
+     * @param engine Script engine, used to identify the compiled script
+     * @param text Script text
+     * @param compiler Compiler to use if the script is not in the cache
+     * @return Compiled script
+     * @throws Exception on error
+     */
+    public static <T> T compileString(final Object engine, final String text,
+            final Compiler<T> compiler) throws Exception {
+        return getOrCompile(new Key(engine, null, hash(text)), text, compiler);
+    }
+
+    /**Get compiled script for a script file.
+     * @param engine Script engine, used to identify the compiled script
+     * @param path Path of the script, used to identify the compiled script
+     * @param file Script file in the file system, or <code>null</code> if not known
+     * @param stream Stream for reading the script. Only read when the script needs to be compiled.
+     * @param compiler Compiler to use if the script is not in the cache
+     * @return Compiled script
+     * @throws Exception on error
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T compileFile(final Object engine, final String path, final File file,
+            final InputStream stream, final Compiler<T> compiler) throws Exception {
+        final boolean have_file = file != null && file.isFile();
+        if (have_file) {
+            synchronized (cache) {
+                final Stamp stamp = stamps.get(path);
+                if (stamp != null && stamp.matches(file)) {
+                    final Object compiled = cache.get(new Key(engine, path, stamp.hash));
+                    if (compiled != null)
+                        return (T) compiled;
+                }
+            }
+        }
+
+        final String text = read(stream);
+        final String hash = hash(text);
+        if (have_file) {
+            synchronized (cache) {
+                final Stamp previous = stamps.put(path, new Stamp(file, hash));
+                // Drop scripts compiled from an older version of the file
+                if (previous != null && !previous.hash.equals(hash)) {
+                    final Iterator<Key> keys = cache.keySet().iterator();
+                    while (keys.hasNext()) {
+                        final Key key = keys.next();
+                        if (path.equals(key.path) && previous.hash.equals(key.hash))
+                            keys.remove();
+                    }
+                }
+            }
+        }
+        return getOrCompile(new Key(engine, path, hash), text, compiler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T getOrCompile(final Key key, final String text,
+            final Compiler<T> compiler) throws Exception {
+        synchronized (cache) {
+            final Object compiled = cache.get(key);
+            if (compiled != null)
+                return (T) compiled;
+        }
+        // Compile without holding the lock.
+        // Worst case, another thread compiles the same script concurrently.
+        final T compiled = compiler.compile(text);
+        synchronized (cache) {
+            final Object existing = cache.putIfAbsent(key, compiled);
+            if (existing != null)
+                return (T) existing;
+        }
+        return compiled;
+    }
+
+    /**Remove the compiled scripts of an engine, so the engine can be garbage collected.
+     * @param engine Script engine that is no longer used
+     */
+    public static void release(final Object engine) {
+        synchronized (cache) {
+            cache.keySet().removeIf(key -> key.engine == engine);
+        }
+    }
+
+    /** Remove all compiled scripts */
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+            stamps.clear();
+        }
+    }
+
+    /** @return Number of compiled scripts in the cache */
+    public static int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static String read(final InputStream stream) throws IOException {
+        final StringBuilder buf = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+            final char[] chars = new char[4096];
+            int len;
+            while ((len = reader.read(chars)) > 0)
+                buf.append(chars, 0, len);
+        }
+        return buf.toString();
+    }
+
+    private static String hash(final String text) throws Exception {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+        return Base64.getEncoder().encodeToString(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,9 +1,7 @@
 package org.csstudio.opibuilder.script;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 
 import javax.script.Bindings;
 import javax.script.Compilable;
@@ -16,6 +14,8 @@ import org.csstudio.simplepv.IPV;
 /**
  * This is the implementation of {@link AbstractScriptStore} for the default javascript script engine embedded in Java.
  * The default javascript engine is Rhino for Java 7, Nashorn for Java 8.
+ * Compiled scripts are shared via the {@link CompiledScriptCache} by all stores that use the same engine,
+ * each store evaluates them with its own bindings.
  */
 public class JavaScriptStore extends AbstractScriptStore {
 
@@ -42,15 +42,14 @@ public class JavaScriptStore extends AbstractScriptStore {
 
     @Override
     protected void compileString(String string) throws Exception {
-        script = ((Compilable) engine).compile(string);
+        script = CompiledScriptCache.compileString(engine, string,
+                text -> ((Compilable) engine).compile(text));
     }
 
     @Override
-    protected void compileInputStream(File dir, InputStream s) throws Exception {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(s))) {
-            script = ((Compilable) engine).compile(reader);
-        }
-
+    protected void compileInputStream(File file, InputStream s) throws Exception {
+        script = CompiledScriptCache.compileFile(engine, getAbsoluteScriptPath().toString(), file, s,
+                text -> ((Compilable) engine).compile(text));
     }
 
     @Override
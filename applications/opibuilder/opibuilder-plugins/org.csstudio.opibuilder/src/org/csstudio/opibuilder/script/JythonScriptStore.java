@@ -9,7 +9,6 @@ package org.csstudio.opibuilder.script;
 
 import java.io.File;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 
 import org.csstudio.opibuilder.editparts.AbstractBaseEditPart;
 import org.csstudio.opibuilder.util.ResourceUtil;
@@ -18,21 +17,38 @@ import org.eclipse.core.runtime.IPath;
 import org.python.core.Py;
 import org.python.core.PyCode;
 import org.python.core.PyList;
-import org.python.core.PyObject;
 import org.python.core.PyString;
 import org.python.core.PyStringMap;
-import org.python.core.PySystemState;
 import org.python.util.PythonInterpreter;
 
 /**
  * This is the implementation of {@link AbstractScriptStore} for Jython PythonInterpreter.
+ * <p>
+ * Compiled scripts are shared via the {@link CompiledScriptCache}.
+ * Instead of creating an interpreter for each widget, all stores of a thread
+ * use the same interpreter, and each store executes its script
+ * in its own namespace, so variables of one widget's script
+ * are not visible to other widgets.
  * @author Xihui Chen
  *
  */
 public class JythonScriptStore extends AbstractScriptStore{
 
+    /** Identifies Jython scripts in the {@link CompiledScriptCache} */
+    private static final String ENGINE = "jython"; //$NON-NLS-1$
+
+    /** Interpreter of each thread, shared by all its stores */
+    private static final ThreadLocal<PythonInterpreter> interpreters = new ThreadLocal<PythonInterpreter>() {
+        @Override
+        protected PythonInterpreter initialValue() {
+            return PythonInterpreter.threadLocalStateInterpreter(null);
+        }
+    };
+
     private PythonInterpreter interp;
-    private PySystemState state;
+
+    /** Namespace of this store's script */
+    private PyStringMap locals;
 
     private PyCode code;
 
@@ -46,25 +62,34 @@ public class JythonScriptStore extends AbstractScriptStore{
     protected void initScriptEngine() {
         IPath scriptPath = getAbsoluteScriptPath();
         //Add the path of script to python module search path
-        state = Py.getSystemState();
+        final PyList paths = Py.getSystemState().path;
         if(scriptPath != null && !scriptPath.isEmpty()){
-
+            String folder = null;
             //If it is a workspace file.
             if(ResourceUtil.isExistingWorkspaceFile(scriptPath)){
                 IPath folderPath = scriptPath.removeLastSegments(1);
-                String sysLocation = ResourceUtil.workspacePathToSysPath(folderPath).toOSString();
-                state.path.append(new PyString(sysLocation));
+                folder = ResourceUtil.workspacePathToSysPath(folderPath).toOSString();
             }else if(ResourceUtil.isExistingLocalFile(scriptPath)){
                 IPath folderPath = scriptPath.removeLastSegments(1);
-                state.path.append(new PyString(folderPath.toOSString()));
+                folder = folderPath.toOSString();
+            }
+            // Many widgets may use scripts from the same folder
+            if (folder != null) {
+                synchronized (paths) {
+                    final PyString entry = new PyString(folder);
+                    if (!paths.contains(entry))
+                        paths.append(entry);
+                }
             }
         }
-        interp = PythonInterpreter.threadLocalStateInterpreter(state.getDict());
+        interp = interpreters.get();
+        locals = new PyStringMap();
+        locals.__setitem__("__name__", new PyString("__main__")); //$NON-NLS-1$ //$NON-NLS-2$
     }
 
     @Override
     protected void compileString(String string) throws Exception {
-        code = interp.compile(string);
+        code = CompiledScriptCache.compileString(ENGINE, string, text -> interp.compile(text));
     }
 
     @Override
@@ -81,21 +106,25 @@ public class JythonScriptStore extends AbstractScriptStore{
             synchronized (paths)
             {
                 final int index = paths.indexOf(path);
-                // Already top entry?
-                if (index == 0)
-                    return;
-                // Remove if further down in the list
-                if (index > 0)
-                    paths.remove(index);
-                // Add to front of list
-                paths.add(0, path);
+                // Unless already top entry,
+                // remove if further down in the list
+                // and add to front of list
+                if (index != 0)
+                {
+                    if (index > 0)
+                        paths.remove(index);
+                    paths.add(0, path);
+                }
             }
         }
-        code = interp.compile(new InputStreamReader(s));
+        code = CompiledScriptCache.compileFile(ENGINE, getAbsoluteScriptPath().toString(), file, s,
+                text -> interp.compile(text));
     }
 
     @Override
     protected void execScript(final IPV triggerPV) throws Exception {
+        // Execute in the namespace of this store
+        interp.setLocals(locals);
         interp.set(ScriptService.WIDGET, getEditPart());
         interp.set(ScriptService.PVS, getPvArray());
         interp.set(ScriptService.DISPLAY, getDisplayEditPart());
@@ -107,26 +136,12 @@ public class JythonScriptStore extends AbstractScriptStore{
 
     @Override
     protected void dispose() {
-        if (interp != null) {
-            PyObject o = interp.getLocals();
-            if (o != null && o instanceof PyStringMap) {
-                ((PyStringMap)o).clear();
-            }
-//            o = state.getBuiltins();
-//            if (o != null && o instanceof PyStringMap) {
-//                ((PyStringMap)o).clear();
-//            }
-            o = state.getDict();
-            if (o != null && o instanceof PyStringMap) {
-                ((PyStringMap)o).clear();
-            }
-            state.close();
-            state.cleanup();
-            interp.close();
-            interp.cleanup();
-            interp = null;
-            state = null;
+        // The interpreter is shared, only clear this store's namespace
+        if (locals != null) {
+            locals.clear();
+            locals = null;
         }
+        interp = null;
         code = null;
         super.dispose();
     }
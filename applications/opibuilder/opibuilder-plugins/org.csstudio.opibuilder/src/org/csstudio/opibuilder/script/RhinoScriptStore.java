@@ -7,11 +7,8 @@
  ******************************************************************************/
 package org.csstudio.opibuilder.script;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 
 import org.csstudio.opibuilder.editparts.AbstractBaseEditPart;
 import org.csstudio.simplepv.IPV;
@@ -23,11 +20,16 @@ import org.mozilla.javascript.ScriptableObject;
 
 /**
  * This is the implementation of {@link AbstractScriptStore} for Rhino script engine.
+ * Compiled scripts are shared via the {@link CompiledScriptCache},
+ * each store executes them in its own scope.
  * @author Xihui Chen
  *
  */
 public class RhinoScriptStore extends AbstractScriptStore{
 
+    /** Identifies Rhino scripts in the {@link CompiledScriptCache} */
+    private static final String ENGINE = "rhino"; //$NON-NLS-1$
+
     private Context scriptContext;
 
     private Scriptable scriptScope;
@@ -63,15 +65,14 @@ public class RhinoScriptStore extends AbstractScriptStore{
 
     @Override
     protected void compileString(String string) throws Exception{
-        script = scriptContext.compileString(string, "rule", 1, null);
+        script = CompiledScriptCache.compileString(ENGINE, string,
+                text -> scriptContext.compileString(text, "rule", 1, null)); //$NON-NLS-1$
     }
 
     @Override
-    protected void compileInputStream(File file, InputStream s) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(s));
-        script = scriptContext.compileReader(reader, "script", 1, null); //$NON-NLS-1$
-        s.close();
-        reader.close();
+    protected void compileInputStream(File file, InputStream s) throws Exception {
+        script = CompiledScriptCache.compileFile(ENGINE, getAbsoluteScriptPath().toString(), file, s,
+                text -> scriptContext.compileString(text, "script", 1, null)); //$NON-NLS-1$
     }
 
     @Override
@@ -150,7 +150,9 @@ public class ScriptStoreFactory {
 
             @Override
             public void run() {
-                displayContextMap.remove(display);
+                displayScriptEngineMap.remove(display);
+                // Compiled scripts keep their engine reachable
+                CompiledScriptCache.release(engine);
             }
         });
     }
@@ -78,7 +78,8 @@ public class PVUtil {
      */
     public final static IPV createPV(String name, AbstractBaseEditPart widget) throws Exception {
 
-        final IPV pv = BOYPVFactory.createPV(name, false, 20);
+        // notified on the lane of the widget, like the PVs of its scripts
+        final IPV pv = BOYPVFactory.createPV(name, false, 20, widget);
         pv.start();
         widget.addEditPartListener(new EditPartListener.Stub() {
 
@@ -386,6 +387,7 @@ public class PVUtil {
             protected IStatus run(IProgressMonitor monitor) {
 
                 try {
+                    // no widget and no listeners, so the PV stays on the lane of its name
                     IPV pv = BOYPVFactory.createPV(pvName);
                     pv.start();
                     try {
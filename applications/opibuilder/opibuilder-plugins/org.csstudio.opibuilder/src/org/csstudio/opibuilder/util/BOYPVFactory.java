@@ -1,8 +1,5 @@
 package org.csstudio.opibuilder.util;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
 import org.csstudio.opibuilder.preferences.PreferencesHelper;
 import org.csstudio.simplepv.AbstractPVFactory;
 import org.csstudio.simplepv.ExceptionHandler;
@@ -17,12 +14,6 @@ import org.eclipse.swt.widgets.Display;
  */
 public class BOYPVFactory{
 
-    /**
-     * The default background thread for PV change event notification.
-     */
-    private final static ExecutorService BOY_PV_THREAD = Executors
-            .newSingleThreadExecutor();
-
     private final static ExceptionHandler exceptionHandler = new ExceptionHandler() {
         @Override
         public void handleException(Exception ex) {
@@ -65,6 +56,22 @@ public class BOYPVFactory{
      */
     public static IPV createPV(final String name,
             final boolean bufferAllValues, final int updateDuration) throws Exception{
+        return createPV(name, bufferAllValues, updateDuration, name);
+    }
+
+    /**Create a PV based on PV connection layer preference.
+     * The listeners of all PVs created for the same owner are notified on the same thread,
+     * so they are never called concurrently.
+     * @param name name of the PV.
+     * @param bufferAllValues if all values should be buffered. Only meaningful if it is using
+     * PV Manager.
+     * @param updateDuration the fastest update duration.
+     * @param owner the owner of the PV, for example the widget edit part.
+     * @return the PV
+     * @throws Exception
+     */
+    public static IPV createPV(final String name,
+            final boolean bufferAllValues, final int updateDuration, final Object owner) throws Exception{
 
             String pvConnectionLayer = PreferencesHelper.getPVConnectionLayer();
             if(pvConnectionLayer == null || pvConnectionLayer.isEmpty())
@@ -74,7 +81,8 @@ public class BOYPVFactory{
             if(pvFactory == null)
                 throw new Exception("No such PVFactory extension available: " + pvConnectionLayer);
             return pvFactory.createPV(
-                    name, false, updateDuration, bufferAllValues,  BOY_PV_THREAD, exceptionHandler);
+                    name, false, updateDuration, bufferAllValues,
+                    AbstractPVFactory.getNotificationLanes().getLane(owner), exceptionHandler);
     }
 
 }
@@ -9,6 +9,7 @@ package org.csstudio.opibuilder.widgetActions;
 
 import org.csstudio.opibuilder.editparts.IPVWidgetEditpart;
 import org.csstudio.opibuilder.model.IPVWidgetModel;
+import org.csstudio.opibuilder.preferences.PreferencesHelper;
 import org.csstudio.opibuilder.properties.IntegerProperty;
 import org.csstudio.opibuilder.properties.PVNameProperty;
 import org.csstudio.opibuilder.properties.StringProperty;
@@ -103,10 +104,12 @@ public class WritePVAction extends AbstractWidgetAction {
             }
         }
 
+        // Look up the owner in the UI thread, the edit part registry is not thread safe
+        final Object owner = getPVOwner();
         Job job = new Job(getDescription()) {
             @Override
             protected IStatus run(IProgressMonitor monitor) {
-                    return writePVInSync();
+                    return writePVInSync(owner);
             }
 
         };
@@ -115,10 +118,25 @@ public class WritePVAction extends AbstractWidgetAction {
     }
 
 
-    private IStatus writePVInSync(){
+    /**
+     * @return the edit part of the widget, so the PV is notified on the same lane
+     *         as the other PVs of the widget, or the PV name if there is no widget.
+     */
+    private Object getPVOwner(){
+        if (getWidgetModel() != null) {
+            Object editPart = getWidgetModel().getRootDisplayModel().getViewer()
+                    .getEditPartRegistry().get(getWidgetModel());
+            if (editPart != null)
+                return editPart;
+        }
+        return getPVName();
+    }
+
+    private IStatus writePVInSync(final Object owner){
         String text = getValue().trim();
         try    {
-            IPV pv = BOYPVFactory.createPV(getPVName());
+            IPV pv = BOYPVFactory.createPV(getPVName(), false,
+                    PreferencesHelper.getGUIRefreshCycle(), owner);
             pv.start();
             try
             {
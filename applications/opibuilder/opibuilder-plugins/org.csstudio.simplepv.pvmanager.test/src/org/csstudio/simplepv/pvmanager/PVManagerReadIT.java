@@ -44,7 +44,7 @@ public class PVManagerReadIT extends TestHelper
         final boolean readonly = true;
         final boolean buffer = false;
         final IPV pv = factory.createPV("sim://ramp", readonly, 10, buffer,
-                AbstractPVFactory.getDefaultPVNotificationThread(), null);
+                AbstractPVFactory.getNotificationLanes().getLane("sim://ramp"), null);
         pv.addListener(new IPVListener()
         {
             @Override
@@ -123,7 +123,7 @@ public class PVManagerReadIT extends TestHelper
         final boolean readonly = true;
         final boolean buffer = true;
         final IPV pv = factory.createPV("sim://ramp", readonly, (int)TimeUnit.SECONDS.toMillis(2),
-                    buffer, AbstractPVFactory.getDefaultPVNotificationThread(), null);
+                    buffer, AbstractPVFactory.getNotificationLanes().getLane("sim://ramp"), null);
 
         final AtomicBoolean got_multiples = new AtomicBoolean();
 
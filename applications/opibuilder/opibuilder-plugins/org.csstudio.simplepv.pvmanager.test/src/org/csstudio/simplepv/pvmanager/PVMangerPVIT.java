@@ -8,6 +8,7 @@
 
 package org.csstudio.simplepv.pvmanager;
 
+import org.csstudio.simplepv.NotificationLanes;
 import org.csstudio.simplepv.testutil.BasicReadTester;
 import org.csstudio.simplepv.testutil.BasicReadWriteTester;
 import org.csstudio.simplepv.testutil.BufferingReadTester;
@@ -67,4 +68,24 @@ private static final String PVMANAGER = "pvmanager";
         });
         tester.testAll();
     }
+
+    @Test
+    public void testThroughput() throws Exception{
+        BulkTester tester = new BulkTester(PVMANAGER, 2000, new PVNameProvider() {
+
+            @Override
+            public String getPVName(int index) {
+                return "sim://ramp(0," + (index +1)+ ",1,0.01)";
+            }
+        });
+        // Single notification thread vs. one lane per CPU core
+        for (int lane_count : new int[] { 1, Runtime.getRuntime().availableProcessors() }) {
+            NotificationLanes lanes = new NotificationLanes(lane_count);
+            try {
+                tester.testThroughput(lanes, 10);
+            } finally {
+                lanes.shutdown();
+            }
+        }
+    }
 }
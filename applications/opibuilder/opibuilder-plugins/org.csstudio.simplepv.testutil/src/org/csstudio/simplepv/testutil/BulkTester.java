@@ -11,6 +11,7 @@ package org.csstudio.simplepv.testutil;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -18,6 +19,7 @@ import org.junit.Assert;
 
 import org.csstudio.simplepv.IPV;
 import org.csstudio.simplepv.IPVListener;
+import org.csstudio.simplepv.NotificationLanes;
 import org.csstudio.simplepv.SimplePVLayer;
 
 /**
@@ -105,6 +107,67 @@ public class BulkTester {
 
     }
 
+    /**
+     * Measure the rate of value updates that all PVs receive.
+     *
+     * @param lanes
+     *            notification lanes on which the PVs are notified.
+     * @param seconds
+     *            duration of the measurement after all PVs connected.
+     * @return updates per second.
+     * @throws Exception
+     */
+    public double testThroughput(NotificationLanes lanes, int seconds) throws Exception {
+        IPV[] pvs = new IPV[totalPVs];
+        final CountDownLatch latch = new CountDownLatch(totalPVs);
+        final AtomicInteger received = new AtomicInteger(0);
+        try {
+            for (int i = 1; i <= totalPVs; i++) {
+                final String name = pvNameProvider.getPVName(i);
+                final Executor lane = lanes.getLane(name);
+                IPV pv = SimplePVLayer.getPVFactory(pvFactoryId).createPV(name, true, 10, false, lane, null);
+                pvs[i - 1] = pv;
+                pv.addListener(new IPVListener.Stub() {
+                    @Override
+                    public void valueChanged(IPV pv) {
+                        received.incrementAndGet();
+                    }
+
+                    @Override
+                    public void connectionChanged(IPV pv) {
+                        if (pv.isConnected())
+                            latch.countDown();
+                    }
+                });
+                pv.start();
+            }
+            if (!latch.await(20, TimeUnit.SECONDS))
+                Assert.fail("" + latch.getCount() + " pvs cannot connect in 20 seconds.");
+
+            lanes.resetStatistics();
+            received.set(0);
+            long startTime = System.nanoTime();
+            int maxDepth = 0;
+            for (int i = 0; i < seconds * 10; i++) {
+                Thread.sleep(100);
+                maxDepth = Math.max(maxDepth, lanes.getStatistics().getQueueDepth());
+            }
+            double secs = (System.nanoTime() - startTime) / 1e9;
+            double rate = received.get() / secs;
+            NotificationLanes.Statistics statistics = lanes.getStatistics();
+            System.out.format("%d pvs on %d lanes: %.1f updates/sec, max. queue depth %d, "
+                    + "%d dispatched, latency avg. %.3f ms, max. %.3f ms\n",
+                    totalPVs, statistics.getLaneCount(), rate, maxDepth,
+                    statistics.getDispatchCount(), statistics.getAverageDispatchLatency(),
+                    statistics.getMaxDispatchLatency());
+            return rate;
+        } finally {
+            for (int i = 0; i < totalPVs; i++)
+                if (pvs[i] != null)
+                    pvs[i].stop();
+        }
+    }
+
     public interface PVNameProvider {
         /**
          * Get PVName based on the index.
@@ -24,6 +24,12 @@ public abstract class AbstractPVFactory {
      */
     static ExecutorService SIMPLE_PV_THREAD = null;
 
+    /**
+     * The default notification lanes for PV change events. They will only be created
+     * on their first use.
+     */
+    static NotificationLanes NOTIFICATION_LANES = null;
+
     /**Create a PV.
      * @param name name of the PV. Must not be null.
      * @param readOnly true if the client doesn't need to write to the PV.
@@ -48,20 +54,34 @@ public abstract class AbstractPVFactory {
      * readOnly = false;
      * minUpdatePeriod = 10 ms;
      * bufferAllValues = false;
-     * notificationThread = {@link #SIMPLE_PV_THREAD}
+     * notificationThread = lane of the PV in {@link #getNotificationLanes()}
      * exceptionHandler = null;
      * </pre>
      * @param name name of the PV. Must not be null.
      * @return the pv.
      * @throws Exception error on creating pv.
       */
-    public synchronized IPV createPV(final String name) throws Exception{
-        if (SIMPLE_PV_THREAD == null)
-            SIMPLE_PV_THREAD = Executors.newSingleThreadExecutor();
+    public IPV createPV(final String name) throws Exception{
         return createPV(name, false, 10,
-                false, SIMPLE_PV_THREAD, null);
+                false, getNotificationLanes().getLane(name), null);
     }
 
+    /**
+     * @return the default notification lanes. Each PV should be notified on its own
+     * {@link NotificationLanes#getLane(String)} to preserve the order of its events.
+     */
+    public static synchronized NotificationLanes getNotificationLanes() {
+        if (NOTIFICATION_LANES == null)
+            NOTIFICATION_LANES = new NotificationLanes(PreferenceHelper.getNotificationThreads());
+        return NOTIFICATION_LANES;
+    }
+
+    /**
+     * @return a single notification thread shared by all PVs that use it.
+     * @deprecated Serializes the events of all PVs.
+     * Use the lane of each PV in {@link #getNotificationLanes()}.
+     */
+    @Deprecated
     public static synchronized ExecutorService getDefaultPVNotificationThread() {
         if (SIMPLE_PV_THREAD == null)
             SIMPLE_PV_THREAD = Executors.newSingleThreadExecutor();
@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+
+package org.csstudio.simplepv;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A fixed number of notification threads, the 'lanes', for PV change events.
+ * <p>
+ * Each PV is pinned to one lane by the hash of a key, so all notifications
+ * of a PV are still delivered in order on the same thread,
+ * while notifications of different PVs can be handled in parallel.
+ * <p>
+ * Listeners that handle several PVs and keep state across them,
+ * like a script that is triggered by several input PVs,
+ * are not thread safe. All PVs of such a listener must use the same key,
+ * for example the widget that owns them, so they are notified on the same lane.
+ * <p>
+ * Keeps track of the queue depth and the dispatch latency,
+ * i.e. the time a notification waits in the queue before its listener is called.
+ * The statistics are logged every {@link #LOG_PERIOD_SECS} seconds at level {@link Level#FINE}.
+ *
+ * @author agent
+ */
+public class NotificationLanes {
+
+    /** Period for logging the statistics */
+    public static final long LOG_PERIOD_SECS = 60;
+
+    private static final Logger LOGGER = Logger.getLogger(NotificationLanes.class.getName());
+
+    private final ThreadPoolExecutor[] lanes;
+
+    private final ScheduledExecutorService statisticsLog;
+
+    private final AtomicLong dispatches = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**Create notification lanes.
+     * @param count number of lanes. Must be at least 1.
+     */
+    public NotificationLanes(final int count) {
+        if (count < 1)
+            throw new IllegalArgumentException("Need at least one notification lane, got " + count); //$NON-NLS-1$
+        lanes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; ++i) {
+            final String name = "SimplePV Notification " + (i + 1); //$NON-NLS-1$
+            final ThreadFactory threads = runnable -> {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            };
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(), threads);
+        }
+        statisticsLog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "SimplePV Notification Statistics"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+        statisticsLog.scheduleAtFixedRate(this::logStatistics, LOG_PERIOD_SECS, LOG_PERIOD_SECS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return number of lanes.
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**Get the lane for a key.
+     * @param key name of a PV, or the owner of several PVs whose listeners
+     *        must not be called concurrently.
+     * @return the executor that runs all notifications for this key on its lane.
+     */
+    public Executor getLane(final Object key) {
+        final ThreadPoolExecutor lane = lanes[Math.floorMod(key.hashCode(), lanes.length)];
+        return runnable -> {
+            final long queued = System.nanoTime();
+            lane.execute(() -> {
+                final long latency = System.nanoTime() - queued;
+                dispatches.incrementAndGet();
+                totalLatency.addAndGet(latency);
+                maxLatency.accumulateAndGet(latency, Math::max);
+                runnable.run();
+            });
+        };
+    }
+
+    /**
+     * @param lane index of the lane, 0 .. {@link #getLaneCount()}-1.
+     * @return number of notifications waiting on that lane.
+     */
+    public int getQueueDepth(final int lane) {
+        return lanes[lane].getQueue().size();
+    }
+
+    /**
+     * @return number of notifications waiting on all lanes.
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor lane : lanes)
+            depth += lane.getQueue().size();
+        return depth;
+    }
+
+    /**
+     * @return number of notifications dispatched since the last {@link #resetStatistics()}.
+     */
+    public long getDispatchCount() {
+        return dispatches.get();
+    }
+
+    /**
+     * @return average time in milliseconds that notifications waited before being dispatched.
+     */
+    public double getAverageDispatchLatency() {
+        final long count = dispatches.get();
+        if (count <= 0)
+            return 0.0;
+        return totalLatency.get() / 1e6 / count;
+    }
+
+    /**
+     * @return maximum time in milliseconds that a notification waited before being dispatched.
+     */
+    public double getMaxDispatchLatency() {
+        return maxLatency.get() / 1e6;
+    }
+
+    /**
+     * @return snapshot of the queue depths, dispatch count and latencies.
+     */
+    public Statistics getStatistics() {
+        final int[] depths = new int[lanes.length];
+        for (int i = 0; i < lanes.length; ++i)
+            depths[i] = getQueueDepth(i);
+        return new Statistics(depths, getDispatchCount(),
+                getAverageDispatchLatency(), getMaxDispatchLatency());
+    }
+
+    /**Reset the dispatch count and latencies.
+     */
+    public void resetStatistics() {
+        dispatches.set(0);
+        totalLatency.set(0);
+        maxLatency.set(0);
+    }
+
+    /**Log the statistics and reset them, so each log message covers one period.
+     */
+    private void logStatistics() {
+        if (! LOGGER.isLoggable(Level.FINE))
+            return;
+        LOGGER.log(Level.FINE, "{0}", this); //$NON-NLS-1$
+        resetStatistics();
+    }
+
+    /**Stop all lanes. Notifications that are already queued will still be delivered.
+     */
+    public void shutdown() {
+        statisticsLog.shutdown();
+        LOGGER.log(Level.INFO, "{0}", this); //$NON-NLS-1$
+        for (ThreadPoolExecutor lane : lanes)
+            lane.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return getStatistics().toString();
+    }
+
+    /**Snapshot of the statistics of the notification lanes.
+     */
+    public static class Statistics {
+
+        private final int[] queueDepths;
+        private final long dispatchCount;
+        private final double averageDispatchLatency;
+        private final double maxDispatchLatency;
+
+        private Statistics(final int[] queueDepths, final long dispatchCount,
+                final double averageDispatchLatency, final double maxDispatchLatency) {
+            this.queueDepths = queueDepths;
+            this.dispatchCount = dispatchCount;
+            this.averageDispatchLatency = averageDispatchLatency;
+            this.maxDispatchLatency = maxDispatchLatency;
+        }
+
+        /**
+         * @return number of lanes.
+         */
+        public int getLaneCount() {
+            return queueDepths.length;
+        }
+
+        /**
+         * @param lane index of the lane, 0 .. {@link #getLaneCount()}-1.
+         * @return number of notifications that were waiting on that lane.
+         */
+        public int getQueueDepth(final int lane) {
+            return queueDepths[lane];
+        }
+
+        /**
+         * @return number of notifications that were waiting on all lanes.
+         */
+        public int getQueueDepth() {
+            int depth = 0;
+            for (int lane_depth : queueDepths)
+                depth += lane_depth;
+            return depth;
+        }
+
+        /**
+         * @return number of notifications dispatched since the statistics were reset.
+         */
+        public long getDispatchCount() {
+            return dispatchCount;
+        }
+
+        /**
+         * @return average time in milliseconds that notifications waited before being dispatched.
+         */
+        public double getAverageDispatchLatency() {
+            return averageDispatchLatency;
+        }
+
+        /**
+         * @return maximum time in milliseconds that a notification waited before being dispatched.
+         */
+        public double getMaxDispatchLatency() {
+            return maxDispatchLatency;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder depths = new StringBuilder();
+            for (int i = 0; i < queueDepths.length; ++i) {
+                if (i > 0)
+                    depths.append(", "); //$NON-NLS-1$
+                depths.append(queueDepths[i]);
+            }
+            return String.format("%d notification lanes, queued %d (%s), dispatched %d, latency avg. %.3f ms, max. %.3f ms", //$NON-NLS-1$
+                    queueDepths.length, getQueueDepth(), depths, dispatchCount,
+                    averageDispatchLatency, maxDispatchLatency);
+        }
+    }
+}
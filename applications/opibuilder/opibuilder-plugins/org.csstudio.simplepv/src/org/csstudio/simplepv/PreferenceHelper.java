@@ -17,6 +17,7 @@ import org.eclipse.core.runtime.preferences.IPreferencesService;
 public class PreferenceHelper {
 
     final public static String DEFAULT_PVFACTORY="default_pvfactory"; //$NON-NLS-1$
+    final public static String NOTIFICATION_THREADS="notification_threads"; //$NON-NLS-1$
 
 
      /** @param preferenceName Preference identifier
@@ -32,4 +33,15 @@ public class PreferenceHelper {
         return getString(DEFAULT_PVFACTORY);
     }
 
+    /** @return Number of PV notification threads, at least 1 */
+    public static int getNotificationThreads(){
+        int threads = 0;
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service != null)
+            threads = service.getInt(SimplePVPlugin.PLUGIN_ID, NOTIFICATION_THREADS, 0, null);
+        if (threads <= 0)
+            threads = Runtime.getRuntime().availableProcessors();
+        return threads;
+    }
+
 }
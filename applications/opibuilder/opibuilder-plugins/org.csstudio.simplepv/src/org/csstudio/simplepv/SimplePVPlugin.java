@@ -27,6 +27,8 @@ public class SimplePVPlugin implements BundleActivator {
     public void stop(BundleContext context) throws Exception {
         if(AbstractPVFactory.SIMPLE_PV_THREAD!=null)
             AbstractPVFactory.SIMPLE_PV_THREAD.shutdown();
+        if(AbstractPVFactory.NOTIFICATION_LANES!=null)
+            AbstractPVFactory.NOTIFICATION_LANES.shutdown();
     }
 
 }
@@ -20,11 +20,15 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.ParseException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.csstudio.saverestore.DataProvider.ImportType;
 import org.csstudio.saverestore.DataProviderException;
@@ -49,6 +53,7 @@ import org.diirt.vtype.ValueFactory;
 import org.eclipse.jgit.api.CommitCommand;
 import org.eclipse.jgit.api.CreateBranchCommand.SetupUpstreamMode;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand.ResetType;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
@@ -509,6 +514,46 @@ public class GitManagerTest {
         assertEquals(1, snapshots.size());
     }
 
+    @Test
+    public void testSnapshotIndex() throws Exception {
+        List<Snapshot> snapshots = manager.getSnapshots(secondBranchSaveSet, 0, Optional.empty());
+        List<Snapshot> found = manager.findSnapshotsByCommentOrUser("porky", secondBranch, false, true,
+            Optional.empty(), Optional.empty());
+        manager.dispose();
+        assertTrue("Index was stored", new File(repositoryPath, ".git/" + SnapshotIndex.FILE_NAME).exists());
+        // the new manager loads the index from the file; searches can run in parallel
+        setUp();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Snapshot>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> manager.getSnapshots(secondBranchSaveSet, 0, Optional.empty())));
+                results.add(executor.submit(() -> manager.findSnapshotsByCommentOrUser("porky", secondBranch, false,
+                    true, Optional.empty(), Optional.empty())));
+            }
+            for (int i = 0; i < results.size(); i += 2) {
+                assertEquals(snapshots, results.get(i).get());
+                assertEquals(found, results.get(i + 1).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // the index follows the commits that were made or reverted outside of the manager
+        try (Git git = Git.open(repositoryPath)) {
+            git.checkout().setName(secondBranch.getShortName()).call();
+            writeSnapshot(git, new VSnapshot(new Snapshot(secondBranchSaveSet, Instant.ofEpochMilli(time + 20000),
+                "That's all folks!", "porky pig"), secondV1.getEntries(), Instant.ofEpochMilli(time + 20000)));
+            List<Snapshot> newSnapshots = manager.getSnapshots(secondBranchSaveSet, 0, Optional.empty());
+            assertEquals(snapshots.size() + 1, newSnapshots.size());
+            assertEquals("That's all folks!", newSnapshots.get(0).getComment());
+            assertEquals(snapshots, newSnapshots.subList(1, newSnapshots.size()));
+            assertEquals(found.size() + 1, manager.findSnapshotsByCommentOrUser("porky", secondBranch, false, true,
+                Optional.empty(), Optional.empty()).size());
+            git.reset().setMode(ResetType.HARD).setRef("HEAD~1").call();
+        }
+        assertEquals(snapshots, manager.getSnapshots(secondBranchSaveSet, 0, Optional.empty()));
+    }
+
     @Test
     public void testDeleteSaveSet() throws IOException, GitAPIException {
         SaveSet newSaveSet = new SaveSet(secondBranch, Optional.of(secondBase), new String[] { "created", "set2.bms" },
@@ -33,6 +33,9 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
 
@@ -54,8 +57,8 @@ import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.CommitCommand;
 import org.eclipse.jgit.api.CreateBranchCommand.SetupUpstreamMode;
 import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.ListBranchCommand.ListMode;
 import org.eclipse.jgit.api.LogCommand;
+import org.eclipse.jgit.api.ListBranchCommand.ListMode;
 import org.eclipse.jgit.api.PullResult;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.RefNotFoundException;
@@ -63,7 +66,6 @@ import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.diff.RawTextComparator;
-import org.eclipse.jgit.errors.StopWalkException;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
@@ -74,14 +76,7 @@ import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.merge.MergeStrategy;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevTag;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.revwalk.filter.AndRevFilter;
-import org.eclipse.jgit.revwalk.filter.CommitTimeRevFilter;
-import org.eclipse.jgit.revwalk.filter.CommitterRevFilter;
-import org.eclipse.jgit.revwalk.filter.MessageRevFilter;
-import org.eclipse.jgit.revwalk.filter.OrRevFilter;
-import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.TagOpt;
@@ -99,11 +94,6 @@ import org.eclipse.jgit.util.io.DisabledOutputStream;
  */
 public class GitManager {
 
-    @FunctionalInterface
-    private static interface TriFunction<A, B, C, R> {
-        R apply(A a, B b, C c) throws IOException, GitAPIException;
-    }
-
     private static final String GIT_PATH_DELIMITER = "/";
     // tags of git specific parameters for the snapshot
     private static final String PARAM_GIT_REVISION = "gitRevision";
@@ -116,12 +106,17 @@ public class GitManager {
     // the pattern describing all forbidden characters in git tag
     private static final Pattern TAG_PATTERN = Pattern
         .compile("[\\x00-\\x1F\\x7E-\\xFF()~\\^: /?*\\[\\]@\\\\{\\.{2}]+");
+    // if the search text contains any of these characters it is a regular expression
+    private static final Pattern REGEX_CHARACTERS = Pattern.compile("[?*+{}\\[\\]()^$.|\\\\]");
 
     private Git git;
     private Repository repository;
     private File repositoryPath;
+    private SnapshotIndex index;
     private boolean automatic = true;
     private boolean localOnly = false;
+    // read operations (which do not need to checkout a branch) can run concurrently, everything else is exclusive
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
     @SuppressWarnings("unchecked")
     private static final List<String> EMPTY_LIST = Collections.EMPTY_LIST;
@@ -173,11 +168,16 @@ public class GitManager {
      *
      * @return true if only local or false for remote only
      */
-    synchronized boolean isLocalOnly() {
-        return localOnly;
+    boolean isLocalOnly() {
+        lock.readLock().lock();
+        try {
+            return localOnly;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
-    private synchronized void checkInitialised() throws IllegalStateException {
+    private void checkInitialised() throws IllegalStateException {
         if (git == null) {
             throw new IllegalStateException("Git has not been initialised.");
         }
@@ -186,8 +186,13 @@ public class GitManager {
     /**
      * Dispose of all resources allocated by this manager.
      */
-    public synchronized void dispose() {
+    public void dispose() {
+        lock.writeLock().lock();
         try {
+            if (index != null) {
+                index.save();
+                index = null;
+            }
             if (repository != null) {
                 repository.close();
                 repository = null;
@@ -198,6 +203,8 @@ public class GitManager {
             }
         } catch (Exception e) {
             SaveRestoreService.LOGGER.log(Level.SEVERE, "Git cleanup error.", e);
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
@@ -207,11 +214,16 @@ public class GitManager {
      *
      * @param automatic true if automatic synchronisation should be enabled
      */
-    public synchronized void setAutomaticSynchronisation(boolean automatic) {
-        if (localOnly && automatic) {
-            return;
+    public void setAutomaticSynchronisation(boolean automatic) {
+        lock.writeLock().lock();
+        try {
+            if (localOnly && automatic) {
+                return;
+            }
+            this.automatic = automatic;
+        } finally {
+            lock.writeLock().unlock();
         }
-        this.automatic = automatic;
     }
 
     /**
@@ -224,15 +236,30 @@ public class GitManager {
      * @return true if initialisation was successful or false otherwise (cancelled due to lack of permissions)
      * @throws GitAPIException in case of an error
      */
-    public synchronized boolean initialise(URI remoteRepository, File destinationDirectory) throws GitAPIException {
-        if (!internalInitialise(remoteRepository, destinationDirectory)) {
-            deleteFolder(destinationDirectory);
-            return internalInitialise(remoteRepository, destinationDirectory);
+    public boolean initialise(URI remoteRepository, File destinationDirectory) throws GitAPIException {
+        lock.writeLock().lock();
+        try {
+            boolean initialised = internalInitialise(remoteRepository, destinationDirectory);
+            if (!initialised) {
+                deleteFolder(destinationDirectory);
+                initialised = internalInitialise(remoteRepository, destinationDirectory);
+            }
+            if (repository != null) {
+                // build the snapshot index of the current branch now, so that the first search does not have to
+                index = new SnapshotIndex(repository);
+                try {
+                    updateIndex(new Branch(repository.getBranch(), repository.getBranch()));
+                } catch (IOException e) {
+                    SaveRestoreService.LOGGER.log(Level.WARNING, "Snapshot index could not be updated.", e);
+                }
+            }
+            return initialised;
+        } finally {
+            lock.writeLock().unlock();
         }
-        return true;
     }
 
-    private synchronized boolean internalInitialise(URI remoteRepository, File destinationDirectory)
+    private boolean internalInitialise(URI remoteRepository, File destinationDirectory)
         throws GitAPIException {
         if (!remoteRepository.toString().contains("://")) {
             // it is not git:// or http:// or https:// or ssh://
@@ -331,7 +358,7 @@ public class GitManager {
      * @throws GitAPIException if there was an exception during the checkout
      * @throws IOException if the current branch cannot be determined
      */
-    private synchronized void setBranch(Branch branch) throws GitAPIException, IOException {
+    private void setBranch(Branch branch) throws GitAPIException, IOException {
         checkInitialised();
         if (!branch.getShortName().equals(repository.getBranch())) {
             Ref ref = null;
@@ -354,27 +381,32 @@ public class GitManager {
      * @return the list of branches
      * @throws GitAPIException if the branches could not be read
      */
-    public synchronized List<Branch> getBranches() throws GitAPIException {
-        checkInitialised();
-        List<Ref> branchesRef = git.branchList().setListMode(ListMode.ALL).call();
-        List<Branch> branches = new ArrayList<>(branchesRef.size());
-        for (Ref b : branchesRef) {
-            String name = b.getName();
-            if ("HEAD".equals(name)) {
-                continue;
-            }
-            Branch branch;
-            if (name.indexOf('/') > 0) {
-                branch = new Branch(name, name.substring(name.lastIndexOf('/') + 1));
-            } else {
-                branch = new Branch(name, name);
-            }
-            if (!branches.contains(branch)) {
-                branches.add(branch);
+    public List<Branch> getBranches() throws GitAPIException {
+        lock.readLock().lock();
+        try {
+            checkInitialised();
+            List<Ref> branchesRef = git.branchList().setListMode(ListMode.ALL).call();
+            List<Branch> branches = new ArrayList<>(branchesRef.size());
+            for (Ref b : branchesRef) {
+                String name = b.getName();
+                if ("HEAD".equals(name)) {
+                    continue;
+                }
+                Branch branch;
+                if (name.indexOf('/') > 0) {
+                    branch = new Branch(name, name.substring(name.lastIndexOf('/') + 1));
+                } else {
+                    branch = new Branch(name, name);
+                }
+                if (!branches.contains(branch)) {
+                    branches.add(branch);
+                }
             }
+            Collections.sort(branches);
+            return branches;
+        } finally {
+            lock.readLock().unlock();
         }
-        Collections.sort(branches);
-        return branches;
     }
 
     /**
@@ -384,15 +416,26 @@ public class GitManager {
      * @return true if changes in the local repository were made
      * @throws GitAPIException if there is an error during push or pull
      */
-    public synchronized boolean synchronise(Optional<Credentials> cp) throws GitAPIException {
-        checkInitialised();
-        Credentials c = cp.isPresent() ? cp.get() : getCredentials(Optional.empty());
-        if (c != null) {
-            Object[] obj = pull(c);
-            push((Credentials) obj[0], true);
-            return (Boolean) obj[1];
+    public boolean synchronise(Optional<Credentials> cp) throws GitAPIException {
+        lock.writeLock().lock();
+        try {
+            checkInitialised();
+            Credentials c = cp.isPresent() ? cp.get() : getCredentials(Optional.empty());
+            if (c != null) {
+                Object[] obj = pull(c);
+                push((Credentials) obj[0], true);
+                try {
+                    updateIndex(new Branch(repository.getBranch(), repository.getBranch()));
+                    index.save();
+                } catch (IOException e) {
+                    SaveRestoreService.LOGGER.log(Level.WARNING, "Snapshot index could not be updated.", e);
+                }
+                return (Boolean) obj[1];
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
         }
-        return false;
     }
 
     /**
@@ -410,32 +453,39 @@ public class GitManager {
      * @throws IOException in case of an IO error
      * @throws ParseException if the snapshot content could not be parsed
      */
-    public synchronized Result<Boolean> importData(SaveSet source, Branch toBranch, Optional<BaseLevel> toBaseLevel,
+    public Result<Boolean> importData(SaveSet source, Branch toBranch, Optional<BaseLevel> toBaseLevel,
         ImportType type) throws GitAPIException, IOException, ParseException {
-        checkInitialised();
-        boolean oldAutomatic = this.automatic;
-        setAutomaticSynchronisation(false);
-        Credentials cred = getCredentials(Optional.empty());
-        Object[] obj = pull(cred);
-        ChangeType change = (Boolean) obj[1] ? ChangeType.PULL : ChangeType.SAVE;
-        cred = (Credentials) obj[0];
+        lock.writeLock().lock();
         try {
-            if (source.getName().isEmpty()) {
-                // it is a folder
-                List<SaveSet> sets = getSaveSets(source.getBaseLevel(), source.getBranch(),
-                    Optional.of(source.getPathAsString()));
-                for (SaveSet s : sets) {
-                    importSaveSet(s, toBaseLevel, toBranch, type, cred);
+            checkInitialised();
+            boolean oldAutomatic = this.automatic;
+            setAutomaticSynchronisation(false);
+            Credentials cred = getCredentials(Optional.empty());
+            Object[] obj = pull(cred);
+            ChangeType change = (Boolean) obj[1] ? ChangeType.PULL : ChangeType.SAVE;
+            cred = (Credentials) obj[0];
+            try {
+                if (source.getName().isEmpty()) {
+                    // it is a folder
+                    List<SaveSet> sets = getSaveSets(source.getBaseLevel(), source.getBranch(),
+                        Optional.of(source.getPathAsString()));
+                    for (SaveSet s : sets) {
+                        importSaveSet(s, toBaseLevel, toBranch, type, cred);
+                    }
+                } else {
+                    // single save set
+                    importSaveSet(source, toBaseLevel, toBranch, type, cred);
                 }
-            } else {
-                // single save set
-                importSaveSet(source, toBaseLevel, toBranch, type, cred);
+            } finally {
+                setAutomaticSynchronisation(oldAutomatic);
             }
+            push(cred, true);
+            updateIndex(toBranch);
+            index.save();
+            return new Result<>(true, change);
         } finally {
-            setAutomaticSynchronisation(oldAutomatic);
+            lock.writeLock().unlock();
         }
-        push(cred, true);
-        return new Result<>(true, change);
     }
 
     private void importSaveSet(SaveSet source, Optional<BaseLevel> toBaseLevel, Branch toBranch, ImportType type,
@@ -472,18 +522,23 @@ public class GitManager {
      * @param branch the branch from which to retrieve base levels
      * @return the list of base levels
      */
-    public synchronized List<BaseLevel> getBaseLevels(Branch branch) throws GitAPIException, IOException {
-        setBranch(branch);
-        File[] files = repositoryPath.listFiles();
-        List<BaseLevel> baseLevels = new ArrayList<>();
-        if (files != null) {
-            for (File f : files) {
-                if (f.isDirectory() && f.getName().charAt(0) != '.') {
-                    baseLevels.add(new BaseLevel(branch, f.getName(), f.getName()));
+    public List<BaseLevel> getBaseLevels(Branch branch) throws GitAPIException, IOException {
+        lock.writeLock().lock();
+        try {
+            setBranch(branch);
+            File[] files = repositoryPath.listFiles();
+            List<BaseLevel> baseLevels = new ArrayList<>();
+            if (files != null) {
+                for (File f : files) {
+                    if (f.isDirectory() && f.getName().charAt(0) != '.') {
+                        baseLevels.add(new BaseLevel(branch, f.getName(), f.getName()));
+                    }
                 }
             }
+            return baseLevels;
+        } finally {
+            lock.writeLock().unlock();
         }
-        return baseLevels;
     }
 
     /**
@@ -495,9 +550,14 @@ public class GitManager {
      * @return the list of save sets
      * @throws IOException if the current branch could not be retrieved
      */
-    public synchronized List<SaveSet> getSaveSets(Optional<BaseLevel> baseLevel, Branch branch)
+    public List<SaveSet> getSaveSets(Optional<BaseLevel> baseLevel, Branch branch)
         throws IOException, GitAPIException {
-        return getSaveSets(baseLevel, branch, Optional.empty());
+        lock.writeLock().lock();
+        try {
+            return getSaveSets(baseLevel, branch, Optional.empty());
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -560,59 +620,140 @@ public class GitManager {
      * @param revision optional revision number; if not given head revision is used
      * @return the content of the save set file
      * @throws IOException if there was an error reading the contents of the file
-     * @throws GitAPIException if setting the branch failed
+     * @throws GitAPIException if the branch could not be created
      */
-    public synchronized SaveSetData loadSaveSetData(SaveSet descriptor, Optional<String> revision)
+    public SaveSetData loadSaveSetData(SaveSet descriptor, Optional<String> revision)
         throws IOException, GitAPIException {
-        setBranch(descriptor.getBranch());
-        String path = convertPathToString(descriptor, FileType.SAVE_SET);
+        prepareBranch(descriptor.getBranch());
+        lock.readLock().lock();
         try {
-            return loadFile(revision, path, FileType.SAVE_SET, SaveSetData.class, descriptor);
+            String path = convertPathToString(descriptor, FileType.SAVE_SET);
+            return loadFile(revision, descriptor.getBranch(), path, FileType.SAVE_SET, SaveSetData.class, descriptor);
         } catch (ParseException e) {
             // cannot happen, but just in case, make a log
             SaveRestoreService.LOGGER.log(Level.SEVERE, "Unexpected error when loading save set content", e);
             return null;
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
     /**
-     * Returns the list of all snapshots for the given save set.
+     * Returns the list of all snapshots for the given save set. The snapshots are read from the snapshot index, which
+     * is brought up to date with the head of the branch first.
      *
      * @param saveSet the save set for which the snapshots are requested
      * @param numberOfRevisions the maximum number of snapshot revisions to load
      * @param fromThisOneBack the revision at which to start and then going back
      * @return the list of all snapshot revisions for this save set
      * @throws IOException if the commits could not be read
-     * @throws GitAPIException if the commits could not be read
+     * @throws GitAPIException if the branch could not be created
      */
-    public synchronized List<Snapshot> getSnapshots(SaveSet saveSet, int numberOfRevisions,
-        Optional<Snapshot> fromThisOneBack) throws IOException, GitAPIException {
-        setBranch(saveSet.getBranch());
-        List<Snapshot> snapshots = new ArrayList<>();
-
-        String path = convertPathToString(saveSet, FileType.SNAPSHOT);
-        path = path.replace(FileType.SAVE_SET.directory, FileType.SNAPSHOT.directory);
-        path = path.replace(FileType.SAVE_SET.suffix, FileType.SNAPSHOT.suffix);
-
-        String rev = fromThisOneBack.isPresent() ? fromThisOneBack.get().getParameters().get(PARAM_GIT_REVISION) : null;
-        List<RevCommit> fileRevisions = findCommitsFor(path, numberOfRevisions, Optional.ofNullable(rev));
-        Map<String, RevTag> tags = loadTagsForRevisions(fileRevisions);
-        String branch = saveSet.getBranch().getShortName();
-        for (RevCommit commit : fileRevisions) {
-            String revision = commit.getName();
-            if (rev != null && rev.equals(revision)) {
-                // do not return the revision that the client already knows
-                continue;
+    public List<Snapshot> getSnapshots(SaveSet saveSet, int numberOfRevisions, Optional<Snapshot> fromThisOneBack)
+        throws IOException, GitAPIException {
+        prepareBranch(saveSet.getBranch());
+        lock.readLock().lock();
+        try {
+            String branch = saveSet.getBranch().getShortName();
+            List<SnapshotIndex.Entry> entries = index.getEntries(branch, getBranchHead(saveSet.getBranch()));
+            Map<String, List<SnapshotIndex.Tag>> tags = index.getTagsByRevision();
+
+            String path = convertPathToString(saveSet, FileType.SNAPSHOT);
+            path = path.replace(FileType.SAVE_SET.directory, FileType.SNAPSHOT.directory);
+            path = path.replace(FileType.SAVE_SET.suffix, FileType.SNAPSHOT.suffix);
+
+            String rev = fromThisOneBack.isPresent() ? fromThisOneBack.get().getParameters().get(PARAM_GIT_REVISION)
+                : null;
+            // do not return the revision that the client already knows, or any of the newer ones
+            boolean found = rev == null;
+            List<Snapshot> snapshots = new ArrayList<>();
+            for (SnapshotIndex.Entry entry : entries) {
+                if (!found) {
+                    found = rev.equals(entry.revision);
+                    continue;
+                } else if (!entry.paths.contains(path)) {
+                    continue;
+                }
+                MetaInfo meta = entry.toMetaInfo();
+                Map<String, String> parameters = new HashMap<>();
+                insertTagData(findTag(tags, entry.revision, branch), parameters, entry.revision, branch);
+                snapshots.add(new Snapshot(saveSet, meta.timestamp.toInstant(), meta.comment, meta.creator,
+                    parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters, EMPTY_LIST));
+                if (numberOfRevisions > 0 && snapshots.size() == numberOfRevisions) {
+                    break;
+                }
+            }
+            if (!found) {
+                // the revision is not on the indexed branch (e.g. it was reset), walk the history from the revision
+                SaveRestoreService.LOGGER.log(Level.FINE,
+                    () -> String.format("Revision %s is not indexed on branch %s.", rev, branch));
+                for (RevCommit commit : findCommitsFor(path, numberOfRevisions, rev)) {
+                    String revision = commit.getName();
+                    if (rev.equals(revision)) {
+                        continue;
+                    }
+                    MetaInfo meta = getMetaInfoFromCommit(commit);
+                    Map<String, String> parameters = new HashMap<>();
+                    insertTagData(findTag(tags, revision, branch), parameters, revision, branch);
+                    snapshots.add(new Snapshot(saveSet, meta.timestamp.toInstant(), meta.comment, meta.creator,
+                        parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters,
+                        EMPTY_LIST));
+                }
             }
-            MetaInfo meta = getMetaInfoFromCommit(commit);
-            Map<String, String> parameters = new HashMap<>();
-            parameters.put(PARAM_GIT_REVISION, revision);
-            insertTagData(tags.get(revision), parameters, revision, branch);
-            Snapshot snapshot = new Snapshot(saveSet, meta.timestamp.toInstant(), meta.comment, meta.creator,
-                parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters, EMPTY_LIST);
-            snapshots.add(snapshot);
+            return snapshots;
+        } finally {
+            lock.readLock().unlock();
         }
-        return snapshots;
+    }
+
+    /**
+     * Walks the history back from the given revision and returns the commits that changed the file. This does not use
+     * the snapshot index and is therefore slow; it is only used for revisions that are not in the index.
+     *
+     * @param filePath the path to the file
+     * @param numberOfSnapshots the maximum number of snapshots to return (0 for all)
+     * @param fromRevisionBack the revision at which to start
+     * @return the list of commits, the newest first, including the starting revision if it changed the file
+     * @throws GitAPIException if the log could not be read
+     * @throws IOException if the commits could not be read
+     */
+    private List<RevCommit> findCommitsFor(String filePath, int numberOfSnapshots, String fromRevisionBack)
+        throws GitAPIException, IOException {
+        List<RevCommit> commitsList = new ArrayList<>();
+        LogCommand log = git.log().add(ObjectId.fromString(fromRevisionBack)).addPath(filePath);
+        if (numberOfSnapshots > 0) {
+            // the starting revision is already known to the client and will be skipped
+            log.setMaxCount(numberOfSnapshots + 1);
+        }
+        try (RevWalk revWalk = new RevWalk(repository); ObjectReader objectReader = repository.newObjectReader();
+            DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            diffFormatter.setRepository(repository);
+            diffFormatter.setDiffComparator(RawTextComparator.DEFAULT);
+            diffFormatter.setDetectRenames(true);
+            for (RevCommit commit : log.call()) {
+                if (commit.getParentCount() > 1) {
+                    continue;
+                }
+                AbstractTreeIterator oldTreeIterator = new EmptyTreeIterator();
+                if (commit.getParentCount() != 0) {
+                    RevCommit parentCommit = revWalk.parseCommit(commit.getParent(0));
+                    oldTreeIterator = new CanonicalTreeParser(null, objectReader, parentCommit.getTree());
+                }
+                AbstractTreeIterator newTreeIterator = new CanonicalTreeParser(null, objectReader, commit.getTree());
+                boolean renamed = false;
+                for (DiffEntry diff : diffFormatter.scan(oldTreeIterator, newTreeIterator)) {
+                    if (diff.getChangeType() == DiffEntry.ChangeType.DELETE
+                        || diff.getChangeType() == DiffEntry.ChangeType.RENAME) {
+                        renamed = true;
+                        break;
+                    }
+                }
+                if (!renamed) {
+                    commitsList.add(commit);
+                }
+            }
+        }
+        return commitsList;
     }
 
     /**
@@ -620,15 +761,20 @@ public class GitManager {
      *
      * @param snapshot the snapshot descriptor to read
      * @return the content of the snapshot
-     * @throws ParseException if
-     * @throws IOException
+     * @throws ParseException if the snapshot content could not be parsed
+     * @throws IOException if the snapshot file could not be read
+     * @throws GitAPIException if the branch could not be created
      */
-    public synchronized VSnapshot loadSnapshotData(Snapshot snapshot)
-        throws ParseException, IOException, GitAPIException {
-        setBranch(snapshot.getSaveSet().getBranch());
-        String path = convertPathToString(snapshot.getSaveSet(), FileType.SNAPSHOT);
-        return loadFile(Optional.ofNullable(snapshot.getParameters().get(PARAM_GIT_REVISION)), path, FileType.SNAPSHOT,
-            VSnapshot.class, snapshot);
+    public VSnapshot loadSnapshotData(Snapshot snapshot) throws ParseException, IOException, GitAPIException {
+        prepareBranch(snapshot.getSaveSet().getBranch());
+        lock.readLock().lock();
+        try {
+            String path = convertPathToString(snapshot.getSaveSet(), FileType.SNAPSHOT);
+            return loadFile(Optional.ofNullable(snapshot.getParameters().get(PARAM_GIT_REVISION)),
+                snapshot.getSaveSet().getBranch(), path, FileType.SNAPSHOT, VSnapshot.class, snapshot);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -640,9 +786,13 @@ public class GitManager {
      * @throws IOException if writing to the file failed
      * @throws GitAPIException if committing the file failed
      */
-    public synchronized Result<SaveSetData> saveSaveSet(SaveSetData data, String comment)
-        throws IOException, GitAPIException {
-        return saveSaveSet(data, comment, null);
+    public Result<SaveSetData> saveSaveSet(SaveSetData data, String comment) throws IOException, GitAPIException {
+        lock.writeLock().lock();
+        try {
+            return saveSaveSet(data, comment, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -696,38 +846,43 @@ public class GitManager {
      * @throws IOException in case of an error
      * @throws GitAPIException in case of an error
      */
-    public synchronized Result<SaveSet> deleteSaveSet(SaveSet set, String comment) throws IOException, GitAPIException {
-        checkInitialised();
-        SaveSet deleted = null;
-        ChangeType change = ChangeType.NONE;
-        delete: {
-            Credentials cp = getCredentials(Optional.empty());
-            if (cp != null) {
-                setBranch(set.getBranch());
-                change = ChangeType.SAVE;
-                if (automatic) {
-                    Object[] obj = pull(cp);
-                    cp = (Credentials) obj[0];
-                    change = (Boolean) obj[1] ? ChangeType.PULL : change;
-                    if (cp == null) {
-                        break delete;
-                    }
-                }
-                String relativePath = convertPathToString(set, FileType.SAVE_SET);
-                if (deleteFile(relativePath, repositoryPath)) {
-                    deleted = set;
-                    commit(relativePath, new MetaInfo(comment, cp.getUsername(), UNKNOWN, null, null), true);
-                    // delete also the snapshot file
-                    relativePath = convertPathToString(set, FileType.SNAPSHOT);
-                    deleteFile(relativePath, repositoryPath);
-                    commit(relativePath, new MetaInfo(comment, cp.getUsername(), null, null, null), true);
+    public Result<SaveSet> deleteSaveSet(SaveSet set, String comment) throws IOException, GitAPIException {
+        lock.writeLock().lock();
+        try {
+            checkInitialised();
+            SaveSet deleted = null;
+            ChangeType change = ChangeType.NONE;
+            delete: {
+                Credentials cp = getCredentials(Optional.empty());
+                if (cp != null) {
+                    setBranch(set.getBranch());
+                    change = ChangeType.SAVE;
                     if (automatic) {
-                        push(cp, false);
+                        Object[] obj = pull(cp);
+                        cp = (Credentials) obj[0];
+                        change = (Boolean) obj[1] ? ChangeType.PULL : change;
+                        if (cp == null) {
+                            break delete;
+                        }
+                    }
+                    String relativePath = convertPathToString(set, FileType.SAVE_SET);
+                    if (deleteFile(relativePath, repositoryPath)) {
+                        deleted = set;
+                        commit(relativePath, new MetaInfo(comment, cp.getUsername(), UNKNOWN, null, null), true);
+                        // delete also the snapshot file
+                        relativePath = convertPathToString(set, FileType.SNAPSHOT);
+                        deleteFile(relativePath, repositoryPath);
+                        commit(relativePath, new MetaInfo(comment, cp.getUsername(), null, null, null), true);
+                        if (automatic) {
+                            push(cp, false);
+                        }
                     }
                 }
             }
+            return new Result<>(deleted, change);
+        } finally {
+            lock.writeLock().unlock();
         }
-        return new Result<>(deleted, change);
     }
 
     /**
@@ -739,9 +894,14 @@ public class GitManager {
      * @throws IOException if writing the file failed
      * @throws GitAPIException if committing the file failed
      */
-    public synchronized Result<VSnapshot> saveSnapshot(VSnapshot snapshot, String comment)
+    public Result<VSnapshot> saveSnapshot(VSnapshot snapshot, String comment)
         throws IOException, GitAPIException {
-        return saveSnapshot(snapshot, comment, snapshot.getTimestamp(), null);
+        lock.writeLock().lock();
+        try {
+            return saveSnapshot(snapshot, comment, snapshot.getTimestamp(), null);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -781,6 +941,7 @@ public class GitManager {
                 if (automatic) {
                     push(cp, false);
                 }
+                updateIndex(snapshot.getSaveSet().getBranch());
                 Map<String, String> parameters = new HashMap<>();
                 parameters.put(PARAM_GIT_REVISION, info.revision);
                 Snapshot snp = new Snapshot(descriptor.getSaveSet(), info.timestamp.toInstant(), info.comment,
@@ -799,10 +960,15 @@ public class GitManager {
      * @throws GitAPIException in case of an error
      * @throws IOException in case of an error
      */
-    public synchronized Branch createBranch(Branch oldBranch, String branch) throws GitAPIException, IOException {
-        setBranch(oldBranch);
-        git.branchCreate().setName(branch).call();
-        return new Branch(branch, branch);
+    public Branch createBranch(Branch oldBranch, String branch) throws GitAPIException, IOException {
+        lock.writeLock().lock();
+        try {
+            setBranch(oldBranch);
+            git.branchCreate().setName(branch).call();
+            return new Branch(branch, branch);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -815,87 +981,147 @@ public class GitManager {
      * @throws IOException if writing the file failed
      * @throws GitAPIException if committing the file failed
      */
-    public synchronized Result<Snapshot> tagSnapshot(Snapshot snapshot, String name, String message)
+    public Result<Snapshot> tagSnapshot(Snapshot snapshot, String name, String message)
         throws IOException, GitAPIException, DataProviderException {
-        if (name != null && TAG_PATTERN.matcher(name).replaceAll("").length() != name.length()) {
-            throw new DataProviderException("Tag name contains invalid characters.");
-        }
-        checkInitialised();
-        Snapshot snp = null;
-        ChangeType change = ChangeType.NONE;
-        tag: {
-            Credentials cp = getCredentials(Optional.empty());
-            if (cp != null) {
-                setBranch(snapshot.getSaveSet().getBranch());
-                change = ChangeType.SAVE;
-                if (automatic) {
-                    Object[] obj = pull(cp);
-                    cp = (Credentials) obj[0];
-                    change = (Boolean) obj[1] ? ChangeType.PULL : change;
-                    if (cp == null) {
-                        break tag;
+        lock.writeLock().lock();
+        try {
+            if (name != null && TAG_PATTERN.matcher(name).replaceAll("").length() != name.length()) {
+                throw new DataProviderException("Tag name contains invalid characters.");
+            }
+            checkInitialised();
+            Snapshot snp = null;
+            ChangeType change = ChangeType.NONE;
+            tag: {
+                Credentials cp = getCredentials(Optional.empty());
+                if (cp != null) {
+                    setBranch(snapshot.getSaveSet().getBranch());
+                    change = ChangeType.SAVE;
+                    if (automatic) {
+                        Object[] obj = pull(cp);
+                        cp = (Credentials) obj[0];
+                        change = (Boolean) obj[1] ? ChangeType.PULL : change;
+                        if (cp == null) {
+                            break tag;
+                        }
                     }
-                }
-                // remove the existing tag
-                String revision = snapshot.getParameters().get(PARAM_GIT_REVISION);
-                RevCommit commit = getCommitFromRevision(revision);
-                RevTag existingTag = loadTagsForRevisions(Arrays.asList(commit)).get(revision);
-                if (existingTag != null) {
-                    git.tagDelete().setTags(existingTag.getTagName()).call();
-                    if (!localOnly) {
-                        RefSpec refSpec = new RefSpec().setSource(null)
-                            .setDestination("refs/tags/" + existingTag.getTagName());
-                        git.push().setCredentialsProvider(toCredentialsProvider(cp)).setRefSpecs(refSpec).call();
+                    // remove the existing tag
+                    String revision = snapshot.getParameters().get(PARAM_GIT_REVISION);
+                    RevCommit commit = getCommitFromRevision(revision);
+                    SnapshotIndex.Tag existingTag = findTag(index.getTagsByRevision(), revision,
+                        snapshot.getSaveSet().getBranch().getShortName());
+                    if (existingTag != null) {
+                        git.tagDelete().setTags(existingTag.name).call();
+                        if (!localOnly) {
+                            RefSpec refSpec = new RefSpec().setSource(null)
+                                .setDestination("refs/tags/" + existingTag.name);
+                            git.push().setCredentialsProvider(toCredentialsProvider(cp)).setRefSpecs(refSpec).call();
+                        }
                     }
-                }
 
-                Map<String, String> parameters = new HashMap<>();
-                parameters.put(PARAM_GIT_REVISION, revision);
-                String tagName = null;
-                String tagMessage = null;
-                if (name != null && !name.isEmpty()) {
-                    String gitTagName = composeTagName(snapshot.getSaveSet().getBranch(),
-                        snapshot.getSaveSet().getBaseLevel(), snapshot.getSaveSet().getPath(), name);
-                    PersonIdent tagger = new PersonIdent(cp.getUsername(), UNKNOWN);
-                    git.tag().setName(gitTagName).setMessage(message).setTagger(tagger).setObjectId(commit).call();
-                    if (automatic) {
-                        push(cp, true);
+                    Map<String, String> parameters = new HashMap<>();
+                    parameters.put(PARAM_GIT_REVISION, revision);
+                    String tagName = null;
+                    String tagMessage = null;
+                    if (name != null && !name.isEmpty()) {
+                        String gitTagName = composeTagName(snapshot.getSaveSet().getBranch(),
+                            snapshot.getSaveSet().getBaseLevel(), snapshot.getSaveSet().getPath(), name);
+                        PersonIdent tagger = new PersonIdent(cp.getUsername(), UNKNOWN);
+                        git.tag().setName(gitTagName).setMessage(message).setTagger(tagger).setObjectId(commit).call();
+                        if (automatic) {
+                            push(cp, true);
+                        }
+                        parameters.put(PARAM_GIT_TAG_NAME, gitTagName);
+                        parameters.put(PARAM_TAG_CREATOR, cp.getUsername());
+                        tagName = name;
+                        tagMessage = message;
                     }
-                    parameters.put(PARAM_GIT_TAG_NAME, gitTagName);
-                    parameters.put(PARAM_TAG_CREATOR, cp.getUsername());
-                    tagName = name;
-                    tagMessage = message;
+                    updateIndex(snapshot.getSaveSet().getBranch());
+                    snp = new Snapshot(snapshot.getSaveSet(), snapshot.getDate(), snapshot.getComment(),
+                        snapshot.getOwner(), tagName, tagMessage, parameters, EMPTY_LIST);
                 }
-                snp = new Snapshot(snapshot.getSaveSet(), snapshot.getDate(), snapshot.getComment(),
-                    snapshot.getOwner(), tagName, tagMessage, parameters, EMPTY_LIST);
             }
+            return new Result<>(snp, change);
+        } finally {
+            lock.writeLock().unlock();
         }
-        return new Result<>(snp, change);
     }
 
     /**
-     * Load the tags for the list of revisions provided as parameter. The tags are returned in a map, where the key is
-     * the revision name and the value is the actual tag object.
+     * Make sure that the local branch exists, so that it can be read without checking it out. If the local branch does
+     * not exist yet (e.g. only the remote branch exists), the branch is checked out, which creates the local branch.
      *
-     * @param revisions the list of revisions for which to load the tags
-     * @return the map of all revision and tags pairs
-     * @throws GitAPIException if there was an error loading the tags
-     * @throws IOException in case of an IO error
+     * @param branch the branch to prepare
+     * @throws GitAPIException if the branch could not be created
+     * @throws IOException if the branch could not be resolved
      */
-    private Map<String, RevTag> loadTagsForRevisions(List<RevCommit> revisions) throws GitAPIException, IOException {
-        Map<String, Ref> tags = repository.getTags();
-        Map<String, RevTag> ret = new HashMap<>();
-        try (RevWalk walk = new RevWalk(repository)) {
-            for (RevCommit rev : revisions) {
-                String s = Git.wrap(repository).describe().setTarget(rev).call();
-                Ref tt = tags.get(s);
-                if (tt != null) {
-                    RevTag t = walk.parseTag(tt.getObjectId());
-                    ret.put(rev.getName(), t);
+    private void prepareBranch(Branch branch) throws GitAPIException, IOException {
+        lock.readLock().lock();
+        try {
+            checkInitialised();
+            if (repository.resolve(Constants.R_HEADS + branch.getShortName()) != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            setBranch(branch);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the head commit of the local branch. The branch does not need to be checked out.
+     *
+     * @param branch the branch
+     * @return the id of the head commit
+     * @throws IOException if the branch could not be resolved or if the local branch does not exist
+     */
+    private ObjectId getBranchHead(Branch branch) throws IOException {
+        checkInitialised();
+        ObjectId head = repository.resolve(Constants.R_HEADS + branch.getShortName());
+        if (head == null) {
+            throw new IOException("Branch '" + branch.getShortName() + "' does not exist.");
+        }
+        return head;
+    }
+
+    /**
+     * Index the commits and tags that were added to the branch since it was last indexed. The index is not stored to
+     * the file; that is done on synchronisation, import and dispose.
+     *
+     * @param branch the branch to update
+     * @throws IOException if the commits could not be read
+     */
+    private void updateIndex(Branch branch) throws IOException {
+        ObjectId head = repository.resolve(Constants.R_HEADS + branch.getShortName());
+        if (head != null) {
+            index.getEntries(branch.getShortName(), head);
+        }
+        index.getTags();
+    }
+
+    /**
+     * Find the tag of the given revision, which belongs to the given branch.
+     *
+     * @param tags all tags mapped by the tagged revisions
+     * @param revision the revision
+     * @param branchName the name of the branch
+     * @return the tag if found, or null if the revision is not tagged
+     */
+    private static SnapshotIndex.Tag findTag(Map<String, List<SnapshotIndex.Tag>> tags, String revision,
+        String branchName) {
+        List<SnapshotIndex.Tag> list = tags.get(revision);
+        if (list != null) {
+            for (SnapshotIndex.Tag t : list) {
+                if (t.name.charAt(0) != '(' || t.name.startsWith('(' + branchName + ')')) {
+                    return t;
                 }
             }
         }
-        return ret;
+        return null;
     }
 
     /**
@@ -1029,73 +1255,6 @@ public class GitManager {
         }
     }
 
-    /**
-     * @return the head commit.
-     *
-     * @throws IOException if exception occurs
-     */
-    private RevCommit getHeadCommit() throws IOException {
-        try (RevWalk revWalk = new RevWalk(repository)) {
-            return revWalk.parseCommit(repository.resolve(Constants.HEAD));
-        }
-    }
-
-    /**
-     * Retrieves the specified number of revisions of the given file. If the requested number is less than 1, all
-     * revisions are returned.
-     *
-     * @param filePath file path
-     * @param numberOfSnapshots number of snapshots revisions to load
-     * @param fromRevisionBack the revision at which to start
-     *
-     * @return all revisions of the given file.
-     */
-    private List<RevCommit> findCommitsFor(String filePath, int numberOfsnapshots, Optional<String> fromRevisionBack)
-        throws GitAPIException, IOException {
-        List<RevCommit> commitsList = new ArrayList<>();
-        ObjectId obj = fromRevisionBack.isPresent() ? ObjectId.fromString(fromRevisionBack.get())
-            : repository.resolve(Constants.HEAD);
-        LogCommand log = git.log().add(obj).addPath(filePath);
-        if (numberOfsnapshots > 0) {
-            // in case we are not going from the head, increase the number of logs by one, because we
-            // don't need to first revision, which is already the same as fromRevisionBack
-            int num = fromRevisionBack.isPresent() ? numberOfsnapshots + 1 : numberOfsnapshots;
-            log.setMaxCount(num);
-        }
-        Iterable<RevCommit> commits = log.call();
-        // in theory diff is not needed here if everybody only used the Save and Restore application on this repository
-        // however, if someone manually changed the path to a file there can be an issue. Doing a diff increases the
-        // search time for ~70%
-        try (RevWalk revWalk = new RevWalk(repository); ObjectReader objectReader = repository.newObjectReader()) {
-            for (RevCommit commit : commits) {
-                boolean renamed = false;
-                AbstractTreeIterator oldTreeIterator = new EmptyTreeIterator();
-                if (commit.getParents().length != 0) {
-                    RevCommit parentCommit = revWalk.parseCommit(commit.getParents()[0].getId());
-                    oldTreeIterator = new CanonicalTreeParser(null, objectReader, parentCommit.getTree());
-                }
-                AbstractTreeIterator newTreeIterator = new CanonicalTreeParser(null, objectReader, commit.getTree());
-                try (DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-                    diffFormatter.setRepository(repository);
-                    diffFormatter.setDiffComparator(RawTextComparator.DEFAULT);
-                    diffFormatter.setDetectRenames(true);
-                    List<DiffEntry> diffs = diffFormatter.scan(oldTreeIterator, newTreeIterator);
-                    for (DiffEntry diff : diffs) {
-                        if (diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.DELETE
-                            || diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.RENAME) {
-                            renamed = true;
-                            break;
-                        }
-                    }
-                }
-                if (!renamed) {
-                    commitsList.add(commit);
-                }
-            }
-        }
-        return commitsList;
-    }
-
     /**
      * Find all snapshots that are tagged and their tag name or message matches the given partial name or message. The
      * partial name or message can also be a regular expression.
@@ -1108,17 +1267,16 @@ public class GitManager {
      * @throws GitAPIException in case of a git error
      * @throws IOException in case of an IO error
      */
-    public synchronized List<Snapshot> findSnapshotsByTag(String partialTagNameOrMessage, Branch branch,
-        Optional<Date> start, Optional<Date> end) throws GitAPIException, IOException {
+    public List<Snapshot> findSnapshotsByTag(String partialTagNameOrMessage, Branch branch, Optional<Date> start,
+        Optional<Date> end) throws GitAPIException, IOException {
         final Pattern pattern = Pattern.compile(".*" + partialTagNameOrMessage.toLowerCase(Locale.UK) + ".*");
-        return findSnapshotsByTag(branch, start, end, (w, r, n) -> {
+        return findSnapshotsByTag(branch, start, end, (n, t) -> {
             String tagName = n.substring(n.indexOf('(') + 1, n.length() - 1).toLowerCase(Locale.UK);
             if (pattern.matcher(tagName).matches()) {
-                return w.parseTag(r.getObjectId());
+                return true;
             } else {
-                RevTag tag = w.parseTag(r.getObjectId());
-                String message = tag.getFullMessage().toLowerCase(Locale.UK).replace("\n", " ");
-                return pattern.matcher(message).matches() ? tag : null;
+                String message = t.message.toLowerCase(Locale.UK).replace("\n", " ");
+                return pattern.matcher(message).matches();
             }
         });
     }
@@ -1135,13 +1293,12 @@ public class GitManager {
      * @throws GitAPIException in case of a git error
      * @throws IOException in case of an IO error
      */
-    public synchronized List<Snapshot> findSnapshotsByTagMessage(String partialMessage, Branch branch,
-        Optional<Date> start, Optional<Date> end) throws GitAPIException, IOException {
+    public List<Snapshot> findSnapshotsByTagMessage(String partialMessage, Branch branch, Optional<Date> start,
+        Optional<Date> end) throws GitAPIException, IOException {
         final Pattern pattern = Pattern.compile(".*" + partialMessage.toLowerCase(Locale.UK) + ".*");
-        return findSnapshotsByTag(branch, start, end, (w, r, n) -> {
-            RevTag tag = w.parseTag(r.getObjectId());
-            String message = tag.getFullMessage().toLowerCase().replace("\n", " ");
-            return pattern.matcher(message).matches() ? tag : null;
+        return findSnapshotsByTag(branch, start, end, (n, t) -> {
+            String message = t.message.toLowerCase().replace("\n", " ");
+            return pattern.matcher(message).matches();
         });
     }
 
@@ -1157,44 +1314,42 @@ public class GitManager {
      * @throws GitAPIException in case of a git error
      * @throws IOException in case of an IO error
      */
-    public synchronized List<Snapshot> findSnapshotsByTagName(String partialTagName, Branch branch,
-        Optional<Date> start, Optional<Date> end) throws GitAPIException, IOException {
+    public List<Snapshot> findSnapshotsByTagName(String partialTagName, Branch branch, Optional<Date> start,
+        Optional<Date> end) throws GitAPIException, IOException {
         final Pattern pattern = Pattern.compile(".*" + partialTagName.toLowerCase(Locale.UK) + ".*");
-        return findSnapshotsByTag(branch, start, end, (w, r, n) -> {
+        return findSnapshotsByTag(branch, start, end, (n, t) -> {
             String tagName = n.substring(n.indexOf('(') + 1, n.length() - 1).toLowerCase();
-            return pattern.matcher(tagName).matches() ? w.parseTag(r.getObjectId()) : null;
+            return pattern.matcher(tagName).matches();
         });
     }
 
     /**
-     * Find all snapshots that are tagged and can be matched by the given trifunction.
+     * Find all snapshots that are tagged and can be matched by the given predicate.
      *
      * @param branch the name of the branch on which the snapshot should be located
      * @param start only commits done after start will be accepted
      * @param end only commits done before end will be accepted
-     * @param f function that receives the revision walk, the tag reference, the nice tag name and returns the actual
-     *            revision tag if the tag is accepted or null if rejected
+     * @param f predicate that receives the nice tag name (without the branch) and the tag and returns true if the tag
+     *            is accepted or false if rejected
      * @return the list of all snapshots that match criterion
      * @throws GitAPIException in case of a Git related error
      * @throws IOException in case of an IO error
      */
     private List<Snapshot> findSnapshotsByTag(Branch branch, Optional<Date> start, Optional<Date> end,
-        TriFunction<RevWalk, Ref, String, RevTag> f) throws GitAPIException, IOException {
-        setBranch(branch);
-        List<Snapshot> snapshots = new ArrayList<>();
-        Map<String, Ref> tags = repository.getTags();
-        String branchName = new StringBuilder(branch.getShortName().length() + 2).append('(')
-            .append(branch.getShortName()).append(')').toString();
-        try (RevWalk walk = new RevWalk(repository); ObjectReader objectReader = repository.newObjectReader()) {
-            RevFilter timeFilter = null;
-            if (start.isPresent() && end.isPresent()) {
-                timeFilter = CommitTimeRevFilter.between(start.get(), end.get());
-            } else if (start.isPresent()) {
-                timeFilter = CommitTimeRevFilter.after(start.get());
-            } else if (end.isPresent()) {
-                timeFilter = CommitTimeRevFilter.before(end.get());
-            }
-            for (Map.Entry<String, Ref> r : tags.entrySet()) {
+        BiPredicate<String, SnapshotIndex.Tag> f) throws GitAPIException, IOException {
+        prepareBranch(branch);
+        lock.readLock().lock();
+        try {
+            ObjectId head = getBranchHead(branch);
+            Map<String, SnapshotIndex.Entry> revisions = index.getRevisions(branch.getShortName(), head);
+            Map<String, SnapshotIndex.Tag> tags = index.getTags();
+            Predicate<String> exists = existsInCommit(head);
+            String branchName = new StringBuilder(branch.getShortName().length() + 2).append('(')
+                .append(branch.getShortName()).append(')').toString();
+            int since = start.isPresent() ? (int) (start.get().getTime() / 1000) : Integer.MIN_VALUE;
+            int until = end.isPresent() ? (int) (end.get().getTime() / 1000) : Integer.MAX_VALUE;
+            List<Snapshot> snapshots = new ArrayList<>();
+            for (Map.Entry<String, SnapshotIndex.Tag> r : tags.entrySet()) {
                 String name = r.getKey();
                 // check if the tag branch name is correct
                 if (name.charAt(0) == '(') {
@@ -1204,69 +1359,38 @@ public class GitManager {
                         continue;
                     }
                 }
-                RevTag tag = f.apply(walk, r.getValue(), name);
-                if (tag != null) {
-                    String revision = tag.getObject().getId().getName();
-                    RevCommit commit = getCommitFromRevision(revision);
-                    if (timeFilter != null) {
-                        try {
-                            if (!timeFilter.include(walk, commit)) {
-                                continue;
-                            }
-                        } catch (StopWalkException e) {
-                            // thrown by the filter, because it expects that commit times are ordered. That is generally
-                            // true, but not in this case, because we are not walking through the tree
-                            continue;
-                        }
-                    }
-                    getPathFromCommit(commit, walk, objectReader)
-                        .ifPresent(p -> pathToSaveSet(p, repositoryPath, branch, FileType.SNAPSHOT).ifPresent(e -> {
-                            MetaInfo meta = getMetaInfoFromCommit(commit);
-                            Map<String, String> parameters = new HashMap<>();
-                            insertTagData(tag, parameters, revision, branch.getShortName());
-                            snapshots.add(new Snapshot(e, meta.timestamp.toInstant(), meta.comment, meta.creator,
-                                parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters,
-                                EMPTY_LIST));
-                        }));
-                }
-            }
-        }
-        return snapshots;
-    }
-
-    private Optional<String> getPathFromCommit(RevCommit commit, RevWalk walk, ObjectReader objectReader)
-        throws GitAPIException, IOException {
-        // Utility method to get the path to the snapshot file that changed in the given commit.
-        // Should always at most one.
-        AbstractTreeIterator oldTreeIterator = new EmptyTreeIterator();
-        if (commit.getParents().length != 0) {
-            RevCommit parentCommit = walk.parseCommit(commit.getParents()[0].getId());
-            oldTreeIterator = new CanonicalTreeParser(null, objectReader, parentCommit.getTree());
-        }
-        AbstractTreeIterator newTreeIterator = new CanonicalTreeParser(null, objectReader, commit.getTree());
-        try (DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-            diffFormatter.setRepository(repository);
-            diffFormatter.setDiffComparator(RawTextComparator.DEFAULT);
-            List<DiffEntry> diffs = diffFormatter.scan(oldTreeIterator, newTreeIterator);
-            for (DiffEntry diff : diffs) {
-                if (diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.DELETE
-                    || diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.RENAME
-                    || !diff.getNewPath().endsWith(FileType.SNAPSHOT.suffix)) {
+                SnapshotIndex.Tag tag = r.getValue();
+                SnapshotIndex.Entry entry = revisions.get(tag.revision);
+                if (entry == null || entry.commitTime < since || entry.commitTime > until || !f.test(name, tag)) {
                     continue;
                 }
-                return Optional.of(diff.getNewPath());
+                pathToSaveSet(entry.paths.get(0), branch, FileType.SNAPSHOT, exists).ifPresent(e -> {
+                    MetaInfo meta = entry.toMetaInfo();
+                    Map<String, String> parameters = new HashMap<>();
+                    insertTagData(tag, parameters, entry.revision, branch.getShortName());
+                    snapshots.add(new Snapshot(e, meta.timestamp.toInstant(), meta.comment, meta.creator,
+                        parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters,
+                        EMPTY_LIST));
+                });
             }
+            return snapshots;
+        } finally {
+            lock.readLock().unlock();
         }
-        return Optional.empty();
     }
 
     /**
      * Find all snapshot that are stored with the comment that contains the partial text or were created by the user
      * whose username contains the partial text and were created during the given time period. If time range is
      * provided, only commits that belong to that time range are search and any snapshot with a comment or user that
-     * contain the partial text and is located on the given branch matches the criteria. This method is faster than
-     * making separate search for user and comment and combining the results, because this method only traverses the
-     * revision tree once.
+     * contain the partial text and is located on the given branch matches the criteria. The search is made in the
+     * snapshot index, so the revision tree is not traversed, except for the commits that were added since the branch
+     * was last indexed.
+     * <p>
+     * The text is matched the same way as by the git log: case insensitive, and if it contains any regular expression
+     * characters, it is treated as a regular expression. The username is matched against the committer name and
+     * e-mail.
+     * </p>
      *
      * @param partialText the partial comment or username that we search for
      * @param branch the branch on which to search
@@ -1278,90 +1402,77 @@ public class GitManager {
      * @throws IOException in case of an error
      * @throws GitAPIException in case of branch checkout or tags loading error
      */
-    public synchronized List<Snapshot> findSnapshotsByCommentOrUser(String partialText, final Branch branch,
-        boolean byComment, boolean byUser, Optional<Date> start, Optional<Date> end)
-            throws IOException, GitAPIException {
-        setBranch(branch);
-        List<Snapshot> snapshots = new ArrayList<>();
-        List<RevCommit> revisions = new ArrayList<>();
-        try (RevWalk revWalk = new RevWalk(repository); ObjectReader objectReader = repository.newObjectReader()) {
-            revWalk.markStart(getHeadCommit());
-            RevFilter userCommentFilter = null;
-            if (byComment && byUser) {
-                userCommentFilter = OrRevFilter.create(MessageRevFilter.create(partialText),
-                    CommitterRevFilter.create(partialText));
-            } else if (byComment) {
-                userCommentFilter = MessageRevFilter.create(partialText);
-            } else if (byUser) {
-                userCommentFilter = CommitterRevFilter.create(partialText);
-            }
-            RevFilter timeFilter = null;
-            if (start.isPresent() && end.isPresent()) {
-                timeFilter = CommitTimeRevFilter.between(start.get(), end.get());
-            } else if (start.isPresent()) {
-                timeFilter = CommitTimeRevFilter.after(start.get());
-            } else if (end.isPresent()) {
-                timeFilter = CommitTimeRevFilter.before(end.get());
-            }
-            if (userCommentFilter == null && timeFilter == null) {
-                throw new IllegalArgumentException("No search parameters provided.");
-            } else if (userCommentFilter != null && timeFilter != null) {
-                revWalk.setRevFilter(AndRevFilter.create(userCommentFilter, timeFilter));
-            } else if (userCommentFilter != null) {
-                revWalk.setRevFilter(userCommentFilter);
-            } else {
-                revWalk.setRevFilter(timeFilter);
-            }
-            for (RevCommit commit : revWalk) {
-                AbstractTreeIterator oldTreeIterator = new EmptyTreeIterator();
-                if (commit.getParents().length != 0) {
-                    oldTreeIterator = new CanonicalTreeParser(null, objectReader, commit.getParents()[0].getTree());
+    public List<Snapshot> findSnapshotsByCommentOrUser(String partialText, final Branch branch, boolean byComment,
+        boolean byUser, Optional<Date> start, Optional<Date> end) throws IOException, GitAPIException {
+        if (!(byComment || byUser) && !start.isPresent() && !end.isPresent()) {
+            throw new IllegalArgumentException("No search parameters provided.");
+        }
+        final Pattern pattern = !(byComment || byUser) ? null
+            : Pattern.compile(REGEX_CHARACTERS.matcher(partialText).find() ? partialText : Pattern.quote(partialText),
+                Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+        final int since = start.isPresent() ? (int) (start.get().getTime() / 1000) : Integer.MIN_VALUE;
+        final int until = end.isPresent() ? (int) (end.get().getTime() / 1000) : Integer.MAX_VALUE;
+        prepareBranch(branch);
+        lock.readLock().lock();
+        try {
+            ObjectId head = getBranchHead(branch);
+            List<SnapshotIndex.Entry> entries = index.getEntries(branch.getShortName(), head);
+            Map<String, List<SnapshotIndex.Tag>> tags = index.getTagsByRevision();
+            Predicate<String> exists = existsInCommit(head);
+            String branchName = branch.getShortName();
+            List<Snapshot> snapshots = new ArrayList<>();
+            for (SnapshotIndex.Entry entry : entries) {
+                if (entry.commitTime < since || entry.commitTime > until) {
+                    continue;
+                } else if ((byComment || byUser)
+                    && !(byComment && entry.comment != null && pattern.matcher(entry.comment).find())
+                    && !(byUser && pattern.matcher(entry.creator + " <" + entry.email + ">").find())) {
+                    continue;
                 }
-                AbstractTreeIterator newTreeIterator = new CanonicalTreeParser(null, objectReader, commit.getTree());
-                try (DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-                    diffFormatter.setRepository(repository);
-                    diffFormatter.setDiffComparator(RawTextComparator.DEFAULT);
-                    diffFormatter.setDetectRenames(true);
-                    List<DiffEntry> diffs = diffFormatter.scan(oldTreeIterator, newTreeIterator);
-                    for (DiffEntry diff : diffs) {
-                        if (diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.DELETE
-                            || diff.getChangeType() == org.eclipse.jgit.diff.DiffEntry.ChangeType.RENAME
-                            || !diff.getNewPath().endsWith(FileType.SNAPSHOT.suffix)) {
-                            continue;
-                        }
-                        pathToSaveSet(diff.getNewPath(), repositoryPath, branch, FileType.SNAPSHOT).ifPresent(e -> {
-                            MetaInfo mi = getMetaInfoFromCommit(commit);
-                            Map<String, String> parameters = new HashMap<>();
-                            parameters.put(PARAM_GIT_REVISION, mi.revision);
-                            revisions.add(commit);
-                            snapshots.add(new Snapshot(e, mi.timestamp.toInstant(), mi.comment, mi.creator, parameters,
-                                new ArrayList<>(0)));
-                        });
-                    }
+                for (String path : entry.paths) {
+                    pathToSaveSet(path, branch, FileType.SNAPSHOT, exists).ifPresent(e -> {
+                        MetaInfo meta = entry.toMetaInfo();
+                        Map<String, String> parameters = new HashMap<>();
+                        insertTagData(findTag(tags, entry.revision, branchName), parameters, entry.revision,
+                            branchName);
+                        snapshots.add(new Snapshot(e, meta.timestamp.toInstant(), meta.comment, meta.creator,
+                            parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters,
+                            EMPTY_LIST));
+                    });
                 }
             }
+            return snapshots;
+        } finally {
+            lock.readLock().unlock();
         }
-        final Map<String, RevTag> tags = loadTagsForRevisions(revisions);
-        final List<Snapshot> ret = new ArrayList<>();
-        final String branchName = branch.getShortName();
-        snapshots.forEach(s -> {
-            String revision = s.getParameters().get(PARAM_GIT_REVISION);
-            if (tags.get(revision) == null) {
-                ret.add(s);
-            } else {
-                Map<String, String> parameters = new HashMap<>(s.getParameters());
-                insertTagData(tags.get(revision), parameters, revision, branchName);
-                ret.add(new Snapshot(s.getSaveSet(), s.getDate(), s.getComment(), s.getOwner(),
-                    parameters.remove(PARAM_TAG_NAME), parameters.remove(PARAM_TAG_MESSAGE), parameters, EMPTY_LIST));
+    }
+
+    /**
+     * Returns a predicate, which checks if a file exists in the given commit. The results are cached, because many
+     * snapshots usually belong to the same save set.
+     *
+     * @param commitId the commit in which to look for the files
+     * @return the predicate that tests the path of the file relative to the repository root
+     * @throws IOException if the commit could not be read
+     */
+    private Predicate<String> existsInCommit(ObjectId commitId) throws IOException {
+        final RevCommit commit = getCommitFromRevision(commitId.getName());
+        final Map<String, Boolean> cache = new HashMap<>();
+        return path -> cache.computeIfAbsent(path, p -> {
+            try (TreeWalk treeWalk = TreeWalk.forPath(repository, p, commit.getTree())) {
+                return treeWalk != null;
+            } catch (IOException e) {
+                SaveRestoreService.LOGGER.log(Level.WARNING, e, () -> String.format("Could not read %s.", p));
+                return false;
             }
         });
-        return ret;
     }
 
     /**
      * Read the contents of the file.
      *
      * @param revision the revision to load
+     * @param branch the branch, which head is loaded if the revision is not given
      * @param path the path to the file (relative to the repository root)
      * @param fileType the type of file that is being loaded
      * @param type the return type
@@ -1371,9 +1482,10 @@ public class GitManager {
      * @throws ParseException if parsing the timestamp data failed (for snapshots only)
      * @throws IOException if reading the data failed
      */
-    private <T> T loadFile(Optional<String> revision, String path, FileType fileType, Class<T> type, Object descriptor)
-        throws ParseException, IOException {
-        RevCommit revCommit = revision.isPresent() ? getCommitFromRevision(revision.get()) : getHeadCommit();
+    private <T> T loadFile(Optional<String> revision, Branch branch, String path, FileType fileType, Class<T> type,
+        Object descriptor) throws ParseException, IOException {
+        RevCommit revCommit = getCommitFromRevision(
+            revision.isPresent() ? revision.get() : getBranchHead(branch).getName());
         try (ObjectReader objectReader = repository.newObjectReader(); TreeWalk treeWalk = new TreeWalk(objectReader)) {
             CanonicalTreeParser treeParser = new CanonicalTreeParser();
             treeParser.reset(objectReader, revCommit.getTree());
@@ -1481,19 +1593,18 @@ public class GitManager {
     }
 
     /**
-     * Converts the <code>pathToFile</code> to a save set. The repository is expected to be checkout on the correct
-     * branch. If the path is valid so that the save set can be determined and if the file actually still exists at the
-     * HEAD of the branch, it is returned. If the path is not valid, or the file does not exist, an empty object is
-     * returned.
+     * Converts the <code>pathToFile</code> to a save set. If the path is valid so that the save set can be determined
+     * and if the save set file actually still exists at the head of the branch, it is returned. If the path is not
+     * valid, or the file does not exist, an empty object is returned.
      *
      * @param pathToFile the path to file
-     * @param repositoryPath the path to the root of the repository
      * @param branch the branch for the save set
      * @param fromType the type of the file under the given path
+     * @param exists tests if the file under the given path (relative to the repository root) exists on the branch
      * @return the save set if found or empty if not found
      */
-    private static Optional<SaveSet> pathToSaveSet(String pathToFile, File repositoryPath, Branch branch,
-        FileType fromType) {
+    private static Optional<SaveSet> pathToSaveSet(String pathToFile, Branch branch, FileType fromType,
+        Predicate<String> exists) {
         String[] p = pathToFile.split(GIT_PATH_DELIMITER);
         BaseLevel baseLevel = null;
         String[] newPath = null;
@@ -1524,8 +1635,7 @@ public class GitManager {
         }
         SaveSet saveSet = new SaveSet(branch, Optional.ofNullable(baseLevel), newPath, GitDataProvider.ID);
         String path = convertPathToString(saveSet, FileType.SAVE_SET);
-        File fullPath = new File(repositoryPath, path);
-        return fullPath.exists() ? Optional.of(saveSet) : Optional.empty();
+        return exists.test(path) ? Optional.of(saveSet) : Optional.empty();
     }
 
     /**
@@ -1698,11 +1808,11 @@ public class GitManager {
      * @param branchName the branch name for which the tag should be loaded
      * @return true if the tag exists or false otherwise
      */
-    private static boolean insertTagData(RevTag tag, Map<String, String> parameters, String revision,
+    private static boolean insertTagData(SnapshotIndex.Tag tag, Map<String, String> parameters, String revision,
         String branchName) {
         parameters.put(PARAM_GIT_REVISION, revision);
         if (tag != null) {
-            String niceTagName = tag.getTagName();
+            String niceTagName = tag.name;
             boolean acceptTag = true;
             if (niceTagName.charAt(0) == '(') {
                 String branch = niceTagName.substring(1, niceTagName.indexOf(')'));
@@ -1716,9 +1826,9 @@ public class GitManager {
                     niceTagName = niceTagName.substring(niceTagName.lastIndexOf('(') + 1, niceTagName.length() - 1);
                 }
                 parameters.put(PARAM_TAG_NAME, niceTagName);
-                parameters.put(PARAM_GIT_TAG_NAME, tag.getTagName());
-                parameters.put(PARAM_TAG_MESSAGE, tag.getFullMessage());
-                parameters.put(PARAM_TAG_CREATOR, tag.getTaggerIdent().getName());
+                parameters.put(PARAM_GIT_TAG_NAME, tag.name);
+                parameters.put(PARAM_TAG_MESSAGE, tag.message);
+                parameters.put(PARAM_TAG_CREATOR, tag.creator);
                 return true;
             }
         }
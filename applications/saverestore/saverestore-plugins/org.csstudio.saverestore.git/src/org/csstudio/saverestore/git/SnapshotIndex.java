@@ -0,0 +1,446 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2016.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore.git;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.csstudio.saverestore.SaveRestoreService;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevTag;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
+
+/**
+ * <code>SnapshotIndex</code> keeps the meta information of all snapshot commits and of all tags in the repository, so
+ * that the snapshots can be listed and searched without walking the history every time. The index is stored in the
+ * <code>.git</code> folder of the repository. For each branch the head at which the branch was indexed is stored
+ * together with the commits, so when the branch moves only the new commits are read. If the old head is no longer an
+ * ancestor of the branch (e.g. the branch was reset or recreated), the branch is indexed from scratch.
+ * <p>
+ * Merge commits are not indexed, because they do not represent a snapshot. The lists returned by the index are
+ * immutable, therefore they can be used by several threads without further synchronisation.
+ * </p>
+ *
+ * @author agent
+ */
+class SnapshotIndex {
+
+    static final String FILE_NAME = "saverestore.index";
+    private static final int VERSION = 1;
+
+    /**
+     * <code>Entry</code> describes a single commit, which added or modified at least one snapshot file.
+     */
+    static class Entry {
+        final String revision;
+        final int commitTime;
+        final String creator;
+        final String email;
+        final String comment;
+        final List<String> paths;
+
+        Entry(String revision, int commitTime, String creator, String email, String comment, List<String> paths) {
+            this.revision = revision;
+            this.commitTime = commitTime;
+            this.creator = creator;
+            this.email = email;
+            this.comment = comment;
+            this.paths = paths;
+        }
+
+        /**
+         * @return the meta information of this commit as it would be read from the commit
+         */
+        MetaInfo toMetaInfo() {
+            return new MetaInfo(comment, creator, email, new Date(commitTime * 1000L), revision);
+        }
+    }
+
+    /**
+     * <code>Tag</code> describes an annotated tag.
+     */
+    static class Tag {
+        final String name;
+        final ObjectId id;
+        final String revision;
+        final String message;
+        final String creator;
+
+        Tag(String name, ObjectId id, String revision, String message, String creator) {
+            this.name = name;
+            this.id = id;
+            this.revision = revision;
+            this.message = message;
+            this.creator = creator;
+        }
+    }
+
+    /**
+     * <code>BranchIndex</code> holds the entries of a single branch, the newest commit first.
+     */
+    private static class BranchIndex {
+        final ObjectId head;
+        final List<Entry> entries;
+        private Map<String, Entry> revisions;
+
+        BranchIndex(ObjectId head, List<Entry> entries) {
+            this.head = head;
+            this.entries = Collections.unmodifiableList(entries);
+        }
+
+        synchronized Map<String, Entry> getRevisions() {
+            if (revisions == null) {
+                Map<String, Entry> map = new HashMap<>(entries.size() * 2);
+                entries.forEach(e -> map.put(e.revision, e));
+                revisions = Collections.unmodifiableMap(map);
+            }
+            return revisions;
+        }
+    }
+
+    private final Repository repository;
+    private final File file;
+    private final Map<String, BranchIndex> branches = new HashMap<>();
+    private Map<String, Tag> tags = Collections.emptyMap();
+    private Map<String, List<Tag>> tagsByRevision = Collections.emptyMap();
+    private Map<String, ObjectId> lightweightTags = Collections.emptyMap();
+    private boolean dirty = false;
+
+    /**
+     * Constructs a new index for the given repository and loads the previously stored index if it exists.
+     *
+     * @param repository the repository to index
+     */
+    SnapshotIndex(Repository repository) {
+        this.repository = repository;
+        this.file = new File(repository.getDirectory(), FILE_NAME);
+        if (file.exists()) {
+            try {
+                load();
+            } catch (IOException | RuntimeException e) {
+                SaveRestoreService.LOGGER.log(Level.WARNING, e,
+                    () -> String.format("Snapshot index %s could not be loaded and will be rebuilt.", file));
+                branches.clear();
+                tags = Collections.emptyMap();
+                tagsByRevision = Collections.emptyMap();
+            }
+        }
+    }
+
+    /**
+     * Returns the entries of the branch, the newest commit first. If the branch moved since it was last indexed, the
+     * new commits are indexed first.
+     *
+     * @param branchName the short name of the branch
+     * @param head the current head of the branch
+     * @return the list of entries
+     * @throws IOException if the commits could not be read
+     */
+    List<Entry> getEntries(String branchName, ObjectId head) throws IOException {
+        return getBranch(branchName, head).entries;
+    }
+
+    /**
+     * Returns the entries of the branch mapped by their revision.
+     *
+     * @param branchName the short name of the branch
+     * @param head the current head of the branch
+     * @return the map of entries, where the key is the revision
+     * @throws IOException if the commits could not be read
+     */
+    Map<String, Entry> getRevisions(String branchName, ObjectId head) throws IOException {
+        return getBranch(branchName, head).getRevisions();
+    }
+
+    /**
+     * Returns all annotated tags in the repository. The tags, which have not been seen before, are read from the
+     * repository.
+     *
+     * @return the map of tags, where the key is the full git tag name
+     * @throws IOException if the tags could not be read
+     */
+    synchronized Map<String, Tag> getTags() throws IOException {
+        updateTags();
+        return tags;
+    }
+
+    /**
+     * Returns all annotated tags in the repository mapped by the revision of the commit that they point to.
+     *
+     * @return the map of tags, where the key is the revision of the tagged commit
+     * @throws IOException if the tags could not be read
+     */
+    synchronized Map<String, List<Tag>> getTagsByRevision() throws IOException {
+        updateTags();
+        return tagsByRevision;
+    }
+
+    /**
+     * Store the index to the file, if it changed since it was loaded or last saved.
+     */
+    synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            File tmp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+                write(out);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            dirty = false;
+        } catch (IOException e) {
+            SaveRestoreService.LOGGER.log(Level.WARNING, e,
+                () -> String.format("Snapshot index %s could not be saved.", file));
+        }
+    }
+
+    private synchronized BranchIndex getBranch(String branchName, ObjectId head) throws IOException {
+        BranchIndex index = branches.get(branchName);
+        if (index == null || !index.head.equals(head)) {
+            long start = System.nanoTime();
+            index = update(index, head);
+            branches.put(branchName, index);
+            dirty = true;
+            final BranchIndex idx = index;
+            SaveRestoreService.LOGGER.log(Level.FINE, () -> String.format("Indexed branch %s (%d snapshots) in %d ms.",
+                branchName, idx.entries.size(), (System.nanoTime() - start) / 1_000_000));
+        }
+        return index;
+    }
+
+    /**
+     * Index the commits between the old head and the new head. If the old index is not given, or if its head is not
+     * an ancestor of the new head, all commits are indexed.
+     *
+     * @param old the current index of the branch (can be null)
+     * @param head the new head of the branch
+     * @return the new index of the branch
+     * @throws IOException if the commits could not be read
+     */
+    private BranchIndex update(BranchIndex old, ObjectId head) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (RevWalk walk = new RevWalk(repository); ObjectReader objectReader = repository.newObjectReader();
+            DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            diffFormatter.setRepository(repository);
+            diffFormatter.setDiffComparator(RawTextComparator.DEFAULT);
+            diffFormatter.setDetectRenames(true);
+            RevCommit start = walk.parseCommit(head);
+            boolean incremental = false;
+            if (old != null && objectReader.has(old.head)) {
+                RevCommit oldHead = walk.parseCommit(old.head);
+                incremental = walk.isMergedInto(oldHead, start);
+                walk.reset();
+                if (incremental) {
+                    walk.markUninteresting(oldHead);
+                }
+            }
+            walk.markStart(start);
+            for (RevCommit commit : walk) {
+                if (commit.getParentCount() > 1) {
+                    continue;
+                }
+                AbstractTreeIterator oldTreeIterator = new EmptyTreeIterator();
+                if (commit.getParentCount() != 0) {
+                    RevCommit parentCommit = walk.parseCommit(commit.getParent(0));
+                    oldTreeIterator = new CanonicalTreeParser(null, objectReader, parentCommit.getTree());
+                }
+                AbstractTreeIterator newTreeIterator = new CanonicalTreeParser(null, objectReader, commit.getTree());
+                List<String> paths = new ArrayList<>(1);
+                for (DiffEntry diff : diffFormatter.scan(oldTreeIterator, newTreeIterator)) {
+                    if (diff.getChangeType() == ChangeType.DELETE || diff.getChangeType() == ChangeType.RENAME
+                        || !diff.getNewPath().endsWith(FileType.SNAPSHOT.suffix)) {
+                        continue;
+                    }
+                    paths.add(diff.getNewPath());
+                }
+                if (!paths.isEmpty()) {
+                    PersonIdent committer = commit.getCommitterIdent();
+                    entries.add(new Entry(commit.getName(), commit.getCommitTime(), committer.getName(),
+                        committer.getEmailAddress(), commit.getFullMessage(), Collections.unmodifiableList(paths)));
+                }
+            }
+            if (incremental) {
+                entries.addAll(old.entries);
+            }
+        }
+        return new BranchIndex(head.copy(), entries);
+    }
+
+    /**
+     * Read the tags that were added since the last update and drop the tags that no longer exist.
+     *
+     * @throws IOException if the tags could not be read
+     */
+    private void updateTags() throws IOException {
+        Map<String, Ref> refs = repository.getTags();
+        boolean changed = false;
+        Map<String, Tag> newTags = new HashMap<>(refs.size() * 2);
+        Map<String, ObjectId> newLightweightTags = new HashMap<>();
+        try (RevWalk walk = new RevWalk(repository)) {
+            for (Map.Entry<String, Ref> r : refs.entrySet()) {
+                String name = r.getKey();
+                ObjectId id = r.getValue().getObjectId();
+                Tag tag = tags.get(name);
+                if (tag != null && tag.id.equals(id)) {
+                    newTags.put(name, tag);
+                    continue;
+                } else if (id.equals(lightweightTags.get(name))) {
+                    newLightweightTags.put(name, id);
+                    continue;
+                }
+                RevObject object = walk.parseAny(id);
+                if (!(object instanceof RevTag)) {
+                    // lightweight tags are not created by save and restore and are not stored in the index
+                    newLightweightTags.put(name, id.copy());
+                    continue;
+                }
+                RevTag revTag = (RevTag) object;
+                PersonIdent tagger = revTag.getTaggerIdent();
+                newTags.put(name, new Tag(revTag.getTagName(), id.copy(), revTag.getObject().getName(),
+                    revTag.getFullMessage(), tagger == null ? null : tagger.getName()));
+                changed = true;
+            }
+        }
+        lightweightTags = newLightweightTags;
+        if (changed || newTags.size() != tags.size()) {
+            setTags(newTags);
+            dirty = true;
+        }
+    }
+
+    private void setTags(Map<String, Tag> newTags) {
+        Map<String, List<Tag>> byRevision = new HashMap<>(newTags.size() * 2);
+        newTags.values().forEach(t -> byRevision.computeIfAbsent(t.revision, k -> new ArrayList<>(1)).add(t));
+        tags = Collections.unmodifiableMap(newTags);
+        tagsByRevision = Collections.unmodifiableMap(byRevision);
+    }
+
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != VERSION) {
+                throw new IOException("Unsupported snapshot index version.");
+            }
+            int numBranches = in.readInt();
+            for (int i = 0; i < numBranches; i++) {
+                String branchName = readString(in);
+                ObjectId head = ObjectId.fromString(readString(in));
+                int numEntries = in.readInt();
+                List<Entry> entries = new ArrayList<>(numEntries);
+                for (int j = 0; j < numEntries; j++) {
+                    String revision = readString(in);
+                    int commitTime = in.readInt();
+                    String creator = readString(in);
+                    String email = readString(in);
+                    String comment = readString(in);
+                    int numPaths = in.readInt();
+                    List<String> paths = new ArrayList<>(numPaths);
+                    for (int k = 0; k < numPaths; k++) {
+                        paths.add(readString(in));
+                    }
+                    entries.add(new Entry(revision, commitTime, creator, email, comment,
+                        Collections.unmodifiableList(paths)));
+                }
+                branches.put(branchName, new BranchIndex(head, entries));
+            }
+            int numTags = in.readInt();
+            Map<String, Tag> newTags = new HashMap<>(numTags * 2);
+            for (int i = 0; i < numTags; i++) {
+                String key = readString(in);
+                String name = readString(in);
+                ObjectId id = ObjectId.fromString(readString(in));
+                newTags.put(key, new Tag(name, id, readString(in), readString(in), readString(in)));
+            }
+            setTags(newTags);
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(VERSION);
+        out.writeInt(branches.size());
+        for (Map.Entry<String, BranchIndex> b : branches.entrySet()) {
+            writeString(out, b.getKey());
+            writeString(out, b.getValue().head.getName());
+            out.writeInt(b.getValue().entries.size());
+            for (Entry e : b.getValue().entries) {
+                writeString(out, e.revision);
+                out.writeInt(e.commitTime);
+                writeString(out, e.creator);
+                writeString(out, e.email);
+                writeString(out, e.comment);
+                out.writeInt(e.paths.size());
+                for (String p : e.paths) {
+                    writeString(out, p);
+                }
+            }
+        }
+        out.writeInt(tags.size());
+        for (Map.Entry<String, Tag> t : tags.entrySet()) {
+            writeString(out, t.getKey());
+            writeString(out, t.getValue().name);
+            writeString(out, t.getValue().id.getName());
+            writeString(out, t.getValue().revision);
+            writeString(out, t.getValue().message);
+            writeString(out, t.getValue().creator);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2016.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore.restore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.saverestore.data.SnapshotEntry;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * <code>RestoreEngineTest</code> tests the {@link RestoreEngine} with a simulated control system.
+ *
+ * @author agent
+ *
+ */
+public class RestoreEngineTest {
+
+    /**
+     * Simulated PVs, which confirm each write after a short delay and keep track of the writes in flight per IOC.
+     */
+    private static class SimulatedTarget implements RestoreTarget {
+        final ScheduledExecutorService ioc = Executors.newScheduledThreadPool(4);
+        final Map<String, VType> values = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final List<String> written = new ArrayList<>();
+        String failing = "";
+        String silent = "";
+
+        @Override
+        public CompletableFuture<Void> write(String pvName, VType value) {
+            final CompletableFuture<Void> done = new CompletableFuture<>();
+            synchronized (written) {
+                written.add(pvName);
+            }
+            if (pvName.equals(silent)) {
+                return done;
+            }
+            final AtomicInteger count = inFlight.computeIfAbsent(RestoreEngine.PV_PREFIX.apply(pvName),
+                k -> new AtomicInteger());
+            maxInFlight.accumulateAndGet(count.incrementAndGet(), Math::max);
+            ioc.schedule(() -> {
+                count.decrementAndGet();
+                if (pvName.equals(failing)) {
+                    done.completeExceptionally(new Exception("Write access denied"));
+                } else {
+                    values.put(pvName, value);
+                    done.complete(null);
+                }
+            }, 2, TimeUnit.MILLISECONDS);
+            return done;
+        }
+
+        @Override
+        public CompletableFuture<VType> read(String pvName) {
+            VType value = values.get(pvName);
+            return value == null ? CompletableFuture.failedFuture(new Exception("Disconnected"))
+                : CompletableFuture.completedFuture(value);
+        }
+    }
+
+    private final SimulatedTarget target = new SimulatedTarget();
+
+    @After
+    public void tearDown() {
+        target.ioc.shutdownNow();
+    }
+
+    private static List<SnapshotEntry> createEntries(String prefix, int count) {
+        List<SnapshotEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add(new SnapshotEntry(prefix + ":PV" + i, ValueFactory.newVDouble(Double.valueOf(i))));
+        }
+        return entries;
+    }
+
+    /**
+     * Tests that all PVs are restored and that the number of writes in flight per IOC is limited.
+     *
+     * @throws InterruptedException on error
+     */
+    @Test
+    public void testThrottledRestore() throws InterruptedException {
+        List<SnapshotEntry> entries = new ArrayList<>();
+        entries.addAll(createEntries("IOC1", 200));
+        entries.addAll(createEntries("IOC2", 200));
+        RestoreEngine engine = new RestoreEngine(target, 3, 5, TimeUnit.SECONDS);
+        AtomicInteger progress = new AtomicInteger();
+        RestoreResult result = engine.restore(entries, new RestoreListener() {
+            @Override
+            public void pvCompleted(RestoreResult.PVResult r, int completed, int total) {
+                assertEquals(400, total);
+                progress.accumulateAndGet(completed, Math::max);
+            }
+        });
+        assertTrue(result.isSuccess());
+        assertEquals(400, result.getCount(RestoreResult.Status.RESTORED));
+        assertEquals(400, progress.get());
+        assertEquals(400, target.values.size());
+        assertTrue("Writes in flight per IOC: " + target.maxInFlight.get(), target.maxInFlight.get() <= 3);
+    }
+
+    /**
+     * Tests that groups are restored one after the other.
+     *
+     * @throws InterruptedException on error
+     */
+    @Test
+    public void testGroups() throws InterruptedException {
+        RestoreEngine engine = new RestoreEngine(target, 10, 5, TimeUnit.SECONDS);
+        List<SnapshotEntry> first = createEntries("A", 50);
+        List<SnapshotEntry> second = createEntries("B", 50);
+        RestoreResult result = engine.restoreGroups(Arrays.asList(first, second), new RestoreListener() {
+        });
+        assertTrue(result.isSuccess());
+        assertEquals(100, target.written.size());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(target.written.get(i).startsWith("A:"));
+            assertTrue(target.written.get(50 + i).startsWith("B:"));
+        }
+    }
+
+    /**
+     * Tests failed writes, timeouts, skipped entries and verification.
+     *
+     * @throws InterruptedException on error
+     */
+    @Test
+    public void testFailures() throws InterruptedException {
+        List<SnapshotEntry> entries = createEntries("IOC", 10);
+        entries.add(new SnapshotEntry("IOC:NoValue", null));
+        target.failing = "IOC:PV3";
+        target.silent = "IOC:PV7";
+        RestoreEngine engine = new RestoreEngine(target, 2, 200, TimeUnit.MILLISECONDS);
+        engine.setVerify(true, 0, TimeUnit.MILLISECONDS);
+        RestoreResult result = engine.restore(entries, new RestoreListener() {
+        });
+        assertFalse(result.isSuccess());
+        assertEquals(8, result.getCount(RestoreResult.Status.VERIFIED));
+        assertEquals(1, result.getCount(RestoreResult.Status.FAILED));
+        assertEquals(1, result.getCount(RestoreResult.Status.TIMEOUT));
+        assertEquals(1, result.getCount(RestoreResult.Status.SKIPPED));
+        assertEquals(3, result.getFailures().size());
+    }
+
+    /**
+     * Tests that the remaining PVs are skipped when the restore is cancelled.
+     *
+     * @throws InterruptedException on error
+     */
+    @Test
+    public void testCancel() throws InterruptedException {
+        List<SnapshotEntry> entries = createEntries("IOC", 100);
+        RestoreEngine engine = new RestoreEngine(target, 1, 5, TimeUnit.SECONDS);
+        RestoreResult result = engine.restore(entries, new RestoreListener() {
+            @Override
+            public boolean isCancelled() {
+                return target.written.size() >= 10;
+            }
+        });
+        assertEquals(100, result.getResults().size());
+        assertEquals(10, result.getCount(RestoreResult.Status.RESTORED));
+        assertEquals(90, result.getCount(RestoreResult.Status.SKIPPED));
+    }
+}
@@ -33,7 +33,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -57,6 +59,10 @@ import org.csstudio.saverestore.data.Threshold;
 import org.csstudio.saverestore.data.VDisconnectedData;
 import org.csstudio.saverestore.data.VNoData;
 import org.csstudio.saverestore.data.VSnapshot;
+import org.csstudio.saverestore.restore.RestoreEngine;
+import org.csstudio.saverestore.restore.RestoreListener;
+import org.csstudio.saverestore.restore.RestoreResult;
+import org.csstudio.saverestore.restore.RestoreTarget;
 import org.csstudio.saverestore.ui.util.GUIUpdateThrottle;
 import org.csstudio.saverestore.ui.util.VTypePair;
 import org.csstudio.ui.fx.util.FXDetailsDialog;
@@ -64,7 +70,6 @@ import org.csstudio.ui.fx.util.FXMessageDialog;
 import org.diirt.datasource.PVManager;
 import org.diirt.datasource.PVReader;
 import org.diirt.datasource.PVWriter;
-import org.diirt.datasource.PVWriterEvent;
 import org.diirt.datasource.PVWriterListener;
 import org.diirt.vtype.Alarm;
 import org.diirt.vtype.AlarmSeverity;
@@ -859,71 +864,82 @@ public class SnapshotViewerController {
         Map<PV, PVWriterListener<?>> restorablePVs = new HashMap<>();
         try {
             suspend();
-            List<SnapshotEntry> entries = s.getEntries();
-            final Map<PV, PVWriterEvent<?>> restoredPVs = new HashMap<>();
-            for (SnapshotEntry entry : entries) {
+            List<SnapshotEntry> entries = new ArrayList<>();
+            final Map<String, PV> writers = new HashMap<>();
+            final Map<String, PVReader<VType>> readers = new HashMap<>();
+            for (SnapshotEntry entry : s.getEntries()) {
                 final TableEntry e = items.get(entry.getPVName());
                 // only restore the value if the entry is in the filtered list as well
                 if (filteredList.contains(e) && e.selectedProperty().get() && !e.readOnlyProperty().get()) {
                     final PV pv = pvs.get(e);
                     if (pv.writer != null) {
-                        PVWriterListener<?> l = w -> {
-                            restoredPVs.put(pv, w);
-                            synchronized (restoredPVs) {
-                                restoredPVs.notifyAll();
-                            }
-                        };
-                        restorablePVs.put(pv, l);
-                        pv.writer.addPVWriterListener(l);
-                        Object val = Utilities.toRawValue(entry.getValue());
-                        if (val != null) {
-                            pv.writer.write(val);
+                        entries.add(entry);
+                        writers.put(pv.pvName, pv);
+                        if (pv.reader != null) {
+                            readers.put(pv.pvName, pv.reader);
+                        }
+                        if (pv.readback != null && entry.getReadbackName() != null) {
+                            readers.put(entry.getReadbackName(), pv.readback);
                         }
                     }
                 }
             }
-            try {
-                long time = System.currentTimeMillis();
-                while (System.currentTimeMillis() - time < 30000
-                    && !SaveRestoreService.getInstance().isCurrentJobCancelled()) {
-                    synchronized (restoredPVs) {
-                        if (restoredPVs.size() == restorablePVs.size()) {
-                            break;
-                        } else {
-                            restoredPVs.wait(100);
+            RestoreTarget target = new RestoreTarget() {
+                @Override
+                public CompletableFuture<Void> write(String pvName, VType value) {
+                    final PV pv = writers.get(pvName);
+                    final CompletableFuture<Void> done = new CompletableFuture<>();
+                    PVWriterListener<?> l = w -> {
+                        if (w.isWriteSucceeded()) {
+                            done.complete(null);
+                        } else if (w.isWriteFailed()) {
+                            Exception ex = w.getPvWriter().lastWriteException();
+                            done.completeExceptionally(ex == null ? new Exception("Unknown error") : ex);
                         }
+                    };
+                    synchronized (restorablePVs) {
+                        restorablePVs.put(pv, l);
                     }
+                    pv.writer.addPVWriterListener(l);
+                    pv.writer.write(Utilities.toRawValue(value));
+                    return done;
                 }
-            } catch (InterruptedException e) {
-                // ignore
-            }
 
-            List<String> messages = new ArrayList<>();
-            for (Map.Entry<PV, PVWriterEvent<?>> pv : restoredPVs.entrySet()) {
-                if (pv.getValue().isWriteFailed()) {
-                    StringBuilder sb = new StringBuilder(200);
-                    sb.append(pv.getKey().pvName).append(':').append(' ');
-                    Exception e = pv.getValue().getPvWriter().lastWriteException();
-                    if (e == null || e.getMessage() == null || e.getMessage().isEmpty()) {
-                        sb.append("Unknown error");
-                    } else {
-                        sb.append(e.getMessage());
+                @Override
+                public CompletableFuture<VType> read(String pvName) {
+                    PVReader<VType> reader = readers.get(pvName);
+                    if (reader == null || !reader.isConnected()) {
+                        return CompletableFuture.failedFuture(new Exception(pvName + " is not connected"));
                     }
-                    messages.add(sb.toString());
+                    return CompletableFuture.completedFuture(reader.getValue());
                 }
-            }
-
-            if (restoredPVs.size() != restorablePVs.size()) {
-                // not all PVs responded in time
-                for (PV pv : restorablePVs.keySet()) {
-                    if (restoredPVs.containsKey(pv)) {
-                        messages.add(pv.pvName + ": Timeout");
+            };
+
+            final SaveRestoreService service = SaveRestoreService.getInstance();
+            RestoreEngine engine = new RestoreEngine(target, service.getRestoreWritesPerIOC(),
+                service.getRestoreTimeout(), TimeUnit.SECONDS);
+            engine.setVerify(service.isRestoreVerify(), 1, TimeUnit.SECONDS);
+            final int step = Math.max(1, entries.size() / 10);
+            RestoreResult result = engine.restore(entries, new RestoreListener() {
+                @Override
+                public void pvCompleted(RestoreResult.PVResult r, int completed, int total) {
+                    if (completed % step == 0 || completed == total) {
+                        SaveRestoreService.LOGGER.log(Level.FINE, "Restoring {0}: {1} of {2} PVs done.",
+                            new Object[] { s.getSnapshot().get(), completed, total });
                     }
                 }
-            }
+
+                @Override
+                public boolean isCancelled() {
+                    return service.isCurrentJobCancelled();
+                }
+            });
+
+            List<String> messages = result.getFailures().stream().map(RestoreResult.PVResult::toString)
+                .collect(Collectors.toList());
             if (messages.isEmpty()) {
-                SaveRestoreService.LOGGER.log(Level.FINE, "Restored snapshot {0}: {1}.",
-                    new Object[] { s.getSaveSet().getFullyQualifiedName(), s.getSnapshot().get() });
+                SaveRestoreService.LOGGER.log(Level.FINE, "Restored snapshot {0}: {1}. {2}.",
+                    new Object[] { s.getSaveSet().getFullyQualifiedName(), s.getSnapshot().get(), result });
             } else {
                 Collections.sort(messages);
                 StringBuilder sb = new StringBuilder(messages.size() * 200);
@@ -935,9 +951,13 @@ public class SnapshotViewerController {
                 FXDetailsDialog.open(getSnapshotReceiver().getShell(), "Restore error",
                     "There were some errors restoring the snapshot\n " + s.getSnapshot().get(), sb.toString());
             }
+        } catch (InterruptedException e) {
+            // job cancelled
         } finally {
-            for (Map.Entry<PV, PVWriterListener<?>> e : restorablePVs.entrySet()) {
-                e.getKey().writer.removePVWriterListener(e.getValue());
+            synchronized (restorablePVs) {
+                for (Map.Entry<PV, PVWriterListener<?>> e : restorablePVs.entrySet()) {
+                    e.getKey().writer.removePVWriterListener(e.getValue());
+                }
             }
             resume();
         }
@@ -68,6 +68,22 @@ public class PreferencesPage extends FieldEditorPreferencePage implements IWorkb
                           + "they can be opened in a new editor or added as\n"
                           + "compared snapshots to the current editor");
         addField(newSnapshots);
+        IntegerFieldEditor writesPerIOC = new IntegerFieldEditor(SaveRestoreService.PREF_RESTORE_WRITES_PER_IOC,
+            "Restore writes in flight per IOC", parent);
+        writesPerIOC.getLabelControl(parent)
+            .setToolTipText("Set the maximum number of PVs with the same name prefix\n"
+                          + "(the part before the first ':') that are written at the\n"
+                          + "same time when a snapshot is restored.");
+        addField(writesPerIOC);
+        IntegerFieldEditor restoreTimeout = new IntegerFieldEditor(SaveRestoreService.PREF_RESTORE_TIMEOUT,
+            "Restore timeout per PV [s]", parent);
+        addField(restoreTimeout);
+        BooleanFieldEditor restoreVerify = new BooleanFieldEditor(SaveRestoreService.PREF_RESTORE_VERIFY,
+            "Verify restored values", parent);
+        restoreVerify.getDescriptionControl(parent)
+            .setToolTipText("Read back each restored PV (or its readback PV)\n"
+                          + "and compare it to the written value");
+        addField(restoreVerify);
 
     }
 
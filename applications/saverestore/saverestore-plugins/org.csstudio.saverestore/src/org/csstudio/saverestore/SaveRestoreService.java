@@ -59,6 +59,12 @@ public class SaveRestoreService {
     public static final String PREF_NUMBER_OF_SNAPSHOTS = "maxNumberOfSnapshotsInBatch";
     /** Property that defines if new snapshots should be open in compare mode or in a separate editor */
     public static final String PREF_OPEN_NEW_SNAPSHOTS_IN_COMPARE_VIEW = "openNewSnapshotsInCompareView";
+    /** Property that defines the maximum number of restore writes in flight for each IOC (PV name prefix) */
+    public static final String PREF_RESTORE_WRITES_PER_IOC = "restoreWritesPerIOC";
+    /** Property that defines the timeout in seconds for writing and verifying a single PV during restore */
+    public static final String PREF_RESTORE_TIMEOUT = "restoreTimeout";
+    /** Property that defines if the restored values are read back and compared to the written values */
+    public static final String PREF_RESTORE_VERIFY = "restoreVerify";
     /** Plug-in ID */
     public static final String PLUGIN_ID = "org.csstudio.saverestore";
     /** The common logger */
@@ -423,6 +429,48 @@ public class SaveRestoreService {
         }
     }
 
+    /**
+     * Returns the maximum number of writes that the restore may have in flight for each IOC at any time. The IOC is
+     * identified by the PV name prefix.
+     *
+     * @return the maximum number of restore writes in flight for each IOC
+     */
+    public int getRestoreWritesPerIOC() {
+        try {
+            int n = getPreferences().getInt(PREF_RESTORE_WRITES_PER_IOC);
+            return n < 1 ? 10 : n;
+        } catch (RuntimeException e) {
+            return 10;
+        }
+    }
+
+    /**
+     * Returns the timeout for writing and verifying a single PV during restore.
+     *
+     * @return the restore timeout in seconds
+     */
+    public int getRestoreTimeout() {
+        try {
+            int t = getPreferences().getInt(PREF_RESTORE_TIMEOUT);
+            return t < 1 ? 30 : t;
+        } catch (RuntimeException e) {
+            return 30;
+        }
+    }
+
+    /**
+     * Returns true if the restored values should be read back and compared to the written values.
+     *
+     * @return true if restored values are verified or false otherwise
+     */
+    public boolean isRestoreVerify() {
+        try {
+            return getPreferences().getBoolean(PREF_RESTORE_VERIFY);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
     /**
      * Returns the preference store for this plugin.
      *
@@ -0,0 +1,269 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2016.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore.restore;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+import org.csstudio.saverestore.SaveRestoreService;
+import org.csstudio.saverestore.Utilities;
+import org.csstudio.saverestore.data.SnapshotEntry;
+import org.csstudio.saverestore.data.Threshold;
+import org.diirt.vtype.VType;
+
+/**
+ *
+ * <code>RestoreEngine</code> writes the values of snapshot entries to the PVs through a {@link RestoreTarget}.
+ * <p>
+ * The entries are restored in groups: all PVs of a group are written before the next group is started. Within a
+ * group the PVs are written in parallel, but the number of writes in flight is limited for each throttle key. By
+ * default the key is the part of the PV name before the first ':', which usually identifies the IOC or the
+ * subsystem, so a large snapshot does not flood a single IOC with writes. Completion of each PV is tracked through
+ * the futures returned by the target, so there is no polling, and the progress is reported to the
+ * {@link RestoreListener} as every PV completes.
+ * </p>
+ * <p>
+ * If verification is enabled, the readback PV (or the PV itself if there is no readback) is read after the write and
+ * compared to the written value, using the delta of the entry as the threshold.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public class RestoreEngine {
+
+    /** Throttle key, which is the part of the PV name before the first ':' */
+    public static final Function<String, String> PV_PREFIX = name -> {
+        int idx = name.indexOf(':');
+        return idx > 0 ? name.substring(0, idx) : name;
+    };
+
+    /**
+     * <code>Group</code> restores the entries of one restore group.
+     */
+    private class Group {
+        private final Map<String, Deque<SnapshotEntry>> lanes = new LinkedHashMap<>();
+        private final CountDownLatch done;
+        private final RestoreResult result;
+        private final RestoreListener listener;
+
+        Group(List<SnapshotEntry> entries, RestoreResult result, RestoreListener listener) {
+            for (SnapshotEntry e : entries) {
+                lanes.computeIfAbsent(throttleKey.apply(e.getPVName()), k -> new ArrayDeque<>()).add(e);
+            }
+            this.done = new CountDownLatch(entries.size());
+            this.result = result;
+            this.listener = listener;
+        }
+
+        void restore() throws InterruptedException {
+            for (String key : lanes.keySet()) {
+                for (int i = 0; i < maxInFlight; i++) {
+                    startNext(key);
+                }
+            }
+            done.await();
+        }
+
+        /**
+         * Start the next write of the lane, skipping entries that should not be written.
+         *
+         * @param key the throttle key of the lane
+         */
+        private void startNext(String key) {
+            while (true) {
+                final SnapshotEntry entry;
+                synchronized (this) {
+                    entry = lanes.get(key).poll();
+                }
+                if (entry == null) {
+                    return;
+                } else if (cancelled || listener.isCancelled()) {
+                    cancelled = true;
+                    complete(entry, RestoreResult.Status.SKIPPED, "Cancelled", null);
+                } else if (entry.isReadOnly() || Utilities.toRawValue(entry.getValue()) == null) {
+                    complete(entry, RestoreResult.Status.SKIPPED, "No value to restore", null);
+                } else {
+                    restoreEntry(entry).whenCompleteAsync((r, e) -> {
+                        if (e == null) {
+                            complete(entry, r.getStatus(), r.getMessage(), r.getReadback());
+                        } else {
+                            Throwable cause = e instanceof CompletionException || e instanceof ExecutionException
+                                ? e.getCause() : e;
+                            if (cause instanceof TimeoutException) {
+                                complete(entry, RestoreResult.Status.TIMEOUT, "Timeout", null);
+                            } else {
+                                complete(entry, RestoreResult.Status.FAILED,
+                                    cause == null || cause.getMessage() == null || cause.getMessage().isEmpty()
+                                        ? "Unknown error" : cause.getMessage(),
+                                    null);
+                            }
+                        }
+                        startNext(key);
+                    });
+                    return;
+                }
+            }
+        }
+
+        private void complete(SnapshotEntry entry, RestoreResult.Status status, String message, VType readback) {
+            RestoreResult.PVResult r = new RestoreResult.PVResult(entry.getPVName(), status, message,
+                entry.getValue(), readback);
+            result.add(r);
+            try {
+                listener.pvCompleted(r, result.getCompletedCount(), result.getTotal());
+            } catch (RuntimeException e) {
+                SaveRestoreService.LOGGER.log(Level.WARNING, "Restore listener error.", e);
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    private final RestoreTarget target;
+    private final int maxInFlight;
+    private final long timeout;
+    private Function<String, String> throttleKey = PV_PREFIX;
+    private boolean verify = false;
+    private long verifyDelay = 0;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Constructs a new engine.
+     *
+     * @param target the target, which writes and reads the PVs
+     * @param maxInFlight the maximum number of writes in flight for each throttle key
+     * @param timeout the timeout for each write and each readback
+     * @param unit the time unit of the timeout
+     */
+    public RestoreEngine(RestoreTarget target, int maxInFlight, long timeout, TimeUnit unit) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one write needs to be in flight.");
+        }
+        this.target = target;
+        this.maxInFlight = maxInFlight;
+        this.timeout = unit.toMillis(timeout);
+    }
+
+    /**
+     * Set the function that determines the throttle key of a PV. The number of writes in flight is limited for each
+     * key. The default is {@link #PV_PREFIX}.
+     *
+     * @param throttleKey the function that maps the PV name to the throttle key
+     */
+    public void setThrottleKey(Function<String, String> throttleKey) {
+        this.throttleKey = throttleKey;
+    }
+
+    /**
+     * Enable or disable the verification of the written values.
+     *
+     * @param verify true to read back and compare each value after it was written
+     * @param delay the delay between the confirmed write and the readback, which gives the readback PV time to update
+     * @param unit the time unit of the delay
+     */
+    public void setVerify(boolean verify, long delay, TimeUnit unit) {
+        this.verify = verify;
+        this.verifyDelay = unit.toMillis(delay);
+    }
+
+    /**
+     * Cancel the restore in progress. The PVs that have not been written yet are skipped.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Restore the entries as a single group.
+     *
+     * @param entries the entries to restore
+     * @param listener the listener that receives the progress
+     * @return the result of the restore
+     * @throws InterruptedException if the thread was interrupted while waiting for the writes to complete
+     */
+    public RestoreResult restore(List<SnapshotEntry> entries, RestoreListener listener) throws InterruptedException {
+        return restoreGroups(Collections.singletonList(entries), listener);
+    }
+
+    /**
+     * Restore the groups of entries one after the other. The next group is started when all PVs of the previous group
+     * have been completed.
+     *
+     * @param groups the groups of entries in the order in which they should be restored
+     * @param listener the listener that receives the progress
+     * @return the result of the restore
+     * @throws InterruptedException if the thread was interrupted while waiting for the writes to complete
+     */
+    public RestoreResult restoreGroups(List<List<SnapshotEntry>> groups, RestoreListener listener)
+        throws InterruptedException {
+        cancelled = false;
+        int total = groups.stream().mapToInt(List::size).sum();
+        RestoreResult result = new RestoreResult(total);
+        try {
+            for (List<SnapshotEntry> entries : groups) {
+                new Group(entries, result, listener).restore();
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            throw e;
+        } finally {
+            result.finish();
+        }
+        SaveRestoreService.LOGGER.log(Level.FINE, "{0}.", result);
+        return result;
+    }
+
+    /**
+     * Write the value of the entry and verify it if requested.
+     *
+     * @param entry the entry to restore
+     * @return the future completed with the result, or exceptionally if the write or read failed
+     */
+    private CompletableFuture<RestoreResult.PVResult> restoreEntry(SnapshotEntry entry) {
+        final String name = entry.getPVName();
+        final VType value = entry.getValue();
+        CompletableFuture<Void> write;
+        try {
+            write = target.write(name, value).orTimeout(timeout, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            write = CompletableFuture.failedFuture(e);
+        }
+        if (!verify) {
+            return write.thenApply(v -> new RestoreResult.PVResult(name, RestoreResult.Status.RESTORED, null,
+                value, null));
+        }
+        final String readName = entry.getReadbackName() == null || entry.getReadbackName().isEmpty() ? name
+            : entry.getReadbackName();
+        final Optional<Threshold<?>> threshold = entry.getDelta() == null || entry.getDelta().isEmpty()
+            ? Optional.empty() : Optional.of(new Threshold<>(entry.getDelta()));
+        return write
+            .thenComposeAsync(v -> target.read(readName).orTimeout(timeout, TimeUnit.MILLISECONDS),
+                CompletableFuture.delayedExecutor(verifyDelay, TimeUnit.MILLISECONDS))
+            .thenApply(readback -> Utilities.areValuesEqual(value, readback, threshold)
+                ? new RestoreResult.PVResult(name, RestoreResult.Status.VERIFIED, null, value, readback)
+                : new RestoreResult.PVResult(name, RestoreResult.Status.MISMATCH,
+                    readName + " = " + Utilities.valueToString(readback), value, readback));
+    }
+}
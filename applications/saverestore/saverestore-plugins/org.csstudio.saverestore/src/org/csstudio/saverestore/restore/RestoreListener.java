@@ -0,0 +1,43 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2016.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore.restore;
+
+/**
+ *
+ * <code>RestoreListener</code> receives the progress of a restore executed by the {@link RestoreEngine}. The methods
+ * are called from the threads that complete the writes, so the implementation should return quickly and must be
+ * thread safe.
+ *
+ * @author agent
+ *
+ */
+public interface RestoreListener {
+
+    /**
+     * Called whenever the restore of a single PV is completed, regardless of whether it was successful or not.
+     *
+     * @param result the result for the PV
+     * @param completed the number of PVs that have been completed so far
+     * @param total the total number of PVs in the restore
+     */
+    default void pvCompleted(RestoreResult.PVResult result, int completed, int total) {
+    }
+
+    /**
+     * Called before each PV is written. If the method returns true, the PV and all remaining PVs are skipped. The
+     * writes that are already in progress are still completed.
+     *
+     * @return true if the restore should be cancelled or false to continue
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
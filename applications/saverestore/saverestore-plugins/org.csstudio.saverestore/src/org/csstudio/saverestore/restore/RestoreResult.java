@@ -0,0 +1,201 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2016.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore.restore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.diirt.vtype.VType;
+
+/**
+ *
+ * <code>RestoreResult</code> collects the outcome of a restore executed by the {@link RestoreEngine} for every PV.
+ *
+ * @author agent
+ *
+ */
+public class RestoreResult {
+
+    /**
+     * <code>Status</code> is the outcome of the restore of a single PV.
+     */
+    public enum Status {
+        /** The value was written and the write was confirmed */
+        RESTORED(true),
+        /** The value was written and the readback matches the written value */
+        VERIFIED(true),
+        /** The value was written, but the readback does not match the written value */
+        MISMATCH(false),
+        /** The write or the readback failed */
+        FAILED(false),
+        /** The write or the readback was not confirmed in time */
+        TIMEOUT(false),
+        /** The PV was not written, because it has no value or because the restore was cancelled */
+        SKIPPED(false);
+
+        private final boolean success;
+
+        private Status(boolean success) {
+            this.success = success;
+        }
+
+        /**
+         * @return true if this status means that the PV was successfully restored
+         */
+        public boolean isSuccess() {
+            return success;
+        }
+    }
+
+    /**
+     * <code>PVResult</code> is the outcome of the restore of a single PV.
+     */
+    public static class PVResult {
+        private final String pvName;
+        private final Status status;
+        private final String message;
+        private final VType value;
+        private final VType readback;
+
+        PVResult(String pvName, Status status, String message, VType value, VType readback) {
+            this.pvName = pvName;
+            this.status = status;
+            this.message = message;
+            this.value = value;
+            this.readback = readback;
+        }
+
+        /**
+         * @return the name of the PV
+         */
+        public String getPVName() {
+            return pvName;
+        }
+
+        /**
+         * @return the status of the restore
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the error message or null if the PV was successfully restored
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * @return the value that was written
+         */
+        public VType getValue() {
+            return value;
+        }
+
+        /**
+         * @return the value that was read back after the write, or null if the value was not verified
+         */
+        public VType getReadback() {
+            return readback;
+        }
+
+        @Override
+        public String toString() {
+            return message == null ? pvName + ": " + status : pvName + ": " + status + " - " + message;
+        }
+    }
+
+    private final int total;
+    private final List<PVResult> results;
+    private final long start = System.nanoTime();
+    private volatile long end = 0;
+
+    RestoreResult(int total) {
+        this.total = total;
+        this.results = new ArrayList<>(total);
+    }
+
+    void add(PVResult result) {
+        synchronized (results) {
+            results.add(result);
+        }
+    }
+
+    int getCompletedCount() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    void finish() {
+        end = System.nanoTime();
+    }
+
+    /**
+     * @return the total number of PVs in the restore
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return the results of all PVs in the order in which they were completed
+     */
+    public List<PVResult> getResults() {
+        synchronized (results) {
+            return Collections.unmodifiableList(new ArrayList<>(results));
+        }
+    }
+
+    /**
+     * @return the results of the PVs that were not successfully restored
+     */
+    public List<PVResult> getFailures() {
+        return getResults().stream().filter(r -> !r.getStatus().isSuccess()).collect(Collectors.toList());
+    }
+
+    /**
+     * @param status the status to count
+     * @return the number of PVs that finished with the given status
+     */
+    public int getCount(Status status) {
+        return (int) getResults().stream().filter(r -> r.getStatus() == status).count();
+    }
+
+    /**
+     * @return true if all PVs were successfully restored
+     */
+    public boolean isSuccess() {
+        return getFailures().isEmpty();
+    }
+
+    /**
+     * @return the duration of the restore in milliseconds
+     */
+    public long getDurationMillis() {
+        return ((end == 0 ? System.nanoTime() : end) - start) / 1_000_000;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        long millis = Math.max(1, getDurationMillis());
+        return String.format("Restored %d of %d PVs in %d ms (%.1f PVs/s), %d failed", total - getFailures().size(),
+            total, millis, getCompletedCount() * 1000.0 / millis, getFailures().size());
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * This software is Copyright by the Board of Trustees of Michigan
+ * State University (c) Copyright 2016.
+ *
+ * Contact Information:
+ *   Facility for Rare Isotope Beam
+ *   Michigan State University
+ *   East Lansing, MI 48824-1321
+ *   http://frib.msu.edu
+ */
+package org.csstudio.saverestore.restore;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.diirt.vtype.VType;
+
+/**
+ *
+ * <code>RestoreTarget</code> provides access to the PVs that are written by the {@link RestoreEngine}. The
+ * implementation decides which PV library is used, so the engine can run in the UI as well as headless. Both methods
+ * must not block; they return a future, which is completed when the control system confirms the operation.
+ *
+ * @author agent
+ *
+ */
+public interface RestoreTarget {
+
+    /**
+     * Write the value to the PV. The returned future should complete when the write has been confirmed, or
+     * exceptionally if the write failed. The engine takes care of the timeout.
+     *
+     * @param pvName the name of the PV to write to
+     * @param value the value to write
+     * @return the future, which is completed when the write is done
+     */
+    CompletableFuture<Void> write(String pvName, VType value);
+
+    /**
+     * Read the current value of the PV. Used to verify the restored values.
+     *
+     * @param pvName the name of the PV to read
+     * @return the future, which is completed with the current value of the PV
+     */
+    CompletableFuture<VType> read(String pvName);
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.csstudio.ndarray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/** JUnit tests of the {@link NDKernel}
+ *
+ *  <p>Compares block operations on contiguous and strided arrays
+ *  with element-by-element computations,
+ *  and prints their timing.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class NDKernelUnitTest
+{
+    /** @param rows Rows
+     *  @param cols Columns
+     *  @return 2-D array with some test data
+     */
+    private static NDArray createData(final int rows, final int cols)
+    {
+        final NDArray result = new NDArray(NDType.FLOAT64, new NDShape(rows, cols));
+        for (int row=0; row<rows; ++row)
+            for (int col=0; col<cols; ++col)
+                result.setDouble(Math.sin(row) + col*0.5, row, col);
+        return result;
+    }
+
+    @Test
+    public void testReadWrite()
+    {
+        final NDArray a = createData(30, 50);
+        // Transposed, sliced
+        final NDArray views[] = new NDArray[]
+        {
+            a,
+            NDMatrix.transpose(a),
+            a.getSlice(new int[] { 1, 2 }, new int[] { 29, 47 }, new int[] { 3, 2 }),
+            NDMatrix.transpose(a.getSlice(new int[] { 1, 2 }, new int[] { 29, 47 }, new int[] { 3, 2 })),
+        };
+        for (NDArray view : views)
+        {
+            assertEquals(view.isContiguous(), view == a);
+
+            // Read in blocks of odd size, compare with iterator
+            final double[] buf = new double[7];
+            final double[] expected = new double[view.getSize()];
+            final ShapeIterator iter = new ShapeIterator(view.getShape());
+            int i = 0;
+            while (iter.hasNext())
+                expected[i++] = view.getDouble(iter.getPosition());
+            for (int start=0; start<expected.length; start += buf.length)
+            {
+                final int len = Math.min(buf.length, expected.length - start);
+                NDKernel.read(view, start, buf, len);
+                for (i=0; i<len; ++i)
+                    assertEquals(expected[start+i], buf[i], 0.0);
+            }
+
+            // Write negated values in blocks
+            for (int start=0; start<expected.length; start += buf.length)
+            {
+                final int len = Math.min(buf.length, expected.length - start);
+                for (i=0; i<len; ++i)
+                    buf[i] = -expected[start+i];
+                NDKernel.write(view, start, buf, len);
+            }
+            final ShapeIterator check = new ShapeIterator(view.getShape());
+            i = 0;
+            while (check.hasNext())
+                assertEquals(-expected[i++], view.getDouble(check.getPosition()), 0.0);
+            NDMath.negative(view);
+        }
+    }
+
+    @Test
+    public void testStridedMath()
+    {
+        // Every other element
+        final NDArray a = NDMatrix.arange(0, 10, 1);
+        final NDArray even = a.getSlice(new int[] { 0 }, new int[] { 10 }, new int[] { 2 });
+        assertFalse(even.isContiguous());
+        NDMath.negative(even);
+        assertEquals(NDArray.create(new double[] { 0, 1, -2, 3, -4, 5, -6, 7, -8, 9 }), a);
+        NDMath.increment(even, NDMatrix.ones(NDType.FLOAT64, new NDShape(5)));
+        assertEquals(NDArray.create(new double[] { 1, 1, -1, 3, -3, 5, -5, 7, -7, 9 }), a);
+
+        final NDArray odd = a.getSlice(new int[] { 1 }, new int[] { 10 }, new int[] { 2 });
+        assertEquals(NDArray.create(new double[] { 2, 2, 2, 2, 2 }), NDMath.add(even, odd));
+        assertEquals(NDArray.create(new boolean[] { false, true, true, true, true }), NDCompare.less_than(even, odd));
+        assertEquals(-15.0, NDMath.sum(even), 0.0);
+        assertEquals(25.0, NDMath.sum(odd), 0.0);
+        assertEquals(-7.0, NDMath.min(a), 0.0);
+        assertEquals(9.0, NDMath.max(a), 0.0);
+    }
+
+    @Test
+    public void testDot()
+    {
+        final NDArray a = NDArray.create(new int[][] { { 1, 2, 3 }, { 4, 5, 6 } });
+        final NDArray b = NDArray.create(new int[][] { { 1, 2 }, { 3, 4 }, { 5, 6 } });
+        assertEquals(NDArray.create(new int[][] { { 22, 28 }, { 49, 64 } }), NDMatrix.dot(a, b));
+        assertEquals(NDArray.create(new int[][] { { 22, 49 }, { 28, 64 } }),
+                     NDMatrix.dot(NDMatrix.transpose(b), NDMatrix.transpose(a)));
+        assertEquals(NDArray.create(new int[] { 14, 32 }),
+                     NDMatrix.dot(a, NDArray.create(new int[] { 1, 2, 3 })));
+        assertEquals(NDArray.create(new int[] { 32 }),
+                     NDMatrix.inner(NDArray.create(new int[] { 1, 2, 3 }), NDArray.create(new int[] { 4, 5, 6 })));
+    }
+
+    @Test
+    public void testLargeDot()
+    {
+        final int rows = 300, inner = 200, cols = 500;
+        final NDArray a = createData(rows, inner);
+        final NDArray b = NDMatrix.transpose(createData(cols, inner));
+
+        long start = System.currentTimeMillis();
+        final NDArray r = NDMatrix.dot(a, b);
+        long end = System.currentTimeMillis();
+        System.out.println("Blocked dot " + a.getShape() + " x " + b.getShape() + ": " + (end - start) + " ms");
+
+        // Must match the element-by-element computation
+        start = System.currentTimeMillis();
+        for (int i=0; i<rows; ++i)
+            for (int j=0; j<cols; ++j)
+            {
+                double sum = 0.0;
+                for (int k=0; k<inner; ++k)
+                    sum += a.getDouble(i, k) * b.getDouble(k, j);
+                assertEquals(sum, r.getDouble(i, j), 0.0);
+            }
+        end = System.currentTimeMillis();
+        System.out.println("Element-by-element dot: " + (end - start) + " ms");
+    }
+
+    @Test
+    public void testPerformance()
+    {
+        // Large enough to use parallel chunks
+        final int size = 1000;
+        final NDArray a = createData(size, size);
+        final NDArray b = createData(size, size);
+        final NDArray a_t = NDMatrix.transpose(a);
+        final NDArray b_t = NDMatrix.transpose(b);
+        assertTrue(a.getSize() >= NDKernel.PARALLEL_SIZE);
+        final int runs = 20;
+
+        NDArray r = null;
+        long start = System.currentTimeMillis();
+        for (int run=0; run<runs; ++run)
+            r = NDMath.add(a, b);
+        long end = System.currentTimeMillis();
+        System.out.println("Contiguous add: " + (end - start)/(double)runs + " ms per run");
+
+        NDArray r_t = null;
+        start = System.currentTimeMillis();
+        for (int run=0; run<runs; ++run)
+            r_t = NDMath.add(a_t, b_t);
+        end = System.currentTimeMillis();
+        System.out.println("Strided add: " + (end - start)/(double)runs + " ms per run");
+        assertEquals(NDMatrix.transpose(r), r_t);
+
+        // Element-by-element via the flat iterator
+        start = System.currentTimeMillis();
+        for (int run=0; run<runs; ++run)
+        {
+            r = new NDArray(NDType.FLOAT64, a.getShape());
+            final ShapeIterator iter = new ShapeIterator(a.getShape());
+            while (iter.hasNext())
+            {
+                final int[] pos = iter.getPosition();
+                r.setDouble(a_t.getDouble(pos) + b_t.getDouble(pos), pos);
+            }
+        }
+        end = System.currentTimeMillis();
+        System.out.println("Element-by-element strided add: " + (end - start)/(double)runs + " ms per run");
+        assertEquals(r, r_t);
+
+        start = System.currentTimeMillis();
+        double sum = 0;
+        for (int run=0; run<runs; ++run)
+            sum = NDMath.sum(a);
+        end = System.currentTimeMillis();
+        System.out.println("Contiguous sum: " + (end - start)/(double)runs + " ms per run");
+
+        start = System.currentTimeMillis();
+        double sum_t = 0;
+        for (int run=0; run<runs; ++run)
+            sum_t = NDMath.sum(a_t);
+        end = System.currentTimeMillis();
+        System.out.println("Strided sum: " + (end - start)/(double)runs + " ms per run");
+        assertEquals(sum, sum_t, Math.abs(sum) * 1e-12);
+
+        start = System.currentTimeMillis();
+        for (int run=0; run<runs; ++run)
+            r = NDCompare.greater_than(a, b_t);
+        end = System.currentTimeMillis();
+        System.out.println("Compare: " + (end - start)/(double)runs + " ms per run");
+        assertEquals(a.getDouble(3, 7) > b.getDouble(7, 3) ? 1.0 : 0.0, r.getDouble(3, 7), 0.0);
+    }
+}
@@ -63,6 +63,12 @@ public class NDArray
     /** Flat array */
     final private ListNumber data;
 
+    /** Plain Java array that backs <code>data</code>,
+     *  for example <code>double[]</code>,
+     *  or <code>null</code> if not known
+     */
+    final private Object raw;
+
     /** Is byte array data used as boolean?
      *
      *  <p>For most data types there's a corresponding
@@ -89,8 +95,24 @@ public class NDArray
      *  @param shape Array shape, e.g. [2, 3]
      */
     protected NDArray(final ListNumber data, final NDShape shape, final boolean is_boolean)
+    {
+        this(null, data, shape, is_boolean);
+    }
+
+    /** Initialize with existing data
+     *  @param raw Plain Java array, for example <code>double[]</code>
+     *  @param shape Array shape, e.g. [2, 3]
+     *  @throws IllegalArgumentException for unhandled data type
+     */
+    NDArray(final Object raw, final NDShape shape, final boolean is_boolean)
+    {
+        this(raw, wrap(raw), shape, is_boolean);
+    }
+
+    private NDArray(final Object raw, final ListNumber data, final NDShape shape, final boolean is_boolean)
     {
         this.base = null;
+        this.raw = raw;
         this.data = data;
         this.shape = shape;
         this.offset = 0;
@@ -127,6 +149,7 @@ public class NDArray
             throw new IllegalArgumentException("Stride " + stride +
                     " not compatible with array shape " + base.getShape());
         this.base = base;
+        this.raw = base.raw;
         this.data = base.data;
         this.shape = shape;
         this.offset = offset;
@@ -140,7 +163,7 @@ public class NDArray
      */
     protected NDArray(final NDType type, final NDShape shape)
     {
-        this(createDataArray(type, shape.getSize()), shape, type == NDType.BOOL);
+        this(createPrimitiveArray(type, shape.getSize()), shape, type == NDType.BOOL);
     }
 
     /** Create from plain Java array data, determine type from data
@@ -162,9 +185,9 @@ public class NDArray
     public static NDArray create(final Object data, final NDType type)
     {
         final NDShape shape = determineShape(data);
-        final ListNumber flat = createDataArray(type, shape.getSize());
-        fillFlatArray(flat, 0, data);
-        return new NDArray(flat, shape, type == NDType.BOOL);
+        final NDArray result = new NDArray(type, shape);
+        fillFlatArray(result.data, 0, data);
+        return result;
     }
 
     /** @param start Start of a range
@@ -185,12 +208,9 @@ public class NDArray
     public NDArray clone()
     {
         final int size = data.size();
-        final ListNumber copy = createDataArray(getType(), size);
-        final IteratorNumber iterator = getIterator();
-        int i=0;
-        while (iterator.hasNext())
-            copy.setDouble(i++, iterator.nextDouble());
-        return new NDArray(copy, getShape(), is_boolean);
+        final NDArray copy = new NDArray(createPrimitiveArray(getType(), size), getShape(), is_boolean);
+        copy.copyBlocks(this);
+        return copy;
     }
 
     /** Create {@link ListNumber} for requested data type
@@ -200,21 +220,54 @@ public class NDArray
      *  @throws IllegalArgumentException for unhandled data type
      */
     static ListNumber createDataArray(final NDType type, final int size)
+    {
+        return wrap(createPrimitiveArray(type, size));
+    }
+
+    /** Create plain Java array for requested data type
+     *  @param type Data type {@link Double}, {@link Integer}, ...
+     *  @param size Array size
+     *  @return <code>double[]</code>, <code>float[]</code>, ...
+     *  @throws IllegalArgumentException for unhandled data type
+     */
+    static Object createPrimitiveArray(final NDType type, final int size)
     {
         switch (type)
         {
-        case FLOAT64: return new ArrayDouble(new double[size], false);
-        case FLOAT32: return new ArrayFloat(new float[size], false);
-        case INT64:   return new ArrayLong(new long[size], false);
-        case INT32:   return new ArrayInt(new int[size], false);
-        case INT16:   return new ArrayShort(new short[size], false);
-        case INT8:    return new ArrayByte(new byte[size], false);
-        case BOOL:    return new ArrayByte(new byte[size], false);
+        case FLOAT64: return new double[size];
+        case FLOAT32: return new float[size];
+        case INT64:   return new long[size];
+        case INT32:   return new int[size];
+        case INT16:   return new short[size];
+        case INT8:    return new byte[size];
+        case BOOL:    return new byte[size];
         default:
             throw new IllegalArgumentException("Unsupported data type " + type);
         }
     }
 
+    /** Wrap plain Java array as {@link ListNumber}
+     *  @param raw <code>double[]</code>, <code>float[]</code>, ...
+     *  @return {@link ListNumber}
+     *  @throws IllegalArgumentException for unhandled data type
+     */
+    private static ListNumber wrap(final Object raw)
+    {
+        if (raw instanceof double[])
+            return new ArrayDouble((double[]) raw, false);
+        if (raw instanceof float[])
+            return new ArrayFloat((float[]) raw, false);
+        if (raw instanceof long[])
+            return new ArrayLong((long[]) raw, false);
+        if (raw instanceof int[])
+            return new ArrayInt((int[]) raw, false);
+        if (raw instanceof short[])
+            return new ArrayShort((short[]) raw, false);
+        if (raw instanceof byte[])
+            return new ArrayByte((byte[]) raw, false);
+        throw new IllegalArgumentException("Unsupported data type " + raw.getClass().getName());
+    }
+
     /** Determine the data type of an (array) object
      *  @param data Data that must be an array, flat or nested, of {@link Double}, ..., {@link Byte}
      *  @return Type of the array data. Defaults to double.class for empty array
@@ -381,6 +434,30 @@ public class NDArray
         return stride;
     }
 
+    /** @return <code>true</code> if the elements are stored without gaps in the order of a flat iteration */
+    public boolean isContiguous()
+    {
+        return stride.isDefault(shape);
+    }
+
+    /** @return Plain Java array that holds the data, or <code>null</code> if not known */
+    Object getRawData()
+    {
+        return raw;
+    }
+
+    /** @return Flat array that holds the data */
+    ListNumber getData()
+    {
+        return data;
+    }
+
+    /** @return Offset into data to access first element */
+    int getOffset()
+    {
+        return offset;
+    }
+
     /** @return Iterator for the flat data */
     public IteratorNumber getIterator()
     {   // Can iterate over the raw data?
@@ -436,10 +513,20 @@ public class NDArray
         switch (NDCompatibility.forArrays(this, other))
         {
         case FLAT_ITERATION:
+            if (NDKernel.isIndependent(this, other))
+            {
+                copyBlocks(other);
+                break;
+            }
             for (int i=getSize()-1; i>=0; --i)
                 setFlatDouble(i, other.getFlatDouble(i));
             break;
         case SHAPE_ITERATION:
+            if (NDKernel.isIndependent(this, other))
+            {
+                copyBlocks(other);
+                break;
+            }
             final ShapeIterator iter = new ShapeIterator(shape);
             while (iter.hasNext())
             {
@@ -464,6 +551,18 @@ public class NDArray
         }
     }
 
+    /** Set array elements from other array of same shape, block by block
+     *  @param other Array that provides values
+     */
+    private void copyBlocks(final NDArray other)
+    {
+        NDKernel.forEachBlock(getSize(), (start, len, buf, unused) ->
+        {
+            NDKernel.read(other, start, buf, len);
+            NDKernel.write(this, start, buf, len);
+        });
+    }
+
     /** Create slice, i.e. view of subsection of the array
      *
      *  <p>Requires a start:stop:step slice specification for each
@@ -27,10 +27,16 @@ public class NDCompare
      */
     public static boolean any(final NDArray a)
     {
-        final IteratorNumber iterator = a.getIterator();
-        while (iterator.hasNext())
-            if (iterator.nextByte() != 0)
-                return true;
+        final double[] values = new double[NDKernel.BLOCK_SIZE];
+        final int size = a.getSize();
+        for (int start=0; start<size; start+=NDKernel.BLOCK_SIZE)
+        {
+            final int len = Math.min(NDKernel.BLOCK_SIZE, size - start);
+            NDKernel.read(a, start, values, len);
+            for (int i=0; i<len; ++i)
+                if ((byte) values[i] != 0)
+                    return true;
+        }
         return false;
     }
 
@@ -39,10 +45,16 @@ public class NDCompare
      */
     public static boolean all(final NDArray a)
     {
-        final IteratorNumber iterator = a.getIterator();
-        while (iterator.hasNext())
-            if (iterator.nextByte() == 0)
-                return false;
+        final double[] values = new double[NDKernel.BLOCK_SIZE];
+        final int size = a.getSize();
+        for (int start=0; start<size; start+=NDKernel.BLOCK_SIZE)
+        {
+            final int len = Math.min(NDKernel.BLOCK_SIZE, size - start);
+            NDKernel.read(a, start, values, len);
+            for (int i=0; i<len; ++i)
+                if ((byte) values[i] == 0)
+                    return false;
+        }
         return true;
     }
 
@@ -85,42 +97,94 @@ public class NDCompare
          *  @return Result of operation
          */
         boolean compare(double a, double b);
+
+        /** @param a First inputs, replaced by results 1.0 for true, 0.0 for false
+         *  @param b Second inputs
+         *  @param len Number of elements
+         */
+        default void compare(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = compare(a[i], b[i]) ? 1.0 : 0.0;
+        }
     }
 
     final private static BinaryOperation op_eq = new BinaryOperation()
     {
         @Override
         public boolean compare(final double a, final double b)     { return a == b;    }
+
+        @Override
+        public void compare(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] == b[i] ? 1.0 : 0.0;
+        }
     };
 
     final private static BinaryOperation op_ne = new BinaryOperation()
     {
         @Override
         public boolean compare(final double a, final double b)     { return a != b;    }
+
+        @Override
+        public void compare(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] != b[i] ? 1.0 : 0.0;
+        }
     };
 
     final private static BinaryOperation op_lt = new BinaryOperation()
     {
         @Override
         public boolean compare(final double a, final double b)     { return a < b;    }
+
+        @Override
+        public void compare(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] < b[i] ? 1.0 : 0.0;
+        }
     };
 
     final private static BinaryOperation op_le = new BinaryOperation()
     {
         @Override
         public boolean compare(final double a, final double b)     { return a <= b;    }
+
+        @Override
+        public void compare(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] <= b[i] ? 1.0 : 0.0;
+        }
     };
 
     final private static BinaryOperation op_gt = new BinaryOperation()
     {
         @Override
         public boolean compare(final double a, final double b)     { return a > b;    }
+
+        @Override
+        public void compare(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] > b[i] ? 1.0 : 0.0;
+        }
     };
 
     final private static BinaryOperation op_ge = new BinaryOperation()
     {
         @Override
         public boolean compare(final double a, final double b)     { return a >= b;    }
+
+        @Override
+        public void compare(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] >= b[i] ? 1.0 : 0.0;
+        }
     };
 
     /** Perform operation on arrays element-by-element,
@@ -140,25 +204,15 @@ public class NDCompare
         switch (NDCompatibility.forArrays(a, b))
         {
         case FLAT_ITERATION:
-            result = new NDArray(NDType.BOOL, a.getShape());
-            final int size = result.getSize();
-            for (int i=0; i<size; ++i)
-            {
-                final boolean value = operation.compare(a.getFlatDouble(i),
-                                                        b.getFlatDouble(i));
-                result.setFlatDouble(i, value ? 1.0 : 0.0);
-            }
-            break;
         case SHAPE_ITERATION:
             result = new NDArray(NDType.BOOL, a.getShape());
-            final ShapeIterator shape = new ShapeIterator(result.getShape());
-            while (shape.hasNext())
+            NDKernel.forEachBlock(result.getSize(), (start, len, values_a, values_b) ->
             {
-                final int[] pos = shape.getPosition();
-                final boolean value = operation.compare(a.getDouble(pos),
-                        b.getDouble(pos));
-                result.setDouble(value ? 1.0 : 0.0, pos);
-            }
+                NDKernel.read(a, start, values_a, len);
+                NDKernel.read(b, start, values_b, len);
+                operation.compare(values_a, values_b, len);
+                NDKernel.write(result, start, values_a, len);
+            });
             break;
         case BROADCAST_ITERATION:
             final BroadcastIterator bcst = new BroadcastIterator(a.getShape(), b.getShape());
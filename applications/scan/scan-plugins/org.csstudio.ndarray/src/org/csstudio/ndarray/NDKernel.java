@@ -0,0 +1,427 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.ndarray;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.stream.IntStream;
+
+import org.diirt.util.array.ListNumber;
+
+/** Block-wise access to {@link NDArray} elements
+ *
+ *  <p>Instead of reading element by element via {@link ListNumber}
+ *  and the array strides, elements are copied in blocks between
+ *  the primitive Java array that holds the data and a <code>double[]</code>
+ *  buffer.
+ *  The data type is checked once per block, and the loops over
+ *  a block are simple enough for the JIT to unroll and vectorize.
+ *  Contiguous arrays are copied as one range,
+ *  other arrays row by row along their last axis.
+ *  Blocks are always in the order of a flat iteration over the shape,
+ *  i.e. the order of the {@link NDArrayIterator}.
+ *
+ *  <p>Large arrays are processed in chunks of blocks,
+ *  using the fork/join common pool.
+ *
+ *  @author agent
+ */
+final class NDKernel
+{
+    /** Number of elements in a block */
+    final static int BLOCK_SIZE = 1024;
+
+    /** Number of elements in a chunk that's handled by one thread */
+    final static int CHUNK_SIZE = 64 * BLOCK_SIZE;
+
+    /** Minimum number of elements to use parallel threads */
+    final static int PARALLEL_SIZE = 4 * CHUNK_SIZE;
+
+    /** Operation on a block of elements */
+    interface Block
+    {
+        /** @param start Flat index of first element in block
+         *  @param len Number of elements in block, up to <code>BLOCK_SIZE</code>
+         *  @param buf_a Scratch buffer of <code>BLOCK_SIZE</code>
+         *  @param buf_b Scratch buffer of <code>BLOCK_SIZE</code>
+         */
+        void process(int start, int len, double[] buf_a, double[] buf_b);
+    }
+
+    /** Reduction of a block of elements */
+    interface BlockReduction
+    {
+        /** @param result Result so far
+         *  @param buf Elements of the block
+         *  @param len Number of elements in block
+         *  @return Result that includes the block
+         */
+        double reduce(double result, double[] buf, int len);
+    }
+
+    /** Process all elements of a flat array in blocks
+     *  @param size Number of elements
+     *  @param block Operation to perform on each block
+     */
+    static void forEachBlock(final int size, final Block block)
+    {
+        if (size >= PARALLEL_SIZE)
+            IntStream.range(0, (size + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                     .parallel()
+                     .forEach(chunk -> processChunk(chunk * CHUNK_SIZE, Math.min(size, (chunk+1) * CHUNK_SIZE), block));
+        else
+            processChunk(0, size, block);
+    }
+
+    /** @param start First element of chunk
+     *  @param end Next-to-end element of chunk
+     *  @param block Operation to perform on each block
+     */
+    private static void processChunk(final int start, final int end, final Block block)
+    {
+        final double[] buf_a = new double[BLOCK_SIZE];
+        final double[] buf_b = new double[BLOCK_SIZE];
+        for (int i=start; i<end; i+=BLOCK_SIZE)
+            block.process(i, Math.min(BLOCK_SIZE, end - i), buf_a, buf_b);
+    }
+
+    /** Reduce all elements of an array
+     *
+     *  <p>Large arrays are reduced per chunk,
+     *  and chunk results are then combined in order,
+     *  so the result does not depend on the number of threads.
+     *
+     *  @param array Array to reduce
+     *  @param initial Initial result for each chunk
+     *  @param reduction Reduction of a block
+     *  @param combine Combines the results of chunks
+     *  @return Result
+     */
+    static double reduce(final NDArray array, final double initial,
+                         final BlockReduction reduction, final DoubleBinaryOperator combine)
+    {
+        final int size = array.getSize();
+        final int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (size < PARALLEL_SIZE)
+            return reduceChunk(array, 0, size, initial, reduction);
+        final double[] results = new double[chunks];
+        IntStream.range(0, chunks)
+                 .parallel()
+                 .forEach(chunk -> results[chunk] = reduceChunk(array, chunk * CHUNK_SIZE,
+                                                                Math.min(size, (chunk+1) * CHUNK_SIZE),
+                                                                initial, reduction));
+        double result = results[0];
+        for (int i=1; i<chunks; ++i)
+            result = combine.applyAsDouble(result, results[i]);
+        return result;
+    }
+
+    private static double reduceChunk(final NDArray array, final int start, final int end,
+                                      double result, final BlockReduction reduction)
+    {
+        final double[] buf = new double[BLOCK_SIZE];
+        for (int i=start; i<end; i+=BLOCK_SIZE)
+        {
+            final int len = Math.min(BLOCK_SIZE, end - i);
+            read(array, i, buf, len);
+            result = reduction.reduce(result, buf, len);
+        }
+        return result;
+    }
+
+    /** Check if arrays can be processed block by block
+     *
+     *  <p>When one array is updated from the other,
+     *  processing them in blocks instead of element by element
+     *  gives the same result unless they share data.
+     *
+     *  @param a Array
+     *  @param b Other array
+     *  @return <code>true</code> if arrays do not share data, or are identical views
+     */
+    static boolean isIndependent(final NDArray a, final NDArray b)
+    {
+        if (a.getRawData() != b.getRawData())
+            return true;
+        return a.getOffset() == b.getOffset()  &&
+               a.getShape().equals(b.getShape())  &&
+               a.getStrides().equals(b.getStrides());
+    }
+
+    /** @param array Array
+     *  @return Copy of array elements in flat iteration order
+     */
+    static double[] toDoubleArray(final NDArray array)
+    {
+        final double[] result = new double[array.getSize()];
+        read(array, 0, result, result.length);
+        return result;
+    }
+
+    /** Read block of elements
+     *  @param array Array to read
+     *  @param start Flat index of first element, in flat iteration order
+     *  @param buf Buffer for elements
+     *  @param len Number of elements to read
+     */
+    static void read(final NDArray array, final int start, final double[] buf, final int len)
+    {
+        if (len <= 0)
+            return;
+        if (array.isContiguous())
+        {
+            readRun(array, array.getOffset() + start, 1, buf, 0, len);
+            return;
+        }
+        final NDShape shape = array.getShape();
+        final int[] stride = array.getStrides().getStrides();
+        final int[] pos = new int[stride.length];
+        int index = locate(array, start, pos);
+        final int last = stride.length - 1;
+        int done = 0;
+        while (done < len)
+        {   // Read along last axis
+            final int run = Math.min(len - done, shape.getSize(last) - pos[last]);
+            readRun(array, index, stride[last], buf, done, run);
+            done += run;
+            index = advance(shape, stride, pos, index, run);
+        }
+    }
+
+    /** Write block of elements
+     *  @param array Array to update
+     *  @param start Flat index of first element, in flat iteration order
+     *  @param buf Buffer with elements
+     *  @param len Number of elements to write
+     */
+    static void write(final NDArray array, final int start, final double[] buf, final int len)
+    {
+        if (len <= 0)
+            return;
+        if (array.isContiguous())
+        {
+            writeRun(array, array.getOffset() + start, 1, buf, 0, len);
+            return;
+        }
+        final NDShape shape = array.getShape();
+        final int[] stride = array.getStrides().getStrides();
+        final int[] pos = new int[stride.length];
+        int index = locate(array, start, pos);
+        final int last = stride.length - 1;
+        int done = 0;
+        while (done < len)
+        {
+            final int run = Math.min(len - done, shape.getSize(last) - pos[last]);
+            writeRun(array, index, stride[last], buf, done, run);
+            done += run;
+            index = advance(shape, stride, pos, index, run);
+        }
+    }
+
+    /** Determine position of a flat index
+     *  @param array Array
+     *  @param flat Flat index, in flat iteration order
+     *  @param pos Position that is updated for the flat index
+     *  @return Index into data
+     */
+    private static int locate(final NDArray array, final int flat, final int[] pos)
+    {
+        final NDShape shape = array.getShape();
+        final NDStrides stride = array.getStrides();
+        int index = array.getOffset();
+        int rest = flat;
+        for (int dim=pos.length-1; dim>=0; --dim)
+        {
+            pos[dim] = rest % shape.getSize(dim);
+            rest /= shape.getSize(dim);
+            index += pos[dim] * stride.getStride(dim);
+        }
+        return index;
+    }
+
+    /** Advance position along last axis, wrapping into the preceding axes
+     *  @param shape Array shape
+     *  @param stride Array strides
+     *  @param pos Position to update
+     *  @param index Index into data for the position
+     *  @param steps Steps along the last axis, must not go beyond the end of the axis
+     *  @return Index into data for updated position
+     */
+    private static int advance(final NDShape shape, final int[] stride, final int[] pos, int index, final int steps)
+    {
+        int dim = pos.length - 1;
+        pos[dim] += steps;
+        index += steps * stride[dim];
+        while (dim > 0  &&  pos[dim] >= shape.getSize(dim))
+        {
+            index -= pos[dim] * stride[dim];
+            pos[dim] = 0;
+            --dim;
+            ++pos[dim];
+            index += stride[dim];
+        }
+        return index;
+    }
+
+    /** Read elements from the data
+     *  @param array Array
+     *  @param index Index of first element in the data
+     *  @param step Distance between elements in the data
+     *  @param buf Buffer for elements
+     *  @param offset Offset into buffer
+     *  @param len Number of elements
+     */
+    private static void readRun(final NDArray array, final int index, final int step,
+                                final double[] buf, final int offset, final int len)
+    {
+        final Object raw = array.getRawData();
+        if (raw instanceof double[])
+        {
+            final double[] data = (double[]) raw;
+            if (step == 1)
+                System.arraycopy(data, index, buf, offset, len);
+            else
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i*step];
+        }
+        else if (raw instanceof float[])
+        {
+            final float[] data = (float[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i];
+            else
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i*step];
+        }
+        else if (raw instanceof long[])
+        {
+            final long[] data = (long[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i];
+            else
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i*step];
+        }
+        else if (raw instanceof int[])
+        {
+            final int[] data = (int[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i];
+            else
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i*step];
+        }
+        else if (raw instanceof short[])
+        {
+            final short[] data = (short[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i];
+            else
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i*step];
+        }
+        else if (raw instanceof byte[])
+        {
+            final byte[] data = (byte[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i];
+            else
+                for (int i=0; i<len; ++i)
+                    buf[offset+i] = data[index + i*step];
+        }
+        else
+        {   // Data not backed by known Java array
+            final ListNumber data = array.getData();
+            for (int i=0; i<len; ++i)
+                buf[offset+i] = data.getDouble(index + i*step);
+        }
+    }
+
+    /** Write elements to the data
+     *  @param array Array
+     *  @param index Index of first element in the data
+     *  @param step Distance between elements in the data
+     *  @param buf Buffer with elements
+     *  @param offset Offset into buffer
+     *  @param len Number of elements
+     */
+    private static void writeRun(final NDArray array, final int index, final int step,
+                                 final double[] buf, final int offset, final int len)
+    {
+        final Object raw = array.getRawData();
+        if (raw instanceof double[])
+        {
+            final double[] data = (double[]) raw;
+            if (step == 1)
+                System.arraycopy(buf, offset, data, index, len);
+            else
+                for (int i=0; i<len; ++i)
+                    data[index + i*step] = buf[offset+i];
+        }
+        else if (raw instanceof float[])
+        {
+            final float[] data = (float[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    data[index + i] = (float) buf[offset+i];
+            else
+                for (int i=0; i<len; ++i)
+                    data[index + i*step] = (float) buf[offset+i];
+        }
+        else if (raw instanceof long[])
+        {
+            final long[] data = (long[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    data[index + i] = (long) buf[offset+i];
+            else
+                for (int i=0; i<len; ++i)
+                    data[index + i*step] = (long) buf[offset+i];
+        }
+        else if (raw instanceof int[])
+        {
+            final int[] data = (int[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    data[index + i] = (int) buf[offset+i];
+            else
+                for (int i=0; i<len; ++i)
+                    data[index + i*step] = (int) buf[offset+i];
+        }
+        else if (raw instanceof short[])
+        {
+            final short[] data = (short[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    data[index + i] = (short) buf[offset+i];
+            else
+                for (int i=0; i<len; ++i)
+                    data[index + i*step] = (short) buf[offset+i];
+        }
+        else if (raw instanceof byte[])
+        {
+            final byte[] data = (byte[]) raw;
+            if (step == 1)
+                for (int i=0; i<len; ++i)
+                    data[index + i] = (byte) buf[offset+i];
+            else
+                for (int i=0; i<len; ++i)
+                    data[index + i*step] = (byte) buf[offset+i];
+        }
+        else
+        {
+            final ListNumber data = array.getData();
+            for (int i=0; i<len; ++i)
+                data.setDouble(index + i*step, buf[offset+i]);
+        }
+    }
+}
@@ -9,14 +9,15 @@
  ******************************************************************************/
 package org.csstudio.ndarray;
 
-import org.diirt.util.array.IteratorNumber;
-
 /** Math operations for {@link NDArray}
  *
  *  <p>Implementation influenced by GDA scisoftpy
  *  which also has a 'Maths' like this separate from
  *  a '*DataSet' similar to NDArray.
  *
+ *  <p>Element-wise operations process the data in blocks
+ *  via the {@link NDKernel}.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -27,11 +28,12 @@ public class NDMath
      */
     public static double sum(final NDArray array)
     {
-        final IteratorNumber iter = array.getIterator();
-        double sum = 0.0;
-        while (iter.hasNext())
-            sum += iter.nextDouble();
-        return sum;
+        return NDKernel.reduce(array, 0.0, (sum, values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                sum += values[i];
+            return sum;
+        }, Double::sum);
     }
 
     /** @param array N-dim array
@@ -39,13 +41,14 @@ public class NDMath
      */
     public static double max(final NDArray array)
     {
-        final IteratorNumber iter = array.getIterator();
-        if (! iter.hasNext())
+        if (array.getSize() <= 0)
             throw new IllegalArgumentException("Maximum not defined for empty array");
-        double max = iter.nextDouble();
-        while (iter.hasNext())
-            max = Math.max(max, iter.nextDouble());
-        return max;
+        return NDKernel.reduce(array, Double.NEGATIVE_INFINITY, (max, values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                max = Math.max(max, values[i]);
+            return max;
+        }, Math::max);
     }
 
     /** @param array N-dim array
@@ -53,21 +56,49 @@ public class NDMath
      */
     public static double min(final NDArray array)
     {
-        final IteratorNumber iter = array.getIterator();
-        if (! iter.hasNext())
+        if (array.getSize() <= 0)
             throw new IllegalArgumentException("Minimum not defined for empty array");
-        double min = iter.nextDouble();
-        while (iter.hasNext())
-            min = Math.min(min, iter.nextDouble());
-        return min;
+        return NDKernel.reduce(array, Double.POSITIVE_INFINITY, (min, values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                min = Math.min(min, values[i]);
+            return min;
+        }, Math::min);
+    }
+
+    /** Operation on a block of values */
+    private interface UnaryOperation
+    {
+        /** @param values Input values, replaced by results
+         *  @param len Number of values
+         */
+        void calc(double[] values, int len);
+    }
+
+    /** Perform operation on all array elements
+     *  @param array N-dim array that provides the values
+     *  @param result N-dim array of same shape for the results, may be <code>array</code>
+     *  @param operation Operation to perform on the elements
+     */
+    private static void unary_operation(final NDArray array, final NDArray result,
+            final UnaryOperation operation)
+    {
+        NDKernel.forEachBlock(array.getSize(), (start, len, values, unused) ->
+        {
+            NDKernel.read(array, start, values, len);
+            operation.calc(values, len);
+            NDKernel.write(result, start, values, len);
+        });
     }
 
     /** @param array N-dim array where each element is to be turned into its negative */
     public static void negative(final NDArray array)
     {
-        final int size = array.getSize();
-        for (int i=0; i<size; ++i)
-            array.setFlatDouble(i, -array.getFlatDouble(i));
+        unary_operation(array, array, (values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                values[i] = -values[i];
+        });
     }
 
     /** @param array N-dim array
@@ -75,9 +106,11 @@ public class NDMath
      */
     public static void increment(final NDArray array, final double value)
     {
-        final int size = array.getSize();
-        for (int i=0; i<size; ++i)
-            array.setFlatDouble(i, array.getFlatDouble(i) + value);
+        unary_operation(array, array, (values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                values[i] = values[i] + value;
+        });
     }
 
     /** @param array N-dim array
@@ -85,9 +118,11 @@ public class NDMath
      */
     public static void scale(final NDArray array, final double value)
     {
-        final int size = array.getSize();
-        for (int i=0; i<size; ++i)
-            array.setFlatDouble(i, array.getFlatDouble(i) * value);
+        unary_operation(array, array, (values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                values[i] = values[i] * value;
+        });
     }
 
     /** @param array N-dim array
@@ -95,9 +130,11 @@ public class NDMath
      */
     public static void divide_elements(final NDArray array, final double value)
     {
-        final int size = array.getSize();
-        for (int i=0; i<size; ++i)
-            array.setFlatDouble(i, array.getFlatDouble(i) / value);
+        unary_operation(array, array, (values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                values[i] = values[i] / value;
+        });
     }
 
     /** @param array N-dim array
@@ -106,9 +143,11 @@ public class NDMath
     public static NDArray abs(final NDArray array)
     {
         final NDArray result = new NDArray(array.getType(), array.getShape());
-        final int size = array.getSize();
-        for (int i=0; i<size; ++i)
-            result.setFlatDouble(i, Math.abs(array.getFlatDouble(i)));
+        unary_operation(array, result, (values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                values[i] = Math.abs(values[i]);
+        });
         return result;
     }
 
@@ -118,15 +157,11 @@ public class NDMath
     public static NDArray sqrt(final NDArray array)
     {
         final NDArray result = new NDArray(NDType.FLOAT64, array.getShape());
-        final int size = array.getSize();
-        for (int i=0; i<size; ++i)
+        unary_operation(array, result, (values, len) ->
         {
-            final double val = array.getFlatDouble(i);
-            if (val >= 0.0)
-                result.setFlatDouble(i, Math.sqrt(val));
-            else
-                result.setFlatDouble(i, Double.NaN);
-        }
+            for (int i=0; i<len; ++i)
+                values[i] = values[i] >= 0.0 ? Math.sqrt(values[i]) : Double.NaN;
+        });
         return result;
     }
 
@@ -136,9 +171,11 @@ public class NDMath
     public static NDArray exp(final NDArray array)
     {
         final NDArray result = new NDArray(NDType.FLOAT64, array.getShape());
-        final int size = array.getSize();
-        for (int i=0; i<size; ++i)
-            result.setFlatDouble(i, Math.exp(array.getFlatDouble(i)));
+        unary_operation(array, result, (values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                values[i] = Math.exp(values[i]);
+        });
         return result;
     }
 
@@ -148,9 +185,11 @@ public class NDMath
     public static NDArray log(final NDArray array)
     {
         final NDArray result = new NDArray(NDType.FLOAT64, array.getShape());
-        final int size = array.getSize();
-        for (int i=0; i<size; ++i)
-            result.setFlatDouble(i, Math.log(array.getFlatDouble(i)));
+        unary_operation(array, result, (values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                values[i] = Math.log(values[i]);
+        });
         return result;
     }
 
@@ -160,9 +199,11 @@ public class NDMath
     public static NDArray log10(final NDArray array)
     {
         final NDArray result = new NDArray(NDType.FLOAT64, array.getShape());
-        final int size = array.getSize();
-        for (int i=0; i<size; ++i)
-            result.setFlatDouble(i, Math.log10(array.getFlatDouble(i)));
+        unary_operation(array, result, (values, len) ->
+        {
+            for (int i=0; i<len; ++i)
+                values[i] = Math.log10(values[i]);
+        });
         return result;
     }
 
@@ -174,30 +215,68 @@ public class NDMath
          *  @return Result of operation
          */
         double calc(double a, double b);
+
+        /** @param a First inputs, replaced by results
+         *  @param b Second inputs
+         *  @param len Number of elements
+         */
+        default void calc(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = calc(a[i], b[i]);
+        }
     }
 
     final private static BinaryOperation op_add = new BinaryOperation()
     {
         @Override
         public double calc(final double a, final double b)     { return a + b;    }
+
+        @Override
+        public void calc(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] + b[i];
+        }
     };
 
     final private static BinaryOperation op_sub = new BinaryOperation()
     {
         @Override
         public double calc(final double a, final double b)    { return a - b;    }
+
+        @Override
+        public void calc(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] - b[i];
+        }
     };
 
     final private static BinaryOperation op_mul = new BinaryOperation()
     {
         @Override
         public double calc(final double a, final double b)    { return a * b; }
+
+        @Override
+        public void calc(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] * b[i];
+        }
     };
 
     final private static BinaryOperation op_div = new BinaryOperation()
     {
         @Override
         public double calc(final double a, final double b)    { return a / b;    }
+
+        @Override
+        public void calc(final double[] a, final double[] b, final int len)
+        {
+            for (int i=0; i<len; ++i)
+                a[i] = a[i] / b[i];
+        }
     };
 
     final private static BinaryOperation op_pwr = new BinaryOperation()
@@ -206,6 +285,24 @@ public class NDMath
         public double calc(final double a, final double b)    { return Math.pow(a, b); }
     };
 
+    /** Perform operation on arrays of same shape block by block
+     *  @param a N-dim array
+     *  @param b N-dim array
+     *  @param result N-dim array for the result, may be <code>a</code>
+     *  @param operation Operation to perform on the elements
+     */
+    private static void block_operation(final NDArray a, final NDArray b, final NDArray result,
+            final BinaryOperation operation)
+    {
+        NDKernel.forEachBlock(result.getSize(), (start, len, values_a, values_b) ->
+        {
+            NDKernel.read(a, start, values_a, len);
+            NDKernel.read(b, start, values_b, len);
+            operation.calc(values_a, values_b, len);
+            NDKernel.write(result, start, values_a, len);
+        });
+    }
+
     /** Perform in-place operation on array.
      *  Use element-by-element when possible.
      *  @param array N-dim array on which to operate
@@ -218,6 +315,11 @@ public class NDMath
         switch (NDCompatibility.forArrays(array, other))
         {
         case FLAT_ITERATION:
+            if (NDKernel.isIndependent(array, other))
+            {
+                block_operation(array, other, array, operation);
+                break;
+            }
             final int size = array.getSize();
             for (int i=0; i<size; ++i)
             {
@@ -227,6 +329,11 @@ public class NDMath
             }
             break;
         case SHAPE_ITERATION:
+            if (NDKernel.isIndependent(array, other))
+            {
+                block_operation(array, other, array, operation);
+                break;
+            }
             final ShapeIterator shape = new ShapeIterator(array.getShape());
             while (shape.hasNext())
             {
@@ -305,25 +412,9 @@ public class NDMath
         switch (NDCompatibility.forArrays(a, b))
         {
         case FLAT_ITERATION:
-            result = new NDArray(type, a.getShape());
-            final int size = result.getSize();
-            for (int i=0; i<size; ++i)
-            {
-                final double value = operation.calc(a.getFlatDouble(i),
-                        b.getFlatDouble(i));
-                result.setFlatDouble(i, value);
-            }
-            break;
         case SHAPE_ITERATION:
             result = new NDArray(type, a.getShape());
-            final ShapeIterator shape = new ShapeIterator(result.getShape());
-            while (shape.hasNext())
-            {
-                final int[] pos = shape.getPosition();
-                final double value = operation.calc(a.getDouble(pos),
-                        b.getDouble(pos));
-                result.setDouble(value, pos);
-            }
+            block_operation(a, b, result, operation);
             break;
         case BROADCAST_ITERATION:
             final BroadcastIterator i = new BroadcastIterator(a.getShape(), b.getShape());
@@ -10,8 +10,7 @@
 package org.csstudio.ndarray;
 
 import java.util.Arrays;
-
-import org.diirt.util.array.ListNumber;
+import java.util.stream.IntStream;
 
 /** Matrix-type operations for {@link NDArray}
  *
@@ -22,6 +21,12 @@ import org.diirt.util.array.ListNumber;
 @SuppressWarnings("nls")
 public class NDMatrix
 {
+    /** Number of rows and inner elements in a tile of the matrix multiplication */
+    final private static int TILE_ROWS = 64;
+
+    /** Number of columns in a tile of the matrix multiplication */
+    final private static int TILE_COLS = 256;
+
     /** Create zero-filled array
      *  @param type Data type {@link Double}, {@link Integer}, ...
      *  @param shape Array shape, e.g. [2, 3]
@@ -29,12 +34,8 @@ public class NDMatrix
      */
     public static NDArray zeros(final NDType type, final NDShape shape)
     {
-        final ListNumber flat = NDArray.createDataArray(type, shape.getSize());
-        // Array is already initialized to zero values, no need to set it:
-        // final int size = shape.getSize();
-        // for (int i=0; i<size; ++i)
-        //      flat.setInt(i, 0);
-        return new NDArray(flat, shape, type == NDType.BOOL);
+        // Array is already initialized to zero values, no need to set it
+        return new NDArray(type, shape);
     }
 
     /** Create one-filled array
@@ -44,11 +45,9 @@ public class NDMatrix
      */
     public static NDArray ones(final NDType type, final NDShape shape)
     {
-        final ListNumber flat = NDArray.createDataArray(type, shape.getSize());
-         final int size = shape.getSize();
-         for (int i=0; i<size; ++i)
-              flat.setInt(i, 1);
-        return new NDArray(flat, shape, type == NDType.BOOL);
+        final NDArray result = new NDArray(type, shape);
+        NDMath.increment(result, 1.0);
+        return result;
     }
 
     /** Create array for range
@@ -230,14 +229,42 @@ public class NDMatrix
         final int b_cols = shape_b.getSize(1);
         final NDShape shape_r = new NDShape(a_rows, b_cols);
         final NDArray result = zeros(type, shape_r);
-        for (int i=0; i<a_rows; ++i)
-            for (int j=0; j<b_cols; ++j)
+
+        // Copy (transposed, sliced, ..) input into plain row-major arrays,
+        // then accumulate r[i][j] += a[i][k] * b[k][j] over tiles
+        // so that the rows of b and r used by a tile stay in the cache.
+        // For each element of the result, k is still added in ascending order.
+        final double[] a_data = NDKernel.toDoubleArray(a);
+        final double[] b_data = NDKernel.toDoubleArray(b);
+        final double[] r_data = new double[a_rows * b_cols];
+        final int row_tiles = (a_rows + TILE_ROWS - 1) / TILE_ROWS;
+        IntStream tiles = IntStream.range(0, row_tiles);
+        if ((long) a_rows * a_cols * b_cols >= NDKernel.PARALLEL_SIZE * 16L)
+            tiles = tiles.parallel();
+        tiles.forEach(tile ->
+        {
+            final int i0 = tile * TILE_ROWS, i1 = Math.min(a_rows, i0 + TILE_ROWS);
+            for (int k0=0; k0<a_cols; k0+=TILE_ROWS)
             {
-                double sum = 0.0;
-                for (int k=0; k<a_cols; ++k)
-                    sum += a.getDouble(i, k) * b.getDouble(k, j);
-                result.setDouble(sum, i, j);
+                final int k1 = Math.min(a_cols, k0 + TILE_ROWS);
+                for (int j0=0; j0<b_cols; j0+=TILE_COLS)
+                {
+                    final int j1 = Math.min(b_cols, j0 + TILE_COLS);
+                    for (int i=i0; i<i1; ++i)
+                    {
+                        final int r_row = i * b_cols;
+                        for (int k=k0; k<k1; ++k)
+                        {
+                            final double a_ik = a_data[i * a_cols + k];
+                            final int b_row = k * b_cols;
+                            for (int j=j0; j<j1; ++j)
+                                r_data[r_row + j] += a_ik * b_data[b_row + j];
+                        }
+                    }
+                }
             }
+        });
+        NDKernel.write(result, 0, r_data, r_data.length);
         return result;
     }
 
@@ -260,14 +287,19 @@ public class NDMatrix
                 "For matrix multiplication, number of columns in first array must match number of rows in second array," +
                 " but got shapes " + shape + " and " + b.getShape());
 
-        final NDArray result = zeros(type, new NDShape(a_cols));
+        final NDArray result = zeros(type, new NDShape(a_rows));
+        final double[] a_data = NDKernel.toDoubleArray(a);
+        final double[] b_data = NDKernel.toDoubleArray(b);
+        final double[] r_data = new double[a_rows];
         for (int i=0; i<a_rows; ++i)
         {
+            final int a_row = i * a_cols;
             double sum = 0.0;
             for (int k=0; k<a_cols; ++k)
-                sum += a.getDouble(i, k) * b.getFlatDouble(k);
-            result.setDouble(sum, i);
+                sum += a_data[a_row + k] * b_data[k];
+            r_data[i] = sum;
         }
+        NDKernel.write(result, 0, r_data, a_rows);
         return result;
     }
 
@@ -298,8 +330,16 @@ public class NDMatrix
         final NDType type = NDType.determineSuperType(a.getType(), b.getType());
         final NDArray result = zeros(type, new NDShape(1));
         double sum = 0.0;
-        for (int i=0; i<len; ++i)
-            sum += a.getDouble(i) * b.getDouble(i);
+        if (shape_a.getDimensions() == 1)
+        {
+            final double[] a_data = NDKernel.toDoubleArray(a);
+            final double[] b_data = NDKernel.toDoubleArray(b);
+            for (int i=0; i<len; ++i)
+                sum += a_data[i] * b_data[i];
+        }
+        else
+            for (int i=0; i<len; ++i)
+                sum += a.getDouble(i) * b.getDouble(i);
         result.setDouble(sum, 0);
         return result;
     }
@@ -7,6 +7,13 @@
  ******************************************************************************/
 package org.csstudio.scan.log.derby;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.csstudio.scan.data.ScanData;
 import org.csstudio.scan.data.ScanSample;
 import org.csstudio.scan.log.DataLog;
@@ -14,8 +21,10 @@ import org.csstudio.scan.log.DataLog;
 /** Data log for Derby
  *
  *  <p>Uses the {@link DerbyDataLogger} for a specific scan ID.
- *  Creates a logger on <code>doLog()</code> and keeps that open
- *  until <code>close()</code>
+ *  Creates a {@link SampleWriter} on <code>doLog()</code> and keeps that open
+ *  until <code>close()</code>.
+ *  Samples are written in the background, so <code>getScanData()</code>
+ *  merges the samples that have not been written yet.
  *
  *  @author Kay Kasemir
  */
@@ -23,7 +32,7 @@ public class DerbyDataLog extends DataLog
 {
     final private long scan_id;
 
-    private RDBDataLogger logger = null;
+    private SampleWriter writer = null;
 
     /** Initialize
      *  @param scan_id ID of scan for which this logger should operate
@@ -47,35 +56,92 @@ public class DerbyDataLog extends DataLog
     @Override
     public void doLog(final String device, final ScanSample sample) throws Exception
     {
-        if (logger == null)
-            logger = new DerbyDataLogger();
-        logger.log(scan_id, device, sample);
+        final SampleWriter writer;
+        synchronized (this)
+        {
+            if (this.writer == null)
+                this.writer = new SampleWriter(scan_id, new DerbyDataLogger());
+            writer = this.writer;
+        }
+        writer.add(device, sample);
     }
 
     /** {@inheritDoc} */
     @Override
     public ScanData getScanData() throws Exception
     {
+        // Get pending samples before reading the RDB:
+        // Samples committed in between will be in both, but none is missed
+        final List<String> pending_devices = new ArrayList<>();
+        final List<ScanSample> pending_samples = new ArrayList<>();
+        synchronized (this)
+        {
+            if (writer != null)
+                writer.getPending(pending_devices, pending_samples);
+        }
         // Can be called without doLog(), so use separate logger just for this call
+        final ScanData data;
         final RDBDataLogger logger = new DerbyDataLogger();
         try
         {
-            return logger.getScanData(scan_id);
+            data = logger.getScanData(scan_id);
         }
         finally
         {
             logger.close();
         }
+        if (pending_samples.isEmpty())
+            return data;
+
+        final Map<String, List<ScanSample>> device_logs = new HashMap<>();
+        for (String device : data.getDevices())
+            device_logs.put(device, new ArrayList<>(data.getSamples(device)));
+        for (int i=0; i<pending_samples.size(); ++i)
+        {
+            final ScanSample sample = pending_samples.get(i);
+            final List<ScanSample> samples = device_logs.computeIfAbsent(pending_devices.get(i), d -> new ArrayList<>());
+            // Samples are ordered by serial, skip those already read from the RDB
+            if (samples.isEmpty()  ||  samples.get(samples.size()-1).getSerial() < sample.getSerial())
+                samples.add(sample);
+        }
+        return new ScanData(device_logs);
     }
 
-    /** {@inheritDoc} */
+    /** Wait for pending samples to be written, then release the writer
+     *  {@inheritDoc}
+     */
     @Override
-    public synchronized void close()
+    public void close() throws IOException
     {
-        if (logger != null)
+        final SampleWriter writer;
+        synchronized (this)
         {
-            logger.close();
-            logger = null;
+            writer = this.writer;
+        }
+        if (writer != null)
+        {
+            // Keep the writer until it has written all samples,
+            // so they are still found by getScanData()
+            try
+            {
+                writer.close();
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing samples for scan " + scan_id);
+            }
+            catch (Exception ex)
+            {
+                throw new IOException(ex.getMessage(), ex.getCause());
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    this.writer = null;
+                }
+            }
         }
         super.close();
     }
@@ -13,6 +13,7 @@ import java.io.PrintWriter;
 import java.net.InetAddress;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.logging.Level;
@@ -66,6 +67,8 @@ public class DerbyDataLogger extends RDBDataLogger
         {
             if (! database.haveTables())
                 database.createTables();
+            else
+                database.updateTables();
         }
         finally
         {
@@ -124,6 +127,30 @@ public class DerbyDataLogger extends RDBDataLogger
         }
     }
 
+    /** Add columns that are missing in databases created by older versions
+     *  @throws SQLException on error
+     */
+    private void updateTables() throws SQLException
+    {
+        try
+        (
+            final ResultSet rs = connection.getMetaData().getColumns(null, null, "SAMPLES", "NUM_VALUE");
+        )
+        {
+            if (rs.next())
+                return;
+        }
+        Logger.getLogger(getClass().getName()).info("Adding numeric value columns to samples table");
+        try
+        (
+            final Statement statement = connection.createStatement();
+        )
+        {
+            statement.execute("ALTER TABLE samples ADD COLUMN num_value DOUBLE");
+            statement.execute("ALTER TABLE samples ADD COLUMN int_value BIGINT");
+        }
+    }
+
     /** Create database tables
      *  @throws Exception on error
      */
@@ -13,8 +13,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -255,20 +257,79 @@ abstract public class RDBDataLogger
      */
     public void log(final long scan_id, final String device, final ScanSample sample) throws Exception
     {
-        final int device_id = getDevice(device);
+        log(scan_id, Collections.singletonList(device), Collections.singletonList(sample));
+    }
+
+    /** Log samples in one transaction
+     *
+     *  <p>A single {@link Double} is written to the 'num_value' column,
+     *  a single {@link Integer} to the 'int_value' column.
+     *  Other values, including {@link Long}, are serialized as {@link SampleValue},
+     *  so they are read back with the type that was logged.
+     *
+     *  @param scan_id ID of associated scan
+     *  @param devices Device names
+     *  @param samples Samples to log, one per device name
+     *  @throws Exception on error
+     */
+    public void log(final long scan_id, final List<String> devices, final List<ScanSample> samples) throws Exception
+    {
+        // Resolve devices before the transaction so a rollback
+        // cannot leave invalid IDs in the device cache
+        final int[] device_ids = new int[devices.size()];
+        for (int i=0; i<device_ids.length; ++i)
+            device_ids[i] = getDevice(devices.get(i));
 
         if (insert_sample_statement == null)
             insert_sample_statement = connection.prepareStatement(
-                    "INSERT INTO samples(scan_id, device_id, serial, timestamp, value)" +
-                    " VALUES (?,?,?,?,?)");
-        insert_sample_statement.setLong(1, scan_id);
-        insert_sample_statement.setInt(2, device_id);
-        insert_sample_statement.setLong(3, sample.getSerial());
-        insert_sample_statement.setTimestamp(4, Timestamp.from(sample.getTimestamp()));
-        insert_sample_statement.setObject(5, new SampleValue(sample.getValues()));
-        final int rows = insert_sample_statement.executeUpdate();
-        if (rows != 1)
-            throw new Exception("Sample insert affected " + rows + " rows");
+                    "INSERT INTO samples(scan_id, device_id, serial, timestamp, num_value, int_value, value)" +
+                    " VALUES (?,?,?,?,?,?,?)");
+        connection.setAutoCommit(false);
+        try
+        {
+            for (int i=0; i<device_ids.length; ++i)
+            {
+                final ScanSample sample = samples.get(i);
+                final Object[] values = sample.getValues();
+                insert_sample_statement.setLong(1, scan_id);
+                insert_sample_statement.setInt(2, device_ids[i]);
+                insert_sample_statement.setLong(3, sample.getSerial());
+                insert_sample_statement.setTimestamp(4, Timestamp.from(sample.getTimestamp()));
+                if (values.length == 1  &&  values[0] instanceof Double)
+                {
+                    insert_sample_statement.setDouble(5, (Double) values[0]);
+                    insert_sample_statement.setNull(6, Types.BIGINT);
+                    insert_sample_statement.setNull(7, Types.JAVA_OBJECT);
+                }
+                else if (values.length == 1  &&  values[0] instanceof Integer)
+                {
+                    insert_sample_statement.setNull(5, Types.DOUBLE);
+                    insert_sample_statement.setLong(6, (Integer) values[0]);
+                    insert_sample_statement.setNull(7, Types.JAVA_OBJECT);
+                }
+                else
+                {
+                    insert_sample_statement.setNull(5, Types.DOUBLE);
+                    insert_sample_statement.setNull(6, Types.BIGINT);
+                    insert_sample_statement.setObject(7, new SampleValue(values));
+                }
+                insert_sample_statement.addBatch();
+            }
+            final int[] rows = insert_sample_statement.executeBatch();
+            for (int count : rows)
+                if (count != 1  &&  count != Statement.SUCCESS_NO_INFO)
+                    throw new Exception("Sample insert affected " + count + " rows");
+            connection.commit();
+        }
+        catch (Exception ex)
+        {
+            connection.rollback();
+            throw ex;
+        }
+        finally
+        {
+            connection.setAutoCommit(true);
+        }
     }
 
     /** Get serial of last logged sample.
@@ -340,7 +401,7 @@ abstract public class RDBDataLogger
         try
         (
             final PreparedStatement statement = connection.prepareStatement(
-                    "SELECT serial, timestamp, value FROM samples WHERE scan_id=? AND device_id=? ORDER BY serial");
+                    "SELECT serial, timestamp, num_value, int_value, value FROM samples WHERE scan_id=? AND device_id=? ORDER BY serial");
         )
         {
             statement.setLong(1, scan_id);
@@ -350,7 +411,20 @@ abstract public class RDBDataLogger
             {
                 final long serial = result.getLong(1);
                 final Instant timestamp = result.getTimestamp(2).toInstant();
-                final SampleValue value = (SampleValue) result.getObject(3);
+                final double number = result.getDouble(3);
+                if (! result.wasNull())
+                {
+                    samples.add(ScanSampleFactory.createSample(timestamp, serial, number));
+                    continue;
+                }
+                // Only written for Integer
+                final int integer = result.getInt(4);
+                if (! result.wasNull())
+                {
+                    samples.add(ScanSampleFactory.createSample(timestamp, serial, integer));
+                    continue;
+                }
+                final SampleValue value = (SampleValue) result.getObject(5);
                 samples.add(ScanSampleFactory.createSample(timestamp, serial, value.getValues()));
             }
             result.close();
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan.log.derby;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.csstudio.scan.data.ScanSample;
+
+/** Background writer for the samples of one scan
+ *
+ *  <p>Samples are added to a queue, which returns right away.
+ *  A writer thread takes all queued samples and writes them
+ *  in one transaction, so the scan does not wait for the RDB.
+ *
+ *  <p>Samples that are queued or being written can be obtained
+ *  via <code>getPending()</code> until they have been committed.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+class SampleWriter implements Runnable
+{
+    /** Max. number of queued samples before <code>add()</code> blocks */
+    final private static int MAX_QUEUE = 50000;
+
+    /** Max. number of samples written in one transaction */
+    final private static int MAX_BATCH = 5000;
+
+    final private long scan_id;
+
+    /** Logger, only used by the writer thread */
+    final private RDBDataLogger logger;
+
+    final private Thread thread;
+
+    /** Devices of queued samples, guarded by 'this' */
+    private List<String> queued_devices = new ArrayList<>();
+
+    /** Queued samples, guarded by 'this' */
+    private List<ScanSample> queued_samples = new ArrayList<>();
+
+    /** Devices of samples that are being written, guarded by 'this' */
+    private List<String> writing_devices = Collections.emptyList();
+
+    /** Samples that are being written, guarded by 'this' */
+    private List<ScanSample> writing_samples = Collections.emptyList();
+
+    /** Error of the last write, guarded by 'this' */
+    private Exception error = null;
+
+    private boolean closed = false;
+
+    /** Initialize and start the writer thread
+     *  @param scan_id ID of scan for which this writer should operate
+     *  @param logger Logger that the writer will use and close
+     */
+    public SampleWriter(final long scan_id, final RDBDataLogger logger)
+    {
+        this.scan_id = scan_id;
+        this.logger = logger;
+        thread = new Thread(this, "Scan Log Writer " + scan_id);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Queue a sample
+     *  @param device Device name
+     *  @param sample {@link ScanSample} to log
+     *  @throws Exception if a previous write failed, or writer has been closed
+     */
+    public synchronized void add(final String device, final ScanSample sample) throws Exception
+    {
+        // Throttle the scan if the RDB falls far behind
+        while (queued_samples.size() >= MAX_QUEUE  &&  error == null  &&  !closed)
+            wait();
+        if (error != null)
+        {
+            final Exception ex = error;
+            error = null;
+            throw new Exception("Cannot write samples for scan " + scan_id, ex);
+        }
+        if (closed)
+            throw new Exception("Sample writer for scan " + scan_id + " has been closed");
+        queued_devices.add(device);
+        queued_samples.add(sample);
+        notifyAll();
+    }
+
+    /** Get samples that have not been committed
+     *  @param devices Device names of the pending samples will be added to this list
+     *  @param samples Pending samples will be added to this list
+     */
+    public synchronized void getPending(final List<String> devices, final List<ScanSample> samples)
+    {
+        devices.addAll(writing_devices);
+        samples.addAll(writing_samples);
+        devices.addAll(queued_devices);
+        samples.addAll(queued_samples);
+    }
+
+    /** Wait until all queued samples have been written, then stop the writer
+     *  @throws InterruptedException when interrupted while waiting for the writer thread
+     *  @throws Exception if samples could not be written and that error has not been reported by <code>add()</code>
+     */
+    public void close() throws Exception
+    {
+        synchronized (this)
+        {
+            closed = true;
+            notifyAll();
+        }
+        thread.join();
+        synchronized (this)
+        {
+            if (error != null)
+            {
+                final Exception ex = error;
+                error = null;
+                throw new Exception("Cannot write samples for scan " + scan_id, ex);
+            }
+        }
+    }
+
+    /** Writer thread */
+    @Override
+    public void run()
+    {
+        try
+        {
+            while (true)
+            {
+                synchronized (this)
+                {
+                    while (queued_samples.isEmpty()  &&  !closed)
+                        wait();
+                    if (queued_samples.isEmpty())
+                        break;
+                    if (queued_samples.size() <= MAX_BATCH)
+                    {
+                        writing_devices = queued_devices;
+                        writing_samples = queued_samples;
+                        queued_devices = new ArrayList<>();
+                        queued_samples = new ArrayList<>();
+                    }
+                    else
+                    {
+                        writing_devices = new ArrayList<>(queued_devices.subList(0, MAX_BATCH));
+                        writing_samples = new ArrayList<>(queued_samples.subList(0, MAX_BATCH));
+                        queued_devices.subList(0, MAX_BATCH).clear();
+                        queued_samples.subList(0, MAX_BATCH).clear();
+                    }
+                    notifyAll();
+                }
+                // Write outside of the lock so the scan can keep adding samples
+                Exception write_error = null;
+                try
+                {
+                    logger.log(scan_id, writing_devices, writing_samples);
+                }
+                catch (Exception ex)
+                {
+                    Logger.getLogger(getClass().getName()).log(Level.WARNING,
+                            "Cannot write " + writing_samples.size() + " samples for scan " + scan_id, ex);
+                    write_error = ex;
+                }
+                synchronized (this)
+                {
+                    writing_devices = Collections.emptyList();
+                    writing_samples = Collections.emptyList();
+                    if (write_error != null)
+                        error = write_error;
+                    notifyAll();
+                }
+            }
+        }
+        catch (InterruptedException ex)
+        {
+            Logger.getLogger(getClass().getName()).log(Level.WARNING, "Sample writer for scan " + scan_id + " interrupted", ex);
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                closed = true;
+                notifyAll();
+            }
+            logger.close();
+        }
+    }
+}
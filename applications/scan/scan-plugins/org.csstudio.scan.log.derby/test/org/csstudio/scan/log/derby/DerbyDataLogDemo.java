@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan.log.derby;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+
+import org.csstudio.scan.data.ScanData;
+import org.csstudio.scan.data.ScanSampleFactory;
+import org.csstudio.scan.server.Scan;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/** Demo of the {@link DerbyDataLog} performance
+ *
+ *  <p>Logs a simulated scan with 100k points, two devices per point,
+ *  and prints the rate at which samples are logged and written.
+ *
+ *  <p>Will execute Derby for the database, cannot run if another Derby instance (Scan Server)
+ *  already runs the database.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class DerbyDataLogDemo
+{
+    @BeforeClass
+    public static void startup() throws Exception
+    {
+        DerbyDataLogger.startup();
+    }
+
+    @AfterClass
+    public static void shutdown() throws Exception
+    {
+        DerbyDataLogger.shutdown();
+    }
+
+    @Test(timeout=120000)
+    public void benchmarkAsyncLogging() throws Exception
+    {
+        final DerbyDataLogger logger = new DerbyDataLogger();
+        final Scan scan = logger.createScan("Benchmark");
+        logger.close();
+
+        final int points = 100000;
+        final DerbyDataLog log = new DerbyDataLog(scan.getId());
+        final long start = System.nanoTime();
+        for (int i=0; i<points; ++i)
+        {
+            final long serial = log.getNextScanDataSerial();
+            log.log("position", ScanSampleFactory.createSample(Instant.now(), serial, i * 0.1));
+            log.log("counts", ScanSampleFactory.createSample(Instant.now(), serial, Integer.valueOf(i)));
+        }
+        final long logged = System.nanoTime() - start;
+        log.close();
+        final long written = System.nanoTime() - start;
+        System.out.println("Scan logged " + (2L * points * 1000000000L / logged) + " vals/sec, " +
+                           "written at " + (2L * points * 1000000000L / written) + " vals/sec");
+
+        final DerbyDataLog reader = new DerbyDataLog(scan.getId());
+        final ScanData data = reader.getScanData();
+        reader.close();
+        assertEquals(points, data.getSamples("position").size());
+        assertEquals(points, data.getSamples("counts").size());
+
+        final DerbyDataLogger cleanup = new DerbyDataLogger();
+        cleanup.deleteDataLog(scan.getId());
+        cleanup.close();
+    }
+}
@@ -11,7 +11,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
-import java.util.Date;
+import java.time.Instant;
 
 import org.csstudio.scan.data.ScanData;
 import org.csstudio.scan.data.ScanDataIterator;
@@ -92,7 +92,7 @@ public class DerbyDataLogUnitTest
         final long scan_id = scan.getId();
         final long start = System.nanoTime();
         for (long serial = 1; serial < 50000; ++serial)
-            log.log(scan_id, "setpoint", ScanSampleFactory.createSample(new Date(), serial, 3.14 + serial * 0.01));
+            log.log(scan_id, "setpoint", ScanSampleFactory.createSample(Instant.now(), serial, 3.14 + serial * 0.01));
         final long nanos = System.nanoTime() - start;
         log.close();
         final long vals_per_sec = 50000L * 1000000000L / nanos;
@@ -121,6 +121,50 @@ public class DerbyDataLogUnitTest
         log.close();
     }
 
+    /** Samples logged through the {@link DerbyDataLog} are written in the background,
+     *  pending samples are included in the scan data,
+     *  and the logged number types are preserved
+     */
+    @Test(timeout=30000)
+    public void testAsyncLogging() throws Exception
+    {
+        final DerbyDataLogger logger = new DerbyDataLogger();
+        final Scan async_scan = logger.createScan("Async");
+        logger.close();
+
+        final int points = 1000;
+        final DerbyDataLog log = new DerbyDataLog(async_scan.getId());
+        for (int i=0; i<points; ++i)
+        {
+            final long serial = log.getNextScanDataSerial();
+            log.log("position", ScanSampleFactory.createSample(Instant.now(), serial, i * 0.1));
+            log.log("index", ScanSampleFactory.createSample(Instant.now(), serial, Integer.valueOf(i)));
+            log.log("counts", ScanSampleFactory.createSample(Instant.now(), serial, Long.valueOf(i)));
+            if (i == points / 2)
+            {   // Samples that might not be written, yet, are included
+                final ScanData data = log.getScanData();
+                assertEquals(i + 1, data.getSamples("position").size());
+                assertEquals(i + 1, data.getSamples("counts").size());
+                assertEquals(serial, log.getLastScanDataSerial());
+            }
+        }
+        log.close();
+
+        final DerbyDataLog reader = new DerbyDataLog(async_scan.getId());
+        final ScanData data = reader.getScanData();
+        reader.close();
+        assertEquals(points, data.getSamples("position").size());
+        assertEquals(points, data.getSamples("counts").size());
+        assertEquals(points - 1, data.getSamples("position").get(points - 1).getSerial());
+        assertEquals(Double.valueOf((points - 1) * 0.1), data.getSamples("position").get(points - 1).getValues()[0]);
+        assertEquals(Integer.valueOf(points - 1), data.getSamples("index").get(points - 1).getValues()[0]);
+        assertEquals(Long.valueOf(points - 1), data.getSamples("counts").get(points - 1).getValues()[0]);
+
+        final DerbyDataLogger cleanup = new DerbyDataLogger();
+        cleanup.deleteDataLog(async_scan.getId());
+        cleanup.close();
+    }
+
     @Test(timeout=10000)
     public void testScanList() throws Exception
     {
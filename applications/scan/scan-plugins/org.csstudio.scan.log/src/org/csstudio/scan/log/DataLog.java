@@ -16,6 +16,7 @@
 package org.csstudio.scan.log;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -117,9 +118,10 @@ abstract public class DataLog implements Closeable
 
     /** Should be called when done logging samples
      *  to allow logging mechanism to release resources.
+     *  @throws IOException if logged samples could not be written
      */
     @Override
-    public void close()
+    public void close() throws IOException
     {
         // NOP
     }
@@ -404,9 +404,23 @@ public class ExecutableScan extends LoggedScan implements ScanContext, Callable<
         }
         // Set actual end time, not estimated
         end_ms = System.currentTimeMillis();
-        // Close data logger
+        // Close data logger, which writes the remaining samples
         if (data_logger.isPresent())
-            data_logger.get().close();
+        {
+            try
+            {
+                data_logger.get().close();
+            }
+            catch (Exception ex)
+            {
+                if (state.get() == ScanState.Finished)
+                {
+                    state.set(ScanState.Failed);
+                    error = Optional.of(ex.getMessage());
+                }
+                logger.log(Level.WARNING, "Scan " + getName() + " data log failed", ex);
+            }
+        }
         data_logger = Optional.empty();
         logger.log(Level.CONFIG, "Completed ID {0}: {1}", new Object[] { getId(), state.get().name() });
         return null;
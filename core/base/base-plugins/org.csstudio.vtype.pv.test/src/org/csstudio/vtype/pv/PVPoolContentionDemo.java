@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.vtype.pv;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.csstudio.vtype.pv.local.LocalPVFactory;
+import org.csstudio.vtype.pv.sim.SimPVFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** JUnit demo of {@link PVPool} contention
+ *
+ *  <p>A 'slow' PV factory simulates channels that take
+ *  a while to create, like JCA or PVA channels.
+ *  While such PVs are being created, other threads
+ *  get and release 'loc://' and 'sim://' PVs,
+ *  which should not have to wait for the slow creations.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PVPoolContentionDemo
+{
+    private static final int CREATE_MS = 100;
+    private static final int THREADS = 8;
+    private static final int SECONDS = 5;
+
+    private static final AtomicInteger slow_creations = new AtomicInteger();
+
+    /** Creates simulated PVs after a delay */
+    private static class SlowPVFactory implements PVFactory
+    {
+        final private SimPVFactory sim = new SimPVFactory();
+
+        @Override
+        public String getType()
+        {
+            return "slow";
+        }
+
+        @Override
+        public PV createPV(final String name, final String base_name) throws Exception
+        {
+            slow_creations.incrementAndGet();
+            TimeUnit.MILLISECONDS.sleep(CREATE_MS);
+            return sim.createPV(name, base_name);
+        }
+    }
+
+    @Before
+    public void setup()
+    {
+        PVPool.addPVFactory(new SlowPVFactory());
+        PVPool.addPVFactory(new SimPVFactory());
+        PVPool.addPVFactory(new LocalPVFactory());
+    }
+
+    @After
+    public void shutdown()
+    {
+        assertThat(PVPool.getPVReferences().size(), equalTo(0));
+    }
+
+    /** Get and release fast PVs while slow PVs are created */
+    @Test
+    public void testContention() throws Exception
+    {
+        final ExecutorService pool = Executors.newFixedThreadPool(2 * THREADS);
+        final AtomicBoolean run = new AtomicBoolean(true);
+        final AtomicInteger slow_count = new AtomicInteger();
+        final AtomicLong fast_count = new AtomicLong();
+        final AtomicLong max_fast_nanos = new AtomicLong();
+        final List<Future<?>> tasks = new ArrayList<>();
+
+        for (int t=0; t<THREADS; ++t)
+        {
+            final int thread = t;
+            // Create new slow PVs
+            tasks.add(pool.submit(() ->
+            {
+                int i = 0;
+                while (run.get())
+                {
+                    final PV pv = PVPool.getPV("slow://ramp(0, " + (1000 + i++) + ", 1, " + (thread + 1) + ")");
+                    PVPool.releasePV(pv);
+                    slow_count.incrementAndGet();
+                }
+                return null;
+            }));
+            // Get and release fast PVs
+            tasks.add(pool.submit(() ->
+            {
+                final String[] names = { "loc://x" + thread + "(3.14)", "sim://sine", "loc://shared(0)" };
+                int i = 0;
+                while (run.get())
+                {
+                    final long start = System.nanoTime();
+                    final PV pv = PVPool.getPV(names[i++ % names.length]);
+                    final long nanos = System.nanoTime() - start;
+                    max_fast_nanos.accumulateAndGet(nanos, Math::max);
+                    PVPool.releasePV(pv);
+                    fast_count.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        TimeUnit.SECONDS.sleep(SECONDS);
+        run.set(false);
+        for (Future<?> task : tasks)
+            task.get();
+        pool.shutdown();
+
+        System.out.format("Slow PVs created       : %10d (%.1f per sec, %d ms each)\n",
+                          slow_count.get(), slow_count.get() / (double)SECONDS, CREATE_MS);
+        System.out.format("Fast PVs get/release   : %10d (%.1f per sec)\n",
+                          fast_count.get(), fast_count.get() / (double)SECONDS);
+        System.out.format("Max. time to get fast PV: %.3f ms\n", max_fast_nanos.get() / 1e6);
+    }
+
+    /** Many threads asking for the same slow PV only create it once */
+    @Test
+    public void testSameName() throws Exception
+    {
+        slow_creations.set(0);
+        final String name = "slow://sine";
+        final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<PV>> results = new ArrayList<>();
+        for (int t=0; t<THREADS; ++t)
+            results.add(pool.submit(() ->
+            {
+                start.await();
+                return PVPool.getPV(name);
+            }));
+        start.countDown();
+
+        final PV pv = results.get(0).get();
+        for (Future<PV> result : results)
+            assertThat(result.get(), sameInstance(pv));
+        pool.shutdown();
+
+        assertThat(slow_creations.get(), equalTo(1));
+        assertThat(PVPool.getPVReferences().iterator().next().getReferences(), equalTo(THREADS));
+
+        for (int t=0; t<THREADS; ++t)
+            PVPool.releasePV(pv);
+    }
+}
@@ -14,6 +14,12 @@ import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Test;
 
 /** JUnit test of the {@link RefCountMap}
@@ -82,4 +88,41 @@ public class RefCountMapUnitTest
             // Ignore
         }
     }
+
+    @Test
+    public void testPutOrGet()
+    {
+        final RefCountMap<String, Integer> map = new RefCountMap<>();
+        final Integer one = Integer.valueOf(1);
+        assertThat(map.putOrGet("one", one), sameInstance(one));
+        // Existing item is referenced, not replaced
+        assertThat(map.putOrGet("one", Integer.valueOf(2)), sameInstance(one));
+        assertThat(map.release("one"), equalTo(1));
+        assertThat(map.release("one"), equalTo(0));
+    }
+
+    @Test
+    public void testConcurrentReferences() throws Exception
+    {
+        final RefCountMap<String, Integer> map = new RefCountMap<>();
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        final List<Future<?>> tasks = new ArrayList<>();
+        for (int t=0; t<8; ++t)
+            tasks.add(pool.submit(() ->
+            {
+                for (int i=0; i<100000; ++i)
+                {
+                    final String key = "item" + (i % 10);
+                    final Integer item = map.putOrGet(key, i % 10);
+                    assertThat(item, equalTo(i % 10));
+                    map.release(key);
+                }
+                return null;
+            }));
+        for (Future<?> task : tasks)
+            task.get();
+        pool.shutdown();
+        // Every reference was released
+        assertThat(map.getEntries().size(), equalTo(0));
+    }
 }
@@ -11,6 +11,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import org.csstudio.vtype.pv.RefCountMap.ReferencedEntry;
 import org.csstudio.vtype.pv.internal.Preferences;
@@ -37,6 +40,11 @@ import org.csstudio.vtype.pv.internal.Preferences;
  *  <p>Note also that "loc://x(3.14)" and "loc://x(14)" will be treated
  *  as different PVs.
  *
+ *  <p>PVs are created without holding a lock on the pool,
+ *  because creating for example a JCA or PVA channel can take a while,
+ *  and that should not delay threads that ask for other PVs.
+ *  Threads that ask for a PV which is being created wait for that one creation.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -56,12 +64,14 @@ public class PVPool
     /** Default PV name type prefix */
     private static String default_type;
 
-    /** PV Pool
-     *  SYNC on 'pool':
-     *  Otherwise, two threads concurrently looking for a new PV would both add it.
-     */
+    /** PV Pool, by actual name of the PV */
     final private static RefCountMap<String, PV> pool = new RefCountMap<>();
 
+    /** PVs that are being created, by name provided by the user.
+     *  Otherwise, two threads concurrently looking for a new PV would both create it.
+     */
+    final private static ConcurrentHashMap<String, CompletableFuture<PV>> creations = new ConcurrentHashMap<>();
+
     /** Singleton */
     private PVPool()
     {
@@ -122,21 +132,66 @@ public class PVPool
      */
     public static PV getPV(final String name) throws Exception
     {
-        PV pv;
-        synchronized (pool)
+        while (true)
         {   // Try to locate PV in pool
-            pv = pool.get(name);
-            if (pv == null)
+            PV pv = pool.get(name);
+            if (pv != null)
+                return pv;
+
+            // Create PV, unless another thread is already creating it
+            final CompletableFuture<PV> creation = new CompletableFuture<>();
+            final CompletableFuture<PV> pending = creations.putIfAbsent(name, creation);
+            if (pending == null)
+                return createAndAddPV(name, creation);
+
+            try
             {
-                pv = createPV(name);
-                // Actual name may differ from the provided name.
-                // For example, "loc://x(2)", "loc://x" and "loc://x<VDouble>(4)"
-                // will be the same PV "loc://x" in the pool.
-                if (pool.get(pv.getName()) == null) // Increment reference?
-                    pool.put(pv.getName(), pv);     // Add new PV
+                pv = pending.get();
             }
+            catch (ExecutionException ex)
+            {   // Other thread failed to create the PV
+                final Throwable cause = ex.getCause();
+                if (cause instanceof Exception)
+                    throw (Exception) cause;
+                throw ex;
+            }
+            // Reference the PV that the other thread created.
+            // If it has already been released, try again.
+            pv = pool.get(pv.getName());
+            if (pv != null)
+                return pv;
+        }
+    }
+
+    /** Create PV and add it to the pool
+     *  @param name PV name
+     *  @param creation Future for threads that wait for this PV, will be completed
+     *  @return {@link PV}
+     *  @throws Exception on error
+     */
+    private static PV createAndAddPV(final String name, final CompletableFuture<PV> creation) throws Exception
+    {
+        try
+        {
+            final PV pv = createPV(name);
+            // Actual name may differ from the provided name.
+            // For example, "loc://x(2)", "loc://x" and "loc://x<VDouble>(4)"
+            // will be the same PV "loc://x" in the pool.
+            final PV pooled = pool.putOrGet(pv.getName(), pv);
+            if (pooled != pv)
+                pv.close();
+            creation.complete(pooled);
+            return pooled;
+        }
+        catch (Throwable ex)
+        {
+            creation.completeExceptionally(ex);
+            throw ex;
+        }
+        finally
+        {
+            creations.remove(name, creation);
         }
-        return pv;
     }
 
     /** Create
@@ -178,11 +233,7 @@ public class PVPool
     /** @param pv PV to be released */
     public static void releasePV(final PV pv)
     {
-        final int references;
-        synchronized (pool)
-        {
-            references = pool.release(pv.getName());
-        }
+        final int references = pool.release(pv.getName());
         if (references == 0)
             pv.close();
 
@@ -207,9 +258,6 @@ public class PVPool
     /** @return PVs currently in the pool with reference count information */
     public static Collection<ReferencedEntry<PV>> getPVReferences()
     {
-        synchronized (pool)
-        {
-            return pool.getEntries();
-        }
+        return pool.getEntries();
     }
 }
@@ -7,16 +7,23 @@
  ******************************************************************************/
 package org.csstudio.vtype.pv;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** Map that keeps reference count for its objects
  *
- *  <p>Caller may need to synchronize calls to this map,
- *  because there is no atomic operation to check if an item exists,
- *  and if not, create and add it to the map.
+ *  <p>Thread-safe.
+ *  Each operation atomically updates the reference count of its key,
+ *  so a concurrent {@link #get(Object)} and {@link #release(Object)}
+ *  will either reference the item before it's removed,
+ *  or find that it's no longer in the map.
+ *
+ *  <p>Caller still needs to coordinate the creation of new items
+ *  if each item must only be created once.
+ *  {@link #putOrGet(Object, Object)} allows creating them
+ *  without holding a lock.
  *
  *  @param <K> Key data type
  *  @param <E> Entry data type
@@ -29,7 +36,8 @@ public class RefCountMap<K, E>
     public static class ReferencedEntry<E>
     {
         final private E entry;
-        private int references = 1;
+        /** Only changed while the map computes the entry of this key */
+        private volatile int references = 1;
 
         ReferencedEntry(E entry)
         {
@@ -65,7 +73,7 @@ public class RefCountMap<K, E>
         }
     }
 
-    final private Map<K, ReferencedEntry<E>> map = new HashMap<>();
+    final private ConcurrentHashMap<K, ReferencedEntry<E>> map = new ConcurrentHashMap<>();
 
     /** Get an item.
      *  On success, a reference count is added to the item.
@@ -74,10 +82,13 @@ public class RefCountMap<K, E>
      */
     public E get(final K key)
     {
-        final ReferencedEntry<E> entry = map.get(key);
+        final ReferencedEntry<E> entry = map.computeIfPresent(key, (k, existing) ->
+        {
+            existing.addRef();
+            return existing;
+        });
         if (entry == null)
             return null;
-        entry.addRef();
         return entry.getEntry();
     }
 
@@ -87,9 +98,25 @@ public class RefCountMap<K, E>
      */
     public void put(final K key, final E entry)
     {
-        if (map.containsKey(key))
+        if (map.putIfAbsent(key, new ReferencedEntry<E>(entry)) != null)
             throw new IllegalStateException("Already referenced " + key);
-        map.put(key,  new ReferencedEntry<E>(entry));
+    }
+
+    /** Add item to map, or reference the item that's already in the map
+     *  @param key Item key
+     *  @param entry The item to add if there is none for that key
+     *  @return Item in the map, either the new one with reference count of 1
+     *          or the existing one with an added reference
+     */
+    public E putOrGet(final K key, final E entry)
+    {
+        return map.compute(key, (k, existing) ->
+        {
+            if (existing == null)
+                return new ReferencedEntry<E>(entry);
+            existing.addRef();
+            return existing;
+        }).getEntry();
     }
 
     /** Release an item from the map
@@ -98,18 +125,20 @@ public class RefCountMap<K, E>
      */
     public int release(final K key)
     {
-        final ReferencedEntry<E> entry = map.get(key);
-        if (entry == null)
+        final int[] remaining = new int[] { -1 };
+        map.computeIfPresent(key, (k, existing) ->
+        {
+            remaining[0] = existing.decRef();
+            return remaining[0] > 0 ? existing : null;
+        });
+        if (remaining[0] < 0)
             throw new IllegalStateException("No reference found for " + key);
-        final int remaining = entry.decRef();
-        if (remaining <= 0)
-            map.remove(key);
-        return remaining;
+        return remaining[0];
     }
 
-    /** @return Entries in map */
+    /** @return Snapshot of entries in map */
     public Collection<ReferencedEntry<E>> getEntries()
     {
-        return Collections.unmodifiableCollection(map.values());
+        return Collections.unmodifiableCollection(new ArrayList<>(map.values()));
     }
 }
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.platform.utility.rdb;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/** JUnit Tests for RDBConnectionPool
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class RDBConnectionPoolIT
+{
+    @Test
+    public void testPool() throws Exception
+    {
+        final RDBConnectionPool pool = new RDBConnectionPool("Test", TestSetup.URL, null, null, 2, 1000, true);
+        try
+        {
+            final Connection a = pool.acquire(1, TimeUnit.SECONDS);
+            final Connection b = pool.acquire(1, TimeUnit.SECONDS);
+            assertThat(b, not(sameInstance(a)));
+            assertThat(pool.getInUseCount(), equalTo(2));
+
+            // Pool is exhausted
+            try
+            {
+                pool.acquire(100, TimeUnit.MILLISECONDS);
+                fail("Got more than 2 connections");
+            }
+            catch (Exception ex)
+            {
+                System.out.println("Detected: " + ex.getMessage());
+            }
+
+            // Released connection is re-used
+            pool.release(a);
+            assertThat(pool.acquire(1, TimeUnit.SECONDS), sameInstance(a));
+
+            // Discarded connection is replaced
+            pool.discard(a);
+            pool.release(b);
+            assertThat(pool.getOpenCount(), equalTo(1));
+            System.out.println(pool.getStatistics());
+        }
+        finally
+        {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception
+    {
+        final RDBConnectionPool pool = new RDBConnectionPool("Test", TestSetup.URL, null, null, 4, 1000, true);
+        final ExecutorService threads = Executors.newFixedThreadPool(8);
+        try
+        {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i=0; i<100; ++i)
+                results.add(threads.submit(() ->
+                {
+                    final Connection connection = pool.acquire(10, TimeUnit.SECONDS);
+                    try
+                    (
+                        final Statement statement = connection.createStatement();
+                    )
+                    {
+                        statement.execute("SELECT 1");
+                        return 1;
+                    }
+                    finally
+                    {
+                        pool.release(connection);
+                    }
+                }));
+            for (Future<Integer> result : results)
+                assertThat(result.get(), equalTo(1));
+            System.out.println(pool.getStatistics());
+            assertThat(pool.getInUseCount(), equalTo(0));
+        }
+        finally
+        {
+            threads.shutdown();
+            pool.close();
+        }
+    }
+}
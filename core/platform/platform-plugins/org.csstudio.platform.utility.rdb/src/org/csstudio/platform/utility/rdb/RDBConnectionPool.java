@@ -0,0 +1,387 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.platform.utility.rdb;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.csstudio.platform.utility.rdb.RDBUtil.Dialect;
+import org.csstudio.platform.utility.rdb.internal.RDBImpl;
+
+/** Small pool of database (RDB) connections
+ *
+ *  <p>Allows several threads to run queries concurrently,
+ *  each on its own connection.
+ *  Connections are created as needed, up to a maximum count.
+ *  When all connections are in use, <code>acquire()</code> waits
+ *  for a connection to be released.
+ *
+ *  <p>A connection that has been idle in the pool for longer than
+ *  the validation interval is tested before it is handed out again.
+ *  Connections that caused errors should be passed to <code>discard()</code>
+ *  instead of <code>release()</code>.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class RDBConnectionPool
+{
+    /** Idle connection */
+    private static class Idle
+    {
+        final Connection connection;
+        final long released = System.nanoTime();
+
+        Idle(final Connection connection)
+        {
+            this.connection = connection;
+        }
+    }
+
+    /** Name of this pool (used for log messages) */
+    final private String name;
+
+    /** RDB Implementation (Oracle, MySQL, PostgreSQL) */
+    final private RDBImpl impl;
+
+    /** Database URL */
+    final private String url;
+
+    /** Database User */
+    final private String user;
+
+    /** Database Password */
+    final private String password;
+
+    /** Maximum number of connections */
+    final private int max_connections;
+
+    /** Idle time after which a connection is tested [ns] */
+    final private long validation_nanos;
+
+    /** Mark connections read-only? */
+    final private boolean read_only;
+
+    /** Idle connections, most recently used first. SYNC on this */
+    final private Deque<Idle> idle = new ArrayDeque<>();
+
+    /** Number of open connections, idle or in use. SYNC on this */
+    private int open = 0;
+
+    /** Has the pool been closed? SYNC on this */
+    private boolean closed = false;
+
+    // Statistics. SYNC on this
+    private long acquired = 0, waited = 0, created = 0, validated = 0, discarded = 0;
+    private long total_wait_nanos = 0, max_wait_nanos = 0;
+    private int max_in_use = 0;
+
+    /** Initialize
+     *
+     *  <p>URL format depends on the database dialect,
+     *  see {@link RDBUtil#connect(String, String, String, boolean)}.
+     *
+     *  @param name Name of this pool (used for log messages)
+     *  @param url Database URL
+     *  @param user User name or <code>null</code> if part of URL
+     *  @param password Password or <code>null</code> if part of URL
+     *  @param max_connections Maximum number of connections
+     *  @param validation_millis Idle time after which a connection is tested before it's used again
+     *  @param read_only Mark connections as read-only?
+     *  @throws Exception on error
+     */
+    public RDBConnectionPool(final String name,
+            final String url,
+            final String user,
+            final String password,
+            final int max_connections,
+            final long validation_millis,
+            final boolean read_only) throws Exception
+    {
+        if (max_connections < 1)
+            throw new IllegalArgumentException("Need at least one connection, got " + max_connections);
+        this.name = name;
+        impl = RDBUtil.getRDBImpl(url);
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.max_connections = max_connections;
+        validation_nanos = TimeUnit.MILLISECONDS.toNanos(validation_millis);
+        this.read_only = read_only;
+    }
+
+    /** @return Dialect info. */
+    public Dialect getDialect()
+    {
+        return impl.getDialect();
+    }
+
+    /** @return Maximum number of connections */
+    public int getMaxConnections()
+    {
+        return max_connections;
+    }
+
+    /** Obtain a connection from the pool
+     *
+     *  <p>Must be returned via <code>release()</code> or <code>discard()</code>.
+     *
+     *  @param timeout Maximum time to wait for a connection
+     *  @param units Units of the timeout
+     *  @return JDBC {@link Connection}
+     *  @throws Exception on error connecting to the RDB, or when no connection became available in time
+     */
+    public Connection acquire(final long timeout, final TimeUnit units) throws Exception
+    {
+        final long start = System.nanoTime();
+        final long end = start + units.toNanos(timeout);
+        while (true)
+        {
+            Idle candidate = null;
+            synchronized (this)
+            {
+                while (! closed  &&  idle.isEmpty()  &&  open >= max_connections)
+                {
+                    final long wait = end - System.nanoTime();
+                    if (wait <= 0)
+                        throw new Exception(toString() + ": No connection available within " + timeout + " " + units);
+                    TimeUnit.NANOSECONDS.timedWait(this, wait);
+                }
+                if (closed)
+                    throw new IllegalStateException(toString() + " is closed");
+                if (idle.isEmpty())
+                    ++open; // Reserve slot for new connection
+                else
+                    candidate = idle.pop();
+            }
+
+            // Connect or test outside of the lock
+            final Connection connection;
+            if (candidate == null)
+                connection = connect();
+            else if (System.nanoTime() - candidate.released > validation_nanos  &&
+                     ! isValid(candidate.connection))
+            {
+                discard(candidate.connection);
+                continue;
+            }
+            else
+                connection = candidate.connection;
+
+            final long wait_nanos = System.nanoTime() - start;
+            synchronized (this)
+            {
+                ++acquired;
+                if (wait_nanos > TimeUnit.MILLISECONDS.toNanos(1))
+                    ++waited;
+                total_wait_nanos += wait_nanos;
+                max_wait_nanos = Math.max(max_wait_nanos, wait_nanos);
+                max_in_use = Math.max(max_in_use, open - idle.size());
+            }
+            return connection;
+        }
+    }
+
+    /** @return New connection for a reserved slot
+     *  @throws Exception on error
+     */
+    private Connection connect() throws Exception
+    {
+        try
+        {
+            Activator.getLogger().log(Level.FINE, toString() + " connecting");
+            final Connection connection = impl.connect(url, user, password);
+            connection.setAutoCommit(true);
+            if (read_only)
+                connection.setReadOnly(true);
+            synchronized (this)
+            {
+                ++created;
+            }
+            return connection;
+        }
+        catch (Exception ex)
+        {
+            synchronized (this)
+            {
+                --open;
+                notifyAll();
+            }
+            throw ex;
+        }
+    }
+
+    /** @param connection Connection to test
+     *  @return <code>true</code> if connection is still usable
+     */
+    private boolean isValid(final Connection connection)
+    {
+        synchronized (this)
+        {
+            ++validated;
+        }
+        try
+        (
+            final Statement statement = connection.createStatement();
+        )
+        {
+            statement.execute(impl.getConnectionTestQuery());
+            return true;
+        }
+        catch (Exception ex)
+        {
+            return false;
+        }
+    }
+
+    /** Return a connection to the pool
+     *  @param connection Connection obtained from <code>acquire()</code>
+     */
+    public void release(final Connection connection)
+    {
+        synchronized (this)
+        {
+            if (! closed)
+            {
+                idle.push(new Idle(connection));
+                notifyAll();
+                return;
+            }
+            --open;
+        }
+        close(connection);
+    }
+
+    /** Close a connection instead of returning it to the pool,
+     *  for example after it caused an error
+     *  @param connection Connection obtained from <code>acquire()</code>
+     */
+    public void discard(final Connection connection)
+    {
+        synchronized (this)
+        {
+            --open;
+            ++discarded;
+            notifyAll();
+        }
+        close(connection);
+    }
+
+    /** Close all idle connections.
+     *  Connections that are still in use are closed when released.
+     */
+    public void close()
+    {
+        final Idle[] to_close;
+        synchronized (this)
+        {
+            closed = true;
+            to_close = idle.toArray(new Idle[idle.size()]);
+            idle.clear();
+            open -= to_close.length;
+            notifyAll();
+        }
+        for (Idle item : to_close)
+            close(item.connection);
+        Activator.getLogger().log(Level.FINE, "Closed " + this);
+    }
+
+    private void close(final Connection connection)
+    {
+        try
+        {
+            connection.close();
+        }
+        catch (Throwable ex)
+        {
+            // Ignore, closing anyway
+        }
+    }
+
+    /** @return Number of open connections, idle or in use */
+    public synchronized int getOpenCount()
+    {
+        return open;
+    }
+
+    /** @return Number of connections currently in use */
+    public synchronized int getInUseCount()
+    {
+        return open - idle.size();
+    }
+
+    /** @return Maximum number of connections that were in use at the same time */
+    public synchronized int getMaxInUseCount()
+    {
+        return max_in_use;
+    }
+
+    /** @return Number of times a connection was acquired */
+    public synchronized long getAcquireCount()
+    {
+        return acquired;
+    }
+
+    /** @return Number of times <code>acquire()</code> had to wait */
+    public synchronized long getWaitCount()
+    {
+        return waited;
+    }
+
+    /** @return Average time spent in <code>acquire()</code> [ms] */
+    public synchronized double getAverageWaitMillis()
+    {
+        return acquired > 0 ? total_wait_nanos / 1e6 / acquired : 0.0;
+    }
+
+    /** @return Maximum time spent in <code>acquire()</code> [ms] */
+    public synchronized double getMaxWaitMillis()
+    {
+        return max_wait_nanos / 1e6;
+    }
+
+    /** @return Number of connections created */
+    public synchronized long getCreateCount()
+    {
+        return created;
+    }
+
+    /** @return Number of connection tests */
+    public synchronized long getValidationCount()
+    {
+        return validated;
+    }
+
+    /** @return Number of connections discarded because of errors */
+    public synchronized long getDiscardCount()
+    {
+        return discarded;
+    }
+
+    /** @return Summary of pool statistics */
+    public synchronized String getStatistics()
+    {
+        return String.format("%d of %d connections open, %d in use (max. %d), " +
+                             "%d acquired, %d waited (avg. %.3f ms, max. %.3f ms), " +
+                             "%d created, %d validated, %d discarded",
+                             open, max_connections, open - idle.size(), max_in_use,
+                             acquired, waited, getAverageWaitMillis(), getMaxWaitMillis(),
+                             created, validated, discarded);
+    }
+
+    /** @return String representation for debugging */
+    @Override
+    public String toString()
+    {
+        return "RDB Pool '" + name + "' for " + impl.getDialect();
+    }
+}
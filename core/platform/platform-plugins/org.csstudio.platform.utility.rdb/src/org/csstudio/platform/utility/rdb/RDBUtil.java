@@ -10,6 +10,8 @@ package org.csstudio.platform.utility.rdb;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import org.csstudio.platform.utility.rdb.internal.MySQL_RDB;
@@ -27,6 +29,13 @@ import org.csstudio.platform.utility.rdb.internal.RDBImpl;
  *  every once in a while over a long run time, the connection test can be
  *  expensive for a short flurry of transactions.
  *  It can therefore be suppressed via <code>setAutoReconnect()</code>.
+ *  In addition, the {@link Validation} policy limits how often the
+ *  connection is tested. By default, it is tested on every call.
+ *  Callers that report every SQL error via <code>reportError()</code>
+ *  can select {@link Validation#INTERVAL} to only test the connection
+ *  when the last test is older than the validation interval, or after an error.
+ *  <p>
+ *  For concurrent access to the same database, see {@link RDBConnectionPool}.
  *  <p>
  *  Note that versions 1.6.0 and earlier of this plugin defaulted
  *  to turning auto-commit <u>off</u>.
@@ -69,6 +78,40 @@ public class RDBUtil
     /** Connection to the SQL server */
     private Connection connection;
 
+    /** Default for the validation interval */
+    public static final long DEFAULT_VALIDATION_MILLIS = 10000;
+
+    /** When to test the connection in auto-reconnect mode */
+    public enum Validation
+    {
+        /** Test connection on every call to <code>getConnection()</code> */
+        ALWAYS,
+        /** Test connection when the last test is older than the validation interval,
+         *  or after an error was reported
+         */
+        INTERVAL,
+        /** Only test connection after an error was reported */
+        ON_ERROR
+    }
+
+    /** Validation policy */
+    private volatile Validation validation = Validation.ALWAYS;
+
+    /** Validation interval in nanoseconds */
+    private volatile long validation_nanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_VALIDATION_MILLIS);
+
+    /** System.nanoTime() of last successful connection test or connect */
+    private volatile long last_validation = System.nanoTime();
+
+    /** Has an error been reported since last validation? */
+    private volatile boolean had_error = false;
+
+    /** Number of connection tests */
+    private final AtomicLong validations = new AtomicLong();
+
+    /** Number of re-connects */
+    private final AtomicLong reconnects = new AtomicLong();
+
     /** Database dialect.
      *  For starters, the connection mechanisms vary, and since
      *  SQL isn't fully normed, there might be more differences
@@ -200,6 +243,61 @@ public class RDBUtil
         autoReconnect = auto_reconnect;
     }
 
+    /** Configure when the connection is tested in auto-reconnect mode
+     *
+     *  <p>Policies other than {@link Validation#ALWAYS} rely on the caller
+     *  to <code>reportError()</code> for every error with the connection.
+     *
+     *  @param validation Validation policy
+     *  @param interval_millis Validation interval for {@link Validation#INTERVAL}
+     */
+    public void setValidation(final Validation validation, final long interval_millis)
+    {
+        this.validation = validation;
+        this.validation_nanos = TimeUnit.MILLISECONDS.toNanos(interval_millis);
+    }
+
+    /** Report an error with the connection, for example an {@link SQLException}.
+     *
+     *  <p>In auto-reconnect mode, the next call to <code>getConnection()</code>
+     *  will test the connection and re-connect if necessary.
+     *
+     *  @param error Error that was encountered
+     */
+    public void reportError(final Exception error)
+    {
+        had_error = true;
+        Activator.getLogger().log(Level.FINE, "RDB error reported for " + url, error);
+    }
+
+    /** @return Number of connection tests performed */
+    public long getValidationCount()
+    {
+        return validations.get();
+    }
+
+    /** @return Number of re-connects after a connection test failed */
+    public long getReconnectCount()
+    {
+        return reconnects.get();
+    }
+
+    /** @return <code>true</code> if the connection should be tested before it's used */
+    private boolean needsValidation()
+    {
+        if (had_error)
+            return true;
+        switch (validation)
+        {
+        case ALWAYS:
+            return true;
+        case INTERVAL:
+            return System.nanoTime() - last_validation > validation_nanos;
+        default:
+            return false;
+        }
+    }
+
     /** Get the JDBC connection.
      *  This method will try to return a connection that's
      *  valid after network errors or RDB timeouts by checking
@@ -220,14 +318,26 @@ public class RDBUtil
     {
         if (autoReconnect)
         {
-            if ((connection != null) && isConnected())
-                return connection; // All OK
+            if (connection != null  &&  !connection.isClosed())
+            {
+                if (! needsValidation())
+                    return connection; // Assume OK
+                if (isConnected())
+                {
+                    had_error = false;
+                    last_validation = System.nanoTime();
+                    return connection; // All OK
+                }
+            }
             Activator.getLogger().log(Level.FINE, "Connection Lost! Reconnect to {0}", url);
             if (connection != null)
                 close();
+            reconnects.incrementAndGet();
             connection = impl.connect(url, user, password);
             connection.setAutoCommit(false);
             test_query = connection.prepareStatement(impl.getConnectionTestQuery());
+            had_error = false;
+            last_validation = System.nanoTime();
         }
         return connection;
     }
@@ -238,7 +348,7 @@ public class RDBUtil
         Activator.getLogger().log(Level.FINE, "RDBUtil closes {0}", url);
         try
         {
-            if (autoReconnect)
+            if (test_query != null)
                 test_query.close();
             connection.close();
         }
@@ -261,6 +371,7 @@ public class RDBUtil
      */
     private boolean isConnected()
     {
+        validations.incrementAndGet();
         try
         {
             test_query.execute();
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 ITER Organization.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.autocomplete.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class PVNameIndexTest {
+
+    private final PVNameIndex index = new PVNameIndex(Arrays.asList(
+            "CWS-PTU:PV1", "CWS-PTU:PV2", "CWS-PTV:PV2", "CWT-PTW:PV3",
+            "BL1:TEMP", "BL2:TEMP", "BL2:PRESS", "CWS-PTU:PV1"));
+
+    @Test
+    public void testPrefix() {
+        Assert.assertEquals(7, index.size());
+        Assert.assertEquals(Arrays.asList("CWS-PTU:PV1", "CWS-PTU:PV2", "CWS-PTV:PV2"),
+                index.findPrefix("CWS", 10));
+        Assert.assertEquals(Arrays.asList("CWS-PTU:PV1"), index.findPrefix("CWS", 1));
+        Assert.assertEquals(Arrays.asList("BL2:PRESS", "BL2:TEMP"), index.findPrefix("BL2", 10));
+        Assert.assertTrue(index.findPrefix("XYZ", 10).isEmpty());
+    }
+
+    @Test
+    public void testSubstring() {
+        Assert.assertEquals(Arrays.asList("BL1:TEMP", "BL2:TEMP"), index.findSubstring("TEMP", 10));
+        Assert.assertEquals(Arrays.asList("CWS-PTU:PV2", "CWS-PTV:PV2"), index.findSubstring("PV2", 10));
+        // Shorter than trigrams
+        Assert.assertEquals(Arrays.asList("CWT-PTW:PV3"), index.findSubstring("3", 10));
+        Assert.assertTrue(index.findSubstring("PV4", 10).isEmpty());
+
+        // Prefix matches are listed first
+        final PVNameIndex temps = new PVNameIndex(Arrays.asList("ABL2:TEMP", "BL1:TEMP", "BL2:TEMP", "XBL2:TEMP"));
+        Assert.assertEquals(Arrays.asList("BL2:TEMP", "ABL2:TEMP", "XBL2:TEMP"), temps.find("BL2", 10));
+        Assert.assertEquals(Arrays.asList("BL2:TEMP", "ABL2:TEMP"), temps.find("BL2", 2));
+    }
+
+    @Test
+    public void testGlob() {
+        Assert.assertEquals(Arrays.asList("CWS-PTU:PV1", "CWS-PTU:PV2"), index.findGlob("CWS-PTU:*", 10));
+        Assert.assertEquals(Arrays.asList("CWS-PTU:PV2", "CWS-PTV:PV2"), index.findGlob("*PT?:PV2", 10));
+        Assert.assertEquals(Arrays.asList("BL1:TEMP", "BL2:TEMP"), index.findGlob("*:TEMP", 10));
+        Assert.assertEquals(7, index.findGlob("*", 10).size());
+        Assert.assertTrue(index.findGlob("*TEMP:*", 10).isEmpty());
+    }
+
+    @Test
+    public void testSaveLoad() throws Exception {
+        final File file = File.createTempFile("pv_names", ".gz");
+        file.deleteOnExit();
+        index.save(file);
+        final PVNameIndex loaded = PVNameIndex.load(file);
+        Assert.assertEquals(index.getNames(), loaded.getNames());
+        Assert.assertEquals(index.findSubstring("PV", 10), loaded.findSubstring("PV", 10));
+        file.delete();
+    }
+
+    @Test
+    public void testPerformance() {
+        final List<String> names = new ArrayList<String>();
+        for (int sys = 0; sys < 100; ++sys)
+            for (int dev = 0; dev < 100; ++dev)
+                for (int sig = 0; sig < 20; ++sig)
+                    names.add(String.format("SYS%02d-DEV%03d:Signal%02d", sys, dev, sig));
+        long start = System.nanoTime();
+        final PVNameIndex big = new PVNameIndex(names);
+        System.out.format("Indexed %d names in %.1f ms\n", big.size(), (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        final int runs = 1000;
+        for (int i = 0; i < runs; ++i) {
+            Assert.assertEquals(10, big.findSubstring("DEV042:Signal1", 10).size());
+            Assert.assertEquals(10, big.findPrefix("SYS42-", 10).size());
+            Assert.assertEquals(10, big.findGlob("*DEV0?9:Signal07", 10).size());
+        }
+        System.out.format("Lookup: %.3f ms\n", (System.nanoTime() - start) / 1e6 / runs / 3);
+    }
+}
@@ -15,6 +15,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import org.csstudio.autocomplete.impl.DataSourceProvider;
@@ -33,6 +38,10 @@ import org.osgi.framework.ServiceReference;
  * Service which handles content parsing (see {@link IContentParser}) and
  * requesting proposals from defined providers (see
  * {@link IAutoCompleteProvider}.
+ * <p>
+ * Providers are queried on a bounded pool of threads. When a new request
+ * arrives, provider tasks of older requests for the same type of content
+ * that are still queued are dropped, so fast typing does not pile up queries.
  *
  * @author Fred Arnaud (Sopra Group) - ITER
  */
@@ -50,7 +59,8 @@ public class AutoCompleteService {
         private final ContentDescriptor desc;
         private final ProviderSettings settings;
         private final IAutoCompleteResultListener listener;
-        private boolean canceled = false;
+        private volatile boolean canceled = false;
+        private Future<?> future;
 
         public ProviderTask(final Long uniqueId, final Integer index,
                 final ContentDescriptor desc, final ProviderSettings settings,
@@ -64,6 +74,12 @@ public class AutoCompleteService {
 
         @Override
         public void run() {
+            if (canceled) {
+                synchronized (workQueue) {
+                    workQueue.remove(this);
+                }
+                return;
+            }
             AutoCompleteResult result = settings.getProvider().listResult(desc, settings.getMaxResults());
             if (result != null
                     && !settings.getName().equals(DataSourceProvider.NAME))
@@ -81,6 +97,13 @@ public class AutoCompleteService {
             canceled = true;
         }
 
+        /** Drop the task if it has not started, ignore its result otherwise */
+        public void cancelStale() {
+            canceled = true;
+            if (future != null && future.cancel(false))
+                workQueue.remove(this);
+        }
+
         @Override
         public int hashCode() {
             final int prime = 31;
@@ -149,6 +172,7 @@ public class AutoCompleteService {
     private ProviderSettings defaultProvider;
     private List<ProviderTask> workQueue;
     private List<IContentParser> parsers;
+    private ExecutorService executor;
 
     private AutoCompleteService() {
         try {
@@ -164,6 +188,16 @@ public class AutoCompleteService {
         }
         providersByType = new TreeMap<String, List<ProviderSettings>>();
         workQueue = new ArrayList<ProviderTask>();
+        final int threads = Math.max(1, Preferences.getProviderThreads());
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "AutoComplete Provider");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
     }
 
     public static AutoCompleteService getInstance() {
@@ -208,6 +242,13 @@ public class AutoCompleteService {
         if (DEBUG) {
             System.out.println("--- Associated Content ---");
         }
+        // Drop tasks of previous requests that are still waiting
+        synchronized (workQueue) {
+            for (ProviderTask task : new ArrayList<ProviderTask>(workQueue))
+                if (!task.uniqueId.equals(uniqueId)
+                        && task.desc.getAutoCompleteType() == acType)
+                    task.cancelStale();
+        }
         // Execute them in parallel
         for (ScheduledContent sc : providerList) {
             if (DEBUG) {
@@ -217,8 +258,8 @@ public class AutoCompleteService {
                     sc.desc, sc.settings, listener);
             synchronized (workQueue) {
                 workQueue.add(task);
+                task.future = executor.submit(task);
             }
-            new Thread(task).start();
             index++;
         }
         return index;
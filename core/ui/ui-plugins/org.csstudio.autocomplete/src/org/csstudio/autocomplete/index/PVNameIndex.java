@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2026 ITER Organization.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.autocomplete.index;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.csstudio.autocomplete.AutoCompleteHelper;
+
+/**
+ * Immutable in-memory index of PV names.
+ * <p>
+ * Names are kept sorted, so a prefix lookup is a binary search followed by a
+ * scan of the matching range, which is what a trie would provide at a fraction
+ * of the memory. Substring and glob lookups use an index of all 3-character
+ * sequences ('trigrams'): only names that contain the rarest trigram of the
+ * searched text are checked.
+ * <p>
+ * All results are returned in name order.
+ *
+ * @author agent
+ */
+public class PVNameIndex {
+
+    /** Length of the n-grams in the index */
+    private static final int N = 3;
+
+    private static final int[] NONE = new int[0];
+
+    /** Empty index */
+    public static final PVNameIndex EMPTY = new PVNameIndex(new TreeSet<String>());
+
+    /** Sorted, unique names */
+    private final String[] names;
+
+    /** Indices into names by trigram, ascending */
+    private final Map<String, int[]> ngrams;
+
+    /**
+     * Create index
+     *
+     * @param names PV names. May contain duplicates.
+     */
+    public PVNameIndex(final Collection<String> names) {
+        final TreeSet<String> sorted = new TreeSet<String>(names);
+        this.names = sorted.toArray(new String[sorted.size()]);
+        ngrams = createNGrams(this.names);
+    }
+
+    private static Map<String, int[]> createNGrams(final String[] names) {
+        // Count first, then fill arrays of the exact size
+        final Map<String, int[]> counts = new HashMap<String, int[]>();
+        for (String name : names)
+            for (String ngram : ngramsOf(name))
+                counts.computeIfAbsent(ngram, k -> new int[1])[0]++;
+        final Map<String, int[]> index = new HashMap<String, int[]>(counts.size() * 4 / 3 + 1);
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            index.put(entry.getKey(), new int[entry.getValue()[0]]);
+            entry.getValue()[0] = 0;
+        }
+        for (int i = 0; i < names.length; ++i)
+            for (String ngram : ngramsOf(names[i]))
+                index.get(ngram)[counts.get(ngram)[0]++] = i;
+        return index;
+    }
+
+    /** @return Unique trigrams of text */
+    private static Collection<String> ngramsOf(final String text) {
+        final Set<String> result = new HashSet<String>();
+        for (int i = 0; i + N <= text.length(); ++i)
+            result.add(text.substring(i, i + N));
+        return result;
+    }
+
+    /** @return Number of names in the index */
+    public int size() {
+        return names.length;
+    }
+
+    /** @return All names, sorted */
+    public List<String> getNames() {
+        return Arrays.asList(names);
+    }
+
+    /**
+     * @param prefix Start of name
+     * @param limit Maximum number of results
+     * @return Names that start with the prefix
+     */
+    public List<String> findPrefix(final String prefix, final int limit) {
+        final List<String> result = new ArrayList<String>();
+        int i = Arrays.binarySearch(names, prefix);
+        if (i < 0)
+            i = -i - 1;
+        for (/**/; i < names.length && result.size() < limit && names[i].startsWith(prefix); ++i)
+            result.add(names[i]);
+        return result;
+    }
+
+    /**
+     * @param text Text to locate anywhere in the name
+     * @param limit Maximum number of results
+     * @return Names that contain the text
+     */
+    public List<String> findSubstring(final String text, final int limit) {
+        final List<String> result = new ArrayList<String>();
+        for (int i : candidates(text)) {
+            if (result.size() >= limit)
+                break;
+            if (names[i].contains(text))
+                result.add(names[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Find names for auto-completion: Names that start with the text, followed
+     * by names that contain the text elsewhere.
+     *
+     * @param text Text to locate in the name
+     * @param limit Maximum number of results
+     * @return Matching names
+     */
+    public List<String> find(final String text, final int limit) {
+        final List<String> result = findPrefix(text, limit);
+        if (result.size() < limit)
+            for (String name : findSubstring(text, limit + result.size()))
+                if (!name.startsWith(text)) {
+                    result.add(name);
+                    if (result.size() >= limit)
+                        break;
+                }
+        return result;
+    }
+
+    /**
+     * @param glob Pattern with '*' for any number of characters and '?' for one
+     *            character that must match the complete name
+     * @param limit Maximum number of results
+     * @return Matching names
+     */
+    public List<String> findGlob(final String glob, final int limit) {
+        final List<String> result = new ArrayList<String>();
+        final Pattern pattern = AutoCompleteHelper.convertToPattern(glob);
+        if (pattern == null)
+            return result;
+
+        final String[] literals = glob.split("[\\*\\?]+", -1); //$NON-NLS-1$
+        if (!literals[0].isEmpty()) {
+            // Pattern starts with literal text: Check names with that prefix
+            int i = Arrays.binarySearch(names, literals[0]);
+            if (i < 0)
+                i = -i - 1;
+            for (/**/; i < names.length && result.size() < limit && names[i].startsWith(literals[0]); ++i)
+                if (pattern.matcher(names[i]).matches())
+                    result.add(names[i]);
+            return result;
+        }
+
+        // Check names that contain the longest literal section
+        String longest = ""; //$NON-NLS-1$
+        for (String literal : literals)
+            if (literal.length() > longest.length())
+                longest = literal;
+        for (int i : candidates(longest)) {
+            if (result.size() >= limit)
+                break;
+            if (pattern.matcher(names[i]).matches())
+                result.add(names[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @param text Text that names must contain
+     * @return Indices of names that might contain the text, ascending
+     */
+    private int[] candidates(final String text) {
+        if (text.length() < N) {
+            // Too short for the index, check all names
+            final int[] all = new int[names.length];
+            for (int i = 0; i < all.length; ++i)
+                all[i] = i;
+            return all;
+        }
+        int[] best = null;
+        for (String ngram : ngramsOf(text)) {
+            final int[] postings = ngrams.get(ngram);
+            if (postings == null)
+                return NONE;
+            if (best == null || postings.length < best.length)
+                best = postings;
+        }
+        return best;
+    }
+
+    /**
+     * Write names to file
+     *
+     * @param file File, will be GZIP'ed text with one name per line
+     * @throws IOException on error
+     */
+    public void save(final File file) throws IOException {
+        final File tmp = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(tmp)), StandardCharsets.UTF_8))) {
+            for (String name : names) {
+                out.write(name);
+                out.newLine();
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Read names from file
+     *
+     * @param file File written by {@link #save(File)}
+     * @return Index
+     * @throws IOException on error
+     */
+    public static PVNameIndex load(final File file) throws IOException {
+        final List<String> names = new ArrayList<String>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null)
+                if (!line.isEmpty())
+                    names.add(line);
+        }
+        return new PVNameIndex(names);
+    }
+
+    @Override
+    public String toString() {
+        return "PVNameIndex [" + names.length + " names, " + ngrams.size() + " trigrams]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 ITER Organization.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.autocomplete.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.csstudio.autocomplete.AutoCompletePlugin;
+import org.csstudio.autocomplete.preferences.Preferences;
+import org.eclipse.core.runtime.Platform;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Service which keeps a {@link PVNameIndex} of all names from the
+ * {@link PVNameSource}s, so providers can look up names without querying a
+ * remote service on each keystroke.
+ * <p>
+ * The index is saved to the plugin state location. On startup, the saved
+ * index is available right away, then all sources are loaded again in the
+ * background and periodically refreshed (see preferences.ini).
+ *
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class PVNameIndexService {
+
+    private static final String FILE_NAME = "pv_names.gz";
+
+    private static PVNameIndexService instance;
+
+    private final List<PVNameSource> sources;
+    private final File file;
+    private final ScheduledExecutorService timer;
+    private volatile PVNameIndex index = PVNameIndex.EMPTY;
+    private volatile long lastUpdate = 0;
+
+    private PVNameIndexService() {
+        sources = getOSGISources();
+        file = getIndexFile();
+        if (sources.isEmpty()) {
+            timer = null;
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "PV Name Index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.execute(this::loadFile);
+        final long refresh = Preferences.getNameIndexRefresh();
+        if (refresh > 0)
+            timer.scheduleWithFixedDelay(this::refresh, 0, refresh, TimeUnit.MINUTES);
+        else
+            timer.execute(this::refresh);
+    }
+
+    public static synchronized PVNameIndexService getInstance() {
+        if (null == instance) {
+            instance = new PVNameIndexService();
+        }
+        return instance;
+    }
+
+    /** @return Current index. Empty until the names have been loaded. */
+    public PVNameIndex getIndex() {
+        return index;
+    }
+
+    /** @return <code>true</code> if there are any {@link PVNameSource}s */
+    public boolean hasSources() {
+        return !sources.isEmpty();
+    }
+
+    /** @return Time of last index update (ms since epoch), 0 if never */
+    public long getLastUpdate() {
+        return lastUpdate;
+    }
+
+    /* Get sources from OSGI services */
+    private static List<PVNameSource> getOSGISources() {
+        final List<PVNameSource> list = new ArrayList<PVNameSource>();
+        try {
+            final BundleContext context = AutoCompletePlugin.getBundleContext();
+            final Collection<ServiceReference<PVNameSource>> references = context
+                    .getServiceReferences(PVNameSource.class, null);
+            for (ServiceReference<PVNameSource> ref : references)
+                list.add(context.getService(ref));
+        } catch (Exception ex) {
+            AutoCompletePlugin.getLogger().log(Level.WARNING, "Cannot locate PV name sources", ex);
+        }
+        return list;
+    }
+
+    private static File getIndexFile() {
+        try {
+            return Platform.getStateLocation(AutoCompletePlugin.getBundleContext().getBundle())
+                    .append(FILE_NAME).toFile();
+        } catch (Exception ex) {
+            AutoCompletePlugin.getLogger().log(Level.CONFIG, "No state location for PV name index", ex);
+            return null;
+        }
+    }
+
+    /* Load index saved by previous run */
+    private void loadFile() {
+        if (file == null || !file.canRead())
+            return;
+        try {
+            final long start = System.currentTimeMillis();
+            final PVNameIndex loaded = PVNameIndex.load(file);
+            // Don't replace names that might already have been refreshed
+            if (index.size() == 0) {
+                index = loaded;
+                lastUpdate = file.lastModified();
+            }
+            AutoCompletePlugin.getLogger().log(Level.FINE, "Loaded {0} from {1} in {2} ms",
+                    new Object[] { loaded, file, System.currentTimeMillis() - start });
+        } catch (Exception ex) {
+            AutoCompletePlugin.getLogger().log(Level.WARNING, "Cannot load PV name index " + file, ex);
+        }
+    }
+
+    /** Load names from all sources, update and save the index */
+    public void refresh() {
+        final long start = System.currentTimeMillis();
+        final List<String> names = new ArrayList<String>();
+        for (PVNameSource source : sources) {
+            try {
+                names.addAll(source.getNames());
+            } catch (Exception ex) {
+                // Keep the previous index instead of one that lacks a source
+                AutoCompletePlugin.getLogger().log(Level.WARNING, "Cannot load PV names from " + source, ex);
+                return;
+            }
+        }
+        index = new PVNameIndex(names);
+        lastUpdate = System.currentTimeMillis();
+        AutoCompletePlugin.getLogger().log(Level.FINE, "Refreshed {0} in {1} ms",
+                new Object[] { index, lastUpdate - start });
+        if (file != null) {
+            try {
+                index.save(file);
+            } catch (Exception ex) {
+                AutoCompletePlugin.getLogger().log(Level.WARNING, "Cannot save PV name index " + file, ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2026 ITER Organization.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.autocomplete.index;
+
+import java.util.Collection;
+
+/**
+ * Source of PV names for the {@link PVNameIndexService}, for example a
+ * directory service or an archive. Each source is provided via OSGI services.
+ * <p>
+ * The names are loaded in bulk by a background thread of the
+ * {@link PVNameIndexService}, so loading may take a while.
+ *
+ * @author agent
+ */
+public interface PVNameSource {
+
+    /**
+     * @return All PV names known to this source
+     * @throws Exception on error
+     */
+    public Collection<String> getNames() throws Exception;
+
+}
@@ -25,6 +25,8 @@ public class Preferences {
     final public static String PROVIDERS = "providers";
     final public static String SEPARATORS = "separators";
     final public static String MAX_TOP_RESULTS = "max_top_results";
+    final public static String NAME_INDEX_REFRESH = "name_index_refresh";
+    final public static String PROVIDER_THREADS = "provider_threads";
 
     /**
      * @param setting Preference identifier
@@ -79,4 +81,22 @@ public class Preferences {
                 null);
     }
 
+    /** @return PV name index refresh period in minutes, 0 to only load once */
+    public static long getNameIndexRefresh() {
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service == null)
+            return 60; // default
+        return service.getLong(AutoCompletePlugin.PLUGIN_ID,
+                NAME_INDEX_REFRESH, 60, null);
+    }
+
+    /** @return number of threads that run the providers */
+    public static int getProviderThreads() {
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service == null)
+            return 4; // default
+        return service.getInt(AutoCompletePlugin.PLUGIN_ID,
+                PROVIDER_THREADS, 4, null);
+    }
+
 }
@@ -10,6 +10,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -63,6 +64,8 @@ public class ImageStackWidget extends Composite {
     private Table table;
     private TableViewer tableViewer;
     private Map<String, byte[]> imageInputStreamsMap = new HashMap<String, byte[]>();
+    /** Scaled down images, listed instead of the full images if available */
+    private Map<String, byte[]> thumbnailsMap = new HashMap<String, byte[]>();
     private Button buttonRemove;
     private TableViewerColumn tableViewerColumn;
     private TableColumn tblclmnImage;
@@ -122,8 +125,7 @@ public class ImageStackWidget extends Composite {
         @Override
         protected void paint(Event event, Object element) {
             String imageName = element == null ? "" : element.toString();
-            ImageData imageData = new ImageData(new ByteArrayInputStream(
-                imageInputStreamsMap.get(imageName)));
+            ImageData imageData = getListedImageData(imageName);
             int width = scrollBarVisble ? 90 : 100;
             double scale = determineImageScale(imageData, width, width);
             Image img = new Image(getDisplay(), imageData.scaledTo(
@@ -150,8 +152,7 @@ public class ImageStackWidget extends Composite {
         @Override
         protected void measure(Event event, Object element) {
             String imageName = element == null ? "" : element.toString();
-            ImageData imageData = new ImageData(new ByteArrayInputStream(
-                    imageInputStreamsMap.get(imageName)));
+            ImageData imageData = getListedImageData(imageName);
             double scale = determineImageScale(imageData, 85, 85);
             event.height = (int) (scale * imageData.height) + 10;
         }
@@ -334,12 +335,35 @@ public class ImageStackWidget extends Composite {
      */
     public void setImageInputStreamsMap(
         Map<String, InputStream> imageInputStreamsMap) throws IOException {
+    setImageInputStreamsMap(imageInputStreamsMap,
+        Collections.<String, InputStream> emptyMap());
+    }
+
+    /**
+     * Set multiple Images to the widget, this will remove all existing images.
+     * The list of images shows the thumbnails, the preview the full images.
+     *
+     * @param imageInputStreamsMap
+     *            - a map of image names and image input streams
+     * @param thumbnailInputStreamsMap
+     *            - a map of image names and input streams to scaled down
+     *            images, images without a thumbnail are scaled for the list
+     * @throws IOException
+     */
+    public void setImageInputStreamsMap(
+        Map<String, InputStream> imageInputStreamsMap,
+        Map<String, InputStream> thumbnailInputStreamsMap) throws IOException {
     Map<String, byte[]> oldValue = this.imageInputStreamsMap;
     this.imageInputStreamsMap = new HashMap<String, byte[]>();
     for (Entry<String, InputStream> test : imageInputStreamsMap.entrySet()) {
         this.imageInputStreamsMap.put(test.getKey(),
             read2byteArray(test.getValue()));
     }
+    this.thumbnailsMap = new HashMap<String, byte[]>();
+    for (Entry<String, InputStream> test : thumbnailInputStreamsMap
+        .entrySet()) {
+        this.thumbnailsMap.put(test.getKey(), read2byteArray(test.getValue()));
+    }
     changeSupport.firePropertyChange("imageInputStreamsMap", oldValue,
         this.imageInputStreamsMap);
     }
@@ -358,6 +382,7 @@ public class ImageStackWidget extends Composite {
     Map<String, byte[]> oldValue = new HashMap<String, byte[]>(
         this.imageInputStreamsMap);
     this.imageInputStreamsMap.put(name, read2byteArray(imageInputStream));
+    this.thumbnailsMap.remove(name);
     changeSupport.firePropertyChange("imageInputStreamsMap", oldValue,
         this.imageInputStreamsMap);
     }
@@ -374,6 +399,7 @@ public class ImageStackWidget extends Composite {
         Map<String, byte[]> oldValue = new HashMap<String, byte[]>(
             this.imageInputStreamsMap);
         this.imageInputStreamsMap.remove(name);
+        this.thumbnailsMap.remove(name);
         changeSupport.firePropertyChange("imageInputStreamsMap", oldValue,
             this.imageInputStreamsMap);
     }
@@ -432,6 +458,15 @@ public class ImageStackWidget extends Composite {
         this.selectedImageName);
     }
 
+    /**
+     * @return the thumbnail of the image if there is one, otherwise the image
+     */
+    private ImageData getListedImageData(String name) {
+    byte[] thumbnail = thumbnailsMap.get(name);
+    return new ImageData(new ByteArrayInputStream(
+        thumbnail != null ? thumbnail : imageInputStreamsMap.get(name)));
+    }
+
     private static byte[] read2byteArray(InputStream input) throws IOException {
     byte[] buffer = new byte[8192];
     int bytesRead;
@@ -300,6 +300,21 @@ public interface OlogClient {
 	 */
 	public Attachment add(File local, Long logId) throws OlogException;
 
+	/**
+	 * Add all the files as attachments to the Log with id <tt>logId</tt>.
+	 * The uploads are made in a single task on the client executor, which
+	 * avoids a round trip through the executor for each file.
+	 * 
+	 * @param local
+	 *            the files to attach
+	 * @param logId
+	 *            log id the files are attached to
+	 * @return the attachments in the order of the files
+	 * @throws OlogException
+	 */
+	public Collection<Attachment> add(Collection<File> local, Long logId)
+			throws OlogException;
+
 	/**
 	 * 
 	 * @param logId
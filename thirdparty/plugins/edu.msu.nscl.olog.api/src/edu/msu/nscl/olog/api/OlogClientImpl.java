@@ -833,6 +833,33 @@ public class OlogClientImpl implements OlogClient {
 		return new Attachment(xmlAttachment);
 	}
 
+	@Override
+	public Collection<Attachment> add(final Collection<File> local,
+			final Long logId) throws OlogException {
+		return wrappedSubmit(new Callable<Collection<Attachment>>() {
+
+			@Override
+			public Collection<Attachment> call() throws Exception {
+				Collection<Attachment> attachments = new ArrayList<Attachment>(
+						local.size());
+				WebResource resource = service.path("attachments").path(
+						logId.toString());
+				// the service accepts one file per request, but all of them
+				// reuse the same resource and connection
+				for (File file : local) {
+					FormDataMultiPart form = new FormDataMultiPart();
+					form.bodyPart(new FileDataBodyPart("file", file));
+					attachments.add(new Attachment(resource
+							.type(MediaType.MULTIPART_FORM_DATA)
+							.accept(MediaType.APPLICATION_XML)
+							.post(XmlAttachment.class, form)));
+				}
+				return attachments;
+			}
+
+		});
+	}
+
 	@Override
 	public Log findLogById(final Long logId) {
 		return wrappedSubmit(new Callable<Log>() {